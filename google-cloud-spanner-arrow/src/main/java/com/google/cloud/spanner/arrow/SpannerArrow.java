@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import com.google.cloud.spanner.BatchReadOnlyTransaction;
+import com.google.cloud.spanner.DecodeMode;
+import com.google.cloud.spanner.Options;
+import com.google.cloud.spanner.Options.QueryOption;
+import com.google.cloud.spanner.Partition;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Statement;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+
+/**
+ * Utility methods for reading Cloud Spanner query results as Apache Arrow record batches.
+ *
+ * <p>Example usage:
+ *
+ * <pre>{@code
+ * try (BufferAllocator allocator = new RootAllocator();
+ *     ArrowReader reader =
+ *         SpannerArrow.executeQuery(
+ *             client.singleUse(),
+ *             Statement.of("SELECT * FROM Singers"),
+ *             allocator,
+ *             SpannerArrow.DEFAULT_BATCH_SIZE)) {
+ *   while (reader.loadNextBatch()) {
+ *     VectorSchemaRoot root = reader.getVectorSchemaRoot();
+ *     // Process the batch.
+ *   }
+ * }
+ * }</pre>
+ */
+public final class SpannerArrow {
+  /** The default number of rows in each record batch. */
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  private SpannerArrow() {}
+
+  /**
+   * Executes the given query and returns an {@link ArrowReader} for the results. The query is
+   * executed with {@link DecodeMode#LAZY_PER_COL}, so that the values can be copied directly from
+   * the protobuf values that are returned by Cloud Spanner into the Arrow vectors.
+   */
+  public static ArrowReader executeQuery(
+      ReadContext readContext,
+      Statement statement,
+      BufferAllocator allocator,
+      int batchSize,
+      QueryOption... options) {
+    QueryOption[] allOptions = Arrays.copyOf(options, options.length + 1);
+    allOptions[options.length] = Options.decodeMode(DecodeMode.LAZY_PER_COL);
+    return fromResultSet(readContext.executeQuery(statement, allOptions), allocator, batchSize);
+  }
+
+  /**
+   * Executes the given partition and returns an {@link ArrowReader} for the results. The partition
+   * must have been created by {@link BatchReadOnlyTransaction#partitionQuery} with the option
+   * {@link Options#decodeMode(DecodeMode)} set to {@link DecodeMode#LAZY_PER_COL}.
+   */
+  public static ArrowReader execute(
+      BatchReadOnlyTransaction transaction,
+      Partition partition,
+      BufferAllocator allocator,
+      int batchSize) {
+    return fromResultSet(transaction.execute(partition), allocator, batchSize);
+  }
+
+  /**
+   * Returns an {@link ArrowReader} for the given {@link ResultSet}. The {@link ResultSet} must have
+   * been returned by a query that used {@link DecodeMode#LAZY_PER_COL} or {@link
+   * DecodeMode#LAZY_PER_ROW}. The {@link ResultSet} is closed when the reader is closed.
+   */
+  public static ArrowReader fromResultSet(
+      ResultSet resultSet, BufferAllocator allocator, int batchSize) {
+    return new SpannerArrowReader(resultSet, allocator, batchSize);
+  }
+
+  /**
+   * Writes all record batches of the given reader to the given channel in the Arrow IPC streaming
+   * format, and returns the number of rows that were written. The channel is closed when all
+   * batches have been written.
+   */
+  public static long writeStream(ArrowReader reader, WritableByteChannel channel)
+      throws IOException {
+    long rows = 0L;
+    try (ArrowStreamWriter writer =
+        new ArrowStreamWriter(reader.getVectorSchemaRoot(), reader, channel)) {
+      writer.start();
+      while (reader.loadNextBatch()) {
+        rows += reader.getVectorSchemaRoot().getRowCount();
+        writer.writeBatch();
+      }
+      writer.end();
+    }
+    return rows;
+  }
+}
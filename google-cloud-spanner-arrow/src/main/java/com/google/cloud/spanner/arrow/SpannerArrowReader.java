@@ -0,0 +1,333 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.ProtobufResultSet;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Value;
+import com.google.protobuf.Value.KindCase;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.ValueVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.FloatingPointPrecision;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+/**
+ * {@link ArrowReader} that converts the rows of a Cloud Spanner {@link ResultSet} into Arrow record
+ * batches. The values are copied directly from the protobuf values that were returned by Cloud
+ * Spanner into the Arrow vectors. This means that no intermediate Java objects are created for each
+ * value, and that STRING and JSON values are copied as UTF-8 bytes without being decoded to a
+ * {@link String}.
+ *
+ * <p>The {@link ResultSet} must be a {@link ProtobufResultSet} that uses {@link
+ * com.google.cloud.spanner.DecodeMode#LAZY_PER_COL} or {@link
+ * com.google.cloud.spanner.DecodeMode#LAZY_PER_ROW}. Use the methods in {@link SpannerArrow} to
+ * create a reader for a query or a partition.
+ *
+ * <p>Cloud Spanner types are mapped to the following Arrow types:
+ *
+ * <ul>
+ *   <li>BOOL: Bool
+ *   <li>INT64, ENUM and PG_OID: Int(64, signed)
+ *   <li>FLOAT32: FloatingPoint(SINGLE)
+ *   <li>FLOAT64: FloatingPoint(DOUBLE)
+ *   <li>NUMERIC: Decimal(38, 9)
+ *   <li>STRING, JSON, PG_JSONB and PG_NUMERIC: Utf8
+ *   <li>BYTES and PROTO: Binary
+ *   <li>DATE: Date(DAY)
+ *   <li>TIMESTAMP: Timestamp(MICROSECOND, UTC). Arrow timestamps with nanosecond precision only
+ *       cover the years 1677 to 2262, while Cloud Spanner supports the years 0001 to 9999. Any
+ *       nanoseconds are truncated.
+ *   <li>ARRAY: List
+ *   <li>STRUCT: Struct
+ * </ul>
+ */
+public class SpannerArrowReader extends ArrowReader {
+  private static final int NUMERIC_PRECISION = 38;
+  private static final int NUMERIC_SCALE = 9;
+  private static final long MICROS_PER_SECOND = 1_000_000L;
+  private static final long NANOS_PER_MICRO = 1_000L;
+
+  private final ProtobufResultSet resultSet;
+  private final int batchSize;
+  private Type type;
+  private boolean hasPendingRow;
+  private boolean done;
+  private long bytesRead;
+
+  SpannerArrowReader(ResultSet resultSet, BufferAllocator allocator, int batchSize) {
+    super(allocator);
+    Preconditions.checkNotNull(resultSet);
+    Preconditions.checkArgument(
+        resultSet instanceof ProtobufResultSet,
+        "The result set must be an instance of " + ProtobufResultSet.class.getName());
+    Preconditions.checkArgument(batchSize > 0, "batchSize must be > 0");
+    this.resultSet = (ProtobufResultSet) resultSet;
+    this.batchSize = batchSize;
+  }
+
+  @Override
+  protected Schema readSchema() {
+    // The type of a result set is only known after the first call to next().
+    hasPendingRow = resultSet.next();
+    done = !hasPendingRow;
+    type = resultSet.getType();
+    List<Field> fields = new ArrayList<>(type.getStructFields().size());
+    for (StructField field : type.getStructFields()) {
+      fields.add(toArrowField(field.getName(), field.getType()));
+    }
+    return new Schema(fields);
+  }
+
+  @Override
+  public boolean loadNextBatch() {
+    try {
+      prepareLoadNextBatch();
+    } catch (Exception exception) {
+      throw SpannerExceptionFactory.asSpannerException(exception);
+    }
+    if (done) {
+      return false;
+    }
+    VectorSchemaRoot root = getRoot();
+    for (FieldVector vector : root.getFieldVectors()) {
+      vector.reset();
+    }
+    List<FieldVector> vectors = root.getFieldVectors();
+    List<StructField> fields = type.getStructFields();
+    int row = 0;
+    while (row < batchSize && (hasPendingRow || resultSet.next())) {
+      hasPendingRow = false;
+      for (int col = 0; col < fields.size(); col++) {
+        if (!resultSet.canGetProtobufValue(col)) {
+          throw SpannerExceptionFactory.newSpannerException(
+              ErrorCode.FAILED_PRECONDITION,
+              "The protobuf value of column "
+                  + fields.get(col).getName()
+                  + " is not available. Use DecodeMode.LAZY_PER_COL for queries that are converted to Arrow.");
+        }
+        Value value = resultSet.getProtobufValue(col);
+        bytesRead += value.getSerializedSize();
+        writeValue(vectors.get(col), row, fields.get(col).getType(), value);
+      }
+      row++;
+    }
+    root.setRowCount(row);
+    if (row < batchSize) {
+      done = true;
+    }
+    return row > 0;
+  }
+
+  private VectorSchemaRoot getRoot() {
+    try {
+      return getVectorSchemaRoot();
+    } catch (Exception exception) {
+      throw SpannerExceptionFactory.asSpannerException(exception);
+    }
+  }
+
+  @Override
+  public long bytesRead() {
+    return bytesRead;
+  }
+
+  @Override
+  protected void closeReadSource() {
+    resultSet.close();
+  }
+
+  static Field toArrowField(String name, Type type) {
+    switch (type.getCode()) {
+      case ARRAY:
+        return new Field(
+            name,
+            FieldType.nullable(ArrowType.List.INSTANCE),
+            ImmutableList.of(toArrowField("item", type.getArrayElementType())));
+      case STRUCT:
+        List<Field> children = new ArrayList<>(type.getStructFields().size());
+        Set<String> names = new HashSet<>();
+        int index = 0;
+        for (StructField field : type.getStructFields()) {
+          // Arrow requires unique and non-empty field names in a struct. Cloud Spanner allows
+          // both anonymous and duplicate field names.
+          String fieldName = field.getName();
+          if (fieldName.isEmpty() || !names.add(fieldName)) {
+            fieldName = "_" + index;
+          }
+          children.add(toArrowField(fieldName, field.getType()));
+          index++;
+        }
+        return new Field(name, FieldType.nullable(ArrowType.Struct.INSTANCE), children);
+      default:
+        return new Field(name, FieldType.nullable(toArrowType(type)), null);
+    }
+  }
+
+  private static ArrowType toArrowType(Type type) {
+    switch (type.getCode()) {
+      case BOOL:
+        return ArrowType.Bool.INSTANCE;
+      case INT64:
+      case ENUM:
+      case PG_OID:
+        return new ArrowType.Int(64, true);
+      case FLOAT32:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.SINGLE);
+      case FLOAT64:
+        return new ArrowType.FloatingPoint(FloatingPointPrecision.DOUBLE);
+      case NUMERIC:
+        return new ArrowType.Decimal(NUMERIC_PRECISION, NUMERIC_SCALE, 128);
+      case STRING:
+      case JSON:
+      case PG_JSONB:
+      case PG_NUMERIC:
+        return ArrowType.Utf8.INSTANCE;
+      case BYTES:
+      case PROTO:
+        return ArrowType.Binary.INSTANCE;
+      case DATE:
+        return new ArrowType.Date(DateUnit.DAY);
+      case TIMESTAMP:
+        return new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC");
+      default:
+        throw SpannerExceptionFactory.newSpannerException(
+            ErrorCode.UNIMPLEMENTED, "Unsupported type for Arrow conversion: " + type);
+    }
+  }
+
+  private static void writeValue(ValueVector vector, int index, Type type, Value value) {
+    if (value.getKindCase() == KindCase.NULL_VALUE) {
+      ((FieldVector) vector).setNull(index);
+      return;
+    }
+    switch (type.getCode()) {
+      case BOOL:
+        ((BitVector) vector).setSafe(index, value.getBoolValue() ? 1 : 0);
+        break;
+      case INT64:
+      case ENUM:
+      case PG_OID:
+        ((BigIntVector) vector).setSafe(index, Long.parseLong(value.getStringValue()));
+        break;
+      case FLOAT32:
+        ((Float4Vector) vector).setSafe(index, (float) getDouble(value));
+        break;
+      case FLOAT64:
+        ((Float8Vector) vector).setSafe(index, getDouble(value));
+        break;
+      case NUMERIC:
+        ((DecimalVector) vector)
+            .setSafe(index, new BigDecimal(value.getStringValue()).setScale(NUMERIC_SCALE));
+        break;
+      case STRING:
+      case JSON:
+      case PG_JSONB:
+      case PG_NUMERIC:
+        // Copy the raw UTF-8 bytes without decoding them to a String.
+        ByteString bytes = value.getStringValueBytes();
+        ByteBuffer utf8 = bytes.asReadOnlyByteBuffer();
+        ((VarCharVector) vector).setSafe(index, utf8, utf8.position(), utf8.remaining());
+        break;
+      case BYTES:
+      case PROTO:
+        ByteBuffer binary =
+            Base64.getDecoder().decode(value.getStringValueBytes().asReadOnlyByteBuffer());
+        ((VarBinaryVector) vector).setSafe(index, binary, binary.position(), binary.remaining());
+        break;
+      case DATE:
+        ((DateDayVector) vector)
+            .setSafe(index, Math.toIntExact(LocalDate.parse(value.getStringValue()).toEpochDay()));
+        break;
+      case TIMESTAMP:
+        Timestamp timestamp = Timestamp.parseTimestamp(value.getStringValue());
+        ((TimeStampMicroTZVector) vector)
+            .setSafe(
+                index,
+                timestamp.getSeconds() * MICROS_PER_SECOND
+                    + timestamp.getNanos() / NANOS_PER_MICRO);
+        break;
+      case ARRAY:
+        ListVector listVector = (ListVector) vector;
+        List<Value> elements = value.getListValue().getValuesList();
+        int start = listVector.startNewValue(index);
+        for (int i = 0; i < elements.size(); i++) {
+          writeValue(
+              listVector.getDataVector(), start + i, type.getArrayElementType(), elements.get(i));
+        }
+        listVector.endValue(index, elements.size());
+        break;
+      case STRUCT:
+        StructVector structVector = (StructVector) vector;
+        List<FieldVector> children = structVector.getChildrenFromFields();
+        List<StructField> fields = type.getStructFields();
+        List<Value> fieldValues = value.getListValue().getValuesList();
+        while (index >= structVector.getValueCapacity()) {
+          structVector.reAlloc();
+        }
+        structVector.setIndexDefined(index);
+        for (int i = 0; i < fields.size(); i++) {
+          writeValue(children.get(i), index, fields.get(i).getType(), fieldValues.get(i));
+        }
+        break;
+      default:
+        throw SpannerExceptionFactory.newSpannerException(
+            ErrorCode.UNIMPLEMENTED, "Unsupported type for Arrow conversion: " + type);
+    }
+  }
+
+  private static double getDouble(Value value) {
+    // NaN and Infinity are encoded as strings.
+    return value.getKindCase() == KindCase.STRING_VALUE
+        ? Double.parseDouble(value.getStringValue())
+        : value.getNumberValue();
+  }
+}
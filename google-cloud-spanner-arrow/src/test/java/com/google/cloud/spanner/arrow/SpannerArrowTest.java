@@ -0,0 +1,217 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.arrow;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+import com.google.cloud.spanner.Value;
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMicroTZVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.ipc.ArrowReader;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SpannerArrowTest {
+  private static final Type TYPE =
+      Type.struct(
+          StructField.of("id", Type.int64()),
+          StructField.of("flag", Type.bool()),
+          StructField.of("value", Type.float64()),
+          StructField.of("amount", Type.numeric()),
+          StructField.of("name", Type.string()),
+          StructField.of("data", Type.bytes()),
+          StructField.of("birth", Type.date()),
+          StructField.of("updated", Type.timestamp()),
+          StructField.of("tags", Type.array(Type.string())));
+
+  private static ResultSet createResultSet(int numRows) {
+    ImmutableList.Builder<Struct> rows = ImmutableList.builder();
+    for (int i = 0; i < numRows; i++) {
+      if (i % 2 == 0) {
+        rows.add(
+            Struct.newBuilder()
+                .set("id")
+                .to(i)
+                .set("flag")
+                .to(true)
+                .set("value")
+                .to(i * 1.5d)
+                .set("amount")
+                .to(new BigDecimal("3.14"))
+                .set("name")
+                .to("naïve-" + i)
+                .set("data")
+                .to(ByteArray.copyFrom("data" + i))
+                .set("birth")
+                .to(Date.fromYearMonthDay(2000, 1, 2))
+                .set("updated")
+                .to(Timestamp.ofTimeSecondsAndNanos(1000L, 123456789))
+                .set("tags")
+                .toStringArray(Arrays.asList("a", null, "c"))
+                .build());
+      } else {
+        rows.add(
+            Struct.newBuilder()
+                .set("id")
+                .to(i)
+                .set("flag")
+                .to((Boolean) null)
+                .set("value")
+                .to(Value.float64(Double.NaN))
+                .set("amount")
+                .to((BigDecimal) null)
+                .set("name")
+                .to((String) null)
+                .set("data")
+                .to((ByteArray) null)
+                .set("birth")
+                .to((Date) null)
+                .set("updated")
+                .to((Timestamp) null)
+                .set("tags")
+                .toStringArray(null)
+                .build());
+      }
+    }
+    return ResultSets.forRows(TYPE, rows.build());
+  }
+
+  @Test
+  public void testReadBatches() throws Exception {
+    try (BufferAllocator allocator = new RootAllocator();
+        ArrowReader reader = SpannerArrow.fromResultSet(createResultSet(5), allocator, 2)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(9, root.getSchema().getFields().size());
+      int[] batchSizes = new int[3];
+      int batch = 0;
+      while (reader.loadNextBatch()) {
+        batchSizes[batch++] = root.getRowCount();
+        if (batch == 1) {
+          assertEquals(0L, ((BigIntVector) root.getVector("id")).get(0));
+          assertEquals(1, ((BitVector) root.getVector("flag")).get(0));
+          assertTrue(((BitVector) root.getVector("flag")).isNull(1));
+          assertTrue(Double.isNaN(((Float8Vector) root.getVector("value")).get(1)));
+          assertEquals(
+              new BigDecimal("3.140000000"),
+              ((DecimalVector) root.getVector("amount")).getObject(0));
+          assertEquals(
+              "naïve-0",
+              new String(((VarCharVector) root.getVector("name")).get(0), StandardCharsets.UTF_8));
+          assertTrue(root.getVector("name").isNull(1));
+          assertEquals(
+              "data0",
+              new String(
+                  ((VarBinaryVector) root.getVector("data")).get(0), StandardCharsets.UTF_8));
+          assertEquals(
+              java.time.LocalDate.of(2000, 1, 2).toEpochDay(),
+              ((DateDayVector) root.getVector("birth")).get(0));
+          assertEquals(1000_123456L, ((TimeStampMicroTZVector) root.getVector("updated")).get(0));
+          ListVector tags = (ListVector) root.getVector("tags");
+          assertThat(tags.getObject(0).toString()).isEqualTo("[\"a\",null,\"c\"]");
+          assertTrue(tags.isNull(1));
+        }
+      }
+      assertThat(batchSizes).asList().containsExactly(2, 2, 1).inOrder();
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testMinAndMaxTimestamp() throws Exception {
+    Type type = Type.struct(StructField.of("ts", Type.timestamp()));
+    Timestamp min = Timestamp.parseTimestamp("0001-01-01T00:00:00Z");
+    Timestamp max = Timestamp.parseTimestamp("9999-12-31T23:59:59.999999Z");
+    ResultSet resultSet =
+        ResultSets.forRows(
+            type,
+            ImmutableList.of(
+                Struct.newBuilder().set("ts").to(min).build(),
+                Struct.newBuilder().set("ts").to(max).build()));
+    try (BufferAllocator allocator = new RootAllocator();
+        ArrowReader reader = SpannerArrow.fromResultSet(resultSet, allocator, 10)) {
+      assertTrue(reader.loadNextBatch());
+      TimeStampMicroTZVector vector =
+          (TimeStampMicroTZVector) reader.getVectorSchemaRoot().getVector("ts");
+      assertEquals(2, vector.getValueCount());
+      assertEquals(min.getSeconds() * 1_000_000L, vector.get(0));
+      assertEquals(max.getSeconds() * 1_000_000L + 999_999L, vector.get(1));
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testEmptyResultSet() throws Exception {
+    try (BufferAllocator allocator = new RootAllocator();
+        ArrowReader reader = SpannerArrow.fromResultSet(createResultSet(0), allocator, 10)) {
+      assertEquals(9, reader.getVectorSchemaRoot().getSchema().getFields().size());
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testWriteStream() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (BufferAllocator allocator = new RootAllocator()) {
+      try (ArrowReader reader = SpannerArrow.fromResultSet(createResultSet(10), allocator, 3)) {
+        assertEquals(10L, SpannerArrow.writeStream(reader, Channels.newChannel(output)));
+      }
+      try (ArrowStreamReader reader =
+          new ArrowStreamReader(new ByteArrayInputStream(output.toByteArray()), allocator)) {
+        long rows = 0L;
+        while (reader.loadNextBatch()) {
+          VectorSchemaRoot root = reader.getVectorSchemaRoot();
+          for (int i = 0; i < root.getRowCount(); i++) {
+            assertEquals(rows + i, ((BigIntVector) root.getVector("id")).get(i));
+          }
+          rows += root.getRowCount();
+        }
+        assertEquals(10L, rows);
+      }
+    }
+  }
+}
@@ -29,6 +29,7 @@ import com.google.api.core.SettableApiFuture;
 import com.google.api.gax.core.ExecutorProvider;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
+import com.google.cloud.spanner.AbstractResultSet.Listener;
 import com.google.cloud.spanner.AsyncResultSet.CallbackResponse;
 import com.google.cloud.spanner.AsyncResultSet.ReadyCallback;
 import com.google.cloud.spanner.Options.QueryOption;
@@ -52,9 +53,13 @@ import com.google.spanner.v1.MultiplexedSessionPrecommitToken;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.ReadRequest;
 import com.google.spanner.v1.RequestOptions;
+import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.Transaction;
 import com.google.spanner.v1.TransactionOptions;
 import com.google.spanner.v1.TransactionSelector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
@@ -80,6 +85,8 @@ abstract class AbstractReadContext
     private DirectedReadOptions defaultDirectedReadOption;
     private ExecutorProvider executorProvider;
     private Clock clock = Clock.INSTANCE;
+    private ClientLatencyMetrics clientLatencyMetrics;
+    private QueryFingerprintSketch queryFingerprintSketch;
 
     Builder() {}
 
@@ -143,6 +150,16 @@ abstract class AbstractReadContext
       return self();
     }
 
+    B setClientLatencyMetrics(@Nullable ClientLatencyMetrics clientLatencyMetrics) {
+      this.clientLatencyMetrics = clientLatencyMetrics;
+      return self();
+    }
+
+    B setQueryFingerprintSketch(@Nullable QueryFingerprintSketch queryFingerprintSketch) {
+      this.queryFingerprintSketch = queryFingerprintSketch;
+      return self();
+    }
+
     abstract T build();
   }
 
@@ -467,6 +484,12 @@ abstract class AbstractReadContext
   private final DirectedReadOptions defaultDirectedReadOptions;
   private final DecodeMode defaultDecodeMode;
   private final Clock clock;
+  @Nullable private final ClientLatencyMetrics clientLatencyMetrics;
+  @Nullable private final QueryFingerprintSketch queryFingerprintSketch;
+  // The time that was spent on checking out the session of this context. This is added to the
+  // latency breakdown of the first query or read of the context. Later queries and reads, and
+  // contexts that did not check out a session, report NO_SESSION_ACQUISITION.
+  private final AtomicLong sessionAcquisitionNanos;
 
   @GuardedBy("lock")
   private boolean isValid = true;
@@ -482,6 +505,12 @@ abstract class AbstractReadContext
   // much more frequently.
   private static final int MAX_BUFFERED_CHUNKS = 512;
 
+  // A read of a single primary key returns at most one row, so the server can stop the read after
+  // the first row. A read of a single index key can return multiple rows if the index is not
+  // unique. Those reads use a limit of 2 rows, so readRowUsingIndex still detects that case.
+  private static final ReadOption READ_ROW_LIMIT = Options.limit(1L);
+  private static final ReadOption READ_ROW_USING_INDEX_LIMIT = Options.limit(2L);
+
   protected static final String NO_TRANSACTION_RETURNED_MSG =
       "The statement did not return a transaction even though one was requested";
 
@@ -497,6 +526,27 @@ abstract class AbstractReadContext
     this.executorProvider = builder.executorProvider;
     this.clock = builder.clock;
     this.tracer = builder.tracer;
+    this.clientLatencyMetrics = builder.clientLatencyMetrics;
+    this.queryFingerprintSketch = builder.queryFingerprintSketch;
+    this.sessionAcquisitionNanos =
+        new AtomicLong(
+            this.clientLatencyMetrics == null || this.session == null
+                ? ClientLatencyTracker.NO_SESSION_ACQUISITION
+                : this.session.takeLastAcquisitionLatencyNanos());
+  }
+
+  /**
+   * Returns a tracker for the client-side latency breakdown of a query or read, or null if the
+   * latency breakdown has not been enabled.
+   */
+  @Nullable
+  private ClientLatencyTracker createLatencyTracker() {
+    if (clientLatencyMetrics == null) {
+      return null;
+    }
+    return new ClientLatencyTracker(
+        clientLatencyMetrics,
+        sessionAcquisitionNanos.getAndSet(ClientLatencyTracker.NO_SESSION_ACQUISITION));
   }
 
   @Override
@@ -557,14 +607,13 @@ abstract class AbstractReadContext
   @Nullable
   @Override
   public final Struct readRow(String table, Key key, Iterable<String> columns) {
-    try (ResultSet resultSet = read(table, KeySet.singleKey(key), columns)) {
-      return consumeSingleRow(resultSet);
-    }
+    return readSingleRow(table, null, key, columns, READ_ROW_LIMIT);
   }
 
   @Override
   public final ApiFuture<Struct> readRowAsync(String table, Key key, Iterable<String> columns) {
-    try (AsyncResultSet resultSet = readAsync(table, KeySet.singleKey(key), columns)) {
+    try (AsyncResultSet resultSet =
+        readAsync(table, KeySet.singleKey(key), columns, READ_ROW_LIMIT)) {
       return consumeSingleRowAsync(resultSet);
     }
   }
@@ -573,16 +622,15 @@ abstract class AbstractReadContext
   @Override
   public final Struct readRowUsingIndex(
       String table, String index, Key key, Iterable<String> columns) {
-    try (ResultSet resultSet = readUsingIndex(table, index, KeySet.singleKey(key), columns)) {
-      return consumeSingleRow(resultSet);
-    }
+    return readSingleRow(table, checkNotNull(index), key, columns, READ_ROW_USING_INDEX_LIMIT);
   }
 
   @Override
   public final ApiFuture<Struct> readRowUsingIndexAsync(
       String table, String index, Key key, Iterable<String> columns) {
     try (AsyncResultSet resultSet =
-        readUsingIndexAsync(table, index, KeySet.singleKey(key), columns)) {
+        readUsingIndexAsync(
+            table, index, KeySet.singleKey(key), columns, READ_ROW_USING_INDEX_LIMIT)) {
       return consumeSingleRowAsync(resultSet);
     }
   }
@@ -751,19 +799,45 @@ abstract class AbstractReadContext
       final com.google.spanner.v1.ExecuteSqlRequest.QueryMode queryMode,
       final Options options,
       final ByteString partitionToken) {
+    return executeQueryInternalWithOptions(
+        statement,
+        queryMode,
+        options,
+        partitionToken,
+        null /*resumeToken*/,
+        null /*resumeMetadata*/);
+  }
+
+  /**
+   * Executes the given query. If a resume token is given, the query is resumed from that token, and
+   * the given metadata is used if the server does not return metadata for the resumed stream.
+   */
+  GrpcResultSet executeQueryInternalWithOptions(
+      final Statement statement,
+      final com.google.spanner.v1.ExecuteSqlRequest.QueryMode queryMode,
+      final Options options,
+      final ByteString partitionToken,
+      @Nullable ByteString resumeToken,
+      @Nullable ResultSetMetadata resumeMetadata) {
     beforeReadOrQuery();
     final int prefetchChunks =
         options.hasPrefetchChunks() ? options.prefetchChunks() : defaultPrefetchChunks;
+    final ClientLatencyTracker latencyTracker = createLatencyTracker();
+    long encodingStart = latencyTracker == null ? 0L : System.nanoTime();
     final ExecuteSqlRequest.Builder request =
         getExecuteSqlRequestBuilder(
             statement, queryMode, options, /* withTransactionSelector = */ false);
+    if (latencyTracker != null) {
+      latencyTracker.addRequestEncoding(System.nanoTime() - encodingStart);
+    }
     ResumableStreamIterator stream =
         new ResumableStreamIterator(
             MAX_BUFFERED_CHUNKS,
             SpannerImpl.QUERY,
             span,
             tracer,
-            tracer.createStatementAttributes(statement, options),
+            statement,
+            options,
             session.getErrorHandler(),
             rpc.getExecuteQueryRetrySettings(),
             rpc.getExecuteQueryRetryableCodes()) {
@@ -789,9 +863,14 @@ abstract class AbstractReadContext
             if (selector != null) {
               request.setTransaction(selector);
             }
+            long buildStart = latencyTracker == null ? 0L : System.nanoTime();
+            ExecuteSqlRequest executeSqlRequest = request.build();
+            if (latencyTracker != null) {
+              latencyTracker.addRequestEncoding(System.nanoTime() - buildStart);
+            }
             SpannerRpc.StreamingCall call =
                 rpc.executeQuery(
-                    request.build(),
+                    executeSqlRequest,
                     stream.consumer(),
                     getTransactionChannelHint(),
                     isRouteToLeader());
@@ -806,8 +885,21 @@ abstract class AbstractReadContext
             return AbstractReadContext.this.prepareRetryOnDifferentGrpcChannel();
           }
         };
+    if (resumeToken != null) {
+      stream.setResumeToken(resumeToken);
+    }
+    QueryFingerprintSketch.Recording recording =
+        queryFingerprintSketch == null
+            ? null
+            : queryFingerprintSketch.startRecording(statement.getSql());
     return new GrpcResultSet(
-        stream, this, options.hasDecodeMode() ? options.decodeMode() : defaultDecodeMode);
+        recording == null ? stream : recording.countBytes(stream),
+        this,
+        options.hasDecodeMode() ? options.decodeMode() : defaultDecodeMode,
+        resumeMetadata,
+        latencyTracker,
+        recording,
+        options.stringDictionarySize());
   }
 
   Map<SpannerRpc.Option, ?> getChannelHintOptions(
@@ -924,8 +1016,81 @@ abstract class AbstractReadContext
       Iterable<String> columns,
       final Options readOptions,
       ByteString partitionToken) {
+    return readInternalWithOptions(
+        table,
+        index,
+        keys,
+        columns,
+        readOptions,
+        partitionToken,
+        null /*resumeToken*/,
+        null /*resumeMetadata*/);
+  }
+
+  /**
+   * Executes the given read. If a resume token is given, the read is resumed from that token, and
+   * the given metadata is used if the server does not return metadata for the resumed stream.
+   */
+  GrpcResultSet readInternalWithOptions(
+      String table,
+      @Nullable String index,
+      KeySet keys,
+      Iterable<String> columns,
+      final Options readOptions,
+      ByteString partitionToken,
+      @Nullable ByteString resumeToken,
+      @Nullable ResultSetMetadata resumeMetadata) {
+    beforeReadOrQuery();
+    ClientLatencyTracker latencyTracker = createLatencyTracker();
+    ReadRequest.Builder builder =
+        createReadRequestBuilder(
+            table, index, keys, columns, readOptions, partitionToken, latencyTracker);
+    ResumableStreamIterator stream = createReadStream(builder, readOptions, latencyTracker);
+    if (resumeToken != null) {
+      stream.setResumeToken(resumeToken);
+    }
+    return new GrpcResultSet(
+        stream,
+        this,
+        readOptions.hasDecodeMode() ? readOptions.decodeMode() : defaultDecodeMode,
+        resumeMetadata,
+        latencyTracker,
+        /* queryRecording = */ null,
+        readOptions.stringDictionarySize());
+  }
+
+  /**
+   * Reads the row with the given key. This is the fast path for {@link #readRow} and {@link
+   * #readRowUsingIndex}: The read uses the same stream, retry and transaction handling as {@link
+   * #read}, but the row is decoded directly from the stream by {@link
+   * #consumeSingleRow(CloseableIterator, Listener, DecodeMode, ClientLatencyTracker)}.
+   */
+  @Nullable
+  private Struct readSingleRow(
+      String table, @Nullable String index, Key key, Iterable<String> columns, ReadOption limit) {
     beforeReadOrQuery();
-    final ReadRequest.Builder builder =
+    ClientLatencyTracker latencyTracker = createLatencyTracker();
+    Options readOptions = Options.fromReadOptions(limit);
+    ReadRequest.Builder builder =
+        createReadRequestBuilder(
+            table, index, KeySet.singleKey(key), columns, readOptions, null, latencyTracker);
+    return consumeSingleRow(
+        createReadStream(builder, readOptions, latencyTracker),
+        this,
+        defaultDecodeMode,
+        latencyTracker);
+  }
+
+  private ReadRequest.Builder createReadRequestBuilder(
+      String table,
+      @Nullable String index,
+      KeySet keys,
+      Iterable<String> columns,
+      Options readOptions,
+      @Nullable ByteString partitionToken,
+      @Nullable ClientLatencyTracker latencyTracker) {
+    long encodingStart = latencyTracker == null ? 0L : System.nanoTime();
+    ReadRequest.Builder builder =
         ReadRequest.newBuilder()
             .setSession(session.getName())
             .setTable(checkNotNull(table))
@@ -952,69 +1117,137 @@ abstract class AbstractReadContext
     } else if (defaultDirectedReadOptions != null) {
       builder.setDirectedReadOptions(defaultDirectedReadOptions);
     }
+    if (latencyTracker != null) {
+      latencyTracker.addRequestEncoding(System.nanoTime() - encodingStart);
+    }
+    return builder;
+  }
+
+  private ResumableStreamIterator createReadStream(
+      ReadRequest.Builder builder,
+      Options readOptions,
+      @Nullable ClientLatencyTracker latencyTracker) {
     final int prefetchChunks =
         readOptions.hasPrefetchChunks() ? readOptions.prefetchChunks() : defaultPrefetchChunks;
-    ResumableStreamIterator stream =
-        new ResumableStreamIterator(
-            MAX_BUFFERED_CHUNKS,
-            SpannerImpl.READ,
-            span,
-            tracer,
-            session.getErrorHandler(),
-            rpc.getReadRetrySettings(),
-            rpc.getReadRetryableCodes()) {
-          @Override
-          CloseableIterator<PartialResultSet> startStream(
-              @Nullable ByteString resumeToken,
-              AsyncResultSet.StreamMessageListener streamListener) {
-            GrpcStreamIterator stream =
-                new GrpcStreamIterator(prefetchChunks, cancelQueryWhenClientIsClosed);
-            if (streamListener != null) {
-              stream.registerListener(streamListener);
-            }
-            TransactionSelector selector = null;
-            if (resumeToken != null) {
-              builder.setResumeToken(resumeToken);
-              selector = getTransactionSelector();
-            } else if (!builder.hasTransaction()) {
-              selector = getTransactionSelector();
-            }
-            if (selector != null) {
-              builder.setTransaction(selector);
-            }
-            builder.setRequestOptions(buildRequestOptions(readOptions));
-            SpannerRpc.StreamingCall call =
-                rpc.read(
-                    builder.build(),
-                    stream.consumer(),
-                    getTransactionChannelHint(),
-                    isRouteToLeader());
-            session.markUsed(clock.instant());
-            stream.setCall(call, /* withBeginTransaction = */ builder.getTransaction().hasBegin());
-            call.request(prefetchChunks);
-            return stream;
-          }
+    return new ResumableStreamIterator(
+        MAX_BUFFERED_CHUNKS,
+        SpannerImpl.READ,
+        span,
+        tracer,
+        session.getErrorHandler(),
+        rpc.getReadRetrySettings(),
+        rpc.getReadRetryableCodes()) {
+      @Override
+      CloseableIterator<PartialResultSet> startStream(
+          @Nullable ByteString resumeToken, AsyncResultSet.StreamMessageListener streamListener) {
+        GrpcStreamIterator stream =
+            new GrpcStreamIterator(prefetchChunks, cancelQueryWhenClientIsClosed);
+        if (streamListener != null) {
+          stream.registerListener(streamListener);
+        }
+        TransactionSelector selector = null;
+        if (resumeToken != null) {
+          builder.setResumeToken(resumeToken);
+          selector = getTransactionSelector();
+        } else if (!builder.hasTransaction()) {
+          selector = getTransactionSelector();
+        }
+        if (selector != null) {
+          builder.setTransaction(selector);
+        }
+        builder.setRequestOptions(buildRequestOptions(readOptions));
+        long buildStart = latencyTracker == null ? 0L : System.nanoTime();
+        ReadRequest readRequest = builder.build();
+        if (latencyTracker != null) {
+          latencyTracker.addRequestEncoding(System.nanoTime() - buildStart);
+        }
+        SpannerRpc.StreamingCall call =
+            rpc.read(
+                readRequest, stream.consumer(), getTransactionChannelHint(), isRouteToLeader());
+        session.markUsed(clock.instant());
+        stream.setCall(call, /* withBeginTransaction = */ builder.getTransaction().hasBegin());
+        call.request(prefetchChunks);
+        return stream;
+      }
 
-          @Override
-          boolean prepareIteratorForRetryOnDifferentGrpcChannel() {
-            return AbstractReadContext.this.prepareRetryOnDifferentGrpcChannel();
-          }
-        };
-    return new GrpcResultSet(
-        stream, this, readOptions.hasDecodeMode() ? readOptions.decodeMode() : defaultDecodeMode);
+      @Override
+      boolean prepareIteratorForRetryOnDifferentGrpcChannel() {
+        return AbstractReadContext.this.prepareRetryOnDifferentGrpcChannel();
+      }
+    };
   }
 
-  private Struct consumeSingleRow(ResultSet resultSet) {
-    if (!resultSet.next()) {
-      return null;
-    }
-    Struct row = resultSet.getCurrentRowAsStruct();
-    if (resultSet.next()) {
+  /**
+   * Consumes the single row of a point read from the given stream, or returns null if the stream
+   * does not contain any rows. This calls the same {@link Listener} methods as a {@link
+   * GrpcResultSet} that is fully consumed and closed, but decodes the row directly into the {@link
+   * Struct} that is returned, instead of into the current row of a result set that is then copied.
+   */
+  @VisibleForTesting
+  @Nullable
+  static Struct consumeSingleRow(
+      CloseableIterator<PartialResultSet> stream,
+      Listener listener,
+      DecodeMode decodeMode,
+      @Nullable ClientLatencyTracker latencyTracker) {
+    GrpcValueIterator values = new GrpcValueIterator(stream, listener, null, latencyTracker);
+    GrpcStruct row = null;
+    boolean hasMoreValues;
+    try {
+      long start = latencyTracker == null ? 0L : latencyTracker.beforeNext();
+      boolean hasRow = false;
+      try {
+        row = consumeSingleRow(values, listener, decodeMode);
+        hasRow = row != null;
+        hasMoreValues = hasRow && values.hasNext();
+      } finally {
+        if (latencyTracker != null) {
+          latencyTracker.afterNext(start, hasRow);
+        }
+      }
+    } catch (Throwable t) {
+      SpannerException toThrow =
+          listener.onError(
+              SpannerExceptionFactory.asSpannerException(t),
+              values.isWithBeginTransaction() && row == null);
+      closeSingleRowStream(values, listener, latencyTracker);
+      throw toThrow;
+    }
+    closeSingleRowStream(values, listener, latencyTracker);
+    if (hasMoreValues) {
       throw newSpannerException(ErrorCode.INTERNAL, "Multiple rows returned for single key");
     }
     return row;
   }
 
+  @Nullable
+  private static GrpcStruct consumeSingleRow(
+      GrpcValueIterator values, Listener listener, DecodeMode decodeMode) {
+    ResultSetMetadata metadata = values.getMetadata();
+    if (metadata.hasTransaction()) {
+      listener.onTransactionMetadata(metadata.getTransaction(), values.isWithBeginTransaction());
+    } else if (values.isWithBeginTransaction()) {
+      // The read should have returned a transaction.
+      throw newSpannerException(ErrorCode.FAILED_PRECONDITION, NO_TRANSACTION_RETURNED_MSG);
+    }
+    List<Object> rowData = new ArrayList<>(metadata.getRowType().getFieldsCount());
+    GrpcStruct row =
+        new GrpcStruct(
+            values.type(),
+            decodeMode == DecodeMode.DIRECT ? rowData : Collections.synchronizedList(rowData),
+            decodeMode);
+    return row.consumeRow(values) ? row : null;
+  }
+
+  private static void closeSingleRowStream(
+      GrpcValueIterator values, Listener listener, @Nullable ClientLatencyTracker latencyTracker) {
+    listener.onDone(values.isWithBeginTransaction());
+    values.close("ResultSet closed");
+    if (latencyTracker != null) {
+      latencyTracker.record();
+    }
+  }
+
   static ApiFuture<Struct> consumeSingleRowAsync(AsyncResultSet resultSet) {
     final SettableApiFuture<Struct> result = SettableApiFuture.create();
     // We can safely use a directExecutor here, as we will only be consuming one row, and we will
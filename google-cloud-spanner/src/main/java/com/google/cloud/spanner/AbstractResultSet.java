@@ -24,6 +24,7 @@ import com.google.cloud.Timestamp;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.AbstractMessage;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.ListValue;
 import com.google.protobuf.ProtocolMessageEnum;
 import com.google.protobuf.Value.KindCase;
@@ -71,6 +72,8 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
     private static final Base64.Decoder DECODER = Base64.getDecoder();
     private final String base64String;
     private transient AbstractLazyInitializer<ByteArray> byteArray;
+    /** The last proto message that was parsed from this value. */
+    private transient volatile ParsedMessage parsedMessage;
 
     LazyByteArray(@Nonnull String base64String) {
       this.base64String = Preconditions.checkNotNull(base64String);
@@ -116,6 +119,31 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
       return base64String;
     }
 
+    /**
+     * Returns this value as a proto message of the same type as the given message. The bytes are
+     * merged into the given message. The result is cached, and a subsequent call with the same
+     * message instance returns the same (immutable) result without parsing the bytes again.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends AbstractMessage> T getProtoMessage(T message) {
+      ParsedMessage parsed = parsedMessage;
+      if (parsed != null && parsed.prototype == message) {
+        return (T) parsed.message;
+      }
+      try {
+        T result =
+            (T)
+                message
+                    .toBuilder()
+                    .mergeFrom(CodedInputStream.newInstance(DECODER.decode(base64String)))
+                    .build();
+        parsedMessage = new ParsedMessage(message, result);
+        return result;
+      } catch (IOException | IllegalArgumentException exception) {
+        throw SpannerExceptionFactory.asSpannerException(exception);
+      }
+    }
+
     @Override
     public String toString() {
       return getBase64String();
@@ -137,6 +165,16 @@ abstract class AbstractResultSet<R> extends AbstractStructReader implements Resu
     private boolean lazyByteArraysEqual(LazyByteArray other) {
       return Objects.equals(getBase64String(), other.getBase64String());
     }
+
+    private static final class ParsedMessage {
+      private final AbstractMessage prototype;
+      private final AbstractMessage message;
+
+      private ParsedMessage(AbstractMessage prototype, AbstractMessage message) {
+        this.prototype = prototype;
+        this.message = message;
+      }
+    }
   }
 
   @VisibleForTesting
@@ -615,6 +615,11 @@ class AsyncResultSetImpl extends ForwardingStructReader
     return delegateResultSet.get().getMetadata();
   }
 
+  @Override
+  public ClientLatencyBreakdown getClientLatencyBreakdown() {
+    return delegateResultSet.get().getClientLatencyBreakdown();
+  }
+
   boolean initiateStreaming(StreamMessageListener streamMessageListener) {
     return StreamingUtil.initiateStreaming(delegateResultSet.get(), streamMessageListener);
   }
@@ -16,6 +16,8 @@
 
 package com.google.cloud.spanner;
 
+import com.google.cloud.spanner.Options.QueryOption;
+
 /**
  * Interface for the Batch Client that is used to read data from a Cloud Spanner database. An
  * instance of this is tied to a specific database.
@@ -60,6 +62,51 @@ public interface BatchClient {
    */
   BatchReadOnlyTransaction batchReadOnlyTransaction(BatchTransactionId batchTransactionId);
 
+  /**
+   * Exports the results of the given query to the given sink. The query is partitioned using a
+   * {@link BatchReadOnlyTransaction} at the given timestamp bound, and the partitions are executed
+   * in parallel. A partition that fails with a transient error is executed again, and the {@link
+   * ExportSink.PartitionWriter} of the failed attempt is aborted. This method blocks until all
+   * partitions have been exported, or until one of the partitions has failed with a permanent
+   * error.
+   *
+   * <p>Whether rows of a failed attempt are visible depends on the sink. {@link
+   * ExportSink#csvFiles(java.nio.file.Path)} only makes a file visible once all rows of a partition
+   * have been written. {@link ExportSink#forEachRow(java.util.function.Consumer)} delivers rows
+   * at-least-once: the consumer can receive rows of a failed attempt, and then receives the same
+   * rows again when the partition is retried.
+   *
+   * <p>Example of exporting a query to CSV files using Data Boost:
+   *
+   * <pre>{@code
+   * ExportProgress result =
+   *     batchClient.exportQuery(
+   *         TimestampBound.strong(),
+   *         Statement.of("SELECT * FROM Singers"),
+   *         ExportOptions.newBuilder()
+   *             .setParallelism(16)
+   *             .setDataBoostEnabled(true)
+   *             .setProgressListener(progress -> System.out.println(progress))
+   *             .build(),
+   *         ExportSink.csvFiles(Paths.get("/tmp/singers")));
+   * }</pre>
+   *
+   * @param bound the timestamp bound at which to execute the query
+   * @param statement the query to export. The query must be root-partitionable
+   * @param exportOptions the options for the export
+   * @param sink the destination of the rows
+   * @param options the query options that are used for the partitions
+   * @return the final progress of the export
+   */
+  default ExportProgress exportQuery(
+      TimestampBound bound,
+      Statement statement,
+      ExportOptions exportOptions,
+      ExportSink sink,
+      QueryOption... options) {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
+
   /**
    * Returns the {@link DatabaseRole} used by the client connection. The database role that is used
    * determines the access permissions that a connection has. This can for example be used to create
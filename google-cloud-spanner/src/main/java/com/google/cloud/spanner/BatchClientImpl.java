@@ -24,11 +24,13 @@ import com.google.cloud.spanner.Options.ReadOption;
 import com.google.cloud.spanner.spi.v1.SpannerRpc;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Struct;
 import com.google.spanner.v1.ExecuteSqlRequest.QueryMode;
 import com.google.spanner.v1.PartitionQueryRequest;
 import com.google.spanner.v1.PartitionReadRequest;
 import com.google.spanner.v1.PartitionResponse;
+import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.TransactionSelector;
 import java.util.List;
 import java.util.Map;
@@ -62,6 +64,8 @@ public class BatchClientImpl implements BatchClient {
             .setExecutorProvider(sessionClient.getSpanner().getAsyncExecutorProvider())
             .setDefaultPrefetchChunks(sessionClient.getSpanner().getDefaultPrefetchChunks())
             .setDefaultDecodeMode(sessionClient.getSpanner().getDefaultDecodeMode())
+            .setClientLatencyMetrics(sessionClient.getSpanner().getClientLatencyMetrics())
+            .setQueryFingerprintSketch(sessionClient.getSpanner().getQueryFingerprintSketch())
             .setDefaultDirectedReadOptions(
                 sessionClient.getSpanner().getOptions().getDirectedReadOptions())
             .setSpan(sessionClient.getSpanner().getTracer().getCurrentSpan())
@@ -85,6 +89,8 @@ public class BatchClientImpl implements BatchClient {
             .setExecutorProvider(sessionClient.getSpanner().getAsyncExecutorProvider())
             .setDefaultPrefetchChunks(sessionClient.getSpanner().getDefaultPrefetchChunks())
             .setDefaultDecodeMode(sessionClient.getSpanner().getDefaultDecodeMode())
+            .setClientLatencyMetrics(sessionClient.getSpanner().getClientLatencyMetrics())
+            .setQueryFingerprintSketch(sessionClient.getSpanner().getQueryFingerprintSketch())
             .setDefaultDirectedReadOptions(
                 sessionClient.getSpanner().getOptions().getDirectedReadOptions())
             .setSpan(sessionClient.getSpanner().getTracer().getCurrentSpan())
@@ -92,6 +98,17 @@ public class BatchClientImpl implements BatchClient {
         batchTransactionId);
   }
 
+  @Override
+  public ExportProgress exportQuery(
+      TimestampBound bound,
+      Statement statement,
+      ExportOptions exportOptions,
+      ExportSink sink,
+      QueryOption... options) {
+    return new PartitionedQueryExporter(this, checkNotNull(exportOptions), checkNotNull(sink))
+        .export(checkNotNull(bound), checkNotNull(statement), options);
+  }
+
   private static class BatchReadOnlyTransactionImpl extends MultiUseReadOnlyTransaction
       implements BatchReadOnlyTransaction {
     private final String sessionName;
@@ -216,12 +233,36 @@ public class BatchClientImpl implements BatchClient {
 
     @Override
     public ResultSet execute(Partition partition) throws SpannerException {
+      return execute(partition, null /*resumeToken*/, null /*resumeMetadata*/);
+    }
+
+    @Override
+    public PartitionResultSet executeResumable(Partition partition) throws SpannerException {
+      return resume(PartitionCheckpoint.start(getBatchTransactionId(), checkNotNull(partition)));
+    }
+
+    @Override
+    public PartitionResultSet resume(PartitionCheckpoint checkpoint) throws SpannerException {
+      Preconditions.checkArgument(
+          checkpoint.getBatchTransactionId().getTransactionId().equals(getTransactionId()),
+          "The checkpoint belongs to a different transaction");
+      return new PartitionResultSetImpl(
+          execute(checkpoint.getPartition(), checkpoint.getResumeToken(), checkpoint.getMetadata()),
+          checkpoint);
+    }
+
+    private GrpcResultSet execute(
+        Partition partition,
+        @Nullable ByteString resumeToken,
+        @Nullable ResultSetMetadata resumeMetadata) {
       if (partition.getStatement() != null) {
         return executeQueryInternalWithOptions(
             partition.getStatement(),
             QueryMode.NORMAL,
             partition.getQueryOptions(),
-            partition.getPartitionToken());
+            partition.getPartitionToken(),
+            resumeToken,
+            resumeMetadata);
       }
       return readInternalWithOptions(
           partition.getTable(),
@@ -229,7 +270,9 @@ public class BatchClientImpl implements BatchClient {
           partition.getKeys(),
           partition.getColumns(),
           partition.getReadOptions(),
-          partition.getPartitionToken());
+          partition.getPartitionToken(),
+          resumeToken,
+          resumeMetadata);
     }
 
     /**
@@ -192,6 +192,27 @@ public interface BatchReadOnlyTransaction extends ReadOnlyTransaction {
    */
   ResultSet execute(Partition partition) throws SpannerException;
 
+  /**
+   * Executes the partition and returns a {@link PartitionResultSet} that can return checkpoints for
+   * its current position. A checkpoint can be used to resume the partition with {@link
+   * #resume(PartitionCheckpoint)} if the execution of the partition fails, instead of reading the
+   * entire partition again.
+   */
+  default PartitionResultSet executeResumable(Partition partition) throws SpannerException {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
+
+  /**
+   * Resumes the execution of a partition from the given checkpoint. The returned {@link
+   * PartitionResultSet} returns the rows that follow the position of the checkpoint. The checkpoint
+   * must belong to this transaction. A checkpoint that was created in a different process can be
+   * resumed by first re-creating the transaction with {@link
+   * BatchClient#batchReadOnlyTransaction(BatchTransactionId)}.
+   */
+  default PartitionResultSet resume(PartitionCheckpoint checkpoint) throws SpannerException {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
+
   /**
    * Returns a {@link BatchTransactionId} to be re-used across several machines/processes. This
    * BatchTransactionId guarantees the subsequent read/query to be executed at the same timestamp.
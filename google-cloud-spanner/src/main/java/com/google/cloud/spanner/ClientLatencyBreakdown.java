@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import java.time.Duration;
+
+/**
+ * Breakdown of the time that the client spent in each stage of executing a query or read and
+ * consuming its results. An instance of this class can be obtained from {@link
+ * ResultSet#getClientLatencyBreakdown()} if {@link
+ * SpannerOptions.Builder#setEnableClientLatencyBreakdown(boolean)} has been enabled. The breakdown
+ * can be used to determine whether a slow query is caused by the server and the network, or by the
+ * client.
+ */
+public final class ClientLatencyBreakdown {
+  private final long sessionAcquisitionNanos;
+  private final long requestEncodingNanos;
+  private final long timeToFirstResponseNanos;
+  private final long streamWaitNanos;
+  private final long chunkMergingNanos;
+  private final long rowDecodingNanos;
+  private final long consumerNanos;
+  private final long rowCount;
+
+  ClientLatencyBreakdown(
+      long sessionAcquisitionNanos,
+      long requestEncodingNanos,
+      long timeToFirstResponseNanos,
+      long streamWaitNanos,
+      long chunkMergingNanos,
+      long rowDecodingNanos,
+      long consumerNanos,
+      long rowCount) {
+    this.sessionAcquisitionNanos = sessionAcquisitionNanos;
+    this.requestEncodingNanos = requestEncodingNanos;
+    this.timeToFirstResponseNanos = timeToFirstResponseNanos;
+    this.streamWaitNanos = streamWaitNanos;
+    this.chunkMergingNanos = chunkMergingNanos;
+    this.rowDecodingNanos = rowDecodingNanos;
+    this.consumerNanos = consumerNanos;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * Returns the time that the application was blocked while waiting for a session to become
+   * available in the session pool. This is zero if the query or read did not check out a session,
+   * for example because it was not the first query in a transaction, or because it used a
+   * multiplexed session.
+   */
+  public Duration getSessionAcquisitionLatency() {
+    return Duration.ofNanos(sessionAcquisitionNanos);
+  }
+
+  /** Returns the time that was spent on creating the request, including encoding the parameters. */
+  public Duration getRequestEncodingLatency() {
+    return Duration.ofNanos(requestEncodingNanos);
+  }
+
+  /**
+   * Returns the time between the first call to {@link ResultSet#next()} and the moment that the
+   * first {@code PartialResultSet} was received from Spanner. This is zero if no response has been
+   * received yet.
+   */
+  public Duration getTimeToFirstResponse() {
+    return Duration.ofNanos(timeToFirstResponseNanos);
+  }
+
+  /**
+   * Returns the total time that {@link ResultSet#next()} was blocked waiting for {@code
+   * PartialResultSet}s from Spanner, including the time to the first response.
+   */
+  public Duration getStreamWaitLatency() {
+    return Duration.ofNanos(streamWaitNanos);
+  }
+
+  /** Returns the time that was spent on merging values that were split over multiple chunks. */
+  public Duration getChunkMergingLatency() {
+    return Duration.ofNanos(chunkMergingNanos);
+  }
+
+  /**
+   * Returns the time that {@link ResultSet#next()} spent on decoding rows. This is the time that
+   * was spent in {@link ResultSet#next()} that was not spent on waiting for data from Spanner or
+   * merging chunks.
+   */
+  public Duration getRowDecodingLatency() {
+    return Duration.ofNanos(rowDecodingNanos);
+  }
+
+  /**
+   * Returns the time that the application spent between the calls to {@link ResultSet#next()}, for
+   * example on processing the rows that were returned.
+   */
+  public Duration getConsumerLatency() {
+    return Duration.ofNanos(consumerNanos);
+  }
+
+  /** Returns the number of rows that had been returned when this breakdown was created. */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "sessionAcquisition: %s, requestEncoding: %s, timeToFirstResponse: %s, streamWait: %s, "
+            + "chunkMerging: %s, rowDecoding: %s, consumer: %s, rowCount: %d",
+        getSessionAcquisitionLatency(),
+        getRequestEncodingLatency(),
+        getTimeToFirstResponse(),
+        getStreamWaitLatency(),
+        getChunkMergingLatency(),
+        getRowDecodingLatency(),
+        getConsumerLatency(),
+        rowCount);
+  }
+}
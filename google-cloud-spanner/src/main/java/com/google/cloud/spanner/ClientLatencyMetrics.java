@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.cloud.spanner.MetricRegistryConstants.STAGE;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.Meter;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records the client-side latency breakdown of queries and reads as an OpenTelemetry histogram with
+ * one series per stage.
+ */
+class ClientLatencyMetrics {
+  private static final AttributeKey<String> STAGE_KEY = AttributeKey.stringKey(STAGE);
+  private static final Attributes SESSION_ACQUISITION =
+      Attributes.of(STAGE_KEY, "session_acquisition");
+  private static final Attributes REQUEST_ENCODING = Attributes.of(STAGE_KEY, "request_encoding");
+  private static final Attributes TIME_TO_FIRST_RESPONSE =
+      Attributes.of(STAGE_KEY, "time_to_first_response");
+  private static final Attributes STREAM_WAIT = Attributes.of(STAGE_KEY, "stream_wait");
+  private static final Attributes CHUNK_MERGING = Attributes.of(STAGE_KEY, "chunk_merging");
+  private static final Attributes ROW_DECODING = Attributes.of(STAGE_KEY, "row_decoding");
+  private static final Attributes CONSUMER = Attributes.of(STAGE_KEY, "consumer");
+
+  private final DoubleHistogram stageLatencies;
+
+  ClientLatencyMetrics(OpenTelemetry openTelemetry) {
+    if (!SpannerOptions.isEnabledOpenTelemetryMetrics()) {
+      stageLatencies = null;
+      return;
+    }
+    Meter meter = openTelemetry.getMeter(MetricRegistryConstants.INSTRUMENTATION_SCOPE);
+    List<Double> bucketBoundaries =
+        Arrays.asList(
+            0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1d, 2d, 3d, 4d, 5d, 6d, 8d, 10d, 13d, 16d, 20d, 25d,
+            30d, 40d, 50d, 65d, 80d, 100d, 130d, 160d, 200d, 250d, 300d, 400d, 500d, 650d, 800d,
+            1000d, 2000d, 5000d, 10000d, 20000d, 50000d, 100000d);
+    stageLatencies =
+        meter
+            .histogramBuilder(MetricRegistryConstants.SPANNER_CLIENT_STAGE_LATENCIES)
+            .setDescription(MetricRegistryConstants.SPANNER_CLIENT_STAGE_LATENCIES_DESCRIPTION)
+            .setUnit("ms")
+            .setExplicitBucketBoundariesAdvice(bucketBoundaries)
+            .build();
+  }
+
+  void record(ClientLatencyTracker tracker) {
+    if (stageLatencies == null) {
+      return;
+    }
+    ClientLatencyBreakdown breakdown = tracker.toBreakdown();
+    if (tracker.hasSessionAcquisition()) {
+      record(breakdown.getSessionAcquisitionLatency(), SESSION_ACQUISITION);
+    }
+    record(breakdown.getRequestEncodingLatency(), REQUEST_ENCODING);
+    record(breakdown.getTimeToFirstResponse(), TIME_TO_FIRST_RESPONSE);
+    record(breakdown.getStreamWaitLatency(), STREAM_WAIT);
+    record(breakdown.getChunkMergingLatency(), CHUNK_MERGING);
+    record(breakdown.getRowDecodingLatency(), ROW_DECODING);
+    record(breakdown.getConsumerLatency(), CONSUMER);
+  }
+
+  private void record(Duration latency, Attributes attributes) {
+    stageLatencies.record(latency.toNanos() / 1_000_000d, attributes);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps track of the time that is spent in each stage of a single query or read. An instance of
+ * this class is only used by one result set and is not thread-safe, in the same way as a {@link
+ * ResultSet} is not thread-safe.
+ */
+final class ClientLatencyTracker {
+  /**
+   * The session acquisition latency of a query or read that did not acquire a session, for example
+   * because it used a session that was already acquired by an earlier query in the same
+   * transaction.
+   */
+  static final long NO_SESSION_ACQUISITION = -1L;
+
+  @Nullable private final ClientLatencyMetrics metrics;
+  private final long sessionAcquisitionNanos;
+  private long requestEncodingNanos;
+  private long timeToFirstResponseNanos;
+  private long streamWaitNanos;
+  private long chunkMergingNanos;
+  private long rowDecodingNanos;
+  private long consumerNanos;
+  private long rowCount;
+
+  private long firstNextStartNanos;
+  private long lastNextEndNanos;
+  private long streamWaitAtNextStart;
+  private long chunkMergingAtNextStart;
+  private boolean inNext;
+  private boolean recorded;
+
+  ClientLatencyTracker(@Nullable ClientLatencyMetrics metrics, long sessionAcquisitionNanos) {
+    this.metrics = metrics;
+    this.sessionAcquisitionNanos = sessionAcquisitionNanos;
+  }
+
+  /** Returns true if the query or read acquired a session from the session pool. */
+  boolean hasSessionAcquisition() {
+    return sessionAcquisitionNanos != NO_SESSION_ACQUISITION;
+  }
+
+  void addRequestEncoding(long nanos) {
+    requestEncodingNanos += nanos;
+  }
+
+  /** Called when {@link ResultSet#next()} is called. Returns the current time in nanoseconds. */
+  long beforeNext() {
+    long now = System.nanoTime();
+    if (firstNextStartNanos == 0L) {
+      firstNextStartNanos = now;
+    } else if (lastNextEndNanos != 0L) {
+      consumerNanos += now - lastNextEndNanos;
+    }
+    streamWaitAtNextStart = streamWaitNanos;
+    chunkMergingAtNextStart = chunkMergingNanos;
+    inNext = true;
+    return now;
+  }
+
+  /** Called when {@link ResultSet#next()} returns or fails. */
+  void afterNext(long startNanos, boolean hasRow) {
+    long now = System.nanoTime();
+    long waited =
+        (streamWaitNanos - streamWaitAtNextStart) + (chunkMergingNanos - chunkMergingAtNextStart);
+    rowDecodingNanos += Math.max(0L, now - startNanos - waited);
+    lastNextEndNanos = now;
+    inNext = false;
+    if (hasRow) {
+      rowCount++;
+    }
+  }
+
+  /** Called after the stream has been waited on for the next message since the given time. */
+  void onStreamWait(long startNanos) {
+    long now = System.nanoTime();
+    streamWaitNanos += now - startNanos;
+    if (timeToFirstResponseNanos == 0L && firstNextStartNanos != 0L) {
+      timeToFirstResponseNanos = now - firstNextStartNanos;
+    }
+  }
+
+  /**
+   * Called after a chunked value has been merged. The merging started at the given time when the
+   * total stream wait time was the given value.
+   */
+  void onChunkMerged(long startNanos, long streamWaitAtStart) {
+    long now = System.nanoTime();
+    chunkMergingNanos += Math.max(0L, now - startNanos - (streamWaitNanos - streamWaitAtStart));
+  }
+
+  long getStreamWaitNanos() {
+    return streamWaitNanos;
+  }
+
+  /**
+   * Records the latencies in the OpenTelemetry histograms. This is a no-op after the first call,
+   * and while a call to {@link ResultSet#next()} is in progress, as the latencies are then recorded
+   * when that call returns.
+   */
+  void record() {
+    if (recorded || inNext) {
+      return;
+    }
+    recorded = true;
+    if (metrics != null) {
+      metrics.record(this);
+    }
+  }
+
+  ClientLatencyBreakdown toBreakdown() {
+    return new ClientLatencyBreakdown(
+        hasSessionAcquisition() ? sessionAcquisitionNanos : 0L,
+        requestEncodingNanos,
+        timeToFirstResponseNanos,
+        streamWaitNanos,
+        chunkMergingNanos,
+        rowDecodingNanos,
+        consumerNanos,
+        rowCount);
+  }
+}
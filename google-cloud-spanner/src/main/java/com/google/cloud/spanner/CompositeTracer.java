@@ -24,7 +24,6 @@ import com.google.api.gax.tracing.BaseApiTracer;
 import com.google.api.gax.tracing.MetricsTracer;
 import com.google.common.collect.ImmutableList;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -38,18 +37,17 @@ public class CompositeTracer extends BaseApiTracer {
 
   @Override
   public Scope inScope() {
-    final List<Scope> childScopes = new ArrayList<>(children.size());
-
-    for (ApiTracer child : children) {
-      childScopes.add(child.inScope());
+    if (children.size() == 1) {
+      return children.get(0).inScope();
+    }
+    final Scope[] childScopes = new Scope[children.size()];
+    for (int i = 0; i < childScopes.length; i++) {
+      childScopes[i] = children.get(i).inScope();
     }
 
-    return new Scope() {
-      @Override
-      public void close() {
-        for (Scope childScope : childScopes) {
-          childScope.close();
-        }
+    return () -> {
+      for (Scope childScope : childScopes) {
+        childScope.close();
       }
     };
   }
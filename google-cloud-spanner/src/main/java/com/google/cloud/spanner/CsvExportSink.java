@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/** {@link ExportSink} that writes each partition to a separate CSV file. */
+class CsvExportSink implements ExportSink {
+  private final Path directory;
+
+  CsvExportSink(Path directory) {
+    this.directory = directory;
+  }
+
+  @Override
+  public PartitionWriter open(int partitionIndex, Type type) throws IOException {
+    Files.createDirectories(directory);
+    String fileName = String.format("partition-%05d.csv", partitionIndex);
+    Path target = directory.resolve(fileName);
+    Path temp = Files.createTempFile(directory, fileName, ".tmp");
+    return new CsvPartitionWriter(type, target, temp);
+  }
+
+  static class CsvPartitionWriter implements PartitionWriter {
+    private final Path target;
+    private final Path temp;
+    private final int columnCount;
+    private final Writer writer;
+
+    CsvPartitionWriter(Type type, Path target, Path temp) throws IOException {
+      this.target = target;
+      this.temp = temp;
+      List<Type.StructField> fields = type.getStructFields();
+      this.columnCount = fields.size();
+      this.writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+      boolean success = false;
+      try {
+        for (int i = 0; i < columnCount; i++) {
+          writeField(i, fields.get(i).getName());
+        }
+        writer.write("\r\n");
+        success = true;
+      } finally {
+        if (!success) {
+          abort();
+        }
+      }
+    }
+
+    @Override
+    public void write(Struct row) throws IOException {
+      for (int i = 0; i < columnCount; i++) {
+        writeField(i, row.isNull(i) ? null : row.getValue(i).getAsString());
+      }
+      writer.write("\r\n");
+    }
+
+    private void writeField(int index, String value) throws IOException {
+      if (index > 0) {
+        writer.write(',');
+      }
+      if (value == null) {
+        return;
+      }
+      // An empty string is quoted to distinguish it from NULL, which is written as an empty field.
+      if (value.isEmpty() || needsQuotes(value)) {
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+      } else {
+        writer.write(value);
+      }
+    }
+
+    static boolean needsQuotes(String value) {
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public void commit() throws IOException {
+      writer.close();
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void abort() {
+      try {
+        writer.close();
+      } catch (IOException ignore) {
+        // Ignore, the file is deleted anyways.
+      }
+      try {
+        Files.deleteIfExists(temp);
+      } catch (IOException ignore) {
+        // Ignore, the temporary file will not be picked up by anyone.
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Options.RpcPriority;
@@ -49,6 +50,29 @@ public interface DatabaseClient {
     throw new UnsupportedOperationException("method should be overwritten");
   }
 
+  /**
+   * Returns a future that is done when the session pool of this client contains at least the given
+   * number of sessions. The client starts creating the missing sessions if it is not already
+   * creating these. The number of sessions is capped at {@link
+   * SessionPoolOptions#getMaxSessions()}. This can be used to warm up the client before it starts
+   * to receive traffic, for example during the start of an application. Requests that are executed
+   * while the sessions are being created are served as soon as the first sessions are available.
+   *
+   * <p>Example of waiting for a client to have 400 sessions:
+   *
+   * <pre>{@code
+   * DatabaseClient client = spanner.getDatabaseClient(databaseId);
+   * client.prepareSessionsAsync(400).get(60L, TimeUnit.SECONDS);
+   * }</pre>
+   *
+   * @param numSessions the number of sessions that the session pool should contain
+   * @return a future that is done when the session pool contains at least the given number of
+   *     sessions, and that fails if the sessions could not be created
+   */
+  default ApiFuture<Void> prepareSessionsAsync(int numSessions) {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
+
   /**
    * Writes the given mutations atomically to the database.
    *
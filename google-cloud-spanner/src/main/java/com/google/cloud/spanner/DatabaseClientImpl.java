@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner;
 
+import com.google.api.core.ApiFuture;
 import com.google.api.gax.rpc.ServerStream;
 import com.google.cloud.Timestamp;
 import com.google.cloud.spanner.Options.TransactionOption;
@@ -124,6 +125,11 @@ class DatabaseClientImpl implements DatabaseClient {
     return pool.getDatabaseRole();
   }
 
+  @Override
+  public ApiFuture<Void> prepareSessionsAsync(int numSessions) {
+    return pool.prepareSessionsAsync(numSessions);
+  }
+
   @Override
   public Timestamp write(final Iterable<Mutation> mutations) throws SpannerException {
     return writeWithOptions(mutations).getCommitTimestamp();
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * Defines how a query is exported by {@link BatchClient#exportQuery(TimestampBound, Statement,
+ * ExportOptions, ExportSink, Options.QueryOption...)}.
+ */
+public class ExportOptions {
+  private final int parallelism;
+  private final PartitionOptions partitionOptions;
+  private final int maxPartitionAttempts;
+  private final boolean dataBoostEnabled;
+  private final Consumer<ExportProgress> progressListener;
+
+  private ExportOptions(Builder builder) {
+    parallelism = builder.parallelism;
+    partitionOptions = builder.partitionOptions;
+    maxPartitionAttempts = builder.maxPartitionAttempts;
+    dataBoostEnabled = builder.dataBoostEnabled;
+    progressListener = builder.progressListener;
+  }
+
+  /** Builder for {@code ExportOptions} instance. */
+  public static class Builder {
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private PartitionOptions partitionOptions = PartitionOptions.getDefaultInstance();
+    private int maxPartitionAttempts = 3;
+    private boolean dataBoostEnabled;
+    private Consumer<ExportProgress> progressListener;
+
+    private Builder() {}
+
+    /**
+     * Sets the maximum number of partitions that are executed in parallel. Defaults to the number
+     * of available processors.
+     */
+    public Builder setParallelism(int parallelism) {
+      Preconditions.checkArgument(parallelism > 0, "Invalid parallelism: " + parallelism);
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /** Sets the {@link PartitionOptions} that are used to partition the query. */
+    public Builder setPartitionOptions(PartitionOptions partitionOptions) {
+      this.partitionOptions = Preconditions.checkNotNull(partitionOptions);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of times that a single partition is executed before the export is
+     * aborted. A partition is only retried if it fails with a transient error. Defaults to 3.
+     */
+    public Builder setMaxPartitionAttempts(int maxPartitionAttempts) {
+      Preconditions.checkArgument(
+          maxPartitionAttempts > 0, "Invalid maxPartitionAttempts: " + maxPartitionAttempts);
+      this.maxPartitionAttempts = maxPartitionAttempts;
+      return this;
+    }
+
+    /** Sets whether the partitions should be executed using Data Boost. Defaults to false. */
+    public Builder setDataBoostEnabled(boolean dataBoostEnabled) {
+      this.dataBoostEnabled = dataBoostEnabled;
+      return this;
+    }
+
+    /**
+     * Sets a listener that is invoked each time a partition has been exported. The listener is
+     * invoked by the thread that exported the partition, and is never invoked concurrently.
+     */
+    public Builder setProgressListener(@Nullable Consumer<ExportProgress> progressListener) {
+      this.progressListener = progressListener;
+      return this;
+    }
+
+    public ExportOptions build() {
+      return new ExportOptions(this);
+    }
+  }
+
+  public static ExportOptions getDefaultInstance() {
+    return newBuilder().build();
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  /** Returns the maximum number of partitions that are executed in parallel. */
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /** Returns the {@link PartitionOptions} that are used to partition the query. */
+  public PartitionOptions getPartitionOptions() {
+    return partitionOptions;
+  }
+
+  /** Returns the maximum number of times that a single partition is executed. */
+  public int getMaxPartitionAttempts() {
+    return maxPartitionAttempts;
+  }
+
+  /** Returns whether the partitions are executed using Data Boost. */
+  public boolean isDataBoostEnabled() {
+    return dataBoostEnabled;
+  }
+
+  /** Returns the listener that is invoked each time a partition has been exported. */
+  @Nullable
+  public Consumer<ExportProgress> getProgressListener() {
+    return progressListener;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of the progress of a query export. An instance of this class is passed to the progress
+ * listener of an export each time a partition has been exported, and is returned when the export
+ * has finished.
+ */
+public final class ExportProgress {
+  private final int totalPartitions;
+  private final int completedPartitions;
+  private final int retriedPartitions;
+  private final long rowCount;
+  private final Duration elapsed;
+
+  ExportProgress(
+      int totalPartitions,
+      int completedPartitions,
+      int retriedPartitions,
+      long rowCount,
+      Duration elapsed) {
+    this.totalPartitions = totalPartitions;
+    this.completedPartitions = completedPartitions;
+    this.retriedPartitions = retriedPartitions;
+    this.rowCount = rowCount;
+    this.elapsed = elapsed;
+  }
+
+  /** Returns the total number of partitions of the query. */
+  public int getTotalPartitions() {
+    return totalPartitions;
+  }
+
+  /** Returns the number of partitions that have been exported. */
+  public int getCompletedPartitions() {
+    return completedPartitions;
+  }
+
+  /** Returns the number of times that a partition has been retried after a transient error. */
+  public int getRetriedPartitions() {
+    return retriedPartitions;
+  }
+
+  /**
+   * Returns the number of rows that have been written to the sink. This excludes rows of partition
+   * attempts that failed.
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /** Returns the time since the export was started. */
+  public Duration getElapsed() {
+    return elapsed;
+  }
+
+  /** Returns the average number of rows that has been exported per second. */
+  public double getRowsPerSecond() {
+    long millis = elapsed.toMillis();
+    return millis == 0L ? 0d : rowCount * 1000d / millis;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "partitions: %d/%d, retried partitions: %d, rows: %d, elapsed: %s, rows/s: %.1f",
+        completedPartitions,
+        totalPartitions,
+        retriedPartitions,
+        rowCount,
+        elapsed,
+        getRowsPerSecond());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Destination for the rows of a query that is exported by {@link
+ * BatchClient#exportQuery(TimestampBound, Statement, ExportOptions, ExportSink,
+ * Options.QueryOption...)}.
+ *
+ * <p>The export opens one {@link PartitionWriter} for each attempt to export a partition. The
+ * writers of different partitions are used concurrently by different threads, but a single writer
+ * is only used by one thread at a time.
+ */
+public interface ExportSink {
+
+  /** Receives the rows of a single attempt to export one partition. */
+  interface PartitionWriter {
+    /** Writes one row of the partition. */
+    void write(Struct row) throws IOException;
+
+    /** Called when all rows of the partition have been written. */
+    void commit() throws IOException;
+
+    /**
+     * Called when the attempt to export the partition failed. The rows that were written by this
+     * writer should be discarded if possible, as the partition will either be retried with a new
+     * writer, or the export will fail.
+     */
+    void abort();
+  }
+
+  /**
+   * Opens a writer for the partition with the given index. The index is in the range [0,
+   * numPartitions), and is stable for retries of the same partition.
+   *
+   * @param partitionIndex the index of the partition in the list of partitions of the query
+   * @param type the type of the rows of the partition
+   */
+  PartitionWriter open(int partitionIndex, Type type) throws IOException;
+
+  /**
+   * Returns a sink that calls the given consumer for each row. The consumer must be thread-safe.
+   * Rows of a partition attempt that fails are not rolled back, which means that the consumer can
+   * receive the same row more than once if a partition is retried.
+   */
+  static ExportSink forEachRow(Consumer<Struct> consumer) {
+    Preconditions.checkNotNull(consumer);
+    return (partitionIndex, type) ->
+        new PartitionWriter() {
+          @Override
+          public void write(Struct row) {
+            consumer.accept(row);
+          }
+
+          @Override
+          public void commit() {}
+
+          @Override
+          public void abort() {}
+        };
+  }
+
+  /**
+   * Returns a sink that writes each partition to a separate CSV file in the given directory. The
+   * files are named {@code partition-00000.csv}, {@code partition-00001.csv}, etc. Each file starts
+   * with a header row that contains the column names. NULL values are written as empty fields, and
+   * empty strings are written as {@code ""}, so the two can be distinguished. A file is only
+   * visible with its final name once all rows of the partition have been written.
+   */
+  static ExportSink csvFiles(Path directory) {
+    return new CsvExportSink(Preconditions.checkNotNull(directory));
+  }
+}
@@ -105,6 +105,11 @@ public class ForwardingResultSet extends ForwardingStructReader
     return delegate.get().getMetadata();
   }
 
+  @Override
+  public ClientLatencyBreakdown getClientLatencyBreakdown() {
+    return delegate.get().getClientLatencyBreakdown();
+  }
+
   @Override
   @InternalApi
   public boolean initiateStreaming(AsyncResultSet.StreamMessageListener streamMessageListener) {
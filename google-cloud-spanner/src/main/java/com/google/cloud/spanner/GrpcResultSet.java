@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.api.core.InternalApi;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Value;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.ResultSetMetadata;
@@ -42,6 +43,11 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
   private SpannerException error;
   private ResultSetStats statistics;
   private boolean closed;
+  private ByteString checkpointResumeToken;
+  private long rowsSinceCheckpoint;
+  @Nullable private final ClientLatencyTracker latencyTracker;
+  @Nullable private final QueryFingerprintSketch.Recording queryRecording;
+  @Nullable private final Integer stringDictionarySize;
 
   GrpcResultSet(CloseableIterator<PartialResultSet> iterator, Listener listener) {
     this(iterator, listener, DecodeMode.DIRECT);
@@ -49,9 +55,50 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
 
   GrpcResultSet(
       CloseableIterator<PartialResultSet> iterator, Listener listener, DecodeMode decodeMode) {
-    this.iterator = new GrpcValueIterator(iterator, listener);
+    this(iterator, listener, decodeMode, null);
+  }
+
+  GrpcResultSet(
+      CloseableIterator<PartialResultSet> iterator,
+      Listener listener,
+      DecodeMode decodeMode,
+      @Nullable ResultSetMetadata resumeMetadata) {
+    this(iterator, listener, decodeMode, resumeMetadata, null);
+  }
+
+  GrpcResultSet(
+      CloseableIterator<PartialResultSet> iterator,
+      Listener listener,
+      DecodeMode decodeMode,
+      @Nullable ResultSetMetadata resumeMetadata,
+      @Nullable ClientLatencyTracker latencyTracker) {
+    this(iterator, listener, decodeMode, resumeMetadata, latencyTracker, null);
+  }
+
+  GrpcResultSet(
+      CloseableIterator<PartialResultSet> iterator,
+      Listener listener,
+      DecodeMode decodeMode,
+      @Nullable ResultSetMetadata resumeMetadata,
+      @Nullable ClientLatencyTracker latencyTracker,
+      @Nullable QueryFingerprintSketch.Recording queryRecording) {
+    this(iterator, listener, decodeMode, resumeMetadata, latencyTracker, queryRecording, null);
+  }
+
+  GrpcResultSet(
+      CloseableIterator<PartialResultSet> iterator,
+      Listener listener,
+      DecodeMode decodeMode,
+      @Nullable ResultSetMetadata resumeMetadata,
+      @Nullable ClientLatencyTracker latencyTracker,
+      @Nullable QueryFingerprintSketch.Recording queryRecording,
+      @Nullable Integer stringDictionarySize) {
+    this.iterator = new GrpcValueIterator(iterator, listener, resumeMetadata, latencyTracker);
     this.listener = listener;
     this.decodeMode = decodeMode;
+    this.latencyTracker = latencyTracker;
+    this.queryRecording = queryRecording;
+    this.stringDictionarySize = stringDictionarySize;
   }
 
   @Override
@@ -78,6 +125,23 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
     if (error != null) {
       throw newSpannerException(error);
     }
+    if (latencyTracker == null) {
+      return internalNext();
+    }
+    long start = latencyTracker.beforeNext();
+    boolean hasNext = false;
+    try {
+      hasNext = internalNext();
+      return hasNext;
+    } finally {
+      latencyTracker.afterNext(start, hasNext);
+      if (!hasNext) {
+        latencyTracker.record();
+      }
+    }
+  }
+
+  private boolean internalNext() {
     try {
       if (currRow == null) {
         metadata = iterator.getMetadata();
@@ -97,10 +161,29 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
         } else {
           rowData.clear();
         }
-        currRow = new GrpcStruct(iterator.type(), rowData, decodeMode);
+        currRow =
+            new GrpcStruct(
+                iterator.type(),
+                rowData,
+                decodeMode,
+                stringDictionarySize == null
+                    ? null
+                    : new StringDictionary(
+                        metadata.getRowType().getFieldsCount(), stringDictionarySize));
       }
       boolean hasNext = currRow.consumeRow(iterator);
-      if (!hasNext) {
+      if (hasNext) {
+        if (queryRecording != null) {
+          queryRecording.onRow();
+        }
+        ByteString resumeToken = iterator.getResumeTokenAtCurrentPosition();
+        if (resumeToken == null) {
+          rowsSinceCheckpoint++;
+        } else {
+          checkpointResumeToken = resumeToken;
+          rowsSinceCheckpoint = 0L;
+        }
+      } else {
         statistics = iterator.getStats();
         // Close the ResultSet when there is no more data.
         close();
@@ -125,6 +208,37 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
     return metadata;
   }
 
+  /**
+   * Returns the last resume token that can be used to resume this result set at a row boundary, or
+   * null if no such token has been returned yet. Resuming from this token will return the row that
+   * follows the row that was returned {@link #getRowsSinceCheckpoint()} rows ago.
+   */
+  @Nullable
+  ByteString getCheckpointResumeToken() {
+    return checkpointResumeToken;
+  }
+
+  /**
+   * Returns the number of rows that have been returned since the row at which {@link
+   * #getCheckpointResumeToken()} was received, or the total number of rows that have been returned
+   * if no resume token has been received yet.
+   */
+  long getRowsSinceCheckpoint() {
+    return rowsSinceCheckpoint;
+  }
+
+  @Override
+  @Nullable
+  public ClientLatencyBreakdown getClientLatencyBreakdown() {
+    return latencyTracker == null ? null : latencyTracker.toBreakdown();
+  }
+
+  /** Returns the metadata of this result set, or null if it has not yet been received. */
+  @Nullable
+  ResultSetMetadata getMetadataOrNull() {
+    return metadata;
+  }
+
   @Override
   @InternalApi
   public boolean initiateStreaming(AsyncResultSet.StreamMessageListener streamMessageListener) {
@@ -141,6 +255,12 @@ class GrpcResultSet extends AbstractResultSet<List<Object>>
     }
     listener.onDone(iterator.isWithBeginTransaction());
     iterator.close("ResultSet closed");
+    if (latencyTracker != null) {
+      latencyTracker.record();
+    }
+    if (queryRecording != null) {
+      queryRecording.finish();
+    }
   }
 
   @Override
@@ -33,18 +33,14 @@ import com.google.cloud.spanner.Type.Code;
 import com.google.cloud.spanner.Type.StructField;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
-import com.google.common.io.CharSource;
 import com.google.protobuf.AbstractMessage;
 import com.google.protobuf.ListValue;
 import com.google.protobuf.NullValue;
 import com.google.protobuf.ProtocolMessageEnum;
 import com.google.protobuf.Value.KindCase;
-import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Iterator;
@@ -52,6 +48,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 class GrpcStruct extends Struct implements Serializable {
   private static final com.google.protobuf.Value NULL_VALUE =
@@ -62,6 +59,7 @@ class GrpcStruct extends Struct implements Serializable {
   private final DecodeMode decodeMode;
   private final BitSet colDecoded;
   private final AtomicBoolean rowDecoded;
+  @Nullable private final StringDictionary stringDictionary;
 
   /**
    * Builds an immutable version of this struct using {@link Struct#newBuilder()} which is used as a
@@ -206,6 +204,14 @@ class GrpcStruct extends Struct implements Serializable {
   }
 
   GrpcStruct(Type type, List<Object> rowData, DecodeMode decodeMode) {
+    this(type, rowData, decodeMode, null);
+  }
+
+  GrpcStruct(
+      Type type,
+      List<Object> rowData,
+      DecodeMode decodeMode,
+      @Nullable StringDictionary stringDictionary) {
     this(
         type,
         rowData,
@@ -213,7 +219,8 @@ class GrpcStruct extends Struct implements Serializable {
         /* rowDecoded = */ false,
         /* colDecoded = */ decodeMode == DecodeMode.LAZY_PER_COL
             ? new BitSet(type.getStructFields().size())
-            : null);
+            : null,
+        stringDictionary);
   }
 
   private GrpcStruct(
@@ -221,12 +228,14 @@ class GrpcStruct extends Struct implements Serializable {
       List<Object> rowData,
       DecodeMode decodeMode,
       boolean rowDecoded,
-      BitSet colDecoded) {
+      BitSet colDecoded,
+      @Nullable StringDictionary stringDictionary) {
     this.type = type;
     this.rowData = rowData;
     this.decodeMode = decodeMode;
     this.rowDecoded = new AtomicBoolean(rowDecoded);
     this.colDecoded = colDecoded;
+    this.stringDictionary = stringDictionary;
   }
 
   @Override
@@ -245,7 +254,8 @@ class GrpcStruct extends Struct implements Serializable {
       if (!iterator.hasNext()) {
         return false;
       }
-      for (Type.StructField fieldType : getType().getStructFields()) {
+      List<Type.StructField> fields = getType().getStructFields();
+      for (int i = 0; i < fields.size(); i++) {
         if (!iterator.hasNext()) {
           throw newSpannerException(
               ErrorCode.INTERNAL,
@@ -253,7 +263,7 @@ class GrpcStruct extends Struct implements Serializable {
         }
         com.google.protobuf.Value value = iterator.next();
         if (decodeMode == DecodeMode.DIRECT) {
-          rowData.add(decodeValue(fieldType.getType(), value));
+          rowData.add(decodeColumn(i, fields.get(i).getType(), value));
         } else {
           rowData.add(value);
         }
@@ -262,6 +272,18 @@ class GrpcStruct extends Struct implements Serializable {
     }
   }
 
+  /**
+   * Decodes the value of a top-level column and replaces STRING values with their canonical
+   * instance if a {@link StringDictionary} is used.
+   */
+  private Object decodeColumn(int columnIndex, Type fieldType, com.google.protobuf.Value proto) {
+    Object value = decodeValue(fieldType, proto);
+    if (stringDictionary != null && value != null && fieldType.getCode() == Code.STRING) {
+      return stringDictionary.deduplicate(columnIndex, (String) value);
+    }
+    return value;
+  }
+
   private static Object decodeValue(Type fieldType, com.google.protobuf.Value proto) {
     if (proto.getKindCase() == KindCase.NULL_VALUE) {
       return null;
@@ -281,7 +303,7 @@ class GrpcStruct extends Struct implements Serializable {
         return valueProtoToFloat32(proto);
       case NUMERIC:
         checkType(fieldType, proto, KindCase.STRING_VALUE);
-        return new BigDecimal(proto.getStringValue());
+        return ValueParsers.parseNumeric(proto.getStringValue());
       case PG_NUMERIC:
       case STRING:
       case JSON:
@@ -294,10 +316,10 @@ class GrpcStruct extends Struct implements Serializable {
         return new LazyByteArray(proto.getStringValue());
       case TIMESTAMP:
         checkType(fieldType, proto, KindCase.STRING_VALUE);
-        return Timestamp.parseTimestamp(proto.getStringValue());
+        return ValueParsers.parseTimestamp(proto.getStringValue());
       case DATE:
         checkType(fieldType, proto, KindCase.STRING_VALUE);
-        return Date.parseDate(proto.getStringValue());
+        return ValueParsers.parseDate(proto.getStringValue());
       case ARRAY:
         checkType(fieldType, proto, KindCase.LIST_VALUE);
         ListValue listValue = proto.getListValue();
@@ -344,12 +366,19 @@ class GrpcStruct extends Struct implements Serializable {
       case STRING:
       case JSON:
       case PG_JSONB:
-      case BYTES:
       case TIMESTAMP:
       case DATE:
       case STRUCT:
-      case PROTO:
         return Lists.transform(listValue.getValuesList(), input -> decodeValue(elementType, input));
+      case BYTES:
+      case PROTO:
+        // Decode the elements once, so the decoded bytes and parsed proto messages that are cached
+        // by each LazyByteArray are kept for the lifetime of the row.
+        List<Object> elements = new ArrayList<>(listValue.getValuesCount());
+        for (com.google.protobuf.Value input : listValue.getValuesList()) {
+          elements.add(decodeValue(elementType, input));
+        }
+        return elements;
       default:
         throw new AssertionError("Unhandled type code: " + elementType.getCode());
     }
@@ -378,7 +407,8 @@ class GrpcStruct extends Struct implements Serializable {
               : Collections.synchronizedList(new ArrayList<>(rowData)),
           this.decodeMode,
           this.rowDecoded.get(),
-          this.colDecoded == null ? null : (BitSet) this.colDecoded.clone());
+          this.colDecoded == null ? null : (BitSet) this.colDecoded.clone(),
+          this.stringDictionary);
     }
   }
 
@@ -407,21 +437,7 @@ class GrpcStruct extends Struct implements Serializable {
         message,
         "Proto message may not be null. Use MyProtoClass.getDefaultInstance() as a parameter value.");
     ensureDecoded(columnIndex);
-    try {
-      return (T)
-          message
-              .toBuilder()
-              .mergeFrom(
-                  Base64.getDecoder()
-                      .wrap(
-                          CharSource.wrap(
-                                  ((LazyByteArray) rowData.get(columnIndex)).getBase64String())
-                              .asByteSource(StandardCharsets.UTF_8)
-                              .openStream()))
-              .build();
-    } catch (IOException ioException) {
-      throw SpannerExceptionFactory.asSpannerException(ioException);
-    }
+    return ((LazyByteArray) rowData.get(columnIndex)).getProtoMessage(message);
   }
 
   @Override
@@ -545,7 +561,8 @@ class GrpcStruct extends Struct implements Serializable {
           for (int i = 0; i < rowData.size(); i++) {
             rowData.set(
                 i,
-                decodeValue(
+                decodeColumn(
+                    i,
                     type.getStructFields().get(i).getType(),
                     (com.google.protobuf.Value) rowData.get(i)));
           }
@@ -568,7 +585,8 @@ class GrpcStruct extends Struct implements Serializable {
           // and set a consistent value (and only set it once).
           if (!colDecoded.get(columnIndex)) {
             value =
-                decodeValue(
+                decodeColumn(
+                    columnIndex,
                     type.getStructFields().get(columnIndex).getType(),
                     (com.google.protobuf.Value) value);
             decoded = true;
@@ -771,30 +789,12 @@ class GrpcStruct extends Struct implements Serializable {
     ensureDecoded(columnIndex);
 
     List<LazyByteArray> bytesArray = (List<LazyByteArray>) rowData.get(columnIndex);
-
-    try {
-      List<T> protoMessagesList = new ArrayList<>(bytesArray.size());
-      for (LazyByteArray protoMessageBytes : bytesArray) {
-        if (protoMessageBytes == null) {
-          protoMessagesList.add(null);
-        } else {
-          protoMessagesList.add(
-              (T)
-                  message
-                      .toBuilder()
-                      .mergeFrom(
-                          Base64.getDecoder()
-                              .wrap(
-                                  CharSource.wrap(protoMessageBytes.getBase64String())
-                                      .asByteSource(StandardCharsets.UTF_8)
-                                      .openStream()))
-                      .build());
-        }
-      }
-      return protoMessagesList;
-    } catch (IOException ioException) {
-      throw SpannerExceptionFactory.asSpannerException(ioException);
+    List<T> protoMessagesList = new ArrayList<>(bytesArray.size());
+    for (LazyByteArray protoMessageBytes : bytesArray) {
+      protoMessagesList.add(
+          protoMessageBytes == null ? null : protoMessageBytes.getProtoMessage(message));
     }
+    return protoMessagesList;
   }
 
   @Override
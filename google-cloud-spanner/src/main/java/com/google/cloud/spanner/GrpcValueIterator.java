@@ -22,12 +22,12 @@ import static com.google.common.base.Preconditions.checkState;
 import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
 import com.google.cloud.spanner.AbstractResultSet.Listener;
 import com.google.common.collect.AbstractIterator;
+import com.google.protobuf.ByteString;
 import com.google.protobuf.ListValue;
 import com.google.protobuf.Value.KindCase;
 import com.google.spanner.v1.PartialResultSet;
 import com.google.spanner.v1.ResultSetMetadata;
 import com.google.spanner.v1.ResultSetStats;
-import com.google.spanner.v1.TypeCode;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
@@ -46,10 +46,33 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
   private int pos;
   private ResultSetStats statistics;
   private final Listener listener;
+  @Nullable private final ResultSetMetadata resumeMetadata;
+  @Nullable private final ClientLatencyTracker latencyTracker;
 
   GrpcValueIterator(CloseableIterator<PartialResultSet> stream, Listener listener) {
+    this(stream, listener, null);
+  }
+
+  /**
+   * Creates an iterator for a stream that is resumed from a resume token. The given metadata is
+   * used if the first message on the stream does not contain any metadata.
+   */
+  GrpcValueIterator(
+      CloseableIterator<PartialResultSet> stream,
+      Listener listener,
+      @Nullable ResultSetMetadata resumeMetadata) {
+    this(stream, listener, resumeMetadata, null);
+  }
+
+  GrpcValueIterator(
+      CloseableIterator<PartialResultSet> stream,
+      Listener listener,
+      @Nullable ResultSetMetadata resumeMetadata,
+      @Nullable ClientLatencyTracker latencyTracker) {
     this.stream = stream;
     this.listener = listener;
+    this.resumeMetadata = resumeMetadata;
+    this.latencyTracker = latencyTracker;
   }
 
   @SuppressWarnings("unchecked")
@@ -73,6 +96,12 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
       return value;
     }
 
+    long mergeStart = 0L;
+    long streamWaitAtMergeStart = 0L;
+    if (latencyTracker != null) {
+      mergeStart = System.nanoTime();
+      streamWaitAtMergeStart = latencyTracker.getStreamWaitNanos();
+    }
     Object merged =
         kind == KindCase.STRING_VALUE
             ? value.getStringValue()
@@ -98,20 +127,30 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
             (List<com.google.protobuf.Value>) merged, newValue.getListValue().getValuesList());
       }
     }
+    com.google.protobuf.Value result;
     if (kind == KindCase.STRING_VALUE) {
-      return com.google.protobuf.Value.newBuilder().setStringValue((String) merged).build();
+      result = com.google.protobuf.Value.newBuilder().setStringValue((String) merged).build();
     } else {
-      return com.google.protobuf.Value.newBuilder()
-          .setListValue(
-              ListValue.newBuilder().addAllValues((List<com.google.protobuf.Value>) merged))
-          .build();
+      result =
+          com.google.protobuf.Value.newBuilder()
+              .setListValue(
+                  ListValue.newBuilder().addAllValues((List<com.google.protobuf.Value>) merged))
+              .build();
+    }
+    if (latencyTracker != null) {
+      latencyTracker.onChunkMerged(mergeStart, streamWaitAtMergeStart);
     }
+    return result;
   }
 
   ResultSetMetadata getMetadata() throws SpannerException {
     if (metadata == null) {
       if (!ensureReady(StreamValue.METADATA)) {
-        throw newSpannerException(ErrorCode.INTERNAL, "Stream closed without sending metadata");
+        if (resumeMetadata == null) {
+          throw newSpannerException(ErrorCode.INTERNAL, "Stream closed without sending metadata");
+        }
+        // A resumed stream that does not return any more results.
+        initMetadata(resumeMetadata);
       }
     }
     return metadata;
@@ -138,28 +177,27 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
 
   private boolean ensureReady(StreamValue requiredValue) throws SpannerException {
     while (current == null || pos >= current.getValuesCount()) {
+      long waitStart = latencyTracker == null ? 0L : System.nanoTime();
       if (!stream.hasNext()) {
+        if (latencyTracker != null) {
+          latencyTracker.onStreamWait(waitStart);
+        }
         return false;
       }
       current = stream.next();
+      if (latencyTracker != null) {
+        latencyTracker.onStreamWait(waitStart);
+      }
       pos = 0;
       if (type == null) {
         // This is the first message on the stream.
-        if (!current.hasMetadata() || !current.getMetadata().hasRowType()) {
+        if (current.hasMetadata() && current.getMetadata().hasRowType()) {
+          initMetadata(current.getMetadata());
+        } else if (resumeMetadata != null) {
+          initMetadata(resumeMetadata);
+        } else {
           throw newSpannerException(ErrorCode.INTERNAL, "Missing type metadata in first message");
         }
-        metadata = current.getMetadata();
-        com.google.spanner.v1.Type typeProto =
-            com.google.spanner.v1.Type.newBuilder()
-                .setCode(TypeCode.STRUCT)
-                .setStructType(metadata.getRowType())
-                .build();
-        try {
-          type = Type.fromProto(typeProto);
-        } catch (IllegalArgumentException e) {
-          throw newSpannerException(
-              ErrorCode.INTERNAL, "Invalid type metadata: " + e.getMessage(), e);
-        }
       }
       // collect the precommit token from each PartialResultSet
       if (current.hasPrecommitToken()) {
@@ -175,6 +213,32 @@ class GrpcValueIterator extends AbstractIterator<com.google.protobuf.Value> {
     return true;
   }
 
+  /**
+   * Returns the resume token of the last {@link PartialResultSet} if all values in that {@link
+   * PartialResultSet} have been consumed and the last value was not chunked. Resuming the stream
+   * from this token will return the values that follow the last value that was returned by this
+   * iterator. Returns null if there is no such resume token.
+   */
+  @Nullable
+  ByteString getResumeTokenAtCurrentPosition() {
+    if (current == null
+        || pos < current.getValuesCount()
+        || current.getChunkedValue()
+        || current.getResumeToken().isEmpty()) {
+      return null;
+    }
+    return current.getResumeToken();
+  }
+
+  private void initMetadata(ResultSetMetadata metadata) {
+    this.metadata = metadata;
+    try {
+      type = Type.fromRowTypeProto(metadata.getRowType());
+    } catch (IllegalArgumentException e) {
+      throw newSpannerException(ErrorCode.INTERNAL, "Invalid type metadata: " + e.getMessage(), e);
+    }
+  }
+
   void close(@Nullable String message) {
     stream.close(message);
   }
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * Local cache of the split points of tables and indexes. The split points divide the keys of a
+ * table or index into ranges that contain roughly the same number of rows. Jobs that regularly read
+ * the same tables, for example hourly exports, can use the cached split points to divide the work
+ * into {@link KeyRange}s without first calling {@link BatchReadOnlyTransaction#partitionRead}. The
+ * partition tokens that are returned by Spanner are only valid for the transaction that created
+ * them, and can therefore not be cached.
+ *
+ * <p>The split points are learned while the data is read. Each worker reports the keys that it
+ * reads to a {@link Recorder}, which samples the keys at a fixed row interval. The sampled keys
+ * replace the cached split points when the job commits the recorder. The first job that reads a
+ * table or index gets a single range that covers all keys, unless it uses partitioned reads.
+ *
+ * <p>Work is balanced dynamically by requesting more ranges than there are workers and letting the
+ * workers take the next range from a shared queue when they finish a range. Slow ranges then do not
+ * hold up the other workers.
+ *
+ * <p>Usage example:
+ *
+ * <pre>{@code
+ * List<KeyRange> ranges = cache.getKeyRanges("Singers", null, 4 * numWorkers);
+ * KeyRangeSplitCache.Recorder recorder = cache.newRecorder("Singers", null, ranges.size(), 10000L);
+ * // Each worker reads range i with txn.read("Singers", KeySet.range(ranges.get(i)), columns)
+ * // and calls recorder.recordRow(i, Key.of(row.getLong("SingerId"))) for each row.
+ * recorder.commit();
+ * }</pre>
+ */
+@BetaApi
+public final class KeyRangeSplitCache {
+  private final Duration ttl;
+  private final Clock clock;
+  private final ConcurrentMap<CacheKey, Entry> entries = new ConcurrentHashMap<>();
+
+  /** Creates a cache that keeps split points for the given time. */
+  public static KeyRangeSplitCache create(Duration ttl) {
+    return new KeyRangeSplitCache(ttl, Clock.INSTANCE);
+  }
+
+  @VisibleForTesting
+  KeyRangeSplitCache(Duration ttl, Clock clock) {
+    Preconditions.checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl must be > 0");
+    this.ttl = ttl;
+    this.clock = Preconditions.checkNotNull(clock);
+  }
+
+  /**
+   * Returns at most {@code maxRanges} key ranges that together cover all keys of the given table or
+   * index. The ranges are returned in key order. A single range with all keys is returned if there
+   * are no cached split points, or if the cached split points have expired.
+   *
+   * @param table the name of the table
+   * @param index the name of the index, or null for the table itself
+   * @param maxRanges the maximum number of ranges to return
+   */
+  public List<KeyRange> getKeyRanges(String table, @Nullable String index, int maxRanges) {
+    Preconditions.checkArgument(maxRanges > 0, "maxRanges must be > 0");
+    List<Key> splitPoints = getSplitPoints(table, index);
+    if (splitPoints.size() >= maxRanges) {
+      // Select evenly spaced split points. The sampled keys are evenly spaced in number of rows, so
+      // the ranges between the selected keys contain roughly the same number of rows.
+      List<Key> selected = new ArrayList<>(maxRanges - 1);
+      for (int i = 1; i < maxRanges; i++) {
+        selected.add(splitPoints.get((int) ((long) i * splitPoints.size() / maxRanges)));
+      }
+      splitPoints = selected;
+    }
+    return toKeyRanges(splitPoints);
+  }
+
+  /**
+   * Returns the cached split points of the given table or index, or an empty list if there are no
+   * cached split points or the cached split points have expired.
+   */
+  public List<Key> getSplitPoints(String table, @Nullable String index) {
+    CacheKey key = new CacheKey(table, index);
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      return ImmutableList.of();
+    }
+    if (!clock.instant().isBefore(entry.created.plus(ttl))) {
+      entries.remove(key, entry);
+      return ImmutableList.of();
+    }
+    return entry.splitPoints;
+  }
+
+  /** Removes the cached split points of the given table or index. */
+  public void invalidate(String table, @Nullable String index) {
+    entries.remove(new CacheKey(table, index));
+  }
+
+  /**
+   * Returns a new {@link Recorder} that samples the keys of a read of the given table or index.
+   *
+   * @param table the name of the table
+   * @param index the name of the index, or null for the table itself
+   * @param numRanges the number of ranges that are read, in key order
+   * @param sampleInterval the number of rows between two sampled keys
+   */
+  public Recorder newRecorder(
+      String table, @Nullable String index, int numRanges, long sampleInterval) {
+    Preconditions.checkArgument(numRanges > 0, "numRanges must be > 0");
+    Preconditions.checkArgument(sampleInterval > 0L, "sampleInterval must be > 0");
+    return new Recorder(new CacheKey(table, index), numRanges, sampleInterval);
+  }
+
+  /**
+   * Converts split points in key order to the ranges between them. The first range starts at the
+   * first key of the table or index, and the last range ends at the last key.
+   */
+  static List<KeyRange> toKeyRanges(List<Key> splitPoints) {
+    Key all = Key.of();
+    List<KeyRange> ranges = new ArrayList<>(splitPoints.size() + 1);
+    Key start = null;
+    for (Key splitPoint : splitPoints) {
+      if (splitPoint.equals(start)) {
+        continue;
+      }
+      ranges.add(KeyRange.closedOpen(start == null ? all : start, splitPoint));
+      start = splitPoint;
+    }
+    ranges.add(KeyRange.closedClosed(start == null ? all : start, all));
+    return ranges;
+  }
+
+  /**
+   * Samples the keys that are read from a table or index. Each range may be read by a different
+   * thread, but the rows of one range must be recorded in key order.
+   */
+  public final class Recorder {
+    private final CacheKey cacheKey;
+    private final long sampleInterval;
+    private final RangeSamples[] ranges;
+
+    private Recorder(CacheKey cacheKey, int numRanges, long sampleInterval) {
+      this.cacheKey = cacheKey;
+      this.sampleInterval = sampleInterval;
+      this.ranges = new RangeSamples[numRanges];
+      for (int i = 0; i < numRanges; i++) {
+        ranges[i] = new RangeSamples();
+      }
+    }
+
+    /** Records that a row with the given key was read in the range with the given index. */
+    public void recordRow(int rangeIndex, Key key) {
+      RangeSamples range = ranges[rangeIndex];
+      synchronized (range) {
+        if (++range.rowCount % sampleInterval == 0L) {
+          range.keys.add(key);
+        }
+      }
+    }
+
+    /**
+     * Restarts the sampling of the given range, for example when the read of the range is retried.
+     */
+    public void resetRange(int rangeIndex) {
+      RangeSamples range = ranges[rangeIndex];
+      synchronized (range) {
+        range.rowCount = 0L;
+        range.keys.clear();
+      }
+    }
+
+    /**
+     * Replaces the cached split points of the table or index with the sampled keys. This method
+     * should only be called after all ranges have been read completely.
+     */
+    public void commit() {
+      ImmutableList.Builder<Key> splitPoints = ImmutableList.builder();
+      for (RangeSamples range : ranges) {
+        synchronized (range) {
+          splitPoints.addAll(range.keys);
+        }
+      }
+      entries.put(cacheKey, new Entry(splitPoints.build(), clock.instant()));
+    }
+  }
+
+  private static final class RangeSamples {
+    private long rowCount;
+    private final List<Key> keys = new ArrayList<>();
+  }
+
+  private static final class Entry {
+    private final ImmutableList<Key> splitPoints;
+    private final Instant created;
+
+    private Entry(ImmutableList<Key> splitPoints, Instant created) {
+      this.splitPoints = splitPoints;
+      this.created = created;
+    }
+  }
+
+  private static final class CacheKey {
+    private final String table;
+    @Nullable private final String index;
+
+    private CacheKey(String table, @Nullable String index) {
+      this.table = Preconditions.checkNotNull(table);
+      this.index = index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) o;
+      return table.equals(other.table) && Objects.equals(index, other.index);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(table, index);
+    }
+  }
+}
@@ -104,4 +104,9 @@ class MetricRegistryConstants {
   static final String SPANNER_GFE_HEADER_MISSING_COUNT = "spanner/gfe_header_missing_count";
   static final String SPANNER_GFE_HEADER_MISSING_COUNT_DESCRIPTION =
       "Number of RPC responses received without the server-timing header, most likely means that the RPC never reached Google's network";
+
+  static final String SPANNER_CLIENT_STAGE_LATENCIES = "spanner/client_stage_latencies";
+  static final String SPANNER_CLIENT_STAGE_LATENCIES_DESCRIPTION =
+      "Time spent by the client in each stage of executing a query or read and consuming the results";
+  static final String STAGE = "stage";
 }
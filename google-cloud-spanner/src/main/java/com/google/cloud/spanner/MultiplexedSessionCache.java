@@ -0,0 +1,228 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.auth.Credentials;
+import com.google.auth.ServiceAccountSigner;
+import com.google.auth.oauth2.ImpersonatedCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+import com.google.auth.oauth2.UserCredentials;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.SessionClient.SessionId;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.Timestamp;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * A small file store for the multiplexed session of a database. This allows a new process to reuse
+ * a multiplexed session that was created by a previous process for the same database, instead of
+ * creating a new multiplexed session at startup. Each database has one file in the cache directory.
+ * The name of the file is a hash of the host, the database, the database role and the identity of
+ * the credentials that are used by the client, so that a session is never reused by a client that
+ * would not have been allowed to create it. Sessions are not cached for credentials whose principal
+ * cannot be determined by the client, such as plain access tokens.
+ *
+ * <p>The cache is best-effort: Any error while reading or writing a file is logged and ignored, and
+ * the client falls back to creating a new multiplexed session.
+ */
+final class MultiplexedSessionCache {
+  private static final Logger logger = Logger.getLogger(MultiplexedSessionCache.class.getName());
+
+  private static final String NAME_PROPERTY = "name";
+  private static final String CREATE_TIME_SECONDS_PROPERTY = "createTimeSeconds";
+  private static final String CREATE_TIME_NANOS_PROPERTY = "createTimeNanos";
+
+  private final Path file;
+
+  private final DatabaseId databaseId;
+
+  /**
+   * Returns a cache for the multiplexed session of the given database, or null if the session cache
+   * has not been enabled in the given options, or if the principal of the credentials in the given
+   * options is not known.
+   */
+  @Nullable
+  static MultiplexedSessionCache create(SpannerOptions options, DatabaseId databaseId) {
+    String directory = options.getSessionPoolOptions().getMultiplexedSessionCacheDirectory();
+    if (directory == null) {
+      return null;
+    }
+    String credentialsIdentity = getCredentialsIdentity(options.getCredentials());
+    if (credentialsIdentity == null) {
+      logger.log(
+          Level.FINE,
+          "Not caching multiplexed sessions for credentials of type "
+              + options.getCredentials().getClass().getName());
+      return null;
+    }
+    String key =
+        String.join(
+            "\n",
+            MoreObjects.firstNonNull(options.getHost(), ""),
+            databaseId.getName(),
+            MoreObjects.firstNonNull(options.getDatabaseRole(), ""),
+            credentialsIdentity);
+    String fileName =
+        "multiplexed-session-" + Hashing.sha256().hashString(key, StandardCharsets.UTF_8);
+    return new MultiplexedSessionCache(Paths.get(directory, fileName), databaseId);
+  }
+
+  /**
+   * Returns a string that identifies the principal of the given credentials, or null if the
+   * principal cannot be determined from the credentials. The string does not contain any secrets.
+   */
+  @VisibleForTesting
+  @Nullable
+  static String getCredentialsIdentity(@Nullable Credentials credentials) {
+    if (credentials == null || credentials instanceof NoCredentials) {
+      return "none";
+    }
+    if (credentials instanceof ServiceAccountCredentials) {
+      return "service_account:" + ((ServiceAccountCredentials) credentials).getClientEmail();
+    }
+    if (credentials instanceof ImpersonatedCredentials) {
+      return "impersonated:" + ((ImpersonatedCredentials) credentials).getAccount();
+    }
+    if (credentials instanceof UserCredentials) {
+      return "user:" + ((UserCredentials) credentials).getClientId();
+    }
+    if (credentials instanceof ServiceAccountSigner) {
+      // This includes credentials from the metadata server, which look up the service account that
+      // is attached to the environment that the process runs in.
+      try {
+        return "service_account:" + ((ServiceAccountSigner) credentials).getAccount();
+      } catch (RuntimeException exception) {
+        logger.log(Level.FINE, "Failed to get the account of the credentials", exception);
+        return null;
+      }
+    }
+    // The principal of other credentials is not known to the client. Two processes that share the
+    // cache directory could use different principals with the same type of credentials.
+    return null;
+  }
+
+  @VisibleForTesting
+  MultiplexedSessionCache(Path file, DatabaseId databaseId) {
+    this.file = file;
+    this.databaseId = databaseId;
+  }
+
+  /**
+   * Returns a reference to the cached multiplexed session, or null if there is no cached session,
+   * or if the cached session was created before the given minimum creation time.
+   */
+  @Nullable
+  SessionReference load(Instant minCreateTime) {
+    Properties properties = new Properties();
+    try (InputStream inputStream = Files.newInputStream(file)) {
+      properties.load(inputStream);
+    } catch (NoSuchFileException ignore) {
+      return null;
+    } catch (IOException | IllegalArgumentException exception) {
+      logger.log(Level.FINE, "Failed to read cached multiplexed session from " + file, exception);
+      return null;
+    }
+    try {
+      String name = properties.getProperty(NAME_PROPERTY);
+      if (name == null || !databaseId.equals(SessionId.of(name).getDatabaseId())) {
+        return null;
+      }
+      Timestamp createTime =
+          Timestamp.newBuilder()
+              .setSeconds(Long.parseLong(properties.getProperty(CREATE_TIME_SECONDS_PROPERTY)))
+              .setNanos(Integer.parseInt(properties.getProperty(CREATE_TIME_NANOS_PROPERTY)))
+              .build();
+      if (Instant.ofEpochSecond(createTime.getSeconds(), createTime.getNanos())
+          .isBefore(minCreateTime)) {
+        return null;
+      }
+      return new SessionReference(name, createTime, /* isMultiplexed = */ true, null);
+    } catch (RuntimeException exception) {
+      logger.log(Level.FINE, "Invalid cached multiplexed session in " + file, exception);
+      return null;
+    }
+  }
+
+  /**
+   * Stores the given multiplexed session in the cache. The file is written atomically, so a
+   * concurrent process never reads a partially written file.
+   */
+  void store(SessionReference sessionReference) {
+    Instant createTime =
+        sessionReference.getCreateTime() == null ? Instant.now() : sessionReference.getCreateTime();
+    Properties properties = new Properties();
+    properties.setProperty(NAME_PROPERTY, sessionReference.getName());
+    properties.setProperty(
+        CREATE_TIME_SECONDS_PROPERTY, String.valueOf(createTime.getEpochSecond()));
+    properties.setProperty(CREATE_TIME_NANOS_PROPERTY, String.valueOf(createTime.getNano()));
+    Path tempFile = null;
+    try {
+      Files.createDirectories(file.getParent());
+      tempFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+      try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+        properties.store(outputStream, null);
+      }
+      try {
+        Files.move(
+            tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException atomicMoveNotSupportedException) {
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException exception) {
+      logger.log(Level.FINE, "Failed to cache multiplexed session in " + file, exception);
+      if (tempFile != null) {
+        try {
+          Files.deleteIfExists(tempFile);
+        } catch (IOException ignore) {
+          // Ignore, the temp file is not used.
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes the given session from the cache. The cache is not changed if it contains a different
+   * session, as that session could have been stored by another process.
+   */
+  void remove(String sessionName) {
+    SessionReference cachedSession = load(Instant.EPOCH);
+    if (cachedSession != null && Objects.equals(cachedSession.getName(), sessionName)) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException exception) {
+        logger.log(Level.FINE, "Failed to remove cached multiplexed session " + file, exception);
+      }
+    }
+  }
+}
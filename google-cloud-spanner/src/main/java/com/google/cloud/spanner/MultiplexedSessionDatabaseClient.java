@@ -23,11 +23,14 @@ import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutures;
 import com.google.api.core.SettableApiFuture;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Options.QueryOption;
+import com.google.cloud.spanner.Options.ReadOption;
 import com.google.cloud.spanner.Options.TransactionOption;
 import com.google.cloud.spanner.SessionClient.SessionConsumer;
 import com.google.cloud.spanner.SpannerException.ResourceNotFoundException;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.spanner.v1.BeginTransactionRequest;
 import com.google.spanner.v1.RequestOptions;
@@ -48,6 +51,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import javax.annotation.Nullable;
 
 /**
  * {@link DatabaseClient} implementation that uses a single multiplexed session to execute
@@ -89,6 +94,12 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
 
     @Override
     void onError(SpannerException spannerException) {
+      if (spannerException instanceof SessionNotFoundException
+          && this.client.maybeReplaceCachedSession(getName())) {
+        // The session was loaded from the session cache and has been removed from Spanner. The
+        // client replaces it with a new session, and remains valid.
+        return;
+      }
       if (this.client.resourceNotFoundException.get() == null
           && (spannerException instanceof DatabaseNotFoundException
               || spannerException instanceof InstanceNotFoundException
@@ -195,6 +206,18 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
   private final AtomicReference<ResourceNotFoundException> resourceNotFoundException =
       new AtomicReference<>();
 
+  /** The local cache for the multiplexed session, or null if sessions are not cached. */
+  @Nullable private final MultiplexedSessionCache sessionCache;
+
+  /**
+   * The name of the multiplexed session that was loaded from the session cache, or null if the
+   * initial session was created by this client.
+   */
+  private final AtomicReference<String> cachedSessionName = new AtomicReference<>();
+
+  /** Set to true when the session from the session cache has been replaced by a new session. */
+  private final AtomicBoolean cachedSessionReplaced = new AtomicBoolean(false);
+
   private final AtomicLong numSessionsAcquired = new AtomicLong();
 
   private final AtomicLong numSessionsReleased = new AtomicLong();
@@ -240,37 +263,100 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
         SettableApiFuture.create();
     this.readWriteBeginTransactionReferenceFuture = SettableApiFuture.create();
     this.multiplexedSessionReference = new AtomicReference<>(initialSessionReferenceFuture);
+    this.sessionCache =
+        MultiplexedSessionCache.create(
+            sessionClient.getSpanner().getOptions(), sessionClient.getDatabaseId());
+    SessionReference cachedSession =
+        this.sessionCache == null
+            ? null
+            : this.sessionCache.load(clock.instant().minus(this.sessionExpirationDuration));
+    if (cachedSession != null) {
+      // Reuse the multiplexed session that was created by a previous client for the same database.
+      this.cachedSessionName.set(cachedSession.getName());
+      this.expirationDate.set(cachedSession.getCreateTime().plus(this.sessionExpirationDuration));
+      initialSessionReferenceFuture.set(cachedSession);
+      onInitialSessionReady(cachedSession.getName());
+    } else {
+      this.sessionClient.asyncCreateMultiplexedSession(
+          new SessionConsumer() {
+            @Override
+            public void onSessionReady(SessionImpl session) {
+              initialSessionReferenceFuture.set(session.getSessionReference());
+              storeInSessionCache(session.getSessionReference());
+              onInitialSessionReady(session.getName());
+            }
+
+            @Override
+            public void onSessionCreateFailure(Throwable t, int createFailureForSessionCount) {
+              // Mark multiplexes sessions as unimplemented and fall back to regular sessions if
+              // UNIMPLEMENTED is returned.
+              maybeMarkUnimplemented(t);
+              initialSessionReferenceFuture.setException(t);
+            }
+          });
+    }
+    maybeWaitForSessionCreation(
+        sessionClient.getSpanner().getOptions().getSessionPoolOptions(),
+        initialSessionReferenceFuture);
+  }
+
+  private void onInitialSessionReady(String sessionName) {
+    // only start the maintainer if we actually managed to create a session in the first place.
+    maintainer.start();
+
+    // initiate a begin transaction request to verify if read-write transactions are supported
+    // using multiplexed sessions.
+    if (sessionClient
+        .getSpanner()
+        .getOptions()
+        .getSessionPoolOptions()
+        .getUseMultiplexedSessionForRW()) {
+      verifyBeginTransactionWithRWOnMultiplexedSessionAsync(sessionName);
+    }
+  }
+
+  private void storeInSessionCache(SessionReference sessionReference) {
+    if (this.sessionCache != null) {
+      this.sessionCache.store(sessionReference);
+    }
+  }
+
+  /**
+   * Replaces the current multiplexed session with a new session if the given session was loaded
+   * from the session cache. Transactions that are started while the new session is being created
+   * will wait for the new session. Returns true if the given session was a cached session.
+   */
+  private boolean maybeReplaceCachedSession(String sessionName) {
+    if (sessionName == null || !sessionName.equals(this.cachedSessionName.get())) {
+      return false;
+    }
+    if (!this.cachedSessionReplaced.compareAndSet(false, true)) {
+      // Another transaction has already replaced the cached session.
+      return true;
+    }
+    this.sessionCache.remove(sessionName);
+    final SettableApiFuture<SessionReference> newSessionReferenceFuture =
+        SettableApiFuture.create();
+    this.multiplexedSessionReference.set(newSessionReferenceFuture);
     this.sessionClient.asyncCreateMultiplexedSession(
         new SessionConsumer() {
           @Override
           public void onSessionReady(SessionImpl session) {
-            initialSessionReferenceFuture.set(session.getSessionReference());
-            // only start the maintainer if we actually managed to create a session in the first
-            // place.
-            maintainer.start();
-
-            // initiate a begin transaction request to verify if read-write transactions are
-            // supported using multiplexed sessions.
-            if (sessionClient
-                .getSpanner()
-                .getOptions()
-                .getSessionPoolOptions()
-                .getUseMultiplexedSessionForRW()) {
-              verifyBeginTransactionWithRWOnMultiplexedSessionAsync(session.getName());
-            }
+            expirationDate.set(maintainer.clock.instant().plus(sessionExpirationDuration));
+            newSessionReferenceFuture.set(session.getSessionReference());
+            storeInSessionCache(session.getSessionReference());
           }
 
           @Override
           public void onSessionCreateFailure(Throwable t, int createFailureForSessionCount) {
-            // Mark multiplexes sessions as unimplemented and fall back to regular sessions if
-            // UNIMPLEMENTED is returned.
             maybeMarkUnimplemented(t);
-            initialSessionReferenceFuture.setException(t);
+            if (t instanceof ResourceNotFoundException) {
+              resourceNotFoundException.compareAndSet(null, (ResourceNotFoundException) t);
+            }
+            newSessionReferenceFuture.setException(t);
           }
         });
-    maybeWaitForSessionCreation(
-        sessionClient.getSpanner().getOptions().getSessionPoolOptions(),
-        initialSessionReferenceFuture);
+    return true;
   }
 
   private static void maybeWaitForSessionCreation(
@@ -479,34 +565,222 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
     }
   }
 
+  /**
+   * Returns true if the given future contains the multiplexed session that was loaded from the
+   * session cache.
+   */
+  private boolean isCachedSession(ApiFuture<SessionReference> sessionReference) {
+    String cachedSession = this.cachedSessionName.get();
+    if (cachedSession == null || !sessionReference.isDone()) {
+      return false;
+    }
+    try {
+      return cachedSession.equals(Futures.getDone(sessionReference).getName());
+    } catch (ExecutionException executionException) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns true if an operation that failed with a {@link SessionNotFoundException} on the given
+   * session should be retried once on a new session. This is the case if the session was loaded
+   * from the session cache. The cached session is replaced by a new session if that has not already
+   * been done by another operation.
+   */
+  private boolean shouldRetryOnNewSession(ApiFuture<SessionReference> sessionReference) {
+    return isCachedSession(sessionReference)
+        && maybeReplaceCachedSession(this.cachedSessionName.get());
+  }
+
+  /**
+   * Runs the given operation on a new multiplexed session transaction, and retries it once if it
+   * failed because the session that was loaded from the session cache no longer exists.
+   */
+  private <T> T runWithCachedSessionRetry(
+      boolean singleUse, Function<DatabaseClient, T> operation) {
+    ApiFuture<SessionReference> sessionReference = multiplexedSessionReference.get();
+    try {
+      return operation.apply(createMultiplexedSessionTransaction(singleUse));
+    } catch (SessionNotFoundException exception) {
+      if (!shouldRetryOnNewSession(sessionReference)) {
+        throw exception;
+      }
+      return operation.apply(createMultiplexedSessionTransaction(singleUse));
+    }
+  }
+
+  /**
+   * Creates a single-use read context. The read context retries a read once on a new session if the
+   * session that was loaded from the session cache no longer exists.
+   */
+  private ReadContext createSingleUseReadContext(Function<DatabaseClient, ReadContext> supplier) {
+    ApiFuture<SessionReference> sessionReference = multiplexedSessionReference.get();
+    ReadContext readContext =
+        supplier.apply(createMultiplexedSessionTransaction(/* singleUse = */ true));
+    if (isCachedSession(sessionReference) && !cachedSessionReplaced.get()) {
+      return new CachedSessionReadContext(sessionReference, readContext, supplier);
+    }
+    return readContext;
+  }
+
+  /**
+   * {@link ReadContext} for a single-use read on the session that was loaded from the session
+   * cache. The read is retried once on a new session if Spanner returns a {@link
+   * SessionNotFoundException} before the read has returned any rows. Asynchronous reads are not
+   * retried.
+   */
+  private final class CachedSessionReadContext implements ReadContext {
+    private final ApiFuture<SessionReference> sessionReference;
+    private final Function<DatabaseClient, ReadContext> supplier;
+    private ReadContext delegate;
+    private boolean retried;
+
+    private CachedSessionReadContext(
+        ApiFuture<SessionReference> sessionReference,
+        ReadContext delegate,
+        Function<DatabaseClient, ReadContext> supplier) {
+      this.sessionReference = sessionReference;
+      this.delegate = delegate;
+      this.supplier = supplier;
+    }
+
+    private void replaceReadContext(SessionNotFoundException exception) {
+      if (this.retried || !shouldRetryOnNewSession(this.sessionReference)) {
+        throw exception;
+      }
+      this.retried = true;
+      this.delegate.close();
+      this.delegate = supplier.apply(createMultiplexedSessionTransaction(/* singleUse = */ true));
+    }
+
+    private <T> T runWithRetry(Function<ReadContext, T> operation) {
+      try {
+        return operation.apply(this.delegate);
+      } catch (SessionNotFoundException exception) {
+        replaceReadContext(exception);
+        return operation.apply(this.delegate);
+      }
+    }
+
+    private ResultSet wrap(Function<ReadContext, ResultSet> query) {
+      return new ForwardingResultSet(query.apply(this.delegate)) {
+        private boolean beforeFirst = true;
+
+        @Override
+        public boolean next() throws SpannerException {
+          try {
+            boolean hasNext = super.next();
+            this.beforeFirst = false;
+            return hasNext;
+          } catch (SessionNotFoundException exception) {
+            if (!this.beforeFirst) {
+              throw exception;
+            }
+            replaceReadContext(exception);
+            super.close();
+            replaceDelegate(query.apply(CachedSessionReadContext.this.delegate));
+            return next();
+          }
+        }
+      };
+    }
+
+    @Override
+    public ResultSet read(
+        String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return wrap(context -> context.read(table, keys, columns, options));
+    }
+
+    @Override
+    public AsyncResultSet readAsync(
+        String table, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return this.delegate.readAsync(table, keys, columns, options);
+    }
+
+    @Override
+    public ResultSet readUsingIndex(
+        String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return wrap(context -> context.readUsingIndex(table, index, keys, columns, options));
+    }
+
+    @Override
+    public AsyncResultSet readUsingIndexAsync(
+        String table, String index, KeySet keys, Iterable<String> columns, ReadOption... options) {
+      return this.delegate.readUsingIndexAsync(table, index, keys, columns, options);
+    }
+
+    @Nullable
+    @Override
+    public Struct readRow(String table, Key key, Iterable<String> columns) {
+      return runWithRetry(context -> context.readRow(table, key, columns));
+    }
+
+    @Override
+    public ApiFuture<Struct> readRowAsync(String table, Key key, Iterable<String> columns) {
+      return this.delegate.readRowAsync(table, key, columns);
+    }
+
+    @Nullable
+    @Override
+    public Struct readRowUsingIndex(String table, String index, Key key, Iterable<String> columns) {
+      return runWithRetry(context -> context.readRowUsingIndex(table, index, key, columns));
+    }
+
+    @Override
+    public ApiFuture<Struct> readRowUsingIndexAsync(
+        String table, String index, Key key, Iterable<String> columns) {
+      return this.delegate.readRowUsingIndexAsync(table, index, key, columns);
+    }
+
+    @Override
+    public ResultSet executeQuery(Statement statement, QueryOption... options) {
+      return wrap(context -> context.executeQuery(statement, options));
+    }
+
+    @Override
+    public AsyncResultSet executeQueryAsync(Statement statement, QueryOption... options) {
+      return this.delegate.executeQueryAsync(statement, options);
+    }
+
+    @Override
+    public ResultSet analyzeQuery(Statement statement, QueryAnalyzeMode queryMode) {
+      return wrap(context -> context.analyzeQuery(statement, queryMode));
+    }
+
+    @Override
+    public void close() {
+      this.delegate.close();
+    }
+  }
+
   @Override
   public Timestamp write(Iterable<Mutation> mutations) throws SpannerException {
-    return createMultiplexedSessionTransaction(/* singleUse = */ false).write(mutations);
+    return runWithCachedSessionRetry(/* singleUse = */ false, client -> client.write(mutations));
   }
 
   @Override
   public CommitResponse writeWithOptions(
       final Iterable<Mutation> mutations, final TransactionOption... options)
       throws SpannerException {
-    return createMultiplexedSessionTransaction(/* singleUse = */ false)
-        .writeWithOptions(mutations, options);
+    return runWithCachedSessionRetry(
+        /* singleUse = */ false, client -> client.writeWithOptions(mutations, options));
   }
 
   @Override
   public CommitResponse writeAtLeastOnceWithOptions(
       Iterable<Mutation> mutations, TransactionOption... options) throws SpannerException {
-    return createMultiplexedSessionTransaction(/* singleUse = */ true)
-        .writeAtLeastOnceWithOptions(mutations, options);
+    return runWithCachedSessionRetry(
+        /* singleUse = */ true, client -> client.writeAtLeastOnceWithOptions(mutations, options));
   }
 
   @Override
   public ReadContext singleUse() {
-    return createMultiplexedSessionTransaction(/* singleUse = */ true).singleUse();
+    return createSingleUseReadContext(DatabaseClient::singleUse);
   }
 
   @Override
   public ReadContext singleUse(TimestampBound bound) {
-    return createMultiplexedSessionTransaction(/* singleUse = */ true).singleUse(bound);
+    return createSingleUseReadContext(client -> client.singleUse(bound));
   }
 
   @Override
@@ -604,6 +878,7 @@ final class MultiplexedSessionDatabaseClient extends AbstractMultiplexedSessionD
               public void onSessionReady(SessionImpl session) {
                 multiplexedSessionReference.set(
                     ApiFutures.immediateFuture(session.getSessionReference()));
+                storeInSessionCache(session.getSessionReference());
                 expirationDate.set(
                     clock
                         .instant()
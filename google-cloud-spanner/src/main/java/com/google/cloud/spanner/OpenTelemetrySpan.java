@@ -36,6 +36,10 @@ class OpenTelemetrySpan implements ISpan {
 
   @Override
   public void addAnnotation(String message, Map<String, Object> attributes) {
+    if (!openTelemetrySpan.isRecording()) {
+      // Skip creating the event attributes if the span is not sampled.
+      return;
+    }
     AttributesBuilder otAttributesBuilder = Attributes.builder();
     for (Map.Entry<String, Object> entry : attributes.entrySet()) {
       String key = entry.getKey();
@@ -56,16 +60,25 @@ class OpenTelemetrySpan implements ISpan {
 
   @Override
   public void addAnnotation(String message, String key, String value) {
+    if (!openTelemetrySpan.isRecording()) {
+      return;
+    }
     openTelemetrySpan.addEvent(message, Attributes.builder().put(key, value).build());
   }
 
   @Override
   public void addAnnotation(String message, String key, long value) {
+    if (!openTelemetrySpan.isRecording()) {
+      return;
+    }
     openTelemetrySpan.addEvent(message, Attributes.builder().put(key, value).build());
   }
 
   @Override
   public void addAnnotation(String message, Throwable e) {
+    if (!openTelemetrySpan.isRecording()) {
+      return;
+    }
     openTelemetrySpan.addEvent(message, this.createOpenTelemetryExceptionAnnotations(e));
   }
 
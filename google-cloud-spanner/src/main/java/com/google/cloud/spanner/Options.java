@@ -290,6 +290,17 @@ public final class Options implements Serializable {
     return new DecodeOption(decodeMode);
   }
 
+  /**
+   * Specifying this will cause the client to keep a dictionary of the STRING values in each column
+   * of the result. Equal values in the same column are returned as the same {@link String}
+   * instance, which reduces the memory usage of large results with low-cardinality STRING columns
+   * that are kept in memory by the application. Each column keeps at most {@code
+   * maxEntriesPerColumn} distinct values; other values are returned as-is.
+   */
+  public static ReadAndQueryOption stringDictionary(int maxEntriesPerColumn) {
+    return new StringDictionaryOption(maxEntriesPerColumn);
+  }
+
   /** Option to request {@link CommitStats} for read/write transactions. */
   static final class CommitStatsOption extends InternalOption implements TransactionOption {
     @Override
@@ -449,6 +460,20 @@ public final class Options implements Serializable {
     }
   }
 
+  static final class StringDictionaryOption extends InternalOption implements ReadAndQueryOption {
+    private final int maxEntriesPerColumn;
+
+    StringDictionaryOption(int maxEntriesPerColumn) {
+      Preconditions.checkArgument(maxEntriesPerColumn > 0, "maxEntriesPerColumn must be > 0");
+      this.maxEntriesPerColumn = maxEntriesPerColumn;
+    }
+
+    @Override
+    void appendToOptions(Options options) {
+      options.stringDictionarySize = maxEntriesPerColumn;
+    }
+  }
+
   private boolean withCommitStats;
 
   private Duration maxCommitDelay;
@@ -468,6 +493,7 @@ public final class Options implements Serializable {
   private Boolean dataBoostEnabled;
   private DirectedReadOptions directedReadOptions;
   private DecodeMode decodeMode;
+  private Integer stringDictionarySize;
   private RpcOrderBy orderBy;
 
   // Construction is via factory methods below.
@@ -597,6 +623,10 @@ public final class Options implements Serializable {
     return decodeMode;
   }
 
+  Integer stringDictionarySize() {
+    return stringDictionarySize;
+  }
+
   boolean hasOrderBy() {
     return orderBy != null;
   }
@@ -658,6 +688,9 @@ public final class Options implements Serializable {
     if (decodeMode != null) {
       b.append("decodeMode: ").append(decodeMode).append(' ');
     }
+    if (stringDictionarySize != null) {
+      b.append("stringDictionarySize: ").append(stringDictionarySize).append(' ');
+    }
     if (orderBy != null) {
       b.append("orderBy: ").append(orderBy).append(' ');
     }
@@ -700,6 +733,7 @@ public final class Options implements Serializable {
         && Objects.equals(withExcludeTxnFromChangeStreams(), that.withExcludeTxnFromChangeStreams())
         && Objects.equals(dataBoostEnabled(), that.dataBoostEnabled())
         && Objects.equals(directedReadOptions(), that.directedReadOptions())
+        && Objects.equals(stringDictionarySize(), that.stringDictionarySize())
         && Objects.equals(orderBy(), that.orderBy());
   }
 
@@ -757,6 +791,9 @@ public final class Options implements Serializable {
     if (decodeMode != null) {
       result = 31 * result + decodeMode.hashCode();
     }
+    if (stringDictionarySize != null) {
+      result = 31 * result + stringDictionarySize.hashCode();
+    }
     if (orderBy != null) {
       result = 31 * result + orderBy.hashCode();
     }
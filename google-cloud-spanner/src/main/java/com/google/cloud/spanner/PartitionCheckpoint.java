@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.spanner.v1.ResultSetMetadata;
+import java.io.Serializable;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * {@code PartitionCheckpoint} marks a position in the results of a {@link Partition}. It is
+ * returned by {@link PartitionResultSet#getCheckpoint()} and can be used to resume the execution of
+ * the partition from that position by calling {@link
+ * BatchReadOnlyTransaction#resume(PartitionCheckpoint)}. The checkpoint is serializable, which
+ * means that it can be persisted and used to resume the partition in a different process. The
+ * transaction that should be used to resume the partition can be re-created with {@link
+ * BatchClient#batchReadOnlyTransaction(BatchTransactionId)} using {@link #getBatchTransactionId()}.
+ */
+public final class PartitionCheckpoint implements Serializable {
+  private static final long serialVersionUID = 4516279417309432861L;
+
+  private final BatchTransactionId batchTransactionId;
+  private final Partition partition;
+  @Nullable private final ByteString resumeToken;
+  private final long skipRows;
+  @Nullable private final ByteString metadata;
+  private final long rowCount;
+  private final boolean done;
+
+  PartitionCheckpoint(
+      BatchTransactionId batchTransactionId,
+      Partition partition,
+      @Nullable ByteString resumeToken,
+      long skipRows,
+      @Nullable ByteString metadata,
+      long rowCount,
+      boolean done) {
+    this.batchTransactionId = Preconditions.checkNotNull(batchTransactionId);
+    this.partition = Preconditions.checkNotNull(partition);
+    this.resumeToken = resumeToken;
+    this.skipRows = skipRows;
+    this.metadata = metadata;
+    this.rowCount = rowCount;
+    this.done = done;
+  }
+
+  /** Returns a checkpoint for the start of the given partition. */
+  static PartitionCheckpoint start(BatchTransactionId batchTransactionId, Partition partition) {
+    return new PartitionCheckpoint(
+        batchTransactionId, partition, null, 0L, null, 0L, /* done = */ false);
+  }
+
+  /** Returns the id of the transaction that the partition belongs to. */
+  public BatchTransactionId getBatchTransactionId() {
+    return batchTransactionId;
+  }
+
+  /** Returns the partition that this checkpoint belongs to. */
+  public Partition getPartition() {
+    return partition;
+  }
+
+  /** Returns the number of rows of the partition that had been returned at this checkpoint. */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /** Returns true if all rows of the partition had been returned at this checkpoint. */
+  public boolean isDone() {
+    return done;
+  }
+
+  @Nullable
+  ByteString getResumeToken() {
+    return resumeToken;
+  }
+
+  /**
+   * Returns the number of rows that must be skipped after resuming from the resume token of this
+   * checkpoint.
+   */
+  long getSkipRows() {
+    return skipRows;
+  }
+
+  @Nullable
+  ResultSetMetadata getMetadata() {
+    if (metadata == null) {
+      return null;
+    }
+    try {
+      return ResultSetMetadata.parseFrom(metadata);
+    } catch (InvalidProtocolBufferException e) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INVALID_ARGUMENT, "Invalid metadata in checkpoint", e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "partition: %s, rowCount: %d, done: %s",
+        partition.getPartitionToken().toStringUtf8(), rowCount, done);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof PartitionCheckpoint)) {
+      return false;
+    }
+    PartitionCheckpoint that = (PartitionCheckpoint) o;
+    return Objects.equals(batchTransactionId, that.batchTransactionId)
+        && Objects.equals(partition, that.partition)
+        && Objects.equals(resumeToken, that.resumeToken)
+        && skipRows == that.skipRows
+        && Objects.equals(metadata, that.metadata)
+        && rowCount == that.rowCount
+        && done == that.done;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        batchTransactionId, partition, resumeToken, skipRows, metadata, rowCount, done);
+  }
+}
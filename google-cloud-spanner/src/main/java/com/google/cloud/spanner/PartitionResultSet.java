@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+/**
+ * {@link ResultSet} for a {@link Partition} that can return a checkpoint of its current position.
+ * The checkpoint can be used to resume the partition after a failure, also in a different process.
+ *
+ * <pre>{@code
+ * PartitionCheckpoint checkpoint = loadCheckpoint(); // e.g. from local disk
+ * BatchReadOnlyTransaction txn =
+ *     batchClient.batchReadOnlyTransaction(checkpoint.getBatchTransactionId());
+ * try (PartitionResultSet results = txn.resume(checkpoint)) {
+ *   while (results.next()) {
+ *     process(results.getCurrentRowAsStruct());
+ *     if (shouldSaveCheckpoint()) {
+ *       saveCheckpoint(results.getCheckpoint());
+ *     }
+ *   }
+ * }
+ * }</pre>
+ */
+public interface PartitionResultSet extends ResultSet {
+
+  /**
+   * Returns a checkpoint for the current position of this result set. Resuming from the checkpoint
+   * will return the rows that follow the current row. This method can also be called after {@link
+   * #next()} has thrown an exception, in which case the checkpoint refers to the last row that was
+   * successfully returned.
+   */
+  PartitionCheckpoint getCheckpoint();
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.protobuf.ByteString;
+import com.google.spanner.v1.ResultSetMetadata;
+
+/**
+ * {@link PartitionResultSet} that keeps track of the resume tokens that are returned by the
+ * underlying {@link GrpcResultSet}. A checkpoint consists of the last resume token that was
+ * received at a row boundary, and the number of rows that have been returned after that token.
+ */
+class PartitionResultSetImpl extends ForwardingResultSet implements PartitionResultSet {
+  private final GrpcResultSet delegate;
+  private final PartitionCheckpoint start;
+  private boolean started;
+  private boolean done;
+  private long rowCount;
+
+  PartitionResultSetImpl(GrpcResultSet delegate, PartitionCheckpoint start) {
+    super(delegate);
+    this.delegate = delegate;
+    this.start = start;
+  }
+
+  @Override
+  public boolean next() throws SpannerException {
+    if (!started) {
+      started = true;
+      // Skip the rows that had already been returned after the resume token of the checkpoint.
+      for (long row = 0L; row < start.getSkipRows(); row++) {
+        if (!super.next()) {
+          done = true;
+          return false;
+        }
+      }
+    }
+    boolean hasNext = super.next();
+    if (hasNext) {
+      rowCount++;
+    } else {
+      done = true;
+    }
+    return hasNext;
+  }
+
+  @Override
+  public PartitionCheckpoint getCheckpoint() {
+    if (!started) {
+      return start;
+    }
+    ByteString resumeToken = delegate.getCheckpointResumeToken();
+    if (resumeToken == null) {
+      // No resume token has been received yet. The number of rows since the checkpoint includes
+      // any rows that were skipped, so it is relative to the resume token of the start checkpoint.
+      resumeToken = start.getResumeToken();
+    }
+    ResultSetMetadata metadata = delegate.getMetadataOrNull();
+    if (metadata == null) {
+      metadata = start.getMetadata();
+    } else {
+      // The transaction is identified by the BatchTransactionId of the checkpoint.
+      metadata = metadata.toBuilder().clearTransaction().build();
+    }
+    return new PartitionCheckpoint(
+        start.getBatchTransactionId(),
+        start.getPartition(),
+        resumeToken,
+        delegate.getRowsSinceCheckpoint(),
+        metadata == null ? null : metadata.toByteString(),
+        start.getRowCount() + rowCount,
+        done);
+  }
+}
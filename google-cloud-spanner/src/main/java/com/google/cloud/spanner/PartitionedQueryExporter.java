@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.spanner.ExportSink.PartitionWriter;
+import com.google.cloud.spanner.Options.QueryOption;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Exports the results of a query by executing all partitions of the query in parallel. Workers take
+ * the next unstarted partition from a shared counter when they finish a partition, so that a worker
+ * that executes small partitions automatically takes over work that would otherwise have to wait
+ * for a worker that is busy with a large partition.
+ */
+class PartitionedQueryExporter {
+  /** Error codes that indicate that executing a partition again could succeed. */
+  private static final ImmutableSet<ErrorCode> RETRYABLE_ERROR_CODES =
+      ImmutableSet.of(
+          ErrorCode.UNAVAILABLE,
+          ErrorCode.ABORTED,
+          ErrorCode.DEADLINE_EXCEEDED,
+          ErrorCode.RESOURCE_EXHAUSTED,
+          ErrorCode.INTERNAL);
+
+  @VisibleForTesting static long initialRetryDelayMillis = 100L;
+
+  private static final long MAX_RETRY_DELAY_MILLIS = 5000L;
+
+  private final BatchClient batchClient;
+  private final ExportOptions options;
+  private final ExportSink sink;
+  private final AtomicInteger nextPartition = new AtomicInteger();
+  private final AtomicInteger completedPartitions = new AtomicInteger();
+  private final AtomicInteger retriedPartitions = new AtomicInteger();
+  private final AtomicLong rowCount = new AtomicLong();
+  private final AtomicReference<SpannerException> failure = new AtomicReference<>();
+  private final Stopwatch stopwatch = Stopwatch.createUnstarted();
+  private final Object progressLock = new Object();
+  private volatile int totalPartitions;
+
+  PartitionedQueryExporter(BatchClient batchClient, ExportOptions options, ExportSink sink) {
+    this.batchClient = batchClient;
+    this.options = options;
+    this.sink = sink;
+  }
+
+  ExportProgress export(TimestampBound bound, Statement statement, QueryOption... queryOptions) {
+    stopwatch.start();
+    BatchReadOnlyTransaction transaction = batchClient.batchReadOnlyTransaction(bound);
+    try {
+      QueryOption[] partitionQueryOptions = queryOptions;
+      if (options.isDataBoostEnabled()) {
+        partitionQueryOptions = Arrays.copyOf(queryOptions, queryOptions.length + 1);
+        partitionQueryOptions[queryOptions.length] = Options.dataBoostEnabled(true);
+      }
+      List<Partition> partitions =
+          transaction.partitionQuery(
+              options.getPartitionOptions(), statement, partitionQueryOptions);
+      totalPartitions = partitions.size();
+      if (!partitions.isEmpty()) {
+        executePartitions(transaction, partitions);
+      }
+      return createProgress();
+    } finally {
+      transaction.close();
+      transaction.cleanup();
+    }
+  }
+
+  private void executePartitions(BatchReadOnlyTransaction transaction, List<Partition> partitions) {
+    int parallelism = Math.min(options.getParallelism(), partitions.size());
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            parallelism,
+            ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                "spanner-query-export", false));
+    try {
+      List<Future<?>> workers = new ArrayList<>(parallelism);
+      for (int i = 0; i < parallelism; i++) {
+        workers.add(executor.submit(() -> runWorker(transaction, partitions)));
+      }
+      for (Future<?> worker : workers) {
+        worker.get();
+      }
+    } catch (ExecutionException executionException) {
+      throw SpannerExceptionFactory.asSpannerException(executionException.getCause());
+    } catch (InterruptedException interruptedException) {
+      failure.compareAndSet(null, SpannerExceptionFactory.propagateInterrupt(interruptedException));
+    } finally {
+      executor.shutdownNow();
+    }
+    SpannerException exception = failure.get();
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private void runWorker(BatchReadOnlyTransaction transaction, List<Partition> partitions) {
+    int index;
+    while (failure.get() == null && (index = nextPartition.getAndIncrement()) < partitions.size()) {
+      try {
+        exportPartition(transaction, index, partitions.get(index));
+      } catch (Throwable throwable) {
+        failure.compareAndSet(null, SpannerExceptionFactory.asSpannerException(throwable));
+      }
+    }
+  }
+
+  private void exportPartition(
+      BatchReadOnlyTransaction transaction, int partitionIndex, Partition partition)
+      throws IOException, InterruptedException {
+    int attempt = 0;
+    while (true) {
+      attempt++;
+      try {
+        long rows = exportPartitionAttempt(transaction, partitionIndex, partition);
+        rowCount.addAndGet(rows);
+        completedPartitions.incrementAndGet();
+        Consumer<ExportProgress> listener = options.getProgressListener();
+        if (listener != null) {
+          synchronized (progressLock) {
+            listener.accept(createProgress());
+          }
+        }
+        return;
+      } catch (SpannerException exception) {
+        if (attempt >= options.getMaxPartitionAttempts()
+            || !RETRYABLE_ERROR_CODES.contains(exception.getErrorCode())
+            || failure.get() != null) {
+          throw exception;
+        }
+        retriedPartitions.incrementAndGet();
+        long delay =
+            exception.getRetryDelayInMillis() > 0L
+                ? exception.getRetryDelayInMillis()
+                : Math.min(initialRetryDelayMillis << (attempt - 1), MAX_RETRY_DELAY_MILLIS);
+        Thread.sleep(delay);
+      }
+    }
+  }
+
+  private long exportPartitionAttempt(
+      BatchReadOnlyTransaction transaction, int partitionIndex, Partition partition)
+      throws IOException {
+    try (ResultSet resultSet = transaction.execute(partition)) {
+      boolean hasRow = resultSet.next();
+      PartitionWriter writer = sink.open(partitionIndex, resultSet.getType());
+      boolean committed = false;
+      long rows = 0L;
+      try {
+        while (hasRow) {
+          if (failure.get() != null) {
+            throw SpannerExceptionFactory.newSpannerException(
+                ErrorCode.CANCELLED, "Export cancelled because another partition failed");
+          }
+          writer.write(resultSet.getCurrentRowAsStruct());
+          rows++;
+          hasRow = resultSet.next();
+        }
+        writer.commit();
+        committed = true;
+        return rows;
+      } finally {
+        if (!committed) {
+          writer.abort();
+        }
+      }
+    }
+  }
+
+  private ExportProgress createProgress() {
+    return new ExportProgress(
+        totalPartitions,
+        completedPartitions.get(),
+        retriedPartitions.get(),
+        rowCount.get(),
+        stopwatch.elapsed());
+  }
+}
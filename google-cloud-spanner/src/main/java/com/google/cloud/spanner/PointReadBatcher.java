@@ -0,0 +1,434 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.BetaApi;
+import com.google.api.core.SettableApiFuture;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.protobuf.ProtocolMessageEnum;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Combines single-row reads by primary key that are issued concurrently into reads of multiple
+ * keys. Calls to {@link #readRow(String, Key, Iterable)} for the same table and columns that are
+ * issued within a short window are executed as one read with a {@link KeySet} that contains all
+ * requested keys, and each returned row is routed back to the caller that requested its key.
+ *
+ * <p>The batcher needs to know the primary key columns of each table that it reads from, so it can
+ * determine which row belongs to which key. These columns are added to the read if they are not
+ * included in the requested columns. The rows that are returned to the caller only contain the
+ * requested columns. Including the key columns in the requested columns saves a copy of each row.
+ *
+ * <p>All reads are executed as single-use read-only transactions with the same {@link
+ * TimestampBound}. The batcher should therefore not be used for reads that must be part of a
+ * read/write transaction.
+ *
+ * <p>Usage example:
+ *
+ * <pre>{@code
+ * try (PointReadBatcher batcher =
+ *     PointReadBatcher.newBuilder(client).addTable("Singers", "SingerId").build()) {
+ *   ApiFuture<Struct> row =
+ *       batcher.readRow("Singers", Key.of(1L), Arrays.asList("SingerId", "FirstName"));
+ * }
+ * }</pre>
+ */
+@BetaApi
+public final class PointReadBatcher implements AutoCloseable {
+  /** Builder for {@link PointReadBatcher}. */
+  public static final class Builder {
+    private final DatabaseClient client;
+    private final Map<String, ImmutableList<String>> keyColumns = new HashMap<>();
+    private TimestampBound timestampBound = TimestampBound.strong();
+    private int maxBatchSize = 1000;
+    private Duration batchWindow = Duration.ofMillis(1L);
+    private ScheduledExecutorService executor;
+
+    private Builder(DatabaseClient client) {
+      this.client = Preconditions.checkNotNull(client);
+    }
+
+    /** Registers a table and its primary key columns in key order. */
+    public Builder addTable(String table, String... keyColumns) {
+      Preconditions.checkNotNull(table);
+      Preconditions.checkArgument(keyColumns.length > 0, "keyColumns must not be empty");
+      this.keyColumns.put(table, ImmutableList.copyOf(keyColumns));
+      return this;
+    }
+
+    /** Sets the read timestamp bound for all reads. The default is a strong read. */
+    public Builder setTimestampBound(TimestampBound timestampBound) {
+      this.timestampBound = Preconditions.checkNotNull(timestampBound);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of keys in one read. A batch is executed immediately when it reaches
+     * this size. The default is 1000.
+     */
+    public Builder setMaxBatchSize(int maxBatchSize) {
+      Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be > 0");
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets the time that a batch waits for more keys after the first key was added to it. The
+     * default is 1 millisecond.
+     */
+    public Builder setBatchWindow(Duration batchWindow) {
+      Preconditions.checkArgument(
+          !batchWindow.isNegative() && !batchWindow.isZero(), "batchWindow must be > 0");
+      this.batchWindow = batchWindow;
+      return this;
+    }
+
+    /**
+     * Sets the executor that executes batches when their window has passed. The executor is not
+     * shut down when the batcher is closed. The batcher creates a single-threaded executor if none
+     * is set.
+     */
+    public Builder setExecutor(ScheduledExecutorService executor) {
+      this.executor = Preconditions.checkNotNull(executor);
+      return this;
+    }
+
+    public PointReadBatcher build() {
+      Preconditions.checkState(!keyColumns.isEmpty(), "At least one table must be added");
+      return new PointReadBatcher(this);
+    }
+  }
+
+  /** Returns a new builder for a batcher that reads from the given database. */
+  public static Builder newBuilder(DatabaseClient client) {
+    return new Builder(client);
+  }
+
+  private final DatabaseClient client;
+  private final ImmutableMap<String, ImmutableList<String>> keyColumns;
+  private final TimestampBound timestampBound;
+  private final int maxBatchSize;
+  private final long batchWindowNanos;
+  private final ScheduledExecutorService executor;
+  private final boolean ownsExecutor;
+
+  private final Object lock = new Object();
+  private final Map<BatchId, Batch> pendingBatches = new HashMap<>();
+  private boolean closed;
+
+  private PointReadBatcher(Builder builder) {
+    this.client = builder.client;
+    this.keyColumns = ImmutableMap.copyOf(builder.keyColumns);
+    this.timestampBound = builder.timestampBound;
+    this.maxBatchSize = builder.maxBatchSize;
+    this.batchWindowNanos = builder.batchWindow.toNanos();
+    this.ownsExecutor = builder.executor == null;
+    this.executor =
+        ownsExecutor
+            ? Executors.newSingleThreadScheduledExecutor(
+                ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+                    "spanner-point-read-batcher", /* tryVirtualThreads = */ false))
+            : builder.executor;
+  }
+
+  /**
+   * Reads the row with the given primary key. The read is combined with the other reads of the same
+   * table and columns that are issued within the batch window. The returned future returns null if
+   * the row does not exist.
+   *
+   * @param table the name of a table that was registered with {@link Builder#addTable(String,
+   *     String...)}
+   * @param key the primary key of the row
+   * @param columns the columns to return
+   */
+  public ApiFuture<Struct> readRow(String table, Key key, Iterable<String> columns) {
+    ImmutableList<String> tableKeyColumns = keyColumns.get(table);
+    Preconditions.checkArgument(tableKeyColumns != null, "Unknown table: %s", table);
+    Preconditions.checkArgument(
+        key.size() == tableKeyColumns.size(),
+        "Key %s does not have the same number of parts as the primary key of %s",
+        key,
+        table);
+    SettableApiFuture<Struct> result = SettableApiFuture.create();
+    BatchId id = new BatchId(table, ImmutableList.copyOf(columns));
+    Batch full = null;
+    synchronized (lock) {
+      Preconditions.checkState(!closed, "This PointReadBatcher has been closed");
+      Batch batch = pendingBatches.get(id);
+      if (batch == null) {
+        batch = new Batch(id, tableKeyColumns);
+        pendingBatches.put(id, batch);
+        final Batch scheduled = batch;
+        batch.scheduledFlush =
+            executor.schedule(() -> flush(scheduled), batchWindowNanos, TimeUnit.NANOSECONDS);
+      }
+      batch.add(key, result);
+      if (batch.size() >= maxBatchSize) {
+        pendingBatches.remove(id);
+        batch.scheduledFlush.cancel(false);
+        full = batch;
+      }
+    }
+    if (full != null) {
+      full.execute();
+    }
+    return result;
+  }
+
+  /**
+   * Executes all pending batches and closes this batcher. Reads that have already been issued are
+   * completed.
+   */
+  @Override
+  public void close() {
+    List<Batch> batches;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      batches = new ArrayList<>(pendingBatches.values());
+      pendingBatches.clear();
+    }
+    for (Batch batch : batches) {
+      batch.scheduledFlush.cancel(false);
+      batch.execute();
+    }
+    if (ownsExecutor) {
+      executor.shutdown();
+    }
+  }
+
+  private void flush(Batch batch) {
+    synchronized (lock) {
+      // The batch has already been executed if it is no longer pending.
+      if (pendingBatches.get(batch.id) != batch) {
+        return;
+      }
+      pendingBatches.remove(batch.id);
+    }
+    batch.execute();
+  }
+
+  /**
+   * Returns the key that is used to route a row to its callers. Enum values in the key are replaced
+   * with their number, as enum key columns are returned as INT64 values. Numeric values are
+   * normalized in the same way as in {@link #keyPart(Struct, int)}, as Spanner can return a numeric
+   * value with a different scale than the value in the key, e.g. 1.5 for 1.50.
+   */
+  private static Key routingKey(Key key) {
+    Key.Builder builder = Key.newBuilder();
+    for (Object part : key.getParts()) {
+      if (part instanceof ProtocolMessageEnum) {
+        builder.append((long) ((ProtocolMessageEnum) part).getNumber());
+      } else if (part instanceof BigDecimal) {
+        builder.append(((BigDecimal) part).stripTrailingZeros());
+      } else {
+        builder.appendObject(part);
+      }
+    }
+    return builder.build();
+  }
+
+  @Nullable
+  private static Object keyPart(Struct row, int index) {
+    if (row.isNull(index)) {
+      return null;
+    }
+    Type type = row.getColumnType(index);
+    switch (type.getCode()) {
+      case BOOL:
+        return row.getBoolean(index);
+      case INT64:
+      case ENUM:
+        return row.getLong(index);
+      case FLOAT32:
+        return (double) row.getFloat(index);
+      case FLOAT64:
+        return row.getDouble(index);
+      case NUMERIC:
+        return row.getBigDecimal(index).stripTrailingZeros();
+      case STRING:
+      case PG_NUMERIC:
+        return row.getString(index);
+      case BYTES:
+        return row.getBytes(index);
+      case TIMESTAMP:
+        return row.getTimestamp(index);
+      case DATE:
+        return row.getDate(index);
+      default:
+        throw SpannerExceptionFactory.newSpannerException(
+            ErrorCode.INVALID_ARGUMENT, "Unsupported key column type: " + type);
+    }
+  }
+
+  private static final class BatchId {
+    private final String table;
+    private final ImmutableList<String> columns;
+
+    private BatchId(String table, ImmutableList<String> columns) {
+      this.table = table;
+      this.columns = columns;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof BatchId)) {
+        return false;
+      }
+      BatchId other = (BatchId) o;
+      return table.equals(other.table) && columns.equals(other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(table, columns);
+    }
+  }
+
+  /** The callers that requested the same key. */
+  private static final class PendingKey {
+    private final Key key;
+    private final List<SettableApiFuture<Struct>> results = new ArrayList<>(1);
+
+    private PendingKey(Key key) {
+      this.key = key;
+    }
+  }
+
+  private final class Batch {
+    private final BatchId id;
+    private final ImmutableList<String> readColumns;
+    private final int[] keyColumnIndexes;
+    private final boolean project;
+    private final Map<Key, PendingKey> keys = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    private Batch(BatchId id, ImmutableList<String> tableKeyColumns) {
+      this.id = id;
+      List<String> columns = new ArrayList<>(id.columns);
+      this.keyColumnIndexes = new int[tableKeyColumns.size()];
+      for (int i = 0; i < keyColumnIndexes.length; i++) {
+        int index = columns.indexOf(tableKeyColumns.get(i));
+        if (index == -1) {
+          index = columns.size();
+          columns.add(tableKeyColumns.get(i));
+        }
+        keyColumnIndexes[i] = index;
+      }
+      this.readColumns = ImmutableList.copyOf(columns);
+      this.project = readColumns.size() > id.columns.size();
+    }
+
+    private void add(Key key, SettableApiFuture<Struct> result) {
+      keys.computeIfAbsent(routingKey(key), ignored -> new PendingKey(key)).results.add(result);
+    }
+
+    private int size() {
+      return keys.size();
+    }
+
+    private void execute() {
+      KeySet.Builder keySet = KeySet.newBuilder();
+      for (PendingKey pending : keys.values()) {
+        keySet.addKey(pending.key);
+      }
+      try (AsyncResultSet resultSet =
+          client.singleUse(timestampBound).readAsync(id.table, keySet.build(), readColumns)) {
+        // The callback only routes rows to futures, so it can safely run on the producer thread.
+        ApiFutures.addCallback(
+            resultSet.toListAsync(
+                reader -> ((ResultSet) reader).getCurrentRowAsStruct(),
+                MoreExecutors.directExecutor()),
+            new ApiFutureCallback<List<Struct>>() {
+              @Override
+              public void onFailure(Throwable t) {
+                fail(t);
+              }
+
+              @Override
+              public void onSuccess(List<Struct> rows) {
+                try {
+                  complete(rows);
+                } catch (Throwable t) {
+                  fail(t);
+                }
+              }
+            },
+            MoreExecutors.directExecutor());
+      } catch (Throwable t) {
+        fail(t);
+      }
+    }
+
+    private void complete(List<Struct> rows) {
+      for (Struct row : rows) {
+        Key.Builder key = Key.newBuilder();
+        for (int index : keyColumnIndexes) {
+          key.appendObject(keyPart(row, index));
+        }
+        PendingKey pending = keys.remove(key.build());
+        if (pending != null) {
+          Struct result = project ? project(row) : row;
+          for (SettableApiFuture<Struct> future : pending.results) {
+            future.set(result);
+          }
+        }
+      }
+      for (PendingKey pending : keys.values()) {
+        for (SettableApiFuture<Struct> future : pending.results) {
+          future.set(null);
+        }
+      }
+    }
+
+    private Struct project(Struct row) {
+      Struct.Builder builder = Struct.newBuilder();
+      for (int i = 0; i < id.columns.size(); i++) {
+        builder.set(id.columns.get(i)).to(row.getValue(i));
+      }
+      return builder.build();
+    }
+
+    private void fail(Throwable t) {
+      for (PendingKey pending : keys.values()) {
+        for (SettableApiFuture<Struct> future : pending.results) {
+          future.setException(t);
+        }
+      }
+    }
+  }
+}
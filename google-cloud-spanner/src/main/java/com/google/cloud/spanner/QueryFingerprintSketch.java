@@ -0,0 +1,370 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
+import com.google.cloud.spanner.connection.AbstractStatementParser;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.spanner.v1.PartialResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * Keeps statistics for the most frequently executed query fingerprints of a {@link Spanner}
+ * instance. The sketch uses the Space-Saving algorithm: It keeps at most {@code capacity} entries,
+ * and a fingerprint that is added to a full sketch replaces the entry with the lowest call count.
+ * This guarantees that all fingerprints that account for more than 1/capacity of all sampled
+ * executions are in the sketch, using a fixed amount of memory.
+ *
+ * <p>The entries are kept in a Stream-Summary structure: A linked list of {@link Bucket}s ordered
+ * by call count, where each bucket links all entries with that call count. Both incrementing the
+ * count of an entry and finding the entry with the lowest count are constant-time operations.
+ *
+ * <p>The fingerprints are created with the GoogleSQL statement parser, as the dialect of the
+ * database is not known when a query is executed.
+ */
+class QueryFingerprintSketch {
+  /** The growth factor of the latency histogram buckets. */
+  private static final double BUCKET_GROWTH_FACTOR = 1.25d;
+
+  private static final double LOG_BUCKET_GROWTH_FACTOR = Math.log(BUCKET_GROWTH_FACTOR);
+
+  /** The number of latency buckets. The last bucket contains all latencies above ~80 minutes. */
+  @VisibleForTesting static final int NUM_LATENCY_BUCKETS = 101;
+
+  private static final int MAX_CACHED_FINGERPRINTS = 1000;
+
+  private final int capacity;
+  private final double samplingRate;
+  private final Cache<String, String> fingerprints =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_FINGERPRINTS).build();
+  private final Map<String, Entry> entries;
+
+  /** The bucket with the lowest call count. Guarded by {@link #entries}. */
+  private Bucket minBucket;
+
+  /** All entries with the same call count. */
+  private static final class Bucket {
+    private final long count;
+    private Bucket previous;
+    private Bucket next;
+    private Entry first;
+    private Entry last;
+
+    private Bucket(long count) {
+      this.count = count;
+    }
+
+    private void add(Entry entry) {
+      entry.bucket = this;
+      entry.previous = last;
+      entry.next = null;
+      if (last == null) {
+        first = entry;
+      } else {
+        last.next = entry;
+      }
+      last = entry;
+    }
+
+    private void remove(Entry entry) {
+      if (entry.previous == null) {
+        first = entry.next;
+      } else {
+        entry.previous.next = entry.next;
+      }
+      if (entry.next == null) {
+        last = entry.previous;
+      } else {
+        entry.next.previous = entry.previous;
+      }
+      entry.bucket = null;
+      entry.previous = null;
+      entry.next = null;
+    }
+
+    private boolean isEmpty() {
+      return first == null;
+    }
+  }
+
+  /** Statistics for one fingerprint. */
+  private static final class Entry {
+    private final String fingerprint;
+    private final long error;
+    private Bucket bucket;
+    private Entry previous;
+    private Entry next;
+    private long totalLatencyNanos;
+    private long rowCount;
+    private long bytesReceived;
+    private final long[] latencyBuckets = new long[NUM_LATENCY_BUCKETS];
+    private long recordedCount;
+
+    private Entry(String fingerprint, long error) {
+      this.fingerprint = fingerprint;
+      this.error = error;
+    }
+
+    private void record(long latencyNanos, long rows, long bytes) {
+      totalLatencyNanos += latencyNanos;
+      rowCount += rows;
+      bytesReceived += bytes;
+      latencyBuckets[getLatencyBucket(latencyNanos)]++;
+      recordedCount++;
+    }
+
+    private long getP99LatencyNanos() {
+      long threshold = (long) Math.ceil(recordedCount * 0.99d);
+      long cumulative = 0L;
+      for (int bucket = 0; bucket < latencyBuckets.length; bucket++) {
+        cumulative += latencyBuckets[bucket];
+        if (cumulative >= threshold && cumulative > 0L) {
+          return getLatencyBucketUpperBoundNanos(bucket);
+        }
+      }
+      return 0L;
+    }
+
+    private QueryFingerprintStats toStats() {
+      return new QueryFingerprintStats(
+          fingerprint,
+          bucket.count,
+          error,
+          totalLatencyNanos,
+          getP99LatencyNanos(),
+          rowCount,
+          bytesReceived);
+    }
+  }
+
+  /**
+   * Collects the statistics of one execution of a query. The statistics are added to the sketch
+   * when {@link #finish()} is called.
+   */
+  final class Recording {
+    private final String sql;
+    private final long startNanos = System.nanoTime();
+    private long rows;
+    private long bytes;
+    private boolean finished;
+
+    private Recording(String sql) {
+      this.sql = sql;
+    }
+
+    /**
+     * Returns an iterator that counts the serialized size of the {@link PartialResultSet}s that are
+     * returned by the given iterator.
+     */
+    CloseableIterator<PartialResultSet> countBytes(CloseableIterator<PartialResultSet> iterator) {
+      return new CloseableIterator<PartialResultSet>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public PartialResultSet next() {
+          PartialResultSet partialResultSet = iterator.next();
+          bytes += partialResultSet.getSerializedSize();
+          return partialResultSet;
+        }
+
+        @Override
+        public void close(@Nullable String message) {
+          iterator.close(message);
+        }
+
+        @Override
+        public boolean isWithBeginTransaction() {
+          return iterator.isWithBeginTransaction();
+        }
+
+        @Override
+        public boolean initiateStreaming(
+            AsyncResultSet.StreamMessageListener streamMessageListener) {
+          return iterator.initiateStreaming(streamMessageListener);
+        }
+      };
+    }
+
+    /** Registers that a row was returned. */
+    void onRow() {
+      rows++;
+    }
+
+    /** Adds this recording to the sketch. Calling this method more than once has no effect. */
+    void finish() {
+      synchronized (this) {
+        if (finished) {
+          return;
+        }
+        finished = true;
+      }
+      record(sql, System.nanoTime() - startNanos, rows, bytes);
+    }
+  }
+
+  QueryFingerprintSketch(int capacity, double samplingRate) {
+    Preconditions.checkArgument(capacity > 0, "capacity must be > 0");
+    Preconditions.checkArgument(
+        samplingRate > 0d && samplingRate <= 1d, "samplingRate must be in the range (0, 1]");
+    this.capacity = capacity;
+    this.samplingRate = samplingRate;
+    this.entries = new HashMap<>(capacity * 4 / 3 + 1);
+  }
+
+  /**
+   * Starts a recording for an execution of the given query, or returns null if this execution
+   * should not be sampled.
+   */
+  @Nullable
+  Recording startRecording(String sql) {
+    if (samplingRate < 1d && ThreadLocalRandom.current().nextDouble() >= samplingRate) {
+      return null;
+    }
+    return new Recording(sql);
+  }
+
+  @VisibleForTesting
+  void record(String sql, long latencyNanos, long rows, long bytes) {
+    String fingerprint = getFingerprint(sql);
+    synchronized (entries) {
+      Entry entry = entries.get(fingerprint);
+      if (entry == null) {
+        if (entries.size() >= capacity) {
+          // Replace the oldest entry with the lowest count. The new entry inherits its count.
+          Entry min = minBucket.first;
+          entries.remove(min.fingerprint);
+          entry = new Entry(fingerprint, minBucket.count);
+          minBucket.remove(min);
+          minBucket.add(entry);
+        } else {
+          entry = new Entry(fingerprint, 0L);
+          if (minBucket == null || minBucket.count > 0L) {
+            insertBucketAfter(null, new Bucket(0L));
+          }
+          minBucket.add(entry);
+        }
+        entries.put(fingerprint, entry);
+      }
+      increment(entry);
+      entry.record(latencyNanos, rows, bytes);
+    }
+  }
+
+  /** Moves the given entry to the bucket for its current count + 1. */
+  private void increment(Entry entry) {
+    Bucket current = entry.bucket;
+    Bucket target = current.next;
+    if (target == null || target.count != current.count + 1L) {
+      target = new Bucket(current.count + 1L);
+      insertBucketAfter(current, target);
+    }
+    current.remove(entry);
+    target.add(entry);
+    if (current.isEmpty()) {
+      removeBucket(current);
+    }
+  }
+
+  /** Inserts a bucket after the given bucket, or at the head of the list if previous is null. */
+  private void insertBucketAfter(@Nullable Bucket previous, Bucket bucket) {
+    bucket.previous = previous;
+    if (previous == null) {
+      bucket.next = minBucket;
+      minBucket = bucket;
+    } else {
+      bucket.next = previous.next;
+      previous.next = bucket;
+    }
+    if (bucket.next != null) {
+      bucket.next.previous = bucket;
+    }
+  }
+
+  private void removeBucket(Bucket bucket) {
+    if (bucket.previous == null) {
+      minBucket = bucket.next;
+    } else {
+      bucket.previous.next = bucket.next;
+    }
+    if (bucket.next != null) {
+      bucket.next.previous = bucket.previous;
+    }
+  }
+
+  /**
+   * Returns the statistics of the fingerprints in this sketch, ordered by the number of calls in
+   * descending order.
+   */
+  List<QueryFingerprintStats> getTopFingerprints() {
+    List<QueryFingerprintStats> result;
+    synchronized (entries) {
+      result = new ArrayList<>(entries.size());
+      for (Entry entry : entries.values()) {
+        result.add(entry.toStats());
+      }
+    }
+    result.sort(Comparator.comparingLong(QueryFingerprintStats::getCallCount).reversed());
+    return result;
+  }
+
+  private String getFingerprint(String sql) {
+    try {
+      return fingerprints.get(
+          sql,
+          () -> {
+            try {
+              return AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL)
+                  .fingerprint(sql);
+            } catch (SpannerException invalidSqlException) {
+              // Spanner will also reject the statement, so we just use the statement as-is.
+              return sql;
+            }
+          });
+    } catch (ExecutionException executionException) {
+      throw SpannerExceptionFactory.asSpannerException(executionException.getCause());
+    }
+  }
+
+  @VisibleForTesting
+  static int getLatencyBucket(long latencyNanos) {
+    long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+    if (micros <= 1L) {
+      return 0;
+    }
+    int bucket = (int) Math.ceil(Math.log(micros) / LOG_BUCKET_GROWTH_FACTOR);
+    return Math.min(bucket, NUM_LATENCY_BUCKETS - 1);
+  }
+
+  @VisibleForTesting
+  static long getLatencyBucketUpperBoundNanos(int bucket) {
+    return TimeUnit.MICROSECONDS.toNanos((long) Math.ceil(Math.pow(BUCKET_GROWTH_FACTOR, bucket)));
+  }
+}
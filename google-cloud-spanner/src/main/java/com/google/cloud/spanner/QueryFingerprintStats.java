@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import java.time.Duration;
+
+/**
+ * Statistics for all queries with the same fingerprint that have been executed by a {@link Spanner}
+ * instance. The fingerprint of a query is the SQL string of the query with all comments removed,
+ * whitespace collapsed, and all literals replaced with a question mark. Instances of this class are
+ * returned by {@link Spanner#getTopQueryFingerprints()} if {@link
+ * SpannerOptions.Builder#setQueryFingerprintSketchCapacity(int)} has been set.
+ *
+ * <p>The statistics are kept in a sketch with a bounded number of entries. A fingerprint that is
+ * added to a full sketch replaces the entry with the lowest call count, and inherits that count.
+ * The call count of a fingerprint is therefore an upper bound of the actual number of calls, and
+ * {@link #getMaxCallCountError()} returns the maximum overestimation. The latency, row and byte
+ * statistics only include the executions after the fingerprint was added to the sketch.
+ */
+public final class QueryFingerprintStats {
+  private final String fingerprint;
+  private final long callCount;
+  private final long maxCallCountError;
+  private final long totalLatencyNanos;
+  private final long p99LatencyNanos;
+  private final long rowCount;
+  private final long bytesReceived;
+
+  QueryFingerprintStats(
+      String fingerprint,
+      long callCount,
+      long maxCallCountError,
+      long totalLatencyNanos,
+      long p99LatencyNanos,
+      long rowCount,
+      long bytesReceived) {
+    this.fingerprint = fingerprint;
+    this.callCount = callCount;
+    this.maxCallCountError = maxCallCountError;
+    this.totalLatencyNanos = totalLatencyNanos;
+    this.p99LatencyNanos = p99LatencyNanos;
+    this.rowCount = rowCount;
+    this.bytesReceived = bytesReceived;
+  }
+
+  /** Returns the fingerprint of the queries that these statistics belong to. */
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Returns the (estimated) number of sampled executions of queries with this fingerprint. This
+   * number can be higher than the actual number of executions, but never by more than {@link
+   * #getMaxCallCountError()}.
+   */
+  public long getCallCount() {
+    return callCount;
+  }
+
+  /** Returns the maximum number of calls that {@link #getCallCount()} could be overestimated by. */
+  public long getMaxCallCountError() {
+    return maxCallCountError;
+  }
+
+  /**
+   * Returns the total time between sending the query to Spanner and consuming or closing the
+   * results of all executions that have been recorded for this fingerprint.
+   */
+  public Duration getTotalLatency() {
+    return Duration.ofNanos(totalLatencyNanos);
+  }
+
+  /**
+   * Returns an approximation of the 99th percentile of the latency of the executions that have been
+   * recorded for this fingerprint. The value is the upper bound of the histogram bucket that
+   * contains the 99th percentile, and is at most 25% higher than the actual value.
+   */
+  public Duration getP99Latency() {
+    return Duration.ofNanos(p99LatencyNanos);
+  }
+
+  /** Returns the total number of rows that were returned for this fingerprint. */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /** Returns the total number of bytes in the results that were received for this fingerprint. */
+  public long getBytesReceived() {
+    return bytesReceived;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "fingerprint: %s, callCount: %d, maxCallCountError: %d, totalLatency: %s, p99Latency: %s, "
+            + "rowCount: %d, bytesReceived: %d",
+        fingerprint,
+        callCount,
+        maxCallCountError,
+        getTotalLatency(),
+        getP99Latency(),
+        rowCount,
+        bytesReceived);
+  }
+}
@@ -82,4 +82,14 @@ public interface ResultSet extends AutoCloseable, StructReader {
   default ResultSetMetadata getMetadata() {
     throw new UnsupportedOperationException("Method should be overridden");
   }
+
+  /**
+   * Returns the breakdown of the time that the client has spent in each stage of executing the
+   * query or read and consuming this {@link ResultSet} so far, or null if {@link
+   * SpannerOptions.Builder#setEnableClientLatencyBreakdown(boolean)} has not been enabled.
+   */
+  @Nullable
+  default ClientLatencyBreakdown getClientLatencyBreakdown() {
+    return null;
+  }
 }
@@ -35,7 +35,6 @@ import com.google.common.collect.AbstractIterator;
 import com.google.protobuf.ByteString;
 import com.google.spanner.v1.PartialResultSet;
 import io.grpc.Context;
-import io.opentelemetry.api.common.Attributes;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.Objects;
@@ -88,10 +87,8 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
       Set<Code> retryableCodes) {
     this(
         maxBufferSize,
-        streamName,
-        parent,
         tracer,
-        Attributes.empty(),
+        tracer.spanBuilderWithExplicitParent(streamName, parent),
         errorHandler,
         streamingRetrySettings,
         retryableCodes);
@@ -102,14 +99,31 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
       String streamName,
       ISpan parent,
       TraceWrapper tracer,
-      Attributes attributes,
+      Statement statement,
+      Options options,
+      ErrorHandler errorHandler,
+      RetrySettings streamingRetrySettings,
+      Set<Code> retryableCodes) {
+    this(
+        maxBufferSize,
+        tracer,
+        tracer.spanBuilderWithExplicitParent(streamName, parent, statement, options),
+        errorHandler,
+        streamingRetrySettings,
+        retryableCodes);
+  }
+
+  private ResumableStreamIterator(
+      int maxBufferSize,
+      TraceWrapper tracer,
+      ISpan span,
       ErrorHandler errorHandler,
       RetrySettings streamingRetrySettings,
       Set<Code> retryableCodes) {
     checkArgument(maxBufferSize >= 0);
     this.maxBufferSize = maxBufferSize;
     this.tracer = tracer;
-    this.span = tracer.spanBuilderWithExplicitParent(streamName, parent, attributes);
+    this.span = span;
     this.errorHandler = errorHandler;
     this.streamingRetrySettings = Preconditions.checkNotNull(streamingRetrySettings);
     this.retryableCodes = Preconditions.checkNotNull(retryableCodes);
@@ -201,6 +215,15 @@ abstract class ResumableStreamIterator extends AbstractIterator<PartialResultSet
   abstract CloseableIterator<PartialResultSet> startStream(
       @Nullable ByteString resumeToken, AsyncResultSet.StreamMessageListener streamMessageListener);
 
+  /**
+   * Sets the resume token that is used to start the first stream. This must be called before the
+   * stream has been started.
+   */
+  void setResumeToken(ByteString resumeToken) {
+    Preconditions.checkState(stream == null, "The stream has already been started");
+    this.resumeToken = checkNotNull(resumeToken);
+  }
+
   /**
    * Prepares the iterator for a retry on a different gRPC channel. Returns true if that is
    * possible, and false otherwise. A retry should only be attempted if the method returns true.
@@ -166,6 +166,13 @@ class SessionClient implements AutoCloseable {
     void onSessionCreateFailure(Throwable t, int createFailureForSessionCount);
   }
 
+  /**
+   * The maximum number of sessions that is requested in one BatchCreateSessions call when the
+   * session pool is initialized or replenished. Larger numbers of sessions are split into multiple
+   * calls that are executed in parallel.
+   */
+  static final int MAX_SESSIONS_PER_BATCH_CREATE = 25;
+
   private final SpannerImpl spanner;
   private final ExecutorFactory<ScheduledExecutorService> executorFactory;
   private final ScheduledExecutorService executor;
@@ -321,11 +328,15 @@ class SessionClient implements AutoCloseable {
    * Asynchronously creates a batch of sessions and returns these to the given {@link
    * SessionConsumer}. This method may split the actual session creation over several gRPC calls in
    * order to distribute the sessions evenly over all available channels and to parallelize the
-   * session creation. The given {@link SessionConsumer} is guaranteed to eventually get exactly the
-   * number of requested sessions unless an error occurs. In case of an error on one or more of the
-   * gRPC calls, the consumer will receive one or more {@link
-   * SessionConsumer#onSessionCreateFailure(Throwable, int)} calls with the error and the number of
-   * sessions that could not be created.
+   * session creation. The sessions for each channel are requested in batches of at most {@link
+   * #MAX_SESSIONS_PER_BATCH_CREATE} sessions. The batches are submitted round-robin over the
+   * channels, so that the first batch of each channel is started before any second batch. This
+   * pipelines the session creation and makes the first sessions available sooner than when all
+   * sessions for a channel are requested in one large call. The given {@link SessionConsumer} is
+   * guaranteed to eventually get exactly the number of requested sessions unless an error occurs.
+   * In case of an error on one or more of the gRPC calls, the consumer will receive one or more
+   * {@link SessionConsumer#onSessionCreateFailure(Throwable, int)} calls with the error and the
+   * number of sessions that could not be created.
    *
    * @param sessionCount The number of sessions to create.
    * @param distributeOverChannels Whether to distribute the sessions over all available channels
@@ -334,41 +345,44 @@ class SessionClient implements AutoCloseable {
    */
   void asyncBatchCreateSessions(
       final int sessionCount, boolean distributeOverChannels, SessionConsumer consumer) {
-    int sessionCountPerChannel;
-    int remainder;
-    if (distributeOverChannels) {
-      sessionCountPerChannel = sessionCount / spanner.getOptions().getNumChannels();
-      remainder = sessionCount % spanner.getOptions().getNumChannels();
-    } else {
-      sessionCountPerChannel = sessionCount;
-      remainder = 0;
-    }
+    int numChannels = distributeOverChannels ? spanner.getOptions().getNumChannels() : 1;
+    int sessionCountPerChannel = sessionCount / numChannels;
+    int remainder = sessionCount % numChannels;
+    int[] remainingForChannel = new int[numChannels];
+    long[] channelHints = new long[numChannels];
     int numBeingCreated = 0;
     synchronized (this) {
-      for (int channelIndex = 0;
-          channelIndex < spanner.getOptions().getNumChannels();
-          channelIndex++) {
-        int createCountForChannel = sessionCountPerChannel;
+      for (int channelIndex = 0; channelIndex < numChannels; channelIndex++) {
         // Add the remainder of the division to the creation count of the first channel to make sure
         // we are creating the requested number of sessions. This will cause a slightly less
         // efficient distribution of sessions over the channels than spreading the remainder over
         // all channels as well, but it will also reduce the number of requests when less than
         // numChannels sessions are requested (i.e. with 4 channels and 3 requested sessions, the 3
         // sessions will be requested in one rpc call).
-        if (channelIndex == 0) {
-          createCountForChannel = sessionCountPerChannel + remainder;
+        int createCountForChannel =
+            channelIndex == 0 ? sessionCountPerChannel + remainder : sessionCountPerChannel;
+        if (createCountForChannel == 0) {
+          break;
         }
-        if (createCountForChannel > 0 && numBeingCreated < sessionCount) {
+        remainingForChannel[channelIndex] = createCountForChannel;
+        channelHints[channelIndex] = sessionChannelCounter++;
+      }
+      while (numBeingCreated < sessionCount) {
+        for (int channelIndex = 0; channelIndex < numChannels; channelIndex++) {
+          int batchSize =
+              Math.min(remainingForChannel[channelIndex], MAX_SESSIONS_PER_BATCH_CREATE);
+          if (batchSize == 0) {
+            continue;
+          }
           try {
             executor.submit(
-                new BatchCreateSessionsRunnable(
-                    createCountForChannel, sessionChannelCounter++, consumer));
-            numBeingCreated += createCountForChannel;
+                new BatchCreateSessionsRunnable(batchSize, channelHints[channelIndex], consumer));
+            numBeingCreated += batchSize;
+            remainingForChannel[channelIndex] -= batchSize;
           } catch (Throwable t) {
             consumer.onSessionCreateFailure(t, sessionCount - numBeingCreated);
+            return;
           }
-        } else {
-          break;
         }
       }
     }
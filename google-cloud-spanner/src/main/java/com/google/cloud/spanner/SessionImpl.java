@@ -51,6 +51,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nullable;
 
 /**
@@ -120,6 +121,8 @@ class SessionImpl implements Session {
   private final SessionReference sessionReference;
   private SessionTransaction activeTransaction;
   private ISpan currentSpan;
+  private final AtomicLong lastAcquisitionLatencyNanos =
+      new AtomicLong(ClientLatencyTracker.NO_SESSION_ACQUISITION);
   private final Clock clock;
   private final Map<SpannerRpc.Option, ?> options;
   private final ErrorHandler errorHandler;
@@ -173,6 +176,24 @@ class SessionImpl implements Session {
     return currentSpan;
   }
 
+  /**
+   * Sets the time that the application was blocked while waiting for this session to be checked out
+   * of the session pool the last time.
+   */
+  void setLastAcquisitionLatencyNanos(long lastAcquisitionLatencyNanos) {
+    this.lastAcquisitionLatencyNanos.set(lastAcquisitionLatencyNanos);
+  }
+
+  /**
+   * Returns the time that the application was blocked while waiting for this session to be checked
+   * out the last time, and clears it, so that only the first read context that uses the checked out
+   * session reports it. Returns {@link ClientLatencyTracker#NO_SESSION_ACQUISITION} if the session
+   * has not been checked out since the last call.
+   */
+  long takeLastAcquisitionLatencyNanos() {
+    return lastAcquisitionLatencyNanos.getAndSet(ClientLatencyTracker.NO_SESSION_ACQUISITION);
+  }
+
   Instant getLastUseTime() {
     return sessionReference.getLastUseTime();
   }
@@ -339,6 +360,8 @@ class SessionImpl implements Session {
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+            .setClientLatencyMetrics(spanner.getClientLatencyMetrics())
+            .setQueryFingerprintSketch(spanner.getQueryFingerprintSketch())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
             .setTracer(tracer)
@@ -362,6 +385,8 @@ class SessionImpl implements Session {
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+            .setClientLatencyMetrics(spanner.getClientLatencyMetrics())
+            .setQueryFingerprintSketch(spanner.getQueryFingerprintSketch())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
             .setTracer(tracer)
@@ -385,6 +410,8 @@ class SessionImpl implements Session {
             .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
             .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
             .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+            .setClientLatencyMetrics(spanner.getClientLatencyMetrics())
+            .setQueryFingerprintSketch(spanner.getQueryFingerprintSketch())
             .setDefaultDirectedReadOptions(spanner.getOptions().getDirectedReadOptions())
             .setSpan(currentSpan)
             .setTracer(tracer)
@@ -494,6 +521,8 @@ class SessionImpl implements Session {
         .setDefaultQueryOptions(spanner.getDefaultQueryOptions(getDatabaseId()))
         .setDefaultPrefetchChunks(spanner.getDefaultPrefetchChunks())
         .setDefaultDecodeMode(spanner.getDefaultDecodeMode())
+        .setClientLatencyMetrics(spanner.getClientLatencyMetrics())
+        .setQueryFingerprintSketch(spanner.getQueryFingerprintSketch())
         .setSpan(currentSpan)
         .setTracer(tracer)
         .setExecutorProvider(spanner.getAsyncExecutorProvider())
@@ -104,6 +104,7 @@ import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -152,6 +153,69 @@ class SessionPool {
     }
   }
 
+  /**
+   * Returns a future that is done when the pool contains at least the given number of sessions. The
+   * pool starts creating the missing sessions if it is not already creating these. The number of
+   * sessions is capped at {@link SessionPoolOptions#getMaxSessions()}. The future fails if the
+   * creation of the sessions fails, or if the pool is closed before the sessions have been created.
+   */
+  ApiFuture<Void> prepareSessionsAsync(int numSessions) {
+    Preconditions.checkArgument(numSessions >= 0, "numSessions must be >= 0");
+    synchronized (lock) {
+      if (isClosed()) {
+        return ApiFutures.immediateFailedFuture(
+            newSpannerException(ErrorCode.INTERNAL, "Client has been closed"));
+      }
+      int wantedSessions = Math.min(numSessions, options.getMaxSessions());
+      if (totalSessions() >= wantedSessions) {
+        return ApiFutures.immediateFuture(null);
+      }
+      SettableApiFuture<Void> future = SettableApiFuture.create();
+      sessionsReadyFutures.add(new SessionsReadyFuture(wantedSessions, future));
+      int missingSessions = wantedSessions - (totalSessions() + numSessionsBeingCreated);
+      if (missingSessions > 0) {
+        createSessions(missingSessions, true);
+      }
+      return future;
+    }
+  }
+
+  /** A future that is waiting for the pool to contain at least a given number of sessions. */
+  private static final class SessionsReadyFuture {
+    private final int numSessions;
+    private final SettableApiFuture<Void> future;
+
+    private SessionsReadyFuture(int numSessions, SettableApiFuture<Void> future) {
+      this.numSessions = numSessions;
+      this.future = future;
+    }
+  }
+
+  private void completeSessionsReadyFutures() {
+    synchronized (lock) {
+      if (sessionsReadyFutures.isEmpty()) {
+        return;
+      }
+      Iterator<SessionsReadyFuture> iterator = sessionsReadyFutures.iterator();
+      while (iterator.hasNext()) {
+        SessionsReadyFuture sessionsReadyFuture = iterator.next();
+        if (allSessions.size() >= sessionsReadyFuture.numSessions) {
+          sessionsReadyFuture.future.set(null);
+          iterator.remove();
+        }
+      }
+    }
+  }
+
+  private void failSessionsReadyFutures(SpannerException exception) {
+    synchronized (lock) {
+      for (SessionsReadyFuture sessionsReadyFuture : sessionsReadyFutures) {
+        sessionsReadyFuture.future.setException(exception);
+      }
+      sessionsReadyFutures.clear();
+    }
+  }
+
   private abstract static class CachedResultSetSupplier
       implements com.google.common.base.Supplier<ResultSet> {
 
@@ -1543,12 +1607,14 @@ class SessionPool {
     PooledSession get(final boolean eligibleForLongRunning) {
       if (inUse.compareAndSet(false, true)) {
         PooledSession res = null;
+        long start = System.nanoTime();
         try {
           res = super.get();
         } catch (Throwable e) {
           // ignore the exception as it will be handled by the call to super.get() below.
         }
         if (res != null) {
+          res.delegate.setLastAcquisitionLatencyNanos(System.nanoTime() - start);
           res.markBusy(span);
           span.addAnnotation("Using Session", "sessionId", res.getName());
           synchronized (lock) {
@@ -1990,6 +2056,9 @@ class SessionPool {
         Duration.ofMillis(TimeUnit.MINUTES.toMillis(options.getKeepAliveIntervalMinutes()));
     // Number of loop iterations in which we need to keep alive all the sessions
     @VisibleForTesting final long numKeepAliveCycles = keepAliveMillis.toMillis() / loopFrequency;
+    // Maximum number of keep-alive pings that are executed in parallel on the executor.
+    private static final int MAX_PARALLEL_KEEP_ALIVES = 4;
+    private final AtomicInteger numKeepAlivesInProgress = new AtomicInteger();
 
     /**
      * Variable maintaining the last execution time of the long-running transaction cleanup task.
@@ -2119,7 +2188,13 @@ class SessionPool {
       // Now go over all the remaining sessions and see if they need to be kept alive explicitly.
       Instant keepAliveThreshold = currTime.minus(keepAliveMillis);
 
-      // Keep chugging till there is no session that needs to be kept alive.
+      // Keep chugging till there is no session that needs to be kept alive. The maintainer pings
+      // the first session itself. Other sessions are pinged in parallel on the executor, so that
+      // the maintainer is not blocked by a long sequence of round-trips to Spanner. At most
+      // MAX_PARALLEL_KEEP_ALIVES pings run on the executor at the same time, so the number of
+      // sessions that are checked out for pings and the number of executor threads that are used
+      // for pings stay bounded. The maintainer pings the session itself if the limit is reached.
+      boolean first = true;
       while (numSessionsToKeepAlive > 0) {
         Tuple<PooledSession, Integer> sessionToKeepAlive;
         synchronized (lock) {
@@ -2128,17 +2203,41 @@ class SessionPool {
         if (sessionToKeepAlive == null) {
           break;
         }
-        try {
-          logger.log(Level.FINE, "Keeping alive session " + sessionToKeepAlive.x().getName());
-          numSessionsToKeepAlive--;
-          sessionToKeepAlive.x().keepAlive();
-          releaseSession(sessionToKeepAlive);
-        } catch (SpannerException e) {
-          handleException(e, sessionToKeepAlive);
+        logger.log(Level.FINE, "Keeping alive session " + sessionToKeepAlive.x().getName());
+        numSessionsToKeepAlive--;
+        if (first) {
+          first = false;
+          keepAlive(sessionToKeepAlive);
+        } else if (numKeepAlivesInProgress.incrementAndGet() > MAX_PARALLEL_KEEP_ALIVES) {
+          numKeepAlivesInProgress.decrementAndGet();
+          keepAlive(sessionToKeepAlive);
+        } else {
+          try {
+            executor.execute(
+                () -> {
+                  try {
+                    keepAlive(sessionToKeepAlive);
+                  } finally {
+                    numKeepAlivesInProgress.decrementAndGet();
+                  }
+                });
+          } catch (RejectedExecutionException e) {
+            numKeepAlivesInProgress.decrementAndGet();
+            releaseSession(sessionToKeepAlive);
+          }
         }
       }
     }
 
+    private void keepAlive(Tuple<PooledSession, Integer> sessionToKeepAlive) {
+      try {
+        sessionToKeepAlive.x().keepAlive();
+        releaseSession(sessionToKeepAlive);
+      } catch (SpannerException e) {
+        handleException(e, sessionToKeepAlive);
+      }
+    }
+
     private void replenishPool() {
       synchronized (lock) {
         // If we have gone below min pool size, create that many sessions.
@@ -2303,6 +2402,9 @@ class SessionPool {
   @GuardedBy("lock")
   private int numSessionsBeingCreated = 0;
 
+  @GuardedBy("lock")
+  private final List<SessionsReadyFuture> sessionsReadyFutures = new ArrayList<>();
+
   @GuardedBy("lock")
   private int numSessionsInUse = 0;
 
@@ -3019,6 +3121,10 @@ class SessionPool {
       if (!dialect.isDone()) {
         dialect.setException(e);
       }
+      // Session creation is split into multiple batches, and sessions that could not be created are
+      // not requested again. The pool might therefore never reach the number of sessions that a
+      // pending future is waiting for, even if the other batches succeed.
+      failSessionsReadyFutures(e);
       if (isDatabaseOrInstanceNotFound(e)) {
         setResourceNotFoundException((ResourceNotFoundException) e);
         poolMaintainer.close();
@@ -3055,6 +3161,7 @@ class SessionPool {
         waiter.put(newSpannerException(ErrorCode.INTERNAL, "Client has been closed"));
         waiter = waiters.poll();
       }
+      failSessionsReadyFutures(newSpannerException(ErrorCode.INTERNAL, "Client has been closed"));
       closureFuture = SettableFuture.create();
       retFuture = closureFuture;
 
@@ -3197,6 +3304,7 @@ class SessionPool {
           if (allSessions.size() >= minSessions) {
             waitOnMinSessionsLatch.countDown();
           }
+          completeSessionsReadyFutures();
           if (options.isAutoDetectDialect() && !detectDialectStarted) {
             // Get the dialect of the underlying database if that has not yet been done. Note that
             // this method will release the session into the pool once it is done.
@@ -87,6 +87,8 @@ public class SessionPoolOptions {
 
   private final Duration multiplexedSessionMaintenanceDuration;
 
+  private final String multiplexedSessionCacheDirectory;
+
   private SessionPoolOptions(Builder builder) {
     // minSessions > maxSessions is only possible if the user has only set a value for maxSessions.
     // We allow that to prevent code that only sets a value for maxSessions to break if the
@@ -128,6 +130,7 @@ public class SessionPoolOptions {
             ? useMultiplexedSessionForRWFromEnvVariable
             : builder.useMultiplexedSessionForRW;
     this.multiplexedSessionMaintenanceDuration = builder.multiplexedSessionMaintenanceDuration;
+    this.multiplexedSessionCacheDirectory = builder.multiplexedSessionCacheDirectory;
   }
 
   @Override
@@ -165,8 +168,9 @@ public class SessionPoolOptions {
         && Objects.equals(this.useMultiplexedSession, other.useMultiplexedSession)
         && Objects.equals(this.useMultiplexedSessionForRW, other.useMultiplexedSessionForRW)
         && Objects.equals(
-            this.multiplexedSessionMaintenanceDuration,
-            other.multiplexedSessionMaintenanceDuration);
+            this.multiplexedSessionMaintenanceDuration, other.multiplexedSessionMaintenanceDuration)
+        && Objects.equals(
+            this.multiplexedSessionCacheDirectory, other.multiplexedSessionCacheDirectory);
   }
 
   @Override
@@ -196,7 +200,8 @@ public class SessionPoolOptions {
         this.useMultiplexedSession,
         this.useMultiplexedSessionBlindWrite,
         this.useMultiplexedSessionForRW,
-        this.multiplexedSessionMaintenanceDuration);
+        this.multiplexedSessionMaintenanceDuration,
+        this.multiplexedSessionCacheDirectory);
   }
 
   public Builder toBuilder() {
@@ -375,6 +380,14 @@ public class SessionPoolOptions {
     return multiplexedSessionMaintenanceDuration;
   }
 
+  /**
+   * Returns the directory where the client caches multiplexed sessions, or null if multiplexed
+   * sessions are not cached.
+   */
+  public String getMultiplexedSessionCacheDirectory() {
+    return multiplexedSessionCacheDirectory;
+  }
+
   public static Builder newBuilder() {
     return new Builder();
   }
@@ -586,6 +599,7 @@ public class SessionPoolOptions {
     private boolean useMultiplexedSessionForRW = false;
 
     private Duration multiplexedSessionMaintenanceDuration = Duration.ofDays(7);
+    private String multiplexedSessionCacheDirectory;
     private Clock poolMaintainerClock = Clock.INSTANCE;
 
     private static Position getReleaseToPositionFromSystemProperty() {
@@ -629,6 +643,7 @@ public class SessionPoolOptions {
       this.useMultiplexedSessionBlindWrite = options.useMultiplexedSessionBlindWrite;
       this.useMultiplexedSessionForRW = options.useMultiplexedSessionForRW;
       this.multiplexedSessionMaintenanceDuration = options.multiplexedSessionMaintenanceDuration;
+      this.multiplexedSessionCacheDirectory = options.multiplexedSessionCacheDirectory;
       this.poolMaintainerClock = options.poolMaintainerClock;
     }
 
@@ -854,6 +869,30 @@ public class SessionPoolOptions {
       return this;
     }
 
+    /**
+     * Sets a local directory where the client caches the multiplexed session of each database. A
+     * new client for the same database, host, database role and credentials reuses the cached
+     * session if it is still valid, instead of creating a new multiplexed session at startup. This
+     * reduces the startup time of short-lived processes, such as serverless and batch workloads.
+     *
+     * <p>If a cached session turns out to no longer exist on Spanner, then the client removes it
+     * from the cache and creates a new multiplexed session. Writes and blocking single-use reads
+     * that encountered the invalid session are retried once on the new session. Other operations,
+     * such as transactions and asynchronous reads, fail with a {@link SessionNotFoundException} and
+     * should be retried by the application. The directory must be private to the application, and
+     * is created if it does not exist. Multiplexed sessions are not cached by default, and are
+     * never cached for credentials whose principal cannot be determined by the client, such as
+     * plain access tokens.
+     *
+     * @param multiplexedSessionCacheDirectory the directory to use for caching multiplexed
+     *     sessions, or null to disable caching
+     * @return this builder for chaining
+     */
+    public Builder setMultiplexedSessionCacheDirectory(String multiplexedSessionCacheDirectory) {
+      this.multiplexedSessionCacheDirectory = multiplexedSessionCacheDirectory;
+      return this;
+    }
+
     /**
      * Sets whether the client should automatically execute a background query to detect the dialect
      * that is used by the database or not. Set this option to true if you do not know what the
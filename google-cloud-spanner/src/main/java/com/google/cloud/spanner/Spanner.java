@@ -18,6 +18,7 @@ package com.google.cloud.spanner;
 
 import com.google.api.gax.core.ExecutorProvider;
 import com.google.cloud.Service;
+import java.util.List;
 
 /**
  * An interface for Cloud Spanner. Typically, there would only be one instance of this for the
@@ -167,4 +168,14 @@ public interface Spanner extends Service<SpannerOptions>, AutoCloseable {
 
   /** @return the {@link ExecutorProvider} that is used for asynchronous queries and operations. */
   ExecutorProvider getAsyncExecutorProvider();
+
+  /**
+   * Returns the statistics of the most frequently executed query fingerprints of this {@link
+   * Spanner} instance, ordered by the number of calls in descending order. The list is empty if
+   * query fingerprint statistics have not been enabled with {@link
+   * SpannerOptions.Builder#setQueryFingerprintSketchCapacity(int)}.
+   */
+  default List<QueryFingerprintStats> getTopQueryFingerprints() {
+    throw new UnsupportedOperationException("method should be overwritten");
+  }
 }
@@ -16,8 +16,10 @@
 
 package com.google.cloud.spanner;
 
+import static com.google.cloud.spanner.BuiltInMetricsConstant.GAX_METER_NAME;
 import static com.google.cloud.spanner.BuiltInMetricsConstant.SPANNER_METRICS;
 
+import com.google.api.MetricDescriptor.MetricKind;
 import com.google.api.core.ApiFuture;
 import com.google.api.core.ApiFutureCallback;
 import com.google.api.core.ApiFutures;
@@ -29,22 +31,32 @@ import com.google.auth.Credentials;
 import com.google.cloud.monitoring.v3.MetricServiceClient;
 import com.google.cloud.monitoring.v3.MetricServiceSettings;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.monitoring.v3.CreateTimeSeriesRequest;
+import com.google.monitoring.v3.Point;
 import com.google.monitoring.v3.ProjectName;
 import com.google.monitoring.v3.TimeSeries;
 import com.google.protobuf.Empty;
+import com.google.protobuf.util.Timestamps;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.sdk.common.CompletableResultCode;
 import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.data.AggregationTemporality;
 import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.metrics.data.PointData;
 import io.opentelemetry.sdk.metrics.export.MetricExporter;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -56,6 +68,9 @@ import javax.annotation.Nullable;
  *
  * <p>The exporter will look for all spanner owned metrics under spanner.googleapis.com
  * instrumentation scope and upload it via the Google Cloud Monitoring API.
+ *
+ * <p>The exporter caches the converted metric and resource labels of each time series, and only
+ * uploads the cumulative time series that have changed since the last successful export.
  */
 class SpannerCloudMonitoringExporter implements MetricExporter {
 
@@ -65,10 +80,20 @@ class SpannerCloudMonitoringExporter implements MetricExporter {
   // This the quota limit from Cloud Monitoring. More details in
   // https://cloud.google.com/monitoring/quotas#custom_metrics_quotas.
   private static final int EXPORT_BATCH_SIZE_LIMIT = 200;
+  // The maximum number of time series that the exporter keeps a cached descriptor for.
+  private static final int MAX_CACHED_SERIES = 10_000;
+  // Unchanged cumulative time series are still exported at least this often, so the time series
+  // do not look stale in Cloud Monitoring.
+  private static final Duration MAX_UNCHANGED_SERIES_SKIP_DURATION = Duration.ofMinutes(10);
   private final AtomicBoolean spannerExportFailureLogged = new AtomicBoolean(false);
   private CompletableResultCode lastExportCode;
   private final MetricServiceClient client;
   private final String spannerProjectId;
+  private final Cache<SeriesKey, SeriesState> seriesStates =
+      CacheBuilder.newBuilder()
+          .maximumSize(MAX_CACHED_SERIES)
+          .expireAfterAccess(1, TimeUnit.HOURS)
+          .build();
 
   static SpannerCloudMonitoringExporter create(
       String projectId, @Nullable Credentials credentials, @Nullable String monitoringHost)
@@ -141,10 +166,9 @@ class SpannerCloudMonitoringExporter implements MetricExporter {
       return CompletableResultCode.ofFailure();
     }
 
-    List<TimeSeries> spannerTimeSeries;
+    List<PendingSeries> pendingSeries;
     try {
-      spannerTimeSeries =
-          SpannerCloudMonitoringExporterUtils.convertToSpannerTimeSeries(spannerMetricData);
+      pendingSeries = convertToChangedTimeSeries(spannerMetricData);
     } catch (Throwable e) {
       logger.log(
           Level.WARNING,
@@ -152,6 +176,14 @@ class SpannerCloudMonitoringExporter implements MetricExporter {
           e);
       return CompletableResultCode.ofFailure();
     }
+    // Skips exporting if none of the time series have changed since the last export.
+    if (pendingSeries.isEmpty()) {
+      return CompletableResultCode.ofSuccess();
+    }
+    List<TimeSeries> spannerTimeSeries = new ArrayList<>(pendingSeries.size());
+    for (PendingSeries series : pendingSeries) {
+      spannerTimeSeries.add(series.timeSeries);
+    }
 
     ProjectName projectName = ProjectName.of(spannerProjectId);
 
@@ -182,6 +214,9 @@ class SpannerCloudMonitoringExporter implements MetricExporter {
             // When an export succeeded reset the export failure flag to false so if there's a
             // transient failure it'll be logged.
             spannerExportFailureLogged.set(false);
+            for (PendingSeries series : pendingSeries) {
+              series.state.lastExportedPoint = series.timeSeries.getPoints(0);
+            }
             spannerExportCode.succeed();
           }
         },
@@ -190,6 +225,116 @@ class SpannerCloudMonitoringExporter implements MetricExporter {
     return spannerExportCode;
   }
 
+  /**
+   * Converts the given metric data to time series and returns the time series that should be
+   * exported. All points that belong to the same time series are merged into a single point, as
+   * Cloud Monitoring does not accept multiple points for the same time series in one request.
+   * Cumulative time series whose value has not changed since the last successful export are
+   * skipped, unless the last export was longer than {@link #MAX_UNCHANGED_SERIES_SKIP_DURATION}
+   * ago. The metric and resource labels of each time series are only converted the first time the
+   * time series is seen.
+   */
+  private List<PendingSeries> convertToChangedTimeSeries(List<MetricData> collection)
+      throws ExecutionException {
+    Map<SeriesKey, PendingSeries> mergedSeries = new LinkedHashMap<>();
+    for (MetricData metricData : collection) {
+      // Get common metrics data from GAX library
+      if (!metricData.getInstrumentationScopeInfo().getName().equals(GAX_METER_NAME)) {
+        // Filter out metric data for instruments that are not part of the spanner metrics list
+        continue;
+      }
+      for (PointData pointData : metricData.getData().getPoints()) {
+        SeriesKey key = new SeriesKey(metricData.getName(), pointData.getAttributes());
+        SeriesState state =
+            seriesStates.get(
+                key,
+                () ->
+                    new SeriesState(
+                        SpannerCloudMonitoringExporterUtils.createTimeSeriesDescriptor(
+                            metricData, pointData.getAttributes())));
+        Point point =
+            SpannerCloudMonitoringExporterUtils.convertPoint(metricData.getType(), pointData);
+        PendingSeries existing = mergedSeries.get(key);
+        if (existing != null) {
+          point =
+              SpannerCloudMonitoringExporterUtils.mergePoints(
+                  state.descriptor.getMetricKind(), existing.point, point);
+        }
+        mergedSeries.put(key, new PendingSeries(state, point));
+      }
+    }
+
+    List<PendingSeries> result = new ArrayList<>(mergedSeries.size());
+    for (PendingSeries series : mergedSeries.values()) {
+      if (series.state.isUnchanged(series.point)) {
+        continue;
+      }
+      series.timeSeries = series.state.descriptor.toBuilder().addPoints(series.point).build();
+      result.add(series);
+    }
+    return result;
+  }
+
+  /** Identifies a time series by the name of the metric and the attributes of its points. */
+  private static final class SeriesKey {
+    private final String metricName;
+    private final Attributes attributes;
+
+    SeriesKey(String metricName, Attributes attributes) {
+      this.metricName = metricName;
+      this.attributes = attributes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof SeriesKey)) {
+        return false;
+      }
+      SeriesKey other = (SeriesKey) o;
+      return metricName.equals(other.metricName) && attributes.equals(other.attributes);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * metricName.hashCode() + attributes.hashCode();
+    }
+  }
+
+  /** The cached descriptor and the last exported point of a time series. */
+  private static final class SeriesState {
+    private final TimeSeries descriptor;
+    private volatile Point lastExportedPoint;
+
+    SeriesState(TimeSeries descriptor) {
+      this.descriptor = descriptor;
+    }
+
+    boolean isUnchanged(Point point) {
+      Point lastPoint = this.lastExportedPoint;
+      if (lastPoint == null || descriptor.getMetricKind() != MetricKind.CUMULATIVE) {
+        return false;
+      }
+      return lastPoint.getValue().equals(point.getValue())
+          && lastPoint.getInterval().getStartTime().equals(point.getInterval().getStartTime())
+          && Timestamps.between(
+                      lastPoint.getInterval().getEndTime(), point.getInterval().getEndTime())
+                  .getSeconds()
+              < MAX_UNCHANGED_SERIES_SKIP_DURATION.getSeconds();
+    }
+  }
+
+  /** A time series that has been converted in the current export cycle. */
+  private static final class PendingSeries {
+    private final SeriesState state;
+    private final Point point;
+    private TimeSeries timeSeries;
+
+    PendingSeries(SeriesState state, Point point) {
+      this.state = state;
+      this.point = point;
+    }
+  }
+
   private ApiFuture<List<Empty>> exportTimeSeriesInBatch(
       ProjectName projectName, List<TimeSeries> timeSeries) {
     List<ApiFuture<Empty>> batchResults = new ArrayList<>();
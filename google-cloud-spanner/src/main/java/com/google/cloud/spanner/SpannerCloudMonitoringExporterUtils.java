@@ -22,7 +22,6 @@ import static com.google.api.MetricDescriptor.MetricKind.UNRECOGNIZED;
 import static com.google.api.MetricDescriptor.ValueType.DISTRIBUTION;
 import static com.google.api.MetricDescriptor.ValueType.DOUBLE;
 import static com.google.api.MetricDescriptor.ValueType.INT64;
-import static com.google.cloud.spanner.BuiltInMetricsConstant.GAX_METER_NAME;
 import static com.google.cloud.spanner.BuiltInMetricsConstant.INSTANCE_ID_KEY;
 import static com.google.cloud.spanner.BuiltInMetricsConstant.PROJECT_ID_KEY;
 import static com.google.cloud.spanner.BuiltInMetricsConstant.SPANNER_PROMOTED_RESOURCE_LABELS;
@@ -39,6 +38,7 @@ import com.google.monitoring.v3.Point;
 import com.google.monitoring.v3.TimeInterval;
 import com.google.monitoring.v3.TimeSeries;
 import com.google.monitoring.v3.TypedValue;
+import com.google.protobuf.Timestamp;
 import com.google.protobuf.util.Timestamps;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
@@ -51,8 +51,6 @@ import io.opentelemetry.sdk.metrics.data.MetricData;
 import io.opentelemetry.sdk.metrics.data.MetricDataType;
 import io.opentelemetry.sdk.metrics.data.PointData;
 import io.opentelemetry.sdk.metrics.data.SumData;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -71,32 +69,18 @@ class SpannerCloudMonitoringExporterUtils {
     return pointData.getAttributes().get(INSTANCE_ID_KEY);
   }
 
-  static List<TimeSeries> convertToSpannerTimeSeries(List<MetricData> collection) {
-    List<TimeSeries> allTimeSeries = new ArrayList<>();
-
-    for (MetricData metricData : collection) {
-      // Get common metrics data from GAX library
-      if (!metricData.getInstrumentationScopeInfo().getName().equals(GAX_METER_NAME)) {
-        // Filter out metric data for instruments that are not part of the spanner metrics list
-        continue;
-      }
-      metricData.getData().getPoints().stream()
-          .map(pointData -> convertPointToSpannerTimeSeries(metricData, pointData))
-          .forEach(allTimeSeries::add);
-    }
-
-    return allTimeSeries;
-  }
-
-  private static TimeSeries convertPointToSpannerTimeSeries(
-      MetricData metricData, PointData pointData) {
+  /**
+   * Creates a {@link TimeSeries} without any points for the given metric and point attributes. The
+   * result contains the metric kind, value type, metric labels and monitored resource of the time
+   * series, and can be cached and reused for all points of the same time series.
+   */
+  static TimeSeries createTimeSeriesDescriptor(MetricData metricData, Attributes attributes) {
     TimeSeries.Builder builder =
         TimeSeries.newBuilder()
             .setMetricKind(convertMetricKind(metricData))
             .setValueType(convertValueType(metricData.getType()));
     Metric.Builder metricBuilder = Metric.newBuilder().setType(metricData.getName());
 
-    Attributes attributes = pointData.getAttributes();
     MonitoredResource.Builder monitoredResourceBuilder =
         MonitoredResource.newBuilder().setType(SPANNER_RESOURCE_TYPE);
 
@@ -110,15 +94,90 @@ class SpannerCloudMonitoringExporterUtils {
 
     builder.setResource(monitoredResourceBuilder.build());
     builder.setMetric(metricBuilder.build());
+    return builder.build();
+  }
 
+  /** Converts the given OpenTelemetry point to a Cloud Monitoring point. */
+  static Point convertPoint(MetricDataType type, PointData pointData) {
     TimeInterval timeInterval =
         TimeInterval.newBuilder()
             .setStartTime(Timestamps.fromNanos(pointData.getStartEpochNanos()))
             .setEndTime(Timestamps.fromNanos(pointData.getEpochNanos()))
             .build();
+    return createPoint(type, pointData, timeInterval);
+  }
 
-    builder.addPoints(createPoint(metricData.getType(), pointData, timeInterval));
+  /**
+   * Merges two points of the same time series. Cumulative values are added, and the interval of the
+   * merged point covers the intervals of both points. For gauges, the most recent point is
+   * returned.
+   */
+  static Point mergePoints(MetricKind metricKind, Point point1, Point point2) {
+    Point latest =
+        Timestamps.compare(point1.getInterval().getEndTime(), point2.getInterval().getEndTime())
+                >= 0
+            ? point1
+            : point2;
+    if (metricKind != CUMULATIVE) {
+      return latest;
+    }
+    TypedValue value1 = point1.getValue();
+    TypedValue value2 = point2.getValue();
+    TypedValue.Builder mergedValue = TypedValue.newBuilder();
+    switch (value1.getValueCase()) {
+      case INT64_VALUE:
+        mergedValue.setInt64Value(value1.getInt64Value() + value2.getInt64Value());
+        break;
+      case DOUBLE_VALUE:
+        mergedValue.setDoubleValue(value1.getDoubleValue() + value2.getDoubleValue());
+        break;
+      case DISTRIBUTION_VALUE:
+        if (!value1
+            .getDistributionValue()
+            .getBucketOptions()
+            .equals(value2.getDistributionValue().getBucketOptions())) {
+          return latest;
+        }
+        mergedValue.setDistributionValue(
+            mergeDistributions(value1.getDistributionValue(), value2.getDistributionValue()));
+        break;
+      default:
+        return latest;
+    }
+    Timestamp startTime =
+        Timestamps.compare(point1.getInterval().getStartTime(), point2.getInterval().getStartTime())
+                <= 0
+            ? point1.getInterval().getStartTime()
+            : point2.getInterval().getStartTime();
+    return Point.newBuilder()
+        .setInterval(latest.getInterval().toBuilder().setStartTime(startTime))
+        .setValue(mergedValue)
+        .build();
+  }
 
+  private static Distribution mergeDistributions(
+      Distribution distribution1, Distribution distribution2) {
+    long count = distribution1.getCount() + distribution2.getCount();
+    double mean =
+        count == 0L
+            ? 0.0D
+            : (distribution1.getMean() * distribution1.getCount()
+                    + distribution2.getMean() * distribution2.getCount())
+                / count;
+    Distribution.Builder builder =
+        Distribution.newBuilder()
+            .setCount(count)
+            .setMean(mean)
+            .setBucketOptions(distribution1.getBucketOptions());
+    int numBuckets =
+        Math.max(distribution1.getBucketCountsCount(), distribution2.getBucketCountsCount());
+    for (int i = 0; i < numBuckets; i++) {
+      long bucketCount1 =
+          i < distribution1.getBucketCountsCount() ? distribution1.getBucketCounts(i) : 0L;
+      long bucketCount2 =
+          i < distribution2.getBucketCountsCount() ? distribution2.getBucketCounts(i) : 0L;
+      builder.addBucketCounts(bucketCount1 + bucketCount2);
+    }
     return builder.build();
   }
 
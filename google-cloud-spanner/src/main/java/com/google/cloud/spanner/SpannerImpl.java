@@ -45,6 +45,7 @@ import io.opentelemetry.api.common.AttributesBuilder;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -114,6 +115,8 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
 
   private final DatabaseAdminClient dbAdminClient;
   private final InstanceAdminClient instanceClient;
+  @Nullable private final ClientLatencyMetrics clientLatencyMetrics;
+  @Nullable private final QueryFingerprintSketch queryFingerprintSketch;
 
   /**
    * Exception class used to track the stack trace at the point when a Spanner instance is closed.
@@ -143,6 +146,16 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     this.dbAdminClient = new DatabaseAdminClientImpl(options.getProjectId(), gapicRpc);
     this.instanceClient =
         new InstanceAdminClientImpl(options.getProjectId(), gapicRpc, dbAdminClient);
+    this.clientLatencyMetrics =
+        options.isEnableClientLatencyBreakdown()
+            ? new ClientLatencyMetrics(options.getOpenTelemetry())
+            : null;
+    this.queryFingerprintSketch =
+        options.getQueryFingerprintSketchCapacity() > 0
+            ? new QueryFingerprintSketch(
+                options.getQueryFingerprintSketchCapacity(),
+                options.getQueryFingerprintSamplingRate())
+            : null;
   }
 
   SpannerImpl(SpannerOptions options) {
@@ -163,6 +176,24 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     return getOptions().getDecodeMode();
   }
 
+  /**
+   * Returns the {@link ClientLatencyMetrics} of this {@link SpannerImpl} instance, or null if the
+   * client latency breakdown has not been enabled.
+   */
+  @Nullable
+  ClientLatencyMetrics getClientLatencyMetrics() {
+    return clientLatencyMetrics;
+  }
+
+  /**
+   * Returns the {@link QueryFingerprintSketch} of this {@link SpannerImpl} instance, or null if
+   * query fingerprint statistics have not been enabled.
+   */
+  @Nullable
+  QueryFingerprintSketch getQueryFingerprintSketch() {
+    return queryFingerprintSketch;
+  }
+
   /** Returns the default query options that should be used for the specified database. */
   QueryOptions getDefaultQueryOptions(DatabaseId databaseId) {
     return getOptions().getDefaultQueryOptions(databaseId);
@@ -374,6 +405,13 @@ class SpannerImpl extends BaseService<SpannerOptions> implements Spanner {
     }
   }
 
+  @Override
+  public List<QueryFingerprintStats> getTopQueryFingerprints() {
+    return queryFingerprintSketch == null
+        ? Collections.emptyList()
+        : queryFingerprintSketch.getTopFingerprints();
+  }
+
   @Override
   public boolean isClosed() {
     synchronized (this) {
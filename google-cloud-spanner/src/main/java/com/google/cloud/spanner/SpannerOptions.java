@@ -167,6 +167,10 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   private final boolean enableBuiltInMetrics;
   private final boolean enableExtendedTracing;
   private final boolean enableEndToEndTracing;
+  private final boolean enableClientLatencyBreakdown;
+  private final int queryFingerprintSketchCapacity;
+  private final double queryFingerprintSamplingRate;
+  private final boolean enableBatchedAdminOperationPolling;
   private final String monitoringHost;
 
   enum TracingFramework {
@@ -177,7 +181,7 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   private static final Object lock = new Object();
 
   @GuardedBy("lock")
-  private static TracingFramework activeTracingFramework;
+  private static volatile TracingFramework activeTracingFramework;
 
   /** Interface that can be used to provide {@link CallCredentials} to {@link SpannerOptions}. */
   public interface CallCredentialsProvider {
@@ -783,6 +787,10 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     enableExtendedTracing = builder.enableExtendedTracing;
     enableBuiltInMetrics = builder.enableBuiltInMetrics;
     enableEndToEndTracing = builder.enableEndToEndTracing;
+    enableClientLatencyBreakdown = builder.enableClientLatencyBreakdown;
+    queryFingerprintSketchCapacity = builder.queryFingerprintSketchCapacity;
+    queryFingerprintSamplingRate = builder.queryFingerprintSamplingRate;
+    enableBatchedAdminOperationPolling = builder.enableBatchedAdminOperationPolling;
     monitoringHost = builder.monitoringHost;
   }
 
@@ -950,6 +958,10 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     private boolean enableExtendedTracing = SpannerOptions.environment.isEnableExtendedTracing();
     private boolean enableEndToEndTracing = SpannerOptions.environment.isEnableEndToEndTracing();
     private boolean enableBuiltInMetrics = SpannerOptions.environment.isEnableBuiltInMetrics();
+    private boolean enableClientLatencyBreakdown = false;
+    private int queryFingerprintSketchCapacity = 0;
+    private double queryFingerprintSamplingRate = 1d;
+    private boolean enableBatchedAdminOperationPolling = false;
     private String monitoringHost = SpannerOptions.environment.getMonitoringHost();
 
     private static String createCustomClientLibToken(String token) {
@@ -1018,6 +1030,10 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       this.enableExtendedTracing = options.enableExtendedTracing;
       this.enableBuiltInMetrics = options.enableBuiltInMetrics;
       this.enableEndToEndTracing = options.enableEndToEndTracing;
+      this.enableClientLatencyBreakdown = options.enableClientLatencyBreakdown;
+      this.queryFingerprintSketchCapacity = options.queryFingerprintSketchCapacity;
+      this.queryFingerprintSamplingRate = options.queryFingerprintSamplingRate;
+      this.enableBatchedAdminOperationPolling = options.enableBatchedAdminOperationPolling;
       this.monitoringHost = options.monitoringHost;
     }
 
@@ -1578,6 +1594,64 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
       return this;
     }
 
+    /**
+     * Sets whether the client should keep track of the time that it spends in each stage of
+     * executing a query or read, such as waiting for a session, encoding the request, waiting for
+     * results from Spanner and decoding rows. The breakdown can be obtained for each {@link
+     * ResultSet} through {@link ResultSet#getClientLatencyBreakdown()}. The latencies are also
+     * recorded in the {@code spanner/client_stage_latencies} OpenTelemetry histogram if
+     * OpenTelemetry metrics have been enabled. This option is disabled by default.
+     */
+    public Builder setEnableClientLatencyBreakdown(boolean enableClientLatencyBreakdown) {
+      this.enableClientLatencyBreakdown = enableClientLatencyBreakdown;
+      return this;
+    }
+
+    /**
+     * Enables batched polling of long-running backup and database operations. By default, each
+     * {@link com.google.api.gax.longrunning.OperationFuture} that is returned for a create backup,
+     * copy backup, create database or restore database request polls the status of its operation
+     * independently with GetOperation requests. When this option is enabled, all these operations
+     * are instead tracked by one poller per {@link Spanner} instance. The poller checks the status
+     * of the operations of an instance with a single ListBackupOperations or ListDatabaseOperations
+     * request that filters on the names of the operations, and adapts the polling interval of each
+     * operation to the progress that is reported by the operation. This reduces the number of
+     * administrative requests for applications that run many concurrent operations. This option is
+     * disabled by default.
+     */
+    public Builder setEnableBatchedAdminOperationPolling(
+        boolean enableBatchedAdminOperationPolling) {
+      this.enableBatchedAdminOperationPolling = enableBatchedAdminOperationPolling;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of query fingerprints that the client should keep statistics for. The
+     * fingerprint of a query is the SQL string with all comments removed, whitespace collapsed and
+     * literals replaced with a question mark. The client keeps the call count, latency, number of
+     * rows and number of bytes that were received for the most frequently executed fingerprints.
+     * The statistics can be obtained with {@link Spanner#getTopQueryFingerprints()}. Set to 0 to
+     * disable the collection of query fingerprint statistics. The default is 0.
+     */
+    public Builder setQueryFingerprintSketchCapacity(int capacity) {
+      Preconditions.checkArgument(capacity >= 0, "capacity must be >= 0");
+      this.queryFingerprintSketchCapacity = capacity;
+      return this;
+    }
+
+    /**
+     * Sets the fraction of queries that should be recorded in the query fingerprint statistics.
+     * Sampling reduces the overhead of collecting the statistics for applications that execute a
+     * large number of small queries. The value must be in the range (0, 1]. The default is 1, which
+     * means that all queries are recorded.
+     */
+    public Builder setQueryFingerprintSamplingRate(double samplingRate) {
+      Preconditions.checkArgument(
+          samplingRate > 0d && samplingRate <= 1d, "samplingRate must be in the range (0, 1]");
+      this.queryFingerprintSamplingRate = samplingRate;
+      return this;
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public SpannerOptions build() {
@@ -1673,12 +1747,13 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
   }
 
   public static TracingFramework getActiveTracingFramework() {
-    synchronized (lock) {
-      if (activeTracingFramework == null) {
-        return TracingFramework.OPEN_CENSUS;
-      }
-      return activeTracingFramework;
+    // This method is called for every span that is created, and therefore reads the volatile field
+    // instead of taking the lock.
+    TracingFramework framework = activeTracingFramework;
+    if (framework == null) {
+      return TracingFramework.OPEN_CENSUS;
     }
+    return framework;
   }
 
   /** Disables OpenCensus metrics. Disable OpenCensus metrics before creating Spanner client. */
@@ -1925,6 +2000,35 @@ public class SpannerOptions extends ServiceOptions<Spanner, SpannerOptions> {
     return enableEndToEndTracing;
   }
 
+  /**
+   * Returns whether the client keeps track of the time that it spends in each stage of executing a
+   * query or read.
+   */
+  public boolean isEnableClientLatencyBreakdown() {
+    return enableClientLatencyBreakdown;
+  }
+
+  /**
+   * Returns whether long-running backup and database operations are polled in batches by one shared
+   * poller.
+   */
+  public boolean isEnableBatchedAdminOperationPolling() {
+    return enableBatchedAdminOperationPolling;
+  }
+
+  /**
+   * Returns the maximum number of query fingerprints that the client keeps statistics for, or 0 if
+   * query fingerprint statistics are disabled.
+   */
+  public int getQueryFingerprintSketchCapacity() {
+    return queryFingerprintSketchCapacity;
+  }
+
+  /** Returns the fraction of queries that are recorded in the query fingerprint statistics. */
+  public double getQueryFingerprintSamplingRate() {
+    return queryFingerprintSamplingRate;
+  }
+
   /** Returns the default query options to use for the specific database. */
   public QueryOptions getDefaultQueryOptions(DatabaseId databaseId) {
     // Use the specific query options for the database if any have been specified. These have
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.common.base.Preconditions;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded dictionary of the STRING values in each column of a {@link ResultSet}. Equal values in
+ * the same column are replaced with one canonical instance, so a large result set with a
+ * low-cardinality column only keeps a small number of distinct {@link String} instances alive. Each
+ * column holds at most {@code maxEntriesPerColumn} values. Values that are not in a full dictionary
+ * are returned as-is.
+ */
+final class StringDictionary {
+  private final int maxEntriesPerColumn;
+  private final AtomicReferenceArray<ConcurrentHashMap<String, String>> columns;
+
+  StringDictionary(int numColumns, int maxEntriesPerColumn) {
+    Preconditions.checkArgument(maxEntriesPerColumn > 0, "maxEntriesPerColumn must be > 0");
+    this.maxEntriesPerColumn = maxEntriesPerColumn;
+    this.columns = new AtomicReferenceArray<>(numColumns);
+  }
+
+  /** Returns the canonical instance of the given value for the given column. */
+  String deduplicate(int columnIndex, String value) {
+    ConcurrentHashMap<String, String> dictionary = columns.get(columnIndex);
+    if (dictionary == null) {
+      columns.compareAndSet(columnIndex, null, new ConcurrentHashMap<>());
+      dictionary = columns.get(columnIndex);
+    }
+    String canonical = dictionary.get(value);
+    if (canonical != null) {
+      return canonical;
+    }
+    // The size check is not atomic, so a dictionary can contain a few more entries than the
+    // maximum if multiple threads decode the same column.
+    if (dictionary.size() >= maxEntriesPerColumn) {
+      return value;
+    }
+    canonical = dictionary.putIfAbsent(value, value);
+    return canonical == null ? value : canonical;
+  }
+
+  int size(int columnIndex) {
+    ConcurrentHashMap<String, String> dictionary = columns.get(columnIndex);
+    return dictionary == null ? 0 : dictionary.size();
+  }
+}
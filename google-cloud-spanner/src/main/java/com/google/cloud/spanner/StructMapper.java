@@ -0,0 +1,613 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.ByteArray;
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import com.google.common.base.Defaults;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Primitives;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+
+/**
+ * Maps the rows of a {@link ResultSet} or the values of a {@link Struct} to Java objects. The
+ * columns are resolved to the fields or constructor parameters of the target class once for each
+ * row type, and the resolved column indexes and {@link MethodHandle}s are reused for all rows with
+ * that row type. Mapping a row therefore does not look up any column by name.
+ *
+ * <p>By default, the target class must have a no-argument constructor, and each column is assigned
+ * to the non-static, non-final field with the same name. Column and field names are compared
+ * case-insensitively and without underscores, so the column {@code SINGER_ID} is assigned to the
+ * field {@code singerId}. Columns without a matching field are ignored. A NULL value is not
+ * assigned to a primitive field.
+ *
+ * <p>Classes with final fields, such as records, can be mapped with {@link
+ * Builder#useConstructor(String...)}. The constructor with one parameter for each of the given
+ * column names is then called with the values of those columns. A NULL value is passed to a
+ * primitive parameter as the default value of the parameter type.
+ *
+ * <p>STRUCT columns and the elements of ARRAY&lt;STRUCT&gt; columns are mapped with the mapper that
+ * was registered for the target class with {@link Builder#addNestedMapper(StructMapper)}, or else
+ * with a mapper with the default settings. The element type of an ARRAY column is taken from the
+ * type argument of the {@link List} field or parameter.
+ *
+ * <p>Usage example:
+ *
+ * <pre>{@code
+ * StructMapper<Singer> mapper = StructMapper.of(Singer.class);
+ * try (ResultSet resultSet = client.singleUse().executeQuery(Statement.of("SELECT * FROM Singers"))) {
+ *   List<Singer> singers = mapper.toList(resultSet);
+ * }
+ * }</pre>
+ *
+ * <p>A {@link StructMapper} is thread-safe and should be reused for all reads of the same class.
+ */
+@BetaApi
+public final class StructMapper<T> {
+  private static final MethodHandle IS_NULL;
+  /** The (StructReader, int) getters for the values of scalar columns. */
+  private static final Map<Type.Code, MethodHandle> GETTERS = new EnumMap<>(Type.Code.class);
+
+  private static final MethodHandle READ;
+  private static final MethodHandle NO_OP;
+
+  static {
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      IS_NULL = readerMethod(lookup, "isNull", boolean.class);
+      GETTERS.put(Type.Code.BOOL, readerMethod(lookup, "getBoolean", boolean.class));
+      GETTERS.put(Type.Code.INT64, readerMethod(lookup, "getLong", long.class));
+      GETTERS.put(Type.Code.PG_OID, GETTERS.get(Type.Code.INT64));
+      GETTERS.put(Type.Code.FLOAT64, readerMethod(lookup, "getDouble", double.class));
+      GETTERS.put(Type.Code.FLOAT32, readerMethod(lookup, "getFloat", float.class));
+      GETTERS.put(Type.Code.NUMERIC, readerMethod(lookup, "getBigDecimal", BigDecimal.class));
+      GETTERS.put(Type.Code.STRING, readerMethod(lookup, "getString", String.class));
+      GETTERS.put(Type.Code.PG_NUMERIC, GETTERS.get(Type.Code.STRING));
+      GETTERS.put(Type.Code.JSON, readerMethod(lookup, "getJson", String.class));
+      GETTERS.put(Type.Code.PG_JSONB, readerMethod(lookup, "getPgJsonb", String.class));
+      GETTERS.put(Type.Code.BYTES, readerMethod(lookup, "getBytes", ByteArray.class));
+      GETTERS.put(Type.Code.TIMESTAMP, readerMethod(lookup, "getTimestamp", Timestamp.class));
+      GETTERS.put(Type.Code.DATE, readerMethod(lookup, "getDate", Date.class));
+      READ =
+          lookup.findVirtual(
+              ColumnReader.class,
+              "read",
+              MethodType.methodType(Object.class, StructReader.class, int.class));
+      NO_OP = lookup.findStatic(StructMapper.class, "noOp", MethodType.methodType(void.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private static MethodHandle readerMethod(
+      MethodHandles.Lookup lookup, String name, Class<?> returnType)
+      throws ReflectiveOperationException {
+    return lookup.findVirtual(
+        StructReader.class, name, MethodType.methodType(returnType, int.class));
+  }
+
+  /** Returns a mapper for the given class with the default settings. */
+  public static <T> StructMapper<T> of(Class<T> type) {
+    return newBuilder(type).build();
+  }
+
+  /** Returns a builder for a mapper for the given class. */
+  public static <T> Builder<T> newBuilder(Class<T> type) {
+    return new Builder<>(type);
+  }
+
+  /** Builder for {@link StructMapper}. */
+  public static final class Builder<T> {
+    private final Class<T> type;
+    @Nullable private ImmutableList<String> constructorColumns;
+    private final Map<Class<?>, StructMapper<?>> nestedMappers = new HashMap<>();
+
+    private Builder(Class<T> type) {
+      this.type = Preconditions.checkNotNull(type);
+    }
+
+    /**
+     * Maps rows by calling the constructor that has one parameter for each of the given columns, in
+     * the same order.
+     */
+    public Builder<T> useConstructor(String... columnNames) {
+      this.constructorColumns = ImmutableList.copyOf(columnNames);
+      return this;
+    }
+
+    /** Uses the given mapper for STRUCT values that are mapped to the class of the mapper. */
+    public Builder<T> addNestedMapper(StructMapper<?> mapper) {
+      Preconditions.checkNotNull(mapper);
+      this.nestedMappers.put(mapper.type, mapper);
+      return this;
+    }
+
+    public StructMapper<T> build() {
+      return new StructMapper<>(type, constructorColumns, new ConcurrentHashMap<>(nestedMappers));
+    }
+  }
+
+  private final Class<T> type;
+  @Nullable private final ImmutableList<String> constructorColumns;
+  private final ConcurrentMap<Class<?>, StructMapper<?>> nestedMappers;
+  private final MethodHandle constructor;
+  @Nullable private final Map<String, Field> fields;
+  private volatile Binding binding;
+
+  private StructMapper(
+      Class<T> type,
+      @Nullable ImmutableList<String> constructorColumns,
+      ConcurrentMap<Class<?>, StructMapper<?>> nestedMappers) {
+    this.type = type;
+    this.constructorColumns = constructorColumns;
+    this.nestedMappers = nestedMappers;
+    this.constructor = findConstructor(type, constructorColumns);
+    this.fields = constructorColumns == null ? findFields(type) : null;
+  }
+
+  /** Maps the current row of the given {@link ResultSet} or the given {@link Struct}. */
+  @SuppressWarnings("unchecked")
+  public T map(StructReader row) {
+    Type rowType = row.getType();
+    Binding binding = this.binding;
+    if (binding == null || (binding.rowType != rowType && !binding.rowType.equals(rowType))) {
+      binding = bind(rowType);
+      this.binding = binding;
+    }
+    try {
+      return (T) (Object) binding.mapper.invokeExact(row);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable t) {
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.INTERNAL, "Failed to map row to " + type.getName(), t);
+    }
+  }
+
+  /**
+   * Maps all remaining rows of the given {@link ResultSet}. The {@link ResultSet} is not closed by
+   * this method.
+   */
+  public List<T> toList(ResultSet resultSet) {
+    List<T> result = new ArrayList<>();
+    while (resultSet.next()) {
+      result.add(map(resultSet));
+    }
+    return result;
+  }
+
+  /**
+   * Creates a single method handle that maps a row with the given row type. The method handle is
+   * composed of the getters and the setters or the constructor for each column, so the JVM can
+   * compile it as one unit once it is invoked often enough.
+   */
+  private Binding bind(Type rowType) {
+    Preconditions.checkArgument(
+        rowType.getCode() == Type.Code.STRUCT, "Only STRUCT values can be mapped: %s", rowType);
+    List<Type.StructField> structFields = rowType.getStructFields();
+    if (constructorColumns == null) {
+      // (Object, StructReader)void handles that each set one field.
+      List<MethodHandle> setters = new ArrayList<>(structFields.size());
+      for (int index = 0; index < structFields.size(); index++) {
+        Field field = fields.get(normalize(structFields.get(index).getName()));
+        if (field != null) {
+          setters.add(createSetter(field, structFields.get(index).getType(), index));
+        }
+      }
+      MethodHandle setAll = sequence(setters, 0, setters.size());
+      MethodHandle returnTarget =
+          MethodHandles.dropArguments(MethodHandles.identity(Object.class), 1, StructReader.class);
+      MethodHandle mapper =
+          MethodHandles.foldArguments(
+              MethodHandles.foldArguments(returnTarget, setAll),
+              MethodHandles.dropArguments(constructor, 0, StructReader.class));
+      return new Binding(rowType, mapper);
+    }
+    Class<?>[] parameterTypes = constructor.type().parameterArray();
+    java.lang.reflect.Type[] genericParameterTypes = genericConstructorParameterTypes();
+    // (StructReader)P handles that each return the value of one parameter.
+    MethodHandle[] arguments = new MethodHandle[parameterTypes.length];
+    for (int parameter = 0; parameter < parameterTypes.length; parameter++) {
+      String columnName = constructorColumns.get(parameter);
+      int index = findColumnIndex(structFields, columnName);
+      Class<?> parameterType = parameterTypes[parameter];
+      MethodHandle getter =
+          createGetter(
+              structFields.get(index).getType(),
+              parameterType,
+              genericParameterTypes[parameter],
+              columnName,
+              index);
+      MethodHandle defaultValue =
+          MethodHandles.dropArguments(
+              MethodHandles.constant(parameterType, Defaults.defaultValue(parameterType)),
+              0,
+              StructReader.class);
+      arguments[parameter] = MethodHandles.guardWithTest(isNull(index), defaultValue, getter);
+    }
+    MethodHandle mapper =
+        MethodHandles.permuteArguments(
+            MethodHandles.filterArguments(constructor, 0, arguments)
+                .asType(
+                    MethodType.methodType(
+                        Object.class, Collections.nCopies(arguments.length, StructReader.class))),
+            MethodType.methodType(Object.class, StructReader.class),
+            new int[arguments.length]);
+    return new Binding(rowType, mapper);
+  }
+
+  /** Returns a (StructReader)boolean handle that checks whether the given column is null. */
+  private static MethodHandle isNull(int index) {
+    return MethodHandles.insertArguments(IS_NULL, 1, index);
+  }
+
+  /** Combines the given (Object, StructReader)void handles into a handle that calls them all. */
+  private static MethodHandle sequence(List<MethodHandle> handles, int from, int to) {
+    if (to - from == 0) {
+      return MethodHandles.dropArguments(NO_OP, 0, Object.class, StructReader.class);
+    }
+    if (to - from == 1) {
+      return handles.get(from);
+    }
+    // Split the handles in two halves to keep the depth of the combined handle low.
+    int middle = (from + to) >>> 1;
+    return MethodHandles.foldArguments(
+        sequence(handles, middle, to), sequence(handles, from, middle));
+  }
+
+  private java.lang.reflect.Type[] genericConstructorParameterTypes() {
+    Class<?>[] parameterTypes = constructor.type().parameterArray();
+    for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+      if (Arrays.equals(candidate.getParameterTypes(), parameterTypes)) {
+        java.lang.reflect.Type[] generic = candidate.getGenericParameterTypes();
+        // Inner and enum classes can have synthetic parameters that are not generic parameters.
+        return generic.length == parameterTypes.length ? generic : parameterTypes;
+      }
+    }
+    return parameterTypes;
+  }
+
+  private static int findColumnIndex(List<Type.StructField> structFields, String columnName) {
+    int match = -1;
+    for (int index = 0; index < structFields.size(); index++) {
+      String name = structFields.get(index).getName();
+      if (name.equals(columnName)) {
+        return index;
+      }
+      if (match == -1 && normalize(name).equals(normalize(columnName))) {
+        match = index;
+      }
+    }
+    Preconditions.checkArgument(match > -1, "Column %s not found", columnName);
+    return match;
+  }
+
+  /** Returns an (Object, StructReader)void handle that sets the given field. */
+  private MethodHandle createSetter(Field field, Type columnType, int index) {
+    Class<?> fieldType = field.getType();
+    MethodHandle setter;
+    try {
+      setter =
+          MethodHandles.lookup()
+              .unreflectSetter(field)
+              .asType(MethodType.methodType(void.class, Object.class, fieldType));
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Cannot set field " + field, e);
+    }
+    MethodHandle getter =
+        createGetter(columnType, fieldType, field.getGenericType(), field.getName(), index);
+    // A NULL value is not assigned to a primitive field.
+    MethodHandle setNull =
+        fieldType.isPrimitive()
+            ? MethodHandles.dropArguments(NO_OP, 0, Object.class, StructReader.class)
+            : MethodHandles.dropArguments(
+                MethodHandles.insertArguments(setter, 1, (Object) null), 1, StructReader.class);
+    return MethodHandles.guardWithTest(
+        MethodHandles.dropArguments(isNull(index), 0, Object.class),
+        setNull,
+        MethodHandles.filterArguments(setter, 1, getter));
+  }
+
+  /**
+   * Returns a (StructReader)target handle that returns the non-null value of the given column.
+   * Scalar values are returned by the getter of the column type, and are only boxed if the target
+   * type is not primitive.
+   */
+  private MethodHandle createGetter(
+      Type columnType,
+      Class<?> target,
+      java.lang.reflect.Type genericTarget,
+      String name,
+      int index) {
+    MethodHandle getter = GETTERS.get(columnType.getCode());
+    if (getter == null || !isAssignable(target, getter.type().returnType())) {
+      getter = READ.bindTo(createReader(columnType, target, genericTarget, name));
+    }
+    return MethodHandles.insertArguments(
+        getter.asType(MethodType.methodType(target, StructReader.class, int.class)), 1, index);
+  }
+
+  private static boolean isAssignable(Class<?> target, Class<?> valueClass) {
+    return target == valueClass
+        || (!target.isPrimitive() && target.isAssignableFrom(Primitives.wrap(valueClass)));
+  }
+
+  /**
+   * Returns a reader for non-null values of a column with the given type that returns values that
+   * can be assigned to the given target type.
+   */
+  private ColumnReader createReader(
+      Type columnType, Class<?> target, java.lang.reflect.Type genericTarget, String name) {
+    Class<?> boxed = Primitives.wrap(target);
+    if (boxed == Value.class) {
+      return StructReader::getValue;
+    }
+    switch (columnType.getCode()) {
+      case BOOL:
+        checkTarget(boxed, Boolean.class, columnType, name);
+        return StructReader::getBoolean;
+      case INT64:
+      case PG_OID:
+        if (boxed == Integer.class) {
+          return (row, index) -> Math.toIntExact(row.getLong(index));
+        }
+        checkTarget(boxed, Long.class, columnType, name);
+        return StructReader::getLong;
+      case FLOAT64:
+        checkTarget(boxed, Double.class, columnType, name);
+        return StructReader::getDouble;
+      case FLOAT32:
+        checkTarget(boxed, Float.class, columnType, name);
+        return StructReader::getFloat;
+      case NUMERIC:
+        checkTarget(boxed, BigDecimal.class, columnType, name);
+        return StructReader::getBigDecimal;
+      case PG_NUMERIC:
+      case STRING:
+        checkTarget(boxed, String.class, columnType, name);
+        return StructReader::getString;
+      case JSON:
+        checkTarget(boxed, String.class, columnType, name);
+        return StructReader::getJson;
+      case PG_JSONB:
+        checkTarget(boxed, String.class, columnType, name);
+        return StructReader::getPgJsonb;
+      case BYTES:
+        checkTarget(boxed, ByteArray.class, columnType, name);
+        return StructReader::getBytes;
+      case TIMESTAMP:
+        checkTarget(boxed, Timestamp.class, columnType, name);
+        return StructReader::getTimestamp;
+      case DATE:
+        checkTarget(boxed, Date.class, columnType, name);
+        return StructReader::getDate;
+      case STRUCT:
+        if (boxed == Struct.class) {
+          return StructMapper::getStruct;
+        }
+        StructMapper<?> nestedMapper = nestedMapper(boxed);
+        return (row, index) -> nestedMapper.map(getStruct(row, index));
+      case ARRAY:
+        return createArrayReader(columnType.getArrayElementType(), boxed, genericTarget, name);
+      default:
+        throw new IllegalArgumentException(
+            String.format(
+                "Column %s of type %s can only be mapped to %s",
+                name, columnType, Value.class.getName()));
+    }
+  }
+
+  private ColumnReader createArrayReader(
+      Type elementType, Class<?> target, java.lang.reflect.Type genericTarget, String name) {
+    Type arrayType = Type.array(elementType);
+    switch (elementType.getCode()) {
+      case BOOL:
+        if (target == boolean[].class) {
+          return StructReader::getBooleanArray;
+        }
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getBooleanList;
+      case INT64:
+      case PG_OID:
+        if (target == long[].class) {
+          return StructReader::getLongArray;
+        }
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getLongList;
+      case FLOAT64:
+        if (target == double[].class) {
+          return StructReader::getDoubleArray;
+        }
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getDoubleList;
+      case FLOAT32:
+        if (target == float[].class) {
+          return StructReader::getFloatArray;
+        }
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getFloatList;
+      case NUMERIC:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getBigDecimalList;
+      case PG_NUMERIC:
+      case STRING:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getStringList;
+      case JSON:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getJsonList;
+      case PG_JSONB:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getPgJsonbList;
+      case BYTES:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getBytesList;
+      case TIMESTAMP:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getTimestampList;
+      case DATE:
+        checkTarget(target, List.class, arrayType, name);
+        return StructReader::getDateList;
+      case STRUCT:
+        checkTarget(target, List.class, arrayType, name);
+        Class<?> elementClass = listElementClass(genericTarget);
+        if (elementClass == null || elementClass == Struct.class) {
+          return StructReader::getStructList;
+        }
+        StructMapper<?> nestedMapper = nestedMapper(elementClass);
+        return (row, index) -> {
+          List<Struct> structs = row.getStructList(index);
+          List<Object> result = new ArrayList<>(structs.size());
+          for (Struct struct : structs) {
+            result.add(struct == null ? null : nestedMapper.map(struct));
+          }
+          return result;
+        };
+      default:
+        throw new IllegalArgumentException(
+            String.format(
+                "Column %s of type %s can only be mapped to %s",
+                name, arrayType, Value.class.getName()));
+    }
+  }
+
+  private StructMapper<?> nestedMapper(Class<?> nestedType) {
+    return nestedMappers.computeIfAbsent(
+        nestedType, key -> new StructMapper<>(key, null, nestedMappers));
+  }
+
+  @Nullable
+  private static Class<?> listElementClass(java.lang.reflect.Type genericTarget) {
+    if (genericTarget instanceof ParameterizedType) {
+      java.lang.reflect.Type[] arguments =
+          ((ParameterizedType) genericTarget).getActualTypeArguments();
+      if (arguments.length == 1 && arguments[0] instanceof Class) {
+        return (Class<?>) arguments[0];
+      }
+    }
+    return null;
+  }
+
+  private static Struct getStruct(StructReader row, int index) {
+    return row instanceof Struct
+        ? ((Struct) row).getStruct(index)
+        : row.getValue(index).getStruct();
+  }
+
+  private static void checkTarget(Class<?> target, Class<?> valueClass, Type type, String name) {
+    Preconditions.checkArgument(
+        target.isAssignableFrom(valueClass),
+        "Column %s of type %s cannot be mapped to %s",
+        name,
+        type,
+        target.getName());
+  }
+
+  private static String normalize(String name) {
+    return name.replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  private static MethodHandle findConstructor(
+      Class<?> type, @Nullable ImmutableList<String> constructorColumns) {
+    Preconditions.checkArgument(
+        !Modifier.isAbstract(type.getModifiers()), "%s is abstract", type.getName());
+    int parameterCount = constructorColumns == null ? 0 : constructorColumns.size();
+    Constructor<?> match = null;
+    for (Constructor<?> candidate : type.getDeclaredConstructors()) {
+      if (candidate.getParameterCount() == parameterCount) {
+        Preconditions.checkArgument(
+            match == null,
+            "%s has more than one constructor with %s parameters",
+            type.getName(),
+            parameterCount);
+        match = candidate;
+      }
+    }
+    Preconditions.checkArgument(
+        match != null, "%s has no constructor with %s parameters", type.getName(), parameterCount);
+    try {
+      match.setAccessible(true);
+      MethodHandle handle = MethodHandles.lookup().unreflectConstructor(match);
+      return constructorColumns == null
+          ? handle.asType(MethodType.methodType(Object.class))
+          : handle;
+    } catch (IllegalAccessException | RuntimeException e) {
+      throw new IllegalArgumentException("Cannot call constructor " + match, e);
+    }
+  }
+
+  private static Map<String, Field> findFields(Class<?> type) {
+    Map<String, Field> fields = new HashMap<>();
+    for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+      for (Field field : current.getDeclaredFields()) {
+        int modifiers = field.getModifiers();
+        if (field.isSynthetic()
+            || Modifier.isStatic(modifiers)
+            || Modifier.isFinal(modifiers)
+            || Modifier.isTransient(modifiers)) {
+          continue;
+        }
+        // Fields in subclasses hide fields with the same name in superclasses.
+        if (!fields.containsKey(normalize(field.getName()))) {
+          field.setAccessible(true);
+          fields.put(normalize(field.getName()), field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  @SuppressWarnings("unused")
+  private static void noOp() {}
+
+  /** Reads the non-null value of a column. */
+  private interface ColumnReader {
+    Object read(StructReader row, int index);
+  }
+
+  /** The (StructReader)Object method handle that maps rows with the given row type. */
+  private static final class Binding {
+    private final Type rowType;
+    private final MethodHandle mapper;
+
+    private Binding(Type rowType, MethodHandle mapper) {
+      this.rowType = rowType;
+      this.mapper = mapper;
+    }
+  }
+}
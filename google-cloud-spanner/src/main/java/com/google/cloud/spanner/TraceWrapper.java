@@ -25,13 +25,13 @@ import io.opencensus.trace.Span;
 import io.opencensus.trace.Tracer;
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.Attributes;
-import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import javax.annotation.Nullable;
 
 class TraceWrapper {
   private static final AttributeKey<String> TRANSACTION_TAG_KEY =
@@ -67,8 +67,11 @@ class TraceWrapper {
 
   ISpan spanBuilder(String spanName, Attributes attributes) {
     if (SpannerOptions.getActiveTracingFramework().equals(TracingFramework.OPEN_TELEMETRY)) {
-      return new OpenTelemetrySpan(
-          openTelemetryTracer.spanBuilder(spanName).setAllAttributes(attributes).startSpan());
+      io.opentelemetry.api.trace.SpanBuilder otSpan = openTelemetryTracer.spanBuilder(spanName);
+      if (!attributes.isEmpty()) {
+        otSpan.setAllAttributes(attributes);
+      }
+      return new OpenTelemetrySpan(otSpan.startSpan());
     } else {
       return new OpenCensusSpan(openCensusTracer.spanBuilder(spanName).startSpan());
     }
@@ -82,8 +85,10 @@ class TraceWrapper {
     if (SpannerOptions.getActiveTracingFramework().equals(TracingFramework.OPEN_TELEMETRY)) {
       OpenTelemetrySpan otParentSpan = (OpenTelemetrySpan) parentSpan;
 
-      io.opentelemetry.api.trace.SpanBuilder otSpan =
-          openTelemetryTracer.spanBuilder(spanName).setAllAttributes(attributes);
+      io.opentelemetry.api.trace.SpanBuilder otSpan = openTelemetryTracer.spanBuilder(spanName);
+      if (!attributes.isEmpty()) {
+        otSpan.setAllAttributes(attributes);
+      }
       if (otParentSpan != null && otParentSpan.getOpenTelemetrySpan() != null) {
         otSpan = otSpan.setParent(Context.current().with(otParentSpan.getOpenTelemetrySpan()));
       }
@@ -151,36 +156,70 @@ class TraceWrapper {
     return Attributes.empty();
   }
 
-  Attributes createStatementAttributes(Statement statement, Options options) {
-    if (this.enableExtendedTracing || (options != null && options.hasTag())) {
-      AttributesBuilder builder = Attributes.builder();
-      if (this.enableExtendedTracing) {
-        builder.put(DB_STATEMENT_KEY, statement.getSql());
-        builder.put(THREAD_NAME_KEY, getTraceThreadName());
-      }
-      if (options != null && options.hasTag()) {
-        builder.put(STATEMENT_TAG_KEY, options.tag());
+  /**
+   * Creates a span for the execution of the given statement. Only the statement tag is added to the
+   * span when it is started. The statement text and the thread name are only added if extended
+   * tracing is enabled and the span is sampled, so that unsampled spans do not pay for these
+   * attributes.
+   */
+  ISpan spanBuilderWithExplicitParent(
+      String spanName, ISpan parentSpan, Statement statement, @Nullable Options options) {
+    ISpan span =
+        spanBuilderWithExplicitParent(spanName, parentSpan, createStatementTagAttributes(options));
+    if (this.enableExtendedTracing) {
+      io.opentelemetry.api.trace.Span openTelemetrySpan = getRecordingOpenTelemetrySpan(span);
+      if (openTelemetrySpan != null) {
+        openTelemetrySpan.setAttribute(DB_STATEMENT_KEY, statement.getSql());
+        openTelemetrySpan.setAttribute(THREAD_NAME_KEY, getTraceThreadName());
       }
-      return builder.build();
     }
-    return Attributes.empty();
+    return span;
   }
 
-  Attributes createStatementBatchAttributes(Iterable<Statement> statements, Options options) {
-    if (this.enableExtendedTracing || (options != null && options.hasTag())) {
-      AttributesBuilder builder = Attributes.builder();
-      if (this.enableExtendedTracing) {
-        builder.put(
+  /**
+   * Creates a span for the execution of the given batch of statements. The statement texts are only
+   * added if extended tracing is enabled and the span is sampled.
+   */
+  ISpan spanBuilderWithExplicitParent(
+      String spanName,
+      ISpan parentSpan,
+      Iterable<Statement> statements,
+      @Nullable Options options) {
+    ISpan span =
+        spanBuilderWithExplicitParent(spanName, parentSpan, createStatementTagAttributes(options));
+    if (this.enableExtendedTracing) {
+      io.opentelemetry.api.trace.Span openTelemetrySpan = getRecordingOpenTelemetrySpan(span);
+      if (openTelemetrySpan != null) {
+        openTelemetrySpan.setAttribute(
             DB_STATEMENT_ARRAY_KEY,
             StreamSupport.stream(statements.spliterator(), false)
                 .map(Statement::getSql)
                 .collect(Collectors.toList()));
-        builder.put(THREAD_NAME_KEY, getTraceThreadName());
+        openTelemetrySpan.setAttribute(THREAD_NAME_KEY, getTraceThreadName());
       }
-      if (options != null && options.hasTag()) {
-        builder.put(STATEMENT_TAG_KEY, options.tag());
+    }
+    return span;
+  }
+
+  /**
+   * Returns the underlying OpenTelemetry span of the given span if it is recording, and otherwise
+   * null.
+   */
+  @Nullable
+  private static io.opentelemetry.api.trace.Span getRecordingOpenTelemetrySpan(ISpan span) {
+    if (span instanceof OpenTelemetrySpan) {
+      io.opentelemetry.api.trace.Span openTelemetrySpan =
+          ((OpenTelemetrySpan) span).getOpenTelemetrySpan();
+      if (openTelemetrySpan != null && openTelemetrySpan.isRecording()) {
+        return openTelemetrySpan;
       }
-      return builder.build();
+    }
+    return null;
+  }
+
+  private static Attributes createStatementTagAttributes(@Nullable Options options) {
+    if (options != null && options.hasTag()) {
+      return Attributes.of(STATEMENT_TAG_KEY, options.tag());
     }
     return Attributes.empty();
   }
@@ -876,9 +876,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     @Override
     public long executeUpdate(Statement statement, UpdateOption... updateOptions) {
       final Options options = Options.fromUpdateOptions(updateOptions);
-      ISpan span =
-          tracer.spanBuilderWithExplicitParent(
-              UPDATE, this.span, this.tracer.createStatementAttributes(statement, options));
+      ISpan span = tracer.spanBuilderWithExplicitParent(UPDATE, this.span, statement, options);
       try (IScope ignore = tracer.withSpan(span)) {
         ResultSet resultSet = internalExecuteUpdate(statement, QueryMode.NORMAL, options);
         // For standard DML, using the exact row count.
@@ -923,9 +921,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     @Override
     public ApiFuture<Long> executeUpdateAsync(Statement statement, UpdateOption... updateOptions) {
       final Options options = Options.fromUpdateOptions(updateOptions);
-      ISpan span =
-          tracer.spanBuilderWithExplicitParent(
-              UPDATE, this.span, this.tracer.createStatementAttributes(statement, options));
+      ISpan span = tracer.spanBuilderWithExplicitParent(UPDATE, this.span, statement, options);
       try (IScope ignore = tracer.withSpan(span)) {
         beforeReadOrQuery();
         if (options.withExcludeTxnFromChangeStreams() != null) {
@@ -1019,10 +1015,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
     public long[] batchUpdate(Iterable<Statement> statements, UpdateOption... updateOptions) {
       final Options options = Options.fromUpdateOptions(updateOptions);
       ISpan span =
-          tracer.spanBuilderWithExplicitParent(
-              BATCH_UPDATE,
-              this.span,
-              this.tracer.createStatementBatchAttributes(statements, options));
+          tracer.spanBuilderWithExplicitParent(BATCH_UPDATE, this.span, statements, options);
       try (IScope ignore = tracer.withSpan(span)) {
         beforeReadOrQuery();
         if (options.withExcludeTxnFromChangeStreams() != null) {
@@ -1077,10 +1070,7 @@ class TransactionRunnerImpl implements SessionTransaction, TransactionRunner {
         Iterable<Statement> statements, UpdateOption... updateOptions) {
       final Options options = Options.fromUpdateOptions(updateOptions);
       ISpan span =
-          tracer.spanBuilderWithExplicitParent(
-              BATCH_UPDATE,
-              this.span,
-              this.tracer.createStatementBatchAttributes(statements, options));
+          tracer.spanBuilderWithExplicitParent(BATCH_UPDATE, this.span, statements, options);
       try (IScope ignore = tracer.withSpan(span)) {
         beforeReadOrQuery();
         if (options.withExcludeTxnFromChangeStreams() != null) {
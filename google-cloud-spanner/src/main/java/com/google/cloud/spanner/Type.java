@@ -21,6 +21,8 @@ import static com.google.spanner.v1.TypeAnnotationCode.TYPE_ANNOTATION_CODE_UNSP
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.spanner.v1.TypeAnnotationCode;
@@ -74,6 +76,14 @@ public final class Type implements Serializable {
   private static final Type TYPE_ARRAY_DATE = new Type(Code.ARRAY, TYPE_DATE, null);
 
   private static final int AMBIGUOUS_FIELD = -1;
+
+  /**
+   * Cache of the row types of result sets. Queries that return the same columns share the same
+   * {@link Type} instance, including its field name index.
+   */
+  private static final Cache<com.google.spanner.v1.StructType, Type> ROW_TYPE_CACHE =
+      CacheBuilder.newBuilder().maximumSize(1000).build();
+
   private static final long serialVersionUID = -3076152125004114582L;
 
   static Type unrecognized(com.google.spanner.v1.Type proto) {
@@ -246,6 +256,9 @@ public final class Type implements Serializable {
    */
   private Map<String, Integer> fieldsByName;
 
+  /** The proto representation of this type. The proto is created when it is first needed. */
+  private transient volatile com.google.spanner.v1.Type cachedProto;
+
   private Type(
       @Nonnull Code code,
       @Nullable Type arrayElementType,
@@ -444,20 +457,7 @@ public final class Type implements Serializable {
     Preconditions.checkState(code == Code.STRUCT, "Illegal call for non-STRUCT type");
 
     if (fieldsByName == null) {
-      Map<String, Integer> tmp = new TreeMap<>();
-      for (int i = 0; i < getStructFields().size(); ++i) {
-        Type.StructField field = getStructFields().get(i);
-        if (tmp.put(field.getName(), i) != null) {
-          // Column name appears more than once: mark as ambiguous.
-          tmp.put(field.getName(), AMBIGUOUS_FIELD);
-        }
-      }
-      // Benign race: Java's final field semantics mean that if we see a non-null "fieldsByName",
-      // we are guaranteed to see it in a fully initialized state.  It is thus important that we
-      // use an ImmutableMap here, which necessarily uses final fields or equivalent reasoning.
-      // Since all computations of "fieldsByName" produce the same value, there is no risk of
-      // inconsistency.
-      fieldsByName = ImmutableMap.copyOf(tmp);
+      initFieldsByName();
     }
 
     Integer index = fieldsByName.get(fieldName);
@@ -564,6 +564,15 @@ public final class Type implements Serializable {
     if (proto != null) {
       return proto;
     }
+    com.google.spanner.v1.Type result = cachedProto;
+    if (result == null) {
+      result = buildProto();
+      cachedProto = result;
+    }
+    return result;
+  }
+
+  private com.google.spanner.v1.Type buildProto() {
     com.google.spanner.v1.Type.Builder proto = com.google.spanner.v1.Type.newBuilder();
     proto.setCode(code.getTypeCode());
     proto.setTypeAnnotation(code.getTypeAnnotationCode());
@@ -581,6 +590,42 @@ public final class Type implements Serializable {
     return proto.build();
   }
 
+  private void initFieldsByName() {
+    Map<String, Integer> tmp = new TreeMap<>();
+    for (int i = 0; i < getStructFields().size(); ++i) {
+      Type.StructField field = getStructFields().get(i);
+      if (tmp.put(field.getName(), i) != null) {
+        // Column name appears more than once: mark as ambiguous.
+        tmp.put(field.getName(), AMBIGUOUS_FIELD);
+      }
+    }
+    // Benign race: Java's final field semantics mean that if we see a non-null "fieldsByName",
+    // we are guaranteed to see it in a fully initialized state.  It is thus important that we
+    // use an ImmutableMap here, which necessarily uses final fields or equivalent reasoning.
+    // Since all computations of "fieldsByName" produce the same value, there is no risk of
+    // inconsistency.
+    fieldsByName = ImmutableMap.copyOf(tmp);
+  }
+
+  /**
+   * Returns the {@code STRUCT} type with the given fields. The result is cached, and the field name
+   * index of the type is created when it is added to the cache.
+   */
+  static Type fromRowTypeProto(com.google.spanner.v1.StructType rowType) {
+    Type type = ROW_TYPE_CACHE.getIfPresent(rowType);
+    if (type == null) {
+      type =
+          fromProto(
+              com.google.spanner.v1.Type.newBuilder()
+                  .setCode(TypeCode.STRUCT)
+                  .setStructType(rowType)
+                  .build());
+      type.initFieldsByName();
+      ROW_TYPE_CACHE.put(rowType, type);
+    }
+    return type;
+  }
+
   static Type fromProto(com.google.spanner.v1.Type proto) {
     Code type = Code.fromProto(proto.getCode(), proto.getTypeAnnotation());
     switch (type) {
@@ -37,6 +37,7 @@ import com.google.protobuf.ProtocolMessageEnum;
 import com.google.protobuf.Value.KindCase;
 import java.io.IOException;
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -2191,6 +2192,16 @@ public abstract class Value implements Serializable {
   private abstract static class PrimitiveArrayImpl<T> extends AbstractValue {
     private final BitSet nulls;
 
+    /**
+     * The proto representation of this value. Arrays of primitive values are often used as query
+     * parameters, for example in {@code IN UNNEST(@ids)}, and the proto is cached so a statement
+     * that is executed multiple times only encodes the array once. The proto is several times
+     * larger than the primitive array, and is therefore only softly referenced. The garbage
+     * collector can clear it for long-lived values when memory is low, and it is then encoded again
+     * if needed.
+     */
+    @Nullable private transient volatile SoftReference<com.google.protobuf.Value> proto;
+
     private PrimitiveArrayImpl(boolean isNull, Type elementType, BitSet nulls) {
       super(isNull, Type.array(elementType));
       this.nulls = nulls;
@@ -2250,15 +2261,21 @@ public abstract class Value implements Serializable {
 
     @Override
     com.google.protobuf.Value valueToProto() {
-      ListValue.Builder list = ListValue.newBuilder();
-      for (int i = 0; i < size(); ++i) {
-        if (isElementNull(i)) {
-          list.addValues(NULL_PROTO);
-        } else {
-          list.addValues(getValueAsProto(i));
+      SoftReference<com.google.protobuf.Value> reference = proto;
+      com.google.protobuf.Value result = reference == null ? null : reference.get();
+      if (result == null) {
+        int size = size();
+        List<com.google.protobuf.Value> values = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+          values.add(isElementNull(i) ? NULL_PROTO : getValueAsProto(i));
         }
+        result =
+            com.google.protobuf.Value.newBuilder()
+                .setListValue(ListValue.newBuilder().addAllValues(values))
+                .build();
+        proto = new SoftReference<>(result);
       }
-      return com.google.protobuf.Value.newBuilder().setListValue(list).build();
+      return result;
     }
   }
 
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import java.math.BigDecimal;
+
+/**
+ * Parsers for the string representations of TIMESTAMP, DATE and NUMERIC values that Spanner
+ * returns. The parsers have a fast path for the fixed layouts that Spanner uses, for example {@code
+ * 2024-01-31T10:15:30.123456789Z} for timestamps, and fall back to the generic parsers for all
+ * other inputs. The fast paths do not allocate any intermediate objects.
+ */
+final class ValueParsers {
+  /** The maximum number of digits that always fits in a long. */
+  private static final int MAX_LONG_DIGITS = 18;
+
+  private static final int SECONDS_PER_DAY = 86400;
+  private static final int DAYS_0000_TO_1970 = 719528;
+
+  private ValueParsers() {}
+
+  /** Parses a timestamp in the format {@code YYYY-MM-DDTHH:MM:SS[.fffffffff]Z}. */
+  static Timestamp parseTimestamp(String value) {
+    int length = value.length();
+    if (length < 20
+        || length > 30
+        || length == 21
+        || value.charAt(4) != '-'
+        || value.charAt(7) != '-'
+        || value.charAt(10) != 'T'
+        || value.charAt(13) != ':'
+        || value.charAt(16) != ':'
+        || value.charAt(length - 1) != 'Z') {
+      return Timestamp.parseTimestamp(value);
+    }
+    int year = parseDigits(value, 0, 4);
+    int month = parseDigits(value, 5, 7);
+    int day = parseDigits(value, 8, 10);
+    int hour = parseDigits(value, 11, 13);
+    int minute = parseDigits(value, 14, 16);
+    int second = parseDigits(value, 17, 19);
+    int nanos = 0;
+    if (length > 20) {
+      if (value.charAt(19) != '.') {
+        return Timestamp.parseTimestamp(value);
+      }
+      nanos = parseDigits(value, 20, length - 1);
+      for (int i = length - 21; i < 9; i++) {
+        nanos *= 10;
+      }
+    }
+    if (year < 1
+        || month < 1
+        || month > 12
+        || day < 1
+        || day > lengthOfMonth(year, month)
+        || hour < 0
+        || hour > 23
+        || minute < 0
+        || minute > 59
+        || second < 0
+        || second > 59
+        || nanos < 0) {
+      return Timestamp.parseTimestamp(value);
+    }
+    long seconds =
+        epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    return Timestamp.ofTimeSecondsAndNanos(seconds, nanos);
+  }
+
+  /** Parses a date in the format {@code YYYY-MM-DD}. */
+  static Date parseDate(String value) {
+    if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+      return Date.parseDate(value);
+    }
+    int year = parseDigits(value, 0, 4);
+    int month = parseDigits(value, 5, 7);
+    int day = parseDigits(value, 8, 10);
+    if (year < 0 || month < 0 || day < 0) {
+      return Date.parseDate(value);
+    }
+    return Date.fromYearMonthDay(year, month, day);
+  }
+
+  /**
+   * Parses a NUMERIC value. Values with at most 18 digits and without an exponent are created from
+   * their unscaled long value, which skips the character array copy of {@link
+   * BigDecimal#BigDecimal(String)}. The result has the same scale as the result of that
+   * constructor.
+   */
+  static BigDecimal parseNumeric(String value) {
+    int length = value.length();
+    int index = 0;
+    boolean negative = false;
+    if (length > 0 && value.charAt(0) == '-') {
+      negative = true;
+      index++;
+    }
+    long unscaled = 0L;
+    int digits = 0;
+    int scale = 0;
+    boolean fraction = false;
+    for (; index < length; index++) {
+      char c = value.charAt(index);
+      if (c >= '0' && c <= '9') {
+        if (++digits > MAX_LONG_DIGITS) {
+          return new BigDecimal(value);
+        }
+        unscaled = unscaled * 10 + (c - '0');
+        if (fraction) {
+          scale++;
+        }
+      } else if (c == '.' && !fraction) {
+        fraction = true;
+      } else {
+        return new BigDecimal(value);
+      }
+    }
+    if (digits == 0) {
+      return new BigDecimal(value);
+    }
+    return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+  }
+
+  /**
+   * Parses the decimal digits in the given range of the string, or returns -1 if the range contains
+   * a character that is not a digit.
+   */
+  private static int parseDigits(String value, int start, int end) {
+    int result = 0;
+    for (int i = start; i < end; i++) {
+      int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      result = result * 10 + digit;
+    }
+    return result;
+  }
+
+  private static boolean isLeapYear(int year) {
+    return (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        return isLeapYear(year) ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /** Returns the number of days since 1970-01-01. This is the same as {@code LocalDate}. */
+  private static long epochDay(int year, int month, int day) {
+    long total = 365L * year;
+    total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+    total += (367 * month - 362) / 12;
+    total += day - 1;
+    if (month > 2) {
+      total--;
+      if (!isLeapYear(year)) {
+        total--;
+      }
+    }
+    return total - DAYS_0000_TO_1970;
+  }
+}
@@ -655,6 +655,135 @@ public abstract class AbstractStatementParser {
     return removeCommentsAndTrimInternal(sql);
   }
 
+  /**
+   * Returns a fingerprint of the given sql statement. Statements that only differ in comments,
+   * whitespace or the values of string and numeric literals get the same fingerprint. Literals are
+   * replaced with a question mark, comments are removed and whitespace is collapsed to a single
+   * space. Quoted identifiers and query parameters are kept as-is.
+   *
+   * @param sql The sql statement to create a fingerprint for.
+   * @return the fingerprint of the sql statement.
+   * @throws SpannerException If the sql statement contains an unclosed literal.
+   */
+  @InternalApi
+  public String fingerprint(String sql) {
+    Preconditions.checkNotNull(sql);
+    StringBuilder result = new StringBuilder(sql.length());
+    int index = 0;
+    while (index < sql.length()) {
+      char c = sql.charAt(index);
+      if (Character.isWhitespace(c)) {
+        appendSpace(result);
+        index++;
+      } else if (isStringLiteralStart(sql, index)) {
+        removeLiteralPrefix(result);
+        result.append('?');
+        index = skip(sql, index, null);
+      } else if (isNumericLiteralStart(sql, index)) {
+        result.append('?');
+        index = skipNumericLiteral(sql, index);
+      } else {
+        int next = skip(sql, index, null);
+        if (next - index > 1 && !isQuotedIdentifierStart(c)) {
+          // This was a comment.
+          appendSpace(result);
+        } else {
+          result.append(sql, index, next);
+        }
+        index = next;
+      }
+    }
+    int length = result.length();
+    if (length > 0 && result.charAt(length - 1) == ' ') {
+      result.setLength(length - 1);
+    }
+    return result.toString();
+  }
+
+  private static void appendSpace(StringBuilder result) {
+    if (result.length() > 0 && result.charAt(result.length() - 1) != ' ') {
+      result.append(' ');
+    }
+  }
+
+  private boolean isStringLiteralStart(String sql, int index) {
+    char c = sql.charAt(index);
+    if (c == SINGLE_QUOTE) {
+      return true;
+    }
+    if (c == DOUBLE_QUOTE) {
+      // Double quotes are used for identifiers in PostgreSQL and for literals in GoogleSQL.
+      return getDialect() != Dialect.POSTGRESQL;
+    }
+    return supportsDollarQuotedStrings()
+        && c == DOLLAR
+        && parseDollarQuotedString(sql, index + 1) != null;
+  }
+
+  private boolean isQuotedIdentifierStart(char c) {
+    return c == DOUBLE_QUOTE || (supportsBacktickQuote() && c == BACKTICK_QUOTE);
+  }
+
+  /**
+   * Removes a string literal prefix like the 'b' and 'r' in b'bytes' and r'raw string', or the 'e'
+   * in e'escaped string', from the end of the result.
+   */
+  private static void removeLiteralPrefix(StringBuilder result) {
+    int start = result.length();
+    while (start > 0 && start > result.length() - 2 && isLiteralPrefix(result.charAt(start - 1))) {
+      start--;
+    }
+    if (start < result.length()
+        && (start == 0 || !isValidIdentifierChar(result.charAt(start - 1)))) {
+      result.setLength(start);
+    }
+  }
+
+  private static boolean isLiteralPrefix(char c) {
+    switch (c) {
+      case 'b':
+      case 'B':
+      case 'r':
+      case 'R':
+      case 'e':
+      case 'E':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isNumericLiteralStart(String sql, int index) {
+    char c = sql.charAt(index);
+    boolean startsWithDigit =
+        Character.isDigit(c)
+            || (c == '.' && index + 1 < sql.length() && Character.isDigit(sql.charAt(index + 1)));
+    if (!startsWithDigit || index == 0) {
+      return startsWithDigit;
+    }
+    // Digits that are part of an identifier or a query parameter (e.g. @p1 or $1) are no literals.
+    char previous = sql.charAt(index - 1);
+    return !(isValidIdentifierChar(previous) || previous == '@' || previous == DOLLAR);
+  }
+
+  private static int skipNumericLiteral(String sql, int index) {
+    boolean hex = sql.startsWith("0x", index) || sql.startsWith("0X", index);
+    while (index < sql.length()) {
+      char c = sql.charAt(index);
+      if (isValidIdentifierChar(c) || c == '.') {
+        index++;
+      } else if ((c == '+' || c == '-')
+          && !hex
+          && (sql.charAt(index - 1) == 'e' || sql.charAt(index - 1) == 'E')) {
+        // This is the sign of an exponent.
+        index++;
+      } else {
+        break;
+      }
+    }
+    return index;
+  }
+
   /** Removes any statement hints at the beginning of the statement. */
   abstract String removeStatementHint(String sql);
 
@@ -27,6 +27,7 @@ import com.google.cloud.spanner.Type;
 import com.google.cloud.spanner.Type.Code;
 import com.google.cloud.spanner.Type.StructField;
 import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
+import com.google.cloud.spanner.connection.AbstractStatementParser.StatementType;
 import com.google.cloud.spanner.connection.ReadWriteTransaction.RetriableStatement;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
@@ -71,7 +72,14 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
   private final ParsedStatement statement;
   private final AnalyzeMode analyzeMode;
   private final QueryOption[] options;
-  private final ChecksumCalculator checksumCalculator = new ChecksumCalculator();
+  private volatile ChecksumCalculator checksumCalculator = new ChecksumCalculator();
+  /**
+   * The checksum of all rows that were consumed before this result set was closed. The {@link
+   * ChecksumCalculator} and its buffers are released when the result set is closed, as only this
+   * checksum and the number of calls to {@link #next()} are needed to verify a retry. This keeps
+   * the memory footprint of a transaction that executes many queries small.
+   */
+  private volatile byte[] closedChecksum;
 
   ChecksumResultSet(
       ReadWriteTransaction transaction,
@@ -124,11 +132,32 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
     return transaction.runWithRetry(nextCallable);
   }
 
+  @Override
+  public void close() {
+    super.close();
+    if (closedChecksum == null) {
+      closedChecksum = checksumCalculator.getChecksum();
+      checksumCalculator = null;
+    }
+  }
+
   @VisibleForTesting
   byte[] getChecksum() {
+    ChecksumCalculator calculator = checksumCalculator;
+    if (calculator == null) {
+      // The result set has been closed and the final checksum has been set.
+      return closedChecksum.clone();
+    }
     // Getting the checksum from the checksumCalculator will create a clone of the current digest
     // and return the checksum from the clone, so it is safe to return this value.
-    return checksumCalculator.getChecksum();
+    return calculator.getChecksum();
+  }
+
+  @Override
+  public boolean isQuery() {
+    // DML statements with a THEN RETURN clause are also recorded as queries, but must be retried
+    // in order.
+    return statement.getType() == StatementType.QUERY;
   }
 
   /**
@@ -177,7 +206,7 @@ class ChecksumResultSet extends ReplaceableForwardingResultSet implements Retria
     }
     // Check that we have the same number of rows and the same checksum.
     byte[] newChecksum = newChecksumCalculator.getChecksum();
-    byte[] currentChecksum = checksumCalculator.getChecksum();
+    byte[] currentChecksum = getChecksum();
     if (counter == numberOfNextCalls.get() && Arrays.equals(newChecksum, currentChecksum)) {
       // Checksum is ok, we only need to replace the delegate result set if it's still open.
       if (isClosed()) {
@@ -685,6 +685,25 @@ public interface Connection extends AutoCloseable {
     throw new UnsupportedOperationException("Unimplemented");
   }
 
+  /**
+   * Sets the maximum number of queries that are replayed in parallel when a read/write transaction
+   * is retried internally after it has been aborted. Consecutive queries in the transaction are
+   * replayed in parallel, while DML statements are always replayed one at a time and in their
+   * original order. A value of <code>0</code> or <code>1</code> replays all statements
+   * sequentially.
+   */
+  default void setRetryReplayParallelism(int retryReplayParallelism) {
+    throw new UnsupportedOperationException("Unimplemented");
+  }
+
+  /**
+   * @return the maximum number of queries that are replayed in parallel when a read/write
+   *     transaction is retried internally.
+   */
+  default int getRetryReplayParallelism() {
+    throw new UnsupportedOperationException("Unimplemented");
+  }
+
   /**
    * Commits the current transaction of this connection. All mutations that have been buffered
    * during the current transaction will be written to the database.
@@ -31,6 +31,7 @@ import static com.google.cloud.spanner.connection.ConnectionProperties.DELAY_TRA
 import static com.google.cloud.spanner.connection.ConnectionProperties.DIRECTED_READ;
 import static com.google.cloud.spanner.connection.ConnectionProperties.KEEP_TRANSACTION_ALIVE;
 import static com.google.cloud.spanner.connection.ConnectionProperties.MAX_COMMIT_DELAY;
+import static com.google.cloud.spanner.connection.ConnectionProperties.MAX_PARALLEL_DDL_OPERATIONS;
 import static com.google.cloud.spanner.connection.ConnectionProperties.MAX_PARTITIONED_PARALLELISM;
 import static com.google.cloud.spanner.connection.ConnectionProperties.MAX_PARTITIONS;
 import static com.google.cloud.spanner.connection.ConnectionProperties.OPTIMIZER_STATISTICS_PACKAGE;
@@ -38,6 +39,7 @@ import static com.google.cloud.spanner.connection.ConnectionProperties.OPTIMIZER
 import static com.google.cloud.spanner.connection.ConnectionProperties.READONLY;
 import static com.google.cloud.spanner.connection.ConnectionProperties.READ_ONLY_STALENESS;
 import static com.google.cloud.spanner.connection.ConnectionProperties.RETRY_ABORTS_INTERNALLY;
+import static com.google.cloud.spanner.connection.ConnectionProperties.RETRY_REPLAY_PARALLELISM;
 import static com.google.cloud.spanner.connection.ConnectionProperties.RETURN_COMMIT_STATS;
 import static com.google.cloud.spanner.connection.ConnectionProperties.RPC_PRIORITY;
 import static com.google.cloud.spanner.connection.ConnectionProperties.SAVEPOINT_SUPPORT;
@@ -465,11 +467,13 @@ class ConnectionImpl implements Connection {
     this.connectionState.resetValue(
         DELAY_TRANSACTION_START_UNTIL_FIRST_WRITE, context, inTransaction);
     this.connectionState.resetValue(KEEP_TRANSACTION_ALIVE, context, inTransaction);
+    this.connectionState.resetValue(RETRY_REPLAY_PARALLELISM, context, inTransaction);
     this.connectionState.resetValue(AUTO_PARTITION_MODE, context, inTransaction);
     this.connectionState.resetValue(DATA_BOOST_ENABLED, context, inTransaction);
     this.connectionState.resetValue(MAX_PARTITIONS, context, inTransaction);
     this.connectionState.resetValue(MAX_PARTITIONED_PARALLELISM, context, inTransaction);
     this.connectionState.resetValue(MAX_COMMIT_DELAY, context, inTransaction);
+    this.connectionState.resetValue(MAX_PARALLEL_DDL_OPERATIONS, context, inTransaction);
 
     this.connectionState.resetValue(AUTOCOMMIT_DML_MODE, context, inTransaction);
     this.statementTag = null;
@@ -1081,6 +1085,19 @@ class ConnectionImpl implements Connection {
     return getConnectionPropertyValue(KEEP_TRANSACTION_ALIVE);
   }
 
+  @Override
+  public void setRetryReplayParallelism(int retryReplayParallelism) {
+    ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
+    Preconditions.checkArgument(retryReplayParallelism >= 0, "retryReplayParallelism must be >=0");
+    setConnectionPropertyValue(RETRY_REPLAY_PARALLELISM, retryReplayParallelism);
+  }
+
+  @Override
+  public int getRetryReplayParallelism() {
+    ConnectionPreconditions.checkState(!isClosed(), CLOSED_ERROR_MSG);
+    return getConnectionPropertyValue(RETRY_REPLAY_PARALLELISM);
+  }
+
   /** Resets this connection to its default transaction options. */
   private void setDefaultTransactionOptions() {
     if (transactionStack.isEmpty()) {
@@ -2141,6 +2158,7 @@ class ConnectionImpl implements Connection {
                   getConnectionPropertyValue(DELAY_TRANSACTION_START_UNTIL_FIRST_WRITE))
               .setKeepTransactionAlive(getConnectionPropertyValue(KEEP_TRANSACTION_ALIVE))
               .setRetryAbortsInternally(getConnectionPropertyValue(RETRY_ABORTS_INTERNALLY))
+              .setRetryReplayParallelism(getConnectionPropertyValue(RETRY_REPLAY_PARALLELISM))
               .setSavepointSupport(getConnectionPropertyValue(SAVEPOINT_SUPPORT))
               .setReturnCommitStats(getConnectionPropertyValue(RETURN_COMMIT_STATS))
               .setMaxCommitDelay(getConnectionPropertyValue(MAX_COMMIT_DELAY))
@@ -2178,6 +2196,7 @@ class ConnectionImpl implements Connection {
               .withStatementExecutor(statementExecutor)
               .setSpan(createSpanForUnitOfWork(DDL_BATCH))
               .setProtoDescriptors(getProtoDescriptors())
+              .setMaxParallelDdlOperations(getConnectionPropertyValue(MAX_PARALLEL_DDL_OPERATIONS))
               .build();
         default:
       }
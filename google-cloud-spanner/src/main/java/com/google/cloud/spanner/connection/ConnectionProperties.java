@@ -125,6 +125,7 @@ import java.util.Map;
 class ConnectionProperties {
   private static final ImmutableMap.Builder<String, ConnectionProperty<?>>
       CONNECTION_PROPERTIES_BUILDER = ImmutableMap.builder();
+  private static int connectionPropertyCount;
 
   static final ConnectionProperty<ConnectionState.Type> CONNECTION_STATE_TYPE =
       create(
@@ -401,6 +402,18 @@ class ConnectionProperties {
           BooleanConverter.INSTANCE,
           Context.USER);
 
+  static final ConnectionProperty<Integer> RETRY_REPLAY_PARALLELISM =
+      create(
+          "retry_replay_parallelism",
+          "The maximum number of queries that are replayed in parallel when a read/write transaction "
+              + "is retried internally after it has been aborted. Consecutive queries in a "
+              + "transaction are replayed in parallel. DML statements are always replayed one at a "
+              + "time and in their original order. The default is 1, which replays all statements "
+              + "sequentially.",
+          1,
+          NonNegativeIntegerConverter.INSTANCE,
+          Context.USER);
+
   static final ConnectionProperty<TimestampBound> READ_ONLY_STALENESS =
       create(
           "read_only_staleness",
@@ -484,6 +497,17 @@ class ConnectionProperties {
           DEFAULT_DDL_IN_TRANSACTION_MODE,
           DdlInTransactionModeConverter.INSTANCE,
           Context.USER);
+  static final ConnectionProperty<Integer> MAX_PARALLEL_DDL_OPERATIONS =
+      create(
+          "max_parallel_ddl_operations",
+          "The maximum number of schema update operations that a DDL batch may execute in "
+              + "parallel. If this value is larger than 1, the statements in a DDL batch are "
+              + "grouped by their dependencies, and independent CREATE INDEX and foreign key "
+              + "statements are executed as separate operations in parallel. The default is 1, "
+              + "which executes all statements in a DDL batch as one operation.",
+          1,
+          NonNegativeIntegerConverter.INSTANCE,
+          Context.USER);
   static final ConnectionProperty<Duration> MAX_COMMIT_DELAY =
       create(
           "maxCommitDelay",
@@ -552,7 +576,8 @@ class ConnectionProperties {
       ClientSideStatementValueConverter<T> converter,
       Context context) {
     ConnectionProperty<T> property =
-        ConnectionProperty.create(name, description, defaultValue, converter, context);
+        ConnectionProperty.create(
+            name, description, defaultValue, converter, context, connectionPropertyCount++);
     CONNECTION_PROPERTIES_BUILDER.put(property.getKey(), property);
     return property;
   }
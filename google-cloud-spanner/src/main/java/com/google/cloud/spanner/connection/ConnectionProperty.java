@@ -79,8 +79,24 @@ public class ConnectionProperty<T> {
       T defaultValue,
       ClientSideStatementValueConverter<T> converter,
       Context context) {
+    return create(name, description, defaultValue, converter, context, -1);
+  }
+
+  /**
+   * Utility method for creating a typed {@link ConnectionProperty}. The ordinal is the index of the
+   * property in the list of known connection properties, and is used by {@link ConnectionState} to
+   * store the values of known properties in an array.
+   */
+  @Nonnull
+  static <T> ConnectionProperty<T> create(
+      @Nonnull String name,
+      String description,
+      T defaultValue,
+      ClientSideStatementValueConverter<T> converter,
+      Context context,
+      int ordinal) {
     return new ConnectionProperty<>(
-        null, name, description, defaultValue, null, converter, context);
+        null, name, description, defaultValue, null, converter, context, ordinal);
   }
 
   /**
@@ -103,6 +119,12 @@ public class ConnectionProperty<T> {
 
   private final Context context;
 
+  /**
+   * The index of this property in the list of known connection properties, or -1 if this is not a
+   * known connection property.
+   */
+  private final int ordinal;
+
   ConnectionProperty(
       String extension,
       @Nonnull String name,
@@ -111,6 +133,18 @@ public class ConnectionProperty<T> {
       T[] validValues,
       ClientSideStatementValueConverter<T> converter,
       Context context) {
+    this(extension, name, description, defaultValue, validValues, converter, context, -1);
+  }
+
+  private ConnectionProperty(
+      String extension,
+      @Nonnull String name,
+      @Nonnull String description,
+      T defaultValue,
+      T[] validValues,
+      ClientSideStatementValueConverter<T> converter,
+      Context context,
+      int ordinal) {
     ConnectionPreconditions.checkArgument(
         !Strings.isNullOrEmpty(name), "property name must be a non-empty string");
     ConnectionPreconditions.checkArgument(
@@ -122,6 +156,7 @@ public class ConnectionProperty<T> {
     this.validValues = validValues;
     this.converter = converter;
     this.context = context;
+    this.ordinal = ordinal;
     this.key = createKey(this.extension, this.name);
   }
 
@@ -194,4 +229,8 @@ public class ConnectionProperty<T> {
   Context getContext() {
     return this.context;
   }
+
+  int getOrdinal() {
+    return this.ordinal;
+  }
 }
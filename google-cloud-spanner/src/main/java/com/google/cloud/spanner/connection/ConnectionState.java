@@ -27,10 +27,13 @@ import com.google.cloud.spanner.SpannerExceptionFactory;
 import com.google.cloud.spanner.connection.ConnectionProperty.Context;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Suppliers;
+import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
@@ -55,8 +58,25 @@ class ConnectionState {
 
   private final Supplier<Type> type;
 
-  /** properties contain the current connection properties of a connection. */
-  private final Map<String, ConnectionPropertyValue<?>> properties;
+  /**
+   * properties contain the current values of the known connection properties of a connection,
+   * indexed by the ordinal of each property. The array is copy-on-write: It is shared with the
+   * snapshots that are returned by {@link #getAllValues()} and with any {@link ConnectionState}
+   * that is created from such a snapshot, and it is copied before it is modified if {@link
+   * #propertiesShared} is true. The {@link ConnectionPropertyValue} instances in this array are
+   * never modified, and a change to a property replaces the value in the array.
+   */
+  private ConnectionPropertyValue<?>[] properties;
+
+  /**
+   * extensionProperties contain the current values of properties that are not known connection
+   * properties, such as PostgreSQL extension properties. This map follows the same copy-on-write
+   * rules as {@link #properties}.
+   */
+  private Map<String, ConnectionPropertyValue<?>> extensionProperties;
+
+  /** Indicates whether the properties are shared and must be copied before they are modified. */
+  private boolean propertiesShared;
 
   /**
    * transactionProperties are the modified connection properties during a transaction. This is only
@@ -76,24 +96,34 @@ class ConnectionState {
    * transactional or non-transactional based on the value that is returned by the given supplier.
    * The type is determined lazily to allow connections to determine the default based on the
    * dialect, and the dialect is not known directly when a connection is created.
+   *
+   * <p>If the initial values are a snapshot that was returned by {@link #getAllValues()}, then the
+   * values are shared with the snapshot, and are only copied if this connection state is changed.
    */
   ConnectionState(
       Map<String, ConnectionPropertyValue<?>> initialValues,
       Supplier<Type> defaultConnectionStateTypeSupplier) {
-    this.properties = new HashMap<>(CONNECTION_PROPERTIES.size());
-    for (Entry<String, ConnectionProperty<?>> entry : CONNECTION_PROPERTIES.entrySet()) {
-      this.properties.put(
-          entry.getKey(),
-          entry.getValue().createInitialValue(cast(initialValues.get(entry.getKey()))));
-    }
-    // Add any additional non-core values from the options.
-    for (Entry<String, ConnectionPropertyValue<?>> entry : initialValues.entrySet()) {
-      if (!this.properties.containsKey(entry.getKey())) {
-        setValue(
-            castProperty(entry.getValue().getProperty()),
-            cast(entry.getValue()).getValue(),
-            Context.STARTUP,
-            /* inTransaction = */ false);
+    if (initialValues instanceof PropertyValues) {
+      PropertyValues snapshot = (PropertyValues) initialValues;
+      this.properties = snapshot.properties;
+      this.extensionProperties = snapshot.extensionProperties;
+      this.propertiesShared = true;
+    } else {
+      this.properties = new ConnectionPropertyValue<?>[CONNECTION_PROPERTIES.size()];
+      this.extensionProperties = new HashMap<>();
+      for (ConnectionProperty<?> property : CONNECTION_PROPERTIES.values()) {
+        this.properties[property.getOrdinal()] =
+            property.createInitialValue(cast(initialValues.get(property.getKey())));
+      }
+      // Add any additional non-core values from the options.
+      for (Entry<String, ConnectionPropertyValue<?>> entry : initialValues.entrySet()) {
+        if (!CONNECTION_PROPERTIES.containsKey(entry.getKey())) {
+          setValue(
+              castProperty(entry.getValue().getProperty()),
+              cast(entry.getValue()).getValue(),
+              Context.STARTUP,
+              /* inTransaction = */ false);
+        }
       }
     }
     Type configuredType = getValue(CONNECTION_STATE_TYPE).getValue();
@@ -116,13 +146,15 @@ class ConnectionState {
   }
 
   /**
-   * Returns an unmodifiable map with all the property values of this {@link ConnectionState}. The
-   * map cannot be modified, but any changes to the current (committed) state will be reflected in
-   * the map that is returned by this method.
+   * Returns an unmodifiable snapshot of all the committed property values of this {@link
+   * ConnectionState}. Creating the snapshot does not copy the values. Instead, the values are
+   * shared with the snapshot and are copied the next time that this {@link ConnectionState} is
+   * changed.
    */
   Map<String, ConnectionPropertyValue<?>> getAllValues() {
     synchronized (lock) {
-      return Collections.unmodifiableMap(this.properties);
+      this.propertiesShared = true;
+      return new PropertyValues(this.properties, this.extensionProperties);
     }
   }
 
@@ -149,8 +181,9 @@ class ConnectionState {
     if (transactionProperties != null && transactionProperties.containsKey(property.getKey())) {
       return cast(transactionProperties.get(property.getKey()));
     }
-    if (properties.containsKey(property.getKey())) {
-      return cast(properties.get(property.getKey()));
+    ConnectionPropertyValue<T> value = getCommittedValue(property);
+    if (value != null) {
+      return value;
     }
     if (throwForUnknownParam) {
       throw unknownParamError(property);
@@ -158,6 +191,29 @@ class ConnectionState {
     return null;
   }
 
+  /** Returns the committed value of the given property, or null if the property is unknown. */
+  @Nullable
+  private <T> ConnectionPropertyValue<T> getCommittedValue(ConnectionProperty<T> property) {
+    int ordinal = getOrdinal(property);
+    if (ordinal >= 0) {
+      return cast(properties[ordinal]);
+    }
+    return cast(extensionProperties.get(property.getKey()));
+  }
+
+  /**
+   * Returns the ordinal of the given property, or -1 if it is not a known property. This also
+   * handles property instances that have the same key as a known property, but that were not
+   * created by {@link ConnectionProperties}.
+   */
+  private static int getOrdinal(ConnectionProperty<?> property) {
+    if (property.getOrdinal() >= 0) {
+      return property.getOrdinal();
+    }
+    ConnectionProperty<?> knownProperty = CONNECTION_PROPERTIES.get(property.getKey());
+    return knownProperty == null ? -1 : knownProperty.getOrdinal();
+  }
+
   /**
    * Sets the value of the specified property. The new value will be persisted if the current
    * transaction is committed or directly if the connection state is non-transactional. The value
@@ -175,7 +231,7 @@ class ConnectionState {
       if (!inTransaction
           || getType() == Type.NON_TRANSACTIONAL
           || context.ordinal() < Context.USER.ordinal()) {
-        internalSetValue(property, value, properties, context);
+        putCommittedValue(createNewValue(property, value, null, context));
         return;
       }
 
@@ -227,15 +283,32 @@ class ConnectionState {
     }
   }
 
-  /** Persists the new value for a property to the given map of properties. */
+  /**
+   * Persists the new value for a property to the given map of transaction or local properties. The
+   * values in these maps are owned by this {@link ConnectionState}, and are modified in place.
+   */
   private <T> void internalSetValue(
       ConnectionProperty<T> property,
       T value,
       Map<String, ConnectionPropertyValue<?>> currentProperties,
       Context context) {
-    ConnectionPropertyValue<T> newValue = cast(currentProperties.get(property.getKey()));
+    ConnectionPropertyValue<T> newValue =
+        createNewValue(property, value, cast(currentProperties.get(property.getKey())), context);
+    currentProperties.put(property.getKey(), newValue);
+  }
+
+  /**
+   * Sets the given value on the given current value, or on a copy of the committed value if there
+   * is no current value.
+   */
+  private <T> ConnectionPropertyValue<T> createNewValue(
+      ConnectionProperty<T> property,
+      T value,
+      @Nullable ConnectionPropertyValue<T> currentValue,
+      Context context) {
+    ConnectionPropertyValue<T> newValue = currentValue;
     if (newValue == null) {
-      ConnectionPropertyValue<T> existingValue = cast(properties.get(property.getKey()));
+      ConnectionPropertyValue<T> existingValue = getCommittedValue(property);
       if (existingValue == null) {
         if (!property.hasExtension()) {
           throw unknownParamError(property);
@@ -246,7 +319,22 @@ class ConnectionState {
       }
     }
     newValue.setValue(value, context);
-    currentProperties.put(property.getKey(), newValue);
+    return newValue;
+  }
+
+  /** Replaces the committed value of a property, and copies the properties first if needed. */
+  private void putCommittedValue(ConnectionPropertyValue<?> value) {
+    if (propertiesShared) {
+      properties = properties.clone();
+      extensionProperties = new HashMap<>(extensionProperties);
+      propertiesShared = false;
+    }
+    int ordinal = getOrdinal(value.getProperty());
+    if (ordinal >= 0) {
+      properties[ordinal] = value;
+    } else {
+      extensionProperties.put(value.getProperty().getKey(), value);
+    }
   }
 
   /** Creates an exception for an unknown connection property. */
@@ -264,7 +352,7 @@ class ConnectionState {
     synchronized (lock) {
       if (transactionProperties != null) {
         for (ConnectionPropertyValue<?> value : transactionProperties.values()) {
-          properties.put(value.getProperty().getKey(), value);
+          putCommittedValue(value);
         }
       }
       this.localProperties = null;
@@ -279,4 +367,50 @@ class ConnectionState {
       this.transactionProperties = null;
     }
   }
+
+  /**
+   * Unmodifiable snapshot of the committed values of a {@link ConnectionState}. The snapshot shares
+   * the underlying values with the {@link ConnectionState} that created it.
+   */
+  private static final class PropertyValues
+      extends AbstractMap<String, ConnectionPropertyValue<?>> {
+    private final ConnectionPropertyValue<?>[] properties;
+    private final Map<String, ConnectionPropertyValue<?>> extensionProperties;
+    private Set<Entry<String, ConnectionPropertyValue<?>>> entrySet;
+
+    PropertyValues(
+        ConnectionPropertyValue<?>[] properties,
+        Map<String, ConnectionPropertyValue<?>> extensionProperties) {
+      this.properties = properties;
+      this.extensionProperties = extensionProperties;
+    }
+
+    @Override
+    public ConnectionPropertyValue<?> get(Object key) {
+      ConnectionProperty<?> property = CONNECTION_PROPERTIES.get(key);
+      if (property != null) {
+        return properties[property.getOrdinal()];
+      }
+      return extensionProperties.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<String, ConnectionPropertyValue<?>>> entrySet() {
+      if (entrySet == null) {
+        Map<String, ConnectionPropertyValue<?>> values =
+            new LinkedHashMap<>(properties.length + extensionProperties.size());
+        for (ConnectionPropertyValue<?> value : properties) {
+          values.put(value.getProperty().getKey(), value);
+        }
+        values.putAll(extensionProperties);
+        entrySet = Collections.unmodifiableMap(values).entrySet();
+      }
+      return entrySet;
+    }
+  }
 }
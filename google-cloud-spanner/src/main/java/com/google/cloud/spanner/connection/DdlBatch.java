@@ -54,6 +54,11 @@ import javax.annotation.Nonnull;
  * (possibly empty) prefix of the statements in the batch have been successfully applied to the
  * database, and the others have not. Note that the statements that succeed may not all happen at
  * the same time, but they will always happen in order.
+ *
+ * <p>If the maximum number of parallel DDL operations is larger than 1, the statements are instead
+ * executed as multiple operations that are planned by {@link DdlBatchPlanner}. Statements that do
+ * not depend on each other may then be executed in parallel and in a different order than they were
+ * added to the batch, and the statements that succeed are not necessarily a prefix of the batch.
  */
 class DdlBatch extends AbstractBaseUnitOfWork {
   private final DdlClient ddlClient;
@@ -61,11 +66,13 @@ class DdlBatch extends AbstractBaseUnitOfWork {
   private final List<String> statements = new ArrayList<>();
   private UnitOfWorkState state = UnitOfWorkState.STARTED;
   private final byte[] protoDescriptors;
+  private final int maxParallelDdlOperations;
 
   static class Builder extends AbstractBaseUnitOfWork.Builder<Builder, DdlBatch> {
     private DdlClient ddlClient;
     private DatabaseClient dbClient;
     private byte[] protoDescriptors;
+    private int maxParallelDdlOperations = 1;
 
     private Builder() {}
 
@@ -86,6 +93,13 @@ class DdlBatch extends AbstractBaseUnitOfWork {
       return this;
     }
 
+    Builder setMaxParallelDdlOperations(int maxParallelDdlOperations) {
+      Preconditions.checkArgument(
+          maxParallelDdlOperations >= 0, "maxParallelDdlOperations must be >= 0");
+      this.maxParallelDdlOperations = maxParallelDdlOperations;
+      return this;
+    }
+
     @Override
     DdlBatch build() {
       Preconditions.checkState(ddlClient != null, "No DdlClient specified");
@@ -103,6 +117,7 @@ class DdlBatch extends AbstractBaseUnitOfWork {
     this.ddlClient = builder.ddlClient;
     this.dbClient = builder.dbClient;
     this.protoDescriptors = builder.protoDescriptors;
+    this.maxParallelDdlOperations = builder.maxParallelDdlOperations;
   }
 
   @Override
@@ -235,6 +250,11 @@ class DdlBatch extends AbstractBaseUnitOfWork {
       Callable<long[]> callable =
           () -> {
             try {
+              if (maxParallelDdlOperations > 1) {
+                long[] updateCounts = runPlannedBatch();
+                state = UnitOfWorkState.RAN;
+                return updateCounts;
+              }
               OperationFuture<Void, UpdateDatabaseDdlMetadata> operation =
                   ddlClient.executeDdl(statements, protoDescriptors);
               try {
@@ -269,6 +289,79 @@ class DdlBatch extends AbstractBaseUnitOfWork {
     }
   }
 
+  /**
+   * Executes the statements in this batch as multiple operations according to the plan of the
+   * {@link DdlBatchPlanner}. The operations of a stage are executed in parallel, and each stage is
+   * started when all operations of the previous stage have finished. If an operation fails, the
+   * other operations in the same stage are allowed to finish, and the remaining stages are skipped.
+   */
+  private long[] runPlannedBatch() {
+    long[] updateCounts = new long[statements.size()];
+    for (DdlBatchPlanner.Stage stage : DdlBatchPlanner.plan(statements, maxParallelDdlOperations)) {
+      List<OperationFuture<Void, UpdateDatabaseDdlMetadata>> operations =
+          new ArrayList<>(stage.getOperations().size());
+      SpannerException exception = null;
+      for (List<Integer> indexes : stage.getOperations()) {
+        List<String> operationStatements = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+          operationStatements.add(statements.get(index));
+        }
+        try {
+          operations.add(ddlClient.executeDdl(operationStatements, protoDescriptors));
+        } catch (SpannerException e) {
+          exception = e;
+          break;
+        }
+      }
+      for (int i = 0; i < operations.size(); i++) {
+        OperationFuture<Void, UpdateDatabaseDdlMetadata> operation = operations.get(i);
+        List<Integer> indexes = stage.getOperations().get(i);
+        long[] operationUpdateCounts;
+        try {
+          getWithStatementTimeout(operation, RUN_BATCH_STATEMENT);
+          operationUpdateCounts = new long[indexes.size()];
+          Arrays.fill(operationUpdateCounts, 1L);
+        } catch (SpannerException e) {
+          operationUpdateCounts = extractUpdateCounts(operation);
+          if (exception == null) {
+            exception = e;
+          }
+        }
+        for (int j = 0; j < indexes.size() && j < operationUpdateCounts.length; j++) {
+          updateCounts[indexes.get(j)] = operationUpdateCounts[j];
+        }
+        recordProgress(operation, indexes);
+      }
+      if (exception != null) {
+        throw SpannerExceptionFactory.newSpannerBatchUpdateException(
+            exception.getErrorCode(), exception.getMessage(), updateCounts);
+      }
+    }
+    return updateCounts;
+  }
+
+  /** Adds the progress of each statement of the given operation as an event to the span. */
+  private void recordProgress(
+      OperationFuture<Void, UpdateDatabaseDdlMetadata> operation, List<Integer> indexes) {
+    UpdateDatabaseDdlMetadata metadata;
+    try {
+      metadata = operation.getMetadata().get();
+    } catch (Throwable ignore) {
+      return;
+    }
+    if (metadata == null) {
+      return;
+    }
+    for (int i = 0; i < indexes.size() && i < metadata.getProgressCount(); i++) {
+      span.addEvent(
+          "DDL statement "
+              + indexes.get(i)
+              + " progress: "
+              + metadata.getProgress(i).getProgressPercent()
+              + "%");
+    }
+  }
+
   long[] extractUpdateCounts(OperationFuture<Void, UpdateDatabaseDdlMetadata> operation) {
     try {
       return extractUpdateCounts(operation.getMetadata().get());
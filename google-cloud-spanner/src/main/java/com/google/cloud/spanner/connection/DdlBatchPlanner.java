@@ -0,0 +1,289 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Plans the execution of the statements in a {@link DdlBatch} as multiple schema update operations.
+ * The planner builds a dependency graph of the statements based on the schema objects that each
+ * statement creates, changes or references. Statements that do not depend on each other are
+ * executed in the same stage, and the statements in a stage that require a backfill or validation
+ * of existing data (i.e. {@code CREATE INDEX} and adding a foreign key) are divided over multiple
+ * operations that are executed in parallel.
+ *
+ * <p>Only {@code CREATE TABLE}, {@code CREATE INDEX} and {@code ALTER TABLE} statements are
+ * analyzed. All other statements are executed in a stage of their own, after all statements that
+ * come before them and before all statements that come after them.
+ */
+class DdlBatchPlanner {
+
+  /** The statements of one stage. Each operation in a stage can be executed in parallel. */
+  static final class Stage {
+    private final ImmutableList<ImmutableList<Integer>> operations;
+
+    private Stage(ImmutableList<ImmutableList<Integer>> operations) {
+      this.operations = operations;
+    }
+
+    /** Returns the indexes of the statements of each operation in this stage. */
+    ImmutableList<ImmutableList<Integer>> getOperations() {
+      return operations;
+    }
+
+    @Override
+    public String toString() {
+      return operations.toString();
+    }
+  }
+
+  /** The schema objects that are changed and referenced by a DDL statement. */
+  @VisibleForTesting
+  static final class StatementInfo {
+    private final Set<String> writes;
+    private final Set<String> reads;
+    private final boolean barrier;
+    private final boolean longRunning;
+
+    private StatementInfo(
+        Set<String> writes, Set<String> reads, boolean barrier, boolean longRunning) {
+      this.writes = writes;
+      this.reads = reads;
+      this.barrier = barrier;
+      this.longRunning = longRunning;
+    }
+
+    /** Returns true if this statement must be executed after the given earlier statement. */
+    boolean dependsOn(StatementInfo earlier) {
+      if (barrier || earlier.barrier) {
+        return true;
+      }
+      for (String object : earlier.writes) {
+        if (writes.contains(object) || reads.contains(object)) {
+          return true;
+        }
+      }
+      for (String object : earlier.reads) {
+        if (writes.contains(object)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** Returns true if the statement requires a backfill or validation of existing data. */
+    boolean isLongRunning() {
+      return longRunning;
+    }
+
+    boolean isBarrier() {
+      return barrier;
+    }
+  }
+
+  private static final StatementInfo BARRIER =
+      new StatementInfo(Collections.emptySet(), Collections.emptySet(), true, false);
+
+  private DdlBatchPlanner() {}
+
+  /**
+   * Divides the given statements into stages that must be executed one after the other. The
+   * statements in a stage are divided over at most {@code maxParallelOperations} operations.
+   */
+  static List<Stage> plan(List<String> statements, int maxParallelOperations) {
+    Preconditions.checkArgument(maxParallelOperations > 0, "maxParallelOperations must be > 0");
+    List<StatementInfo> infos = new ArrayList<>(statements.size());
+    int[] levels = new int[statements.size()];
+    int numLevels = 0;
+    for (int i = 0; i < statements.size(); i++) {
+      StatementInfo info = analyze(statements.get(i));
+      int level = 0;
+      for (int j = 0; j < i; j++) {
+        if (info.dependsOn(infos.get(j))) {
+          level = Math.max(level, levels[j] + 1);
+        }
+      }
+      infos.add(info);
+      levels[i] = level;
+      numLevels = Math.max(numLevels, level + 1);
+    }
+
+    List<List<List<Integer>>> stages = new ArrayList<>(numLevels);
+    for (int level = 0; level < numLevels; level++) {
+      List<Integer> shortRunning = new ArrayList<>();
+      List<Integer> longRunning = new ArrayList<>();
+      for (int i = 0; i < statements.size(); i++) {
+        if (levels[i] == level) {
+          (infos.get(i).isLongRunning() ? longRunning : shortRunning).add(i);
+        }
+      }
+      int numOperations = Math.max(1, Math.min(maxParallelOperations, longRunning.size()));
+      List<List<Integer>> operations = new ArrayList<>(numOperations);
+      for (int i = 0; i < numOperations; i++) {
+        operations.add(new ArrayList<>());
+      }
+      operations.get(0).addAll(shortRunning);
+      for (int i = 0; i < longRunning.size(); i++) {
+        operations.get(i % numOperations).add(longRunning.get(i));
+      }
+      for (List<Integer> operation : operations) {
+        Collections.sort(operation);
+      }
+      // Merge consecutive stages with a single operation, as there is nothing to gain from
+      // executing these as separate operations.
+      List<List<Integer>> previous = stages.isEmpty() ? null : stages.get(stages.size() - 1);
+      if (previous != null && previous.size() == 1 && operations.size() == 1) {
+        previous.get(0).addAll(operations.get(0));
+      } else {
+        stages.add(operations);
+      }
+    }
+
+    ImmutableList.Builder<Stage> result = ImmutableList.builderWithExpectedSize(stages.size());
+    for (List<List<Integer>> operations : stages) {
+      ImmutableList.Builder<ImmutableList<Integer>> builder = ImmutableList.builder();
+      for (List<Integer> operation : operations) {
+        builder.add(ImmutableList.copyOf(operation));
+      }
+      result.add(new Stage(builder.build()));
+    }
+    return result.build();
+  }
+
+  /** Determines the schema objects that are changed and referenced by the given statement. */
+  @VisibleForTesting
+  static StatementInfo analyze(String statement) {
+    List<String> tokens = tokenize(statement);
+    if (tokens.size() < 3) {
+      return BARRIER;
+    }
+    Set<String> writes = new HashSet<>();
+    Set<String> reads = new HashSet<>();
+    boolean longRunning = false;
+    int index;
+    if (isKeyword(tokens, 0, "CREATE")) {
+      index = 1;
+      while (isKeyword(tokens, index, "UNIQUE")
+          || isKeyword(tokens, index, "NULL_FILTERED")
+          || isKeyword(tokens, index, "SEARCH")
+          || isKeyword(tokens, index, "VECTOR")) {
+        index++;
+      }
+      if (isKeyword(tokens, index, "TABLE")) {
+        index = skipIfNotExists(tokens, index + 1);
+        if (index >= tokens.size()) {
+          return BARRIER;
+        }
+        writes.add(tokens.get(index));
+      } else if (isKeyword(tokens, index, "INDEX")) {
+        index = skipIfNotExists(tokens, index + 1);
+        if (index + 2 >= tokens.size() || !isKeyword(tokens, index + 1, "ON")) {
+          return BARRIER;
+        }
+        writes.add(tokens.get(index));
+        reads.add(tokens.get(index + 2));
+        longRunning = true;
+      } else {
+        return BARRIER;
+      }
+    } else if (isKeyword(tokens, 0, "ALTER") && isKeyword(tokens, 1, "TABLE")) {
+      index = 2;
+      if (isKeyword(tokens, index, "ONLY")) {
+        index++;
+      }
+      if (index + 1 >= tokens.size()) {
+        return BARRIER;
+      }
+      writes.add(tokens.get(index));
+      longRunning = isKeyword(tokens, index + 1, "ADD") && tokens.contains("FOREIGN");
+    } else {
+      return BARRIER;
+    }
+    // Add all tables that are referenced by foreign keys and interleaved tables and indexes.
+    for (int i = index + 1; i < tokens.size() - 1; i++) {
+      if (isKeyword(tokens, i, "REFERENCES")) {
+        reads.add(tokens.get(i + 1));
+      } else if (isKeyword(tokens, i, "INTERLEAVE") && isKeyword(tokens, i + 1, "IN")) {
+        int parent = isKeyword(tokens, i + 2, "PARENT") ? i + 3 : i + 2;
+        if (parent < tokens.size()) {
+          reads.add(tokens.get(parent));
+        }
+      }
+    }
+    reads.removeAll(writes);
+    return new StatementInfo(writes, reads, false, longRunning);
+  }
+
+  private static int skipIfNotExists(List<String> tokens, int index) {
+    if (isKeyword(tokens, index, "IF")
+        && isKeyword(tokens, index + 1, "NOT")
+        && isKeyword(tokens, index + 2, "EXISTS")) {
+      return index + 3;
+    }
+    return index;
+  }
+
+  private static boolean isKeyword(List<String> tokens, int index, String keyword) {
+    return index < tokens.size() && tokens.get(index).equals(keyword);
+  }
+
+  /**
+   * Splits the given statement into upper-case identifiers and keywords. Quoted identifiers are
+   * unquoted, and string literals and all other characters are skipped. The names of schema objects
+   * are case-insensitive in Spanner, so quoted identifiers are also converted to upper case.
+   */
+  @VisibleForTesting
+  static List<String> tokenize(String statement) {
+    List<String> tokens = new ArrayList<>();
+    int index = 0;
+    while (index < statement.length()) {
+      char c = statement.charAt(index);
+      if (c == '`' || c == '"') {
+        int end = statement.indexOf(c, index + 1);
+        if (end == -1) {
+          end = statement.length();
+        }
+        tokens.add(statement.substring(index + 1, end).toUpperCase(Locale.ENGLISH));
+        index = end + 1;
+      } else if (c == '\'') {
+        int end = statement.indexOf(c, index + 1);
+        index = end == -1 ? statement.length() : end + 1;
+      } else if (Character.isLetterOrDigit(c) || c == '_') {
+        int end = index + 1;
+        while (end < statement.length()
+            && (Character.isLetterOrDigit(statement.charAt(end))
+                || statement.charAt(end) == '_'
+                || statement.charAt(end) == '.')) {
+          end++;
+        }
+        tokens.add(statement.substring(index, end).toUpperCase(Locale.ENGLISH));
+        index = end;
+      } else {
+        index++;
+      }
+    }
+    return tokens;
+  }
+}
@@ -19,6 +19,7 @@ package com.google.cloud.spanner.connection;
 import com.google.cloud.ByteArray;
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ClientLatencyBreakdown;
 import com.google.cloud.spanner.ProtobufResultSet;
 import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.SpannerException;
@@ -119,6 +120,11 @@ class DirectExecuteResultSet implements ProtobufResultSet {
     return delegate.getMetadata();
   }
 
+  @Override
+  public ClientLatencyBreakdown getClientLatencyBreakdown() {
+    return delegate.getClientLatencyBreakdown();
+  }
+
   @Override
   public Type getType() {
     return delegate.getType();
@@ -22,6 +22,7 @@ import com.google.cloud.spanner.ResultSet;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.SpannerExceptionFactory;
 import com.google.cloud.spanner.connection.AbstractStatementParser.ParsedStatement;
+import com.google.cloud.spanner.connection.AbstractStatementParser.StatementType;
 import com.google.cloud.spanner.connection.ReadWriteTransaction.RetriableStatement;
 import com.google.common.base.Preconditions;
 import java.util.Objects;
@@ -54,6 +55,13 @@ final class FailedQuery implements RetriableStatement {
     this.options = options;
   }
 
+  @Override
+  public boolean isQuery() {
+    // DML statements with a THEN RETURN clause are also recorded as queries, but must be retried
+    // in order.
+    return statement.getType() == StatementType.QUERY;
+  }
+
   @Override
   public void retry(AbortedException aborted) throws AbortedException {
     transaction
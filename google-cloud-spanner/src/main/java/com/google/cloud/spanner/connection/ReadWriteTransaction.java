@@ -61,6 +61,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.spanner.v1.SpannerGrpc;
 import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -68,12 +69,17 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -98,6 +104,11 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
           "read-write-transaction-keep-alive", true);
   private static final ScheduledExecutorService KEEP_ALIVE_SERVICE =
       Executors.newSingleThreadScheduledExecutor(KEEP_ALIVE_THREAD_FACTORY);
+  private static final ThreadFactory RETRY_THREAD_FACTORY =
+      ThreadFactoryUtil.createVirtualOrPlatformDaemonThreadFactory(
+          "read-write-transaction-retry", true);
+  private static final ExecutorService RETRY_SERVICE =
+      Executors.newCachedThreadPool(RETRY_THREAD_FACTORY);
   private static final ParsedStatement SELECT1_STATEMENT =
       AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL)
           .parse(Statement.of("SELECT 1"));
@@ -151,6 +162,7 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
   private final long keepAliveIntervalMillis;
   private final ReentrantLock keepAliveLock;
   private final SavepointSupport savepointSupport;
+  private final int retryReplayParallelism;
   private int transactionRetryAttempts;
   private int successfulRetries;
   private volatile ApiFuture<TransactionContext> txContextFuture;
@@ -202,6 +214,7 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
     private boolean returnCommitStats;
     private Duration maxCommitDelay;
     private SavepointSupport savepointSupport;
+    private int retryReplayParallelism = 1;
 
     private Builder() {}
 
@@ -251,6 +264,13 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
       return this;
     }
 
+    Builder setRetryReplayParallelism(int retryReplayParallelism) {
+      Preconditions.checkArgument(
+          retryReplayParallelism >= 0, "RetryReplayParallelism must be >= 0");
+      this.retryReplayParallelism = retryReplayParallelism;
+      return this;
+    }
+
     @Override
     ReadWriteTransaction build() {
       Preconditions.checkState(dbClient != null, "No DatabaseClient client specified");
@@ -293,6 +313,7 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
     this.keepAliveLock = this.keepTransactionAlive ? new ReentrantLock() : null;
     this.retryAbortsInternally = builder.retryAbortsInternally;
     this.savepointSupport = builder.savepointSupport;
+    this.retryReplayParallelism = builder.retryReplayParallelism;
     this.transactionOptions = extractOptions(builder);
   }
 
@@ -1105,9 +1126,7 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
           invokeTransactionRetryListenersOnStart();
           // Then retry all transaction statements.
           transactionRetryAttempts++;
-          for (RetriableStatement statement : statements) {
-            statement.retry(aborted);
-          }
+          retryStatements(aborted);
           successfulRetries++;
           invokeTransactionRetryListenersOnFinish(RetryResult.RETRY_SUCCESSFUL);
           logger.fine(
@@ -1172,6 +1191,88 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
     }
   }
 
+  /**
+   * Replays all statements of this transaction on the new transaction. Consecutive queries are
+   * replayed in parallel if {@link #retryReplayParallelism} is larger than one. DML statements are
+   * always replayed one at a time and in their original order, and all queries that preceded a DML
+   * statement have finished before that DML statement is replayed.
+   */
+  private void retryStatements(AbortedException aborted) {
+    if (retryReplayParallelism <= 1) {
+      for (RetriableStatement statement : statements) {
+        statement.retry(aborted);
+      }
+      return;
+    }
+    int index = 0;
+    while (index < statements.size()) {
+      int end = index;
+      while (end < statements.size() && statements.get(end).isQuery()) {
+        end++;
+      }
+      if (end - index > 1) {
+        retryQueriesInParallel(aborted, statements.subList(index, end));
+        index = end;
+      } else {
+        statements.get(index).retry(aborted);
+        index++;
+      }
+    }
+  }
+
+  /**
+   * Retries the given queries using at most {@link #retryReplayParallelism} threads. Queries that
+   * have not yet been started are skipped as soon as one of the queries fails. The error of the
+   * first failed query in statement order is re-thrown once all running queries have finished.
+   */
+  private void retryQueriesInParallel(AbortedException aborted, List<RetriableStatement> queries) {
+    int numTasks = Math.min(retryReplayParallelism, queries.size());
+    AtomicInteger nextIndex = new AtomicInteger();
+    AtomicBoolean failed = new AtomicBoolean();
+    Throwable[] errors = new Throwable[queries.size()];
+    Runnable task =
+        Context.current()
+            .wrap(
+                () -> {
+                  int i;
+                  while (!failed.get() && (i = nextIndex.getAndIncrement()) < queries.size()) {
+                    try {
+                      queries.get(i).retry(aborted);
+                    } catch (Throwable t) {
+                      errors[i] = t;
+                      failed.set(true);
+                    }
+                  }
+                });
+    List<Future<?>> futures = new ArrayList<>(numTasks);
+    for (int i = 0; i < numTasks; i++) {
+      futures.add(RETRY_SERVICE.submit(task));
+    }
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException interruptedException) {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+      Thread.currentThread().interrupt();
+      throw SpannerExceptionFactory.newSpannerException(
+          ErrorCode.CANCELLED, "The statement was cancelled");
+    } catch (ExecutionException executionException) {
+      throw SpannerExceptionFactory.asSpannerException(executionException.getCause());
+    }
+    for (Throwable error : errors) {
+      if (error instanceof RuntimeException) {
+        throw (RuntimeException) error;
+      } else if (error instanceof Error) {
+        throw (Error) error;
+      } else if (error != null) {
+        throw SpannerExceptionFactory.asSpannerException(error);
+      }
+    }
+  }
+
   private void throwAbortWithRetryAttemptsExceeded() throws SpannerException {
     invokeTransactionRetryListenersOnFinish(RetryResult.RETRY_ABORTED_AND_MAX_ATTEMPTS_EXCEEDED);
     logger.fine(
@@ -1331,6 +1432,14 @@ class ReadWriteTransaction extends AbstractMultiUseTransaction {
      * AbortedDueToConcurrentModificationException} cannot be retried.
      */
     void retry(AbortedException aborted) throws AbortedException;
+
+    /**
+     * Returns true if this statement is a query. Consecutive queries do not depend on each other
+     * and can be retried in parallel.
+     */
+    default boolean isQuery() {
+      return false;
+    }
   }
 
   /** Creates a {@link ChecksumResultSet} for this {@link ReadWriteTransaction}. */
@@ -19,6 +19,7 @@ package com.google.cloud.spanner.connection;
 import com.google.cloud.ByteArray;
 import com.google.cloud.Date;
 import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.ClientLatencyBreakdown;
 import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.ProtobufResultSet;
 import com.google.cloud.spanner.ResultSet;
@@ -123,6 +124,11 @@ class ReplaceableForwardingResultSet implements ProtobufResultSet {
     return delegate.getMetadata();
   }
 
+  @Override
+  public ClientLatencyBreakdown getClientLatencyBreakdown() {
+    return delegate.getClientLatencyBreakdown();
+  }
+
   @Override
   public Type getType() {
     checkClosed();
@@ -0,0 +1,581 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.spi.v1;
+
+import com.google.api.core.AbstractApiFuture;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.api.gax.grpc.GrpcStatusCode;
+import com.google.api.gax.longrunning.OperationSnapshot;
+import com.google.api.gax.retrying.RetrySettings;
+import com.google.api.gax.retrying.RetryingFuture;
+import com.google.api.gax.retrying.TimedAttemptSettings;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.spi.v1.SpannerRpc.Paginated;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.longrunning.Operation;
+import com.google.protobuf.Timestamp;
+import com.google.spanner.admin.database.v1.OperationProgress;
+import io.grpc.Status;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the status of long-running backup and database operations with a single poller. Instead of
+ * polling each operation independently with GetOperation, the poller checks the status of all
+ * tracked operations of an instance with one ListBackupOperations or ListDatabaseOperations request
+ * that filters on the names of the operations. The polling interval of each operation is derived
+ * from the progress that is reported in the metadata of the operation, so operations that are
+ * expected to take a long time are polled less frequently than operations that are almost done.
+ *
+ * <p>Operations that are not returned by the list request (e.g. because the server does not support
+ * the filter) are polled individually with GetOperation.
+ */
+final class BatchedOperationPoller {
+  private static final Logger logger = Logger.getLogger(BatchedOperationPoller.class.getName());
+
+  /** The type of operation, which determines the list method that is used to poll it. */
+  enum OperationType {
+    BACKUP,
+    DATABASE
+  }
+
+  /** The RPCs that are used by the poller. */
+  interface OperationsClient {
+    Paginated<Operation> listOperations(
+        OperationType type, String instanceName, String filter, @Nullable String pageToken);
+
+    Operation getOperation(String name);
+  }
+
+  static final Duration DEFAULT_MIN_POLL_DELAY = Duration.ofSeconds(1L);
+  static final Duration DEFAULT_MAX_POLL_DELAY = Duration.ofSeconds(45L);
+
+  /** The maximum number of operation names in the filter of a single list request. */
+  @VisibleForTesting static final int MAX_OPERATIONS_PER_REQUEST = 50;
+
+  /** The number of consecutive failed polls after which an operation future is failed. */
+  @VisibleForTesting static final int MAX_CONSECUTIVE_FAILURES = 10;
+
+  private static final double BACKOFF_MULTIPLIER = 1.5d;
+
+  private final OperationsClient client;
+  private final ScheduledExecutorService executor;
+  private final Duration minPollDelay;
+  private final Duration maxPollDelay;
+
+  /** All operations that are being tracked, grouped by type and instance. */
+  private final Map<GroupKey, Map<String, TrackedOperation>> groups = new LinkedHashMap<>();
+
+  private ScheduledFuture<?> scheduledPoll;
+  private long scheduledPollNanos;
+  private boolean closed;
+
+  BatchedOperationPoller(OperationsClient client, ScheduledExecutorService executor) {
+    this(client, executor, DEFAULT_MIN_POLL_DELAY, DEFAULT_MAX_POLL_DELAY);
+  }
+
+  @VisibleForTesting
+  BatchedOperationPoller(
+      OperationsClient client,
+      ScheduledExecutorService executor,
+      Duration minPollDelay,
+      Duration maxPollDelay) {
+    Preconditions.checkArgument(minPollDelay.compareTo(maxPollDelay) <= 0);
+    this.client = client;
+    this.executor = executor;
+    this.minPollDelay = minPollDelay;
+    this.maxPollDelay = maxPollDelay;
+  }
+
+  /**
+   * Starts tracking the operation that is returned by the given initial future. The returned future
+   * is done when the operation is done, and can be used as the polling future of an {@link
+   * com.google.api.gax.longrunning.OperationFutureImpl}.
+   *
+   * @param progressFunction returns the progress of the operation from its metadata, or null if the
+   *     metadata does not contain any progress information
+   */
+  TrackedOperation track(
+      OperationType type,
+      String instanceName,
+      ApiFuture<Operation> initialOperation,
+      Function<Operation, OperationProgress> progressFunction) {
+    TrackedOperation operation =
+        new TrackedOperation(new GroupKey(type, instanceName), progressFunction);
+    operation.setInitialFuture(initialOperation);
+    return operation;
+  }
+
+  /** Stops polling. All operations that have not yet finished are cancelled. */
+  void shutdown() {
+    List<TrackedOperation> operations = new ArrayList<>();
+    synchronized (this) {
+      closed = true;
+      if (scheduledPoll != null) {
+        scheduledPoll.cancel(false);
+        scheduledPoll = null;
+      }
+      for (Map<String, TrackedOperation> group : groups.values()) {
+        operations.addAll(group.values());
+      }
+      groups.clear();
+    }
+    for (TrackedOperation operation : operations) {
+      operation.cancel(false);
+    }
+  }
+
+  @VisibleForTesting
+  synchronized int getNumTrackedOperations() {
+    int count = 0;
+    for (Map<String, TrackedOperation> group : groups.values()) {
+      count += group.size();
+    }
+    return count;
+  }
+
+  private void add(TrackedOperation operation) {
+    synchronized (this) {
+      if (!closed) {
+        groups
+            .computeIfAbsent(operation.groupKey, key -> new LinkedHashMap<>())
+            .put(operation.name, operation);
+        schedulePoll(operation.nextPollNanos);
+        return;
+      }
+    }
+    operation.setException(
+        SpannerExceptionFactory.newSpannerException(
+            ErrorCode.CANCELLED, "The operation poller has been closed"));
+  }
+
+  private synchronized void remove(TrackedOperation operation) {
+    Map<String, TrackedOperation> group = groups.get(operation.groupKey);
+    if (group != null && group.get(operation.name) == operation) {
+      group.remove(operation.name);
+      if (group.isEmpty()) {
+        groups.remove(operation.groupKey);
+      }
+    }
+  }
+
+  /** Schedules a poll at the given time, unless a poll has already been scheduled before that. */
+  private synchronized void schedulePoll(long pollNanos) {
+    if (closed) {
+      return;
+    }
+    if (scheduledPoll != null) {
+      if (scheduledPollNanos <= pollNanos) {
+        return;
+      }
+      if (!scheduledPoll.cancel(false)) {
+        // The poll is already running and will schedule the next poll when it finishes.
+        return;
+      }
+    }
+    scheduledPollNanos = pollNanos;
+    scheduledPoll =
+        executor.schedule(
+            this::poll, Math.max(0L, pollNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+  }
+
+  private void poll() {
+    List<List<TrackedOperation>> batches = new ArrayList<>();
+    long now = System.nanoTime();
+    synchronized (this) {
+      scheduledPoll = null;
+      for (Map<String, TrackedOperation> group : groups.values()) {
+        // All operations in a batch are polled with the same request, so a batch is polled as soon
+        // as one of its operations is due.
+        for (List<TrackedOperation> batch :
+            Iterables.partition(group.values(), MAX_OPERATIONS_PER_REQUEST)) {
+          for (TrackedOperation operation : batch) {
+            if (operation.nextPollNanos <= now) {
+              batches.add(new ArrayList<>(batch));
+              break;
+            }
+          }
+        }
+      }
+    }
+    try {
+      for (List<TrackedOperation> batch : batches) {
+        pollBatch(batch);
+      }
+    } catch (Throwable t) {
+      logger.log(Level.WARNING, "Polling long-running operations failed", t);
+    } finally {
+      long nextPollNanos = Long.MAX_VALUE;
+      synchronized (this) {
+        for (Map<String, TrackedOperation> group : groups.values()) {
+          for (TrackedOperation operation : group.values()) {
+            nextPollNanos = Math.min(nextPollNanos, operation.nextPollNanos);
+          }
+        }
+        if (nextPollNanos < Long.MAX_VALUE) {
+          schedulePoll(nextPollNanos);
+        }
+      }
+    }
+  }
+
+  private void pollBatch(List<TrackedOperation> batch) {
+    GroupKey groupKey = batch.get(0).groupKey;
+    Map<String, TrackedOperation> pending = new HashMap<>(batch.size());
+    for (TrackedOperation operation : batch) {
+      pending.put(operation.name, operation);
+    }
+    try {
+      String pageToken = null;
+      do {
+        Paginated<Operation> page =
+            client.listOperations(
+                groupKey.type, groupKey.instanceName, createFilter(batch), pageToken);
+        for (Operation operation : page.getResults()) {
+          TrackedOperation trackedOperation = pending.remove(operation.getName());
+          if (trackedOperation != null) {
+            trackedOperation.onPollResult(operation);
+          }
+        }
+        pageToken = page.getNextPageToken();
+      } while (pageToken != null && !pageToken.isEmpty() && !pending.isEmpty());
+    } catch (SpannerException exception) {
+      for (TrackedOperation operation : pending.values()) {
+        operation.onPollFailure(exception);
+      }
+      return;
+    }
+    // Fall back to polling operations that were not returned by the list request individually.
+    for (TrackedOperation operation : pending.values()) {
+      try {
+        operation.onPollResult(client.getOperation(operation.name));
+      } catch (SpannerException exception) {
+        operation.onPollFailure(exception);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  static String createFilter(List<TrackedOperation> operations) {
+    StringBuilder filter = new StringBuilder();
+    for (TrackedOperation operation : operations) {
+      if (filter.length() > 0) {
+        filter.append(" OR ");
+      }
+      filter.append("(name:").append(operation.name).append(')');
+    }
+    return filter.toString();
+  }
+
+  /**
+   * Returns the delay until the next poll of an operation. The delay is half of the estimated
+   * remaining time of the operation if the operation reports its progress, and otherwise an
+   * exponential backoff of the previous delay.
+   */
+  @VisibleForTesting
+  Duration calculatePollDelay(
+      @Nullable OperationProgress progress, Duration previousDelay, long nowMillis) {
+    Duration delay;
+    if (progress != null
+        && progress.getProgressPercent() > 0
+        && progress.getProgressPercent() < 100
+        && progress.hasStartTime()) {
+      Timestamp startTime = progress.getStartTime();
+      long elapsedMillis =
+          nowMillis - (startTime.getSeconds() * 1000L + startTime.getNanos() / 1_000_000);
+      long remainingMillis =
+          Math.max(0L, elapsedMillis)
+              * (100L - progress.getProgressPercent())
+              / progress.getProgressPercent();
+      delay = Duration.ofMillis(remainingMillis / 2L);
+    } else {
+      delay = Duration.ofMillis((long) (previousDelay.toMillis() * BACKOFF_MULTIPLIER));
+    }
+    if (delay.compareTo(minPollDelay) < 0) {
+      return minPollDelay;
+    }
+    return delay.compareTo(maxPollDelay) > 0 ? maxPollDelay : delay;
+  }
+
+  private static final class GroupKey {
+    private final OperationType type;
+    private final String instanceName;
+
+    private GroupKey(OperationType type, String instanceName) {
+      this.type = type;
+      this.instanceName = instanceName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof GroupKey)) {
+        return false;
+      }
+      GroupKey other = (GroupKey) o;
+      return type == other.type && instanceName.equals(other.instanceName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(type, instanceName);
+    }
+  }
+
+  /** An {@link OperationSnapshot} of a {@link Operation} that was returned by the poller. */
+  @VisibleForTesting
+  static final class OperationSnapshotImpl implements OperationSnapshot {
+    private final Operation operation;
+
+    static OperationSnapshot create(Operation operation) {
+      return new OperationSnapshotImpl(operation);
+    }
+
+    private OperationSnapshotImpl(Operation operation) {
+      this.operation = operation;
+    }
+
+    @Override
+    public String getName() {
+      return operation.getName();
+    }
+
+    @Override
+    public Object getMetadata() {
+      return operation.hasMetadata() ? operation.getMetadata() : null;
+    }
+
+    @Override
+    public boolean isDone() {
+      return operation.getDone();
+    }
+
+    @Override
+    public Object getResponse() {
+      return operation.hasResponse() ? operation.getResponse() : null;
+    }
+
+    @Override
+    public StatusCode getErrorCode() {
+      return GrpcStatusCode.of(Status.fromCodeValue(operation.getError().getCode()).getCode());
+    }
+
+    @Override
+    public String getErrorMessage() {
+      return operation.getError().getMessage();
+    }
+  }
+
+  /**
+   * An operation that is tracked by the poller. This is also the polling future of the operation.
+   */
+  final class TrackedOperation extends AbstractApiFuture<OperationSnapshot>
+      implements RetryingFuture<OperationSnapshot> {
+    private final GroupKey groupKey;
+    private final Function<Operation, OperationProgress> progressFunction;
+    private final SettableApiFuture<OperationSnapshot> initialFuture = SettableApiFuture.create();
+    private final long firstAttemptNanos = System.nanoTime();
+
+    private volatile String name;
+    private volatile ApiFuture<OperationSnapshot> attemptResult = initialFuture;
+    private SettableApiFuture<OperationSnapshot> nextAttemptResult = SettableApiFuture.create();
+    private volatile int attemptCount;
+    private volatile Duration pollDelay = minPollDelay;
+    private volatile long nextPollNanos;
+    private int consecutiveFailures;
+
+    private TrackedOperation(
+        GroupKey groupKey, Function<Operation, OperationProgress> progressFunction) {
+      this.groupKey = groupKey;
+      this.progressFunction = progressFunction;
+    }
+
+    /** Returns the snapshot of the operation that was returned by the initial request. */
+    ApiFuture<OperationSnapshot> getInitialFuture() {
+      return initialFuture;
+    }
+
+    private void setInitialFuture(ApiFuture<Operation> initialOperation) {
+      ApiFutures.addCallback(
+          initialOperation,
+          new ApiFutureCallback<Operation>() {
+            @Override
+            public void onFailure(Throwable t) {
+              initialFuture.setException(t);
+              setException(t);
+            }
+
+            @Override
+            public void onSuccess(Operation operation) {
+              name = operation.getName();
+              initialFuture.set(OperationSnapshotImpl.create(operation));
+              if (!onPollResult(operation) && !isDone()) {
+                add(TrackedOperation.this);
+              }
+            }
+          },
+          MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Updates the state of this operation with a polled operation. Returns true if the operation is
+     * done.
+     */
+    private boolean onPollResult(Operation operation) {
+      OperationSnapshot snapshot = OperationSnapshotImpl.create(operation);
+      attemptCount++;
+      consecutiveFailures = 0;
+      attemptResult = ApiFutures.immediateFuture(snapshot);
+      completeAttempt(snapshot, null);
+      if (operation.getDone()) {
+        remove(this);
+        set(snapshot);
+        return true;
+      }
+      OperationProgress progress = null;
+      try {
+        progress = progressFunction == null ? null : progressFunction.apply(operation);
+      } catch (RuntimeException ignore) {
+        // Ignore and fall back to a backoff without any progress information.
+      }
+      pollDelay = calculatePollDelay(progress, pollDelay, System.currentTimeMillis());
+      nextPollNanos = System.nanoTime() + pollDelay.toNanos();
+      return false;
+    }
+
+    private void onPollFailure(SpannerException exception) {
+      attemptCount++;
+      consecutiveFailures++;
+      if (exception.getErrorCode() == ErrorCode.NOT_FOUND
+          || consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+        remove(this);
+        completeAttempt(null, exception);
+        setException(exception);
+        return;
+      }
+      // Back off on all other errors, including RESOURCE_EXHAUSTED.
+      pollDelay = calculatePollDelay(null, pollDelay, System.currentTimeMillis());
+      nextPollNanos = System.nanoTime() + pollDelay.toNanos();
+    }
+
+    private void completeAttempt(
+        @Nullable OperationSnapshot snapshot, @Nullable Throwable exception) {
+      SettableApiFuture<OperationSnapshot> attempt;
+      synchronized (this) {
+        attempt = nextAttemptResult;
+        nextAttemptResult = SettableApiFuture.create();
+      }
+      if (exception == null) {
+        attempt.set(snapshot);
+      } else {
+        attempt.setException(exception);
+      }
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      if (super.cancel(mayInterruptIfRunning)) {
+        if (name != null) {
+          remove(this);
+        }
+        synchronized (this) {
+          nextAttemptResult.cancel(false);
+        }
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Operations are polled by the {@link BatchedOperationPoller} and not by a retrying executor,
+     * so attempt futures that are set from outside the poller are ignored. The result of each poll
+     * is returned by {@link #getAttemptResult()} and {@link #peekAttemptResult()}.
+     */
+    @Override
+    public void setAttemptFuture(ApiFuture<OperationSnapshot> attemptFuture) {}
+
+    @Override
+    public Callable<OperationSnapshot> getCallable() {
+      return () -> OperationSnapshotImpl.create(client.getOperation(name));
+    }
+
+    @Override
+    public TimedAttemptSettings getAttemptSettings() {
+      Duration delay = pollDelay;
+      return TimedAttemptSettings.newBuilder()
+          .setGlobalSettings(
+              RetrySettings.newBuilder()
+                  .setInitialRetryDelayDuration(minPollDelay)
+                  .setMaxRetryDelayDuration(maxPollDelay)
+                  .setRetryDelayMultiplier(BACKOFF_MULTIPLIER)
+                  .build())
+          .setRetryDelayDuration(delay)
+          .setRandomizedRetryDelayDuration(delay)
+          .setRpcTimeoutDuration(Duration.ZERO)
+          .setAttemptCount(attemptCount)
+          .setOverallAttemptCount(attemptCount)
+          .setFirstAttemptStartTimeNanos(firstAttemptNanos)
+          .build();
+    }
+
+    @Override
+    public ApiFuture<OperationSnapshot> peekAttemptResult() {
+      return attemptResult;
+    }
+
+    @Override
+    public ApiFuture<OperationSnapshot> getAttemptResult() {
+      if (isDone()) {
+        return this;
+      }
+      synchronized (this) {
+        return nextAttemptResult;
+      }
+    }
+
+    @Override
+    protected boolean set(OperationSnapshot value) {
+      return super.set(value);
+    }
+
+    @Override
+    protected boolean setException(Throwable throwable) {
+      return super.setException(throwable);
+    }
+  }
+}
@@ -21,6 +21,7 @@ import static com.google.cloud.spanner.ThreadFactoryUtil.tryCreateVirtualThreadP
 
 import com.google.api.core.ApiFunction;
 import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
 import com.google.api.core.InternalApi;
 import com.google.api.core.NanoClock;
 import com.google.api.gax.core.CredentialsProvider;
@@ -31,7 +32,9 @@ import com.google.api.gax.grpc.GrpcCallSettings;
 import com.google.api.gax.grpc.GrpcStubCallableFactory;
 import com.google.api.gax.grpc.GrpcTransportChannel;
 import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
+import com.google.api.gax.grpc.ProtoOperationTransformers;
 import com.google.api.gax.longrunning.OperationFuture;
+import com.google.api.gax.longrunning.OperationFutureImpl;
 import com.google.api.gax.retrying.ResultRetryAlgorithm;
 import com.google.api.gax.retrying.RetrySettings;
 import com.google.api.gax.retrying.TimedAttemptSettings;
@@ -133,6 +136,7 @@ import com.google.spanner.admin.database.v1.ListDatabaseRolesRequest;
 import com.google.spanner.admin.database.v1.ListDatabaseRolesResponse;
 import com.google.spanner.admin.database.v1.ListDatabasesRequest;
 import com.google.spanner.admin.database.v1.ListDatabasesResponse;
+import com.google.spanner.admin.database.v1.OperationProgress;
 import com.google.spanner.admin.database.v1.RestoreDatabaseMetadata;
 import com.google.spanner.admin.database.v1.RestoreDatabaseRequest;
 import com.google.spanner.admin.database.v1.UpdateBackupRequest;
@@ -265,6 +269,9 @@ public class GapicSpannerRpc implements SpannerRpc {
 
   private final ScheduledExecutorService spannerWatchdog;
 
+  private final ScheduledExecutorService operationPollerExecutor;
+  private final BatchedOperationPoller operationPoller;
+
   private final ConcurrentLinkedDeque<SpannerResponseObserver> responseObservers =
       new ConcurrentLinkedDeque<>();
 
@@ -542,6 +549,19 @@ public class GapicSpannerRpc implements SpannerRpc {
       } catch (Exception e) {
         throw newSpannerException(e);
       }
+      if (options.isEnableBatchedAdminOperationPolling()) {
+        this.operationPollerExecutor =
+            Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("Cloud-Spanner-OperationPoller-%d")
+                    .build());
+        this.operationPoller =
+            new BatchedOperationPoller(createOperationsClient(), operationPollerExecutor);
+      } else {
+        this.operationPollerExecutor = null;
+        this.operationPoller = null;
+      }
     } else {
       this.databaseAdminStub = null;
       this.instanceAdminStub = null;
@@ -556,6 +576,8 @@ public class GapicSpannerRpc implements SpannerRpc {
       this.databaseAdminStubSettings = null;
       this.instanceAdminStubSettings = null;
       this.spannerWatchdog = null;
+      this.operationPollerExecutor = null;
+      this.operationPoller = null;
       this.partitionedDmlRetrySettings = null;
     }
   }
@@ -760,7 +782,8 @@ public class GapicSpannerRpc implements SpannerRpc {
     }
   }
 
-  private final class OperationFutureCallable<RequestT, ResponseT, MetadataT extends Message>
+  private final class OperationFutureCallable<
+          RequestT, ResponseT extends Message, MetadataT extends Message>
       implements Callable<OperationFuture<ResponseT, MetadataT>> {
 
     final OperationCallable<RequestT, ResponseT, MetadataT> operationCallable;
@@ -769,6 +792,7 @@ public class GapicSpannerRpc implements SpannerRpc {
     final String instanceName;
     final OperationsLister lister;
     final Function<Operation, Timestamp> getStartTimeFunction;
+    final BatchedPollingSettings<RequestT, ResponseT, MetadataT> batchedPollingSettings;
     Timestamp initialCallTime;
     boolean isRetry = false;
 
@@ -778,13 +802,15 @@ public class GapicSpannerRpc implements SpannerRpc {
         MethodDescriptor<RequestT, Operation> method,
         String instanceName,
         OperationsLister lister,
-        Function<Operation, Timestamp> getStartTimeFunction) {
+        Function<Operation, Timestamp> getStartTimeFunction,
+        BatchedPollingSettings<RequestT, ResponseT, MetadataT> batchedPollingSettings) {
       this.operationCallable = operationCallable;
       this.initialRequest = initialRequest;
       this.method = method;
       this.instanceName = instanceName;
       this.lister = lister;
       this.getStartTimeFunction = getStartTimeFunction;
+      this.batchedPollingSettings = batchedPollingSettings;
     }
 
     @Override
@@ -793,16 +819,12 @@ public class GapicSpannerRpc implements SpannerRpc {
 
       return runWithRetryOnAdministrativeRequestsExceeded(
           () -> {
-            String operationName = null;
+            Operation operation = null;
             if (isRetry) {
               // Query the backend to see if the operation was actually created, and that the
               // problem was caused by a network problem or other transient problem client side.
-              Operation operation =
-                  mostRecentOperation(lister, getStartTimeFunction, initialCallTime);
-              if (operation != null) {
-                // Operation found, resume tracking that operation.
-                operationName = operation.getName();
-              }
+              // If the operation is found, resume tracking that operation.
+              operation = mostRecentOperation(lister, getStartTimeFunction, initialCallTime);
             } else {
               initialCallTime =
                   Timestamp.newBuilder()
@@ -813,16 +835,104 @@ public class GapicSpannerRpc implements SpannerRpc {
             }
             isRetry = true;
 
-            if (operationName == null) {
+            if (operationPoller != null) {
+              ApiFuture<Operation> initialOperation;
+              if (operation == null) {
+                GrpcCallContext context =
+                    newCallContext(null, instanceName, initialRequest, method);
+                initialOperation =
+                    batchedPollingSettings.initialCallable.futureCall(initialRequest, context);
+              } else {
+                initialOperation = ApiFutures.immediateFuture(operation);
+              }
+              return batchedPollingSettings.createOperationFuture(
+                  operationPoller, instanceName, initialOperation);
+            }
+            if (operation == null) {
               GrpcCallContext context = newCallContext(null, instanceName, initialRequest, method);
               return operationCallable.futureCall(initialRequest, context);
             } else {
-              return operationCallable.resumeFutureCall(operationName);
+              return operationCallable.resumeFutureCall(operation.getName());
             }
           });
     }
   }
 
+  /**
+   * The settings that are needed to track a long-running operation with the {@link
+   * BatchedOperationPoller} instead of the polling callable of the operation.
+   */
+  private static final class BatchedPollingSettings<
+      RequestT, ResponseT extends Message, MetadataT extends Message> {
+    final UnaryCallable<RequestT, Operation> initialCallable;
+    final BatchedOperationPoller.OperationType operationType;
+    final Class<ResponseT> responseClass;
+    final Class<MetadataT> metadataClass;
+    @Nullable final ApiFunction<MetadataT, OperationProgress> progressFunction;
+
+    BatchedPollingSettings(
+        UnaryCallable<RequestT, Operation> initialCallable,
+        BatchedOperationPoller.OperationType operationType,
+        Class<ResponseT> responseClass,
+        Class<MetadataT> metadataClass,
+        @Nullable ApiFunction<MetadataT, OperationProgress> progressFunction) {
+      this.initialCallable = initialCallable;
+      this.operationType = operationType;
+      this.responseClass = responseClass;
+      this.metadataClass = metadataClass;
+      this.progressFunction = progressFunction;
+    }
+
+    OperationFuture<ResponseT, MetadataT> createOperationFuture(
+        BatchedOperationPoller poller, String instanceName, ApiFuture<Operation> initialOperation) {
+      BatchedOperationPoller.TrackedOperation pollingFuture =
+          poller.track(
+              operationType,
+              instanceName,
+              initialOperation,
+              operation -> {
+                if (progressFunction == null) {
+                  return null;
+                }
+                try {
+                  return progressFunction.apply(operation.getMetadata().unpack(metadataClass));
+                } catch (InvalidProtocolBufferException e) {
+                  return null;
+                }
+              });
+      return new OperationFutureImpl<>(
+          pollingFuture,
+          pollingFuture.getInitialFuture(),
+          ProtoOperationTransformers.ResponseTransformer.create(responseClass),
+          ProtoOperationTransformers.MetadataTransformer.create(metadataClass));
+    }
+  }
+
+  private BatchedOperationPoller.OperationsClient createOperationsClient() {
+    return new BatchedOperationPoller.OperationsClient() {
+      @Override
+      public Paginated<Operation> listOperations(
+          BatchedOperationPoller.OperationType type,
+          String instanceName,
+          String filter,
+          @Nullable String pageToken) {
+        switch (type) {
+          case BACKUP:
+            return listBackupOperations(instanceName, 0, filter, pageToken);
+          case DATABASE:
+            return listDatabaseOperations(instanceName, 0, filter, pageToken);
+          default:
+            throw new IllegalArgumentException("Unknown operation type: " + type);
+        }
+      }
+
+      @Override
+      public Operation getOperation(String name) {
+        return GapicSpannerRpc.this.getOperation(name);
+      }
+    };
+  }
+
   private interface OperationsLister {
 
     Paginated<Operation> listOperations(String nextPageToken);
@@ -1249,7 +1359,13 @@ public class GapicSpannerRpc implements SpannerRpc {
                 }
               }
               return null;
-            });
+            },
+            new BatchedPollingSettings<>(
+                databaseAdminStub.createDatabaseCallable(),
+                BatchedOperationPoller.OperationType.DATABASE,
+                Database.class,
+                CreateDatabaseMetadata.class,
+                /* progressFunction = */ null));
     return RetryHelper.runWithRetries(
         callable,
         databaseAdminStubSettings
@@ -1424,7 +1540,13 @@ public class GapicSpannerRpc implements SpannerRpc {
               } catch (InvalidProtocolBufferException e) {
                 return null;
               }
-            });
+            },
+            new BatchedPollingSettings<>(
+                databaseAdminStub.createBackupCallable(),
+                BatchedOperationPoller.OperationType.BACKUP,
+                Backup.class,
+                CreateBackupMetadata.class,
+                CreateBackupMetadata::getProgress));
     return RetryHelper.runWithRetries(
         callable,
         databaseAdminStubSettings
@@ -1483,7 +1605,13 @@ public class GapicSpannerRpc implements SpannerRpc {
               } catch (InvalidProtocolBufferException e) {
                 return null;
               }
-            });
+            },
+            new BatchedPollingSettings<>(
+                databaseAdminStub.copyBackupCallable(),
+                BatchedOperationPoller.OperationType.BACKUP,
+                Backup.class,
+                CopyBackupMetadata.class,
+                CopyBackupMetadata::getProgress));
     return RetryHelper.runWithRetries(
         callable,
         databaseAdminStubSettings
@@ -1535,7 +1663,13 @@ public class GapicSpannerRpc implements SpannerRpc {
                   } catch (InvalidProtocolBufferException e) {
                     return null;
                   }
-                });
+                },
+                new BatchedPollingSettings<>(
+                    databaseAdminStub.restoreDatabaseCallable(),
+                    BatchedOperationPoller.OperationType.DATABASE,
+                    Database.class,
+                    RestoreDatabaseMetadata.class,
+                    RestoreDatabaseMetadata::getProgress));
     return RetryHelper.runWithRetries(
         callable,
         databaseAdminStubSettings
@@ -2078,6 +2212,10 @@ public class GapicSpannerRpc implements SpannerRpc {
       this.instanceAdminStub.close();
       this.databaseAdminStub.close();
       this.spannerWatchdog.shutdown();
+      if (this.operationPoller != null) {
+        this.operationPoller.shutdown();
+        this.operationPollerExecutor.shutdown();
+      }
 
       try {
         this.spannerStub.awaitTermination(10L, TimeUnit.SECONDS);
@@ -2105,6 +2243,10 @@ public class GapicSpannerRpc implements SpannerRpc {
     this.instanceAdminStub.shutdownNow();
     this.databaseAdminStub.shutdownNow();
     this.spannerWatchdog.shutdownNow();
+    if (this.operationPoller != null) {
+      this.operationPoller.shutdown();
+      this.operationPollerExecutor.shutdownNow();
+    }
   }
 
   @Override
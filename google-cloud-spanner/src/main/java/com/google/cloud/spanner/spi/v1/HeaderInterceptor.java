@@ -54,13 +54,16 @@ import io.opentelemetry.api.trace.Span;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.annotation.Nullable;
 
 /**
  * Intercepts all gRPC calls to extract server-timing header. Captures GFE Latency and GFE Header
@@ -79,12 +82,10 @@ class HeaderInterceptor implements ClientInterceptor {
           ".*projects/(?<project>\\p{ASCII}[^/]*)(/instances/(?<instance>\\p{ASCII}[^/]*))?(/databases/(?<database>\\p{ASCII}[^/]*))?");
   private final Cache<String, DatabaseName> databaseNameCache =
       CacheBuilder.newBuilder().maximumSize(100).build();
-  private final Cache<String, TagContext> tagsCache =
-      CacheBuilder.newBuilder().maximumSize(1000).build();
-  private final Cache<String, Attributes> attributesCache =
-      CacheBuilder.newBuilder().maximumSize(1000).build();
-  private final Cache<String, Map<String, String>> builtInAttributesCache =
-      CacheBuilder.newBuilder().maximumSize(1000).build();
+  // The metric attributes for each combination of method and database. The attributes are cached
+  // per method and then per resource prefix header, so that a lookup does not allocate a key.
+  private final ConcurrentHashMap<String, Cache<String, CallAttributes>> callAttributesCache =
+      new ConcurrentHashMap<>();
 
   // Get the global singleton Tagger object.
   private static final Tagger TAGGER = Tags.getTagger();
@@ -96,6 +97,34 @@ class HeaderInterceptor implements ClientInterceptor {
 
   private final Supplier<Boolean> directPathEnabledSupplier;
 
+  /** The precomputed metric attributes for one combination of method and database. */
+  private static final class CallAttributes {
+    private final TagContext tagContext;
+    private final Attributes attributes;
+    private final Map<String, String> builtInMetricsAttributesWithDirectPath;
+    private final Map<String, String> builtInMetricsAttributesWithoutDirectPath;
+
+    private CallAttributes(
+        TagContext tagContext,
+        Attributes attributes,
+        Map<String, String> builtInMetricsAttributes) {
+      this.tagContext = tagContext;
+      this.attributes = attributes;
+      this.builtInMetricsAttributesWithDirectPath =
+          createBuiltInMetricAttributes(builtInMetricsAttributes, true);
+      this.builtInMetricsAttributesWithoutDirectPath =
+          createBuiltInMetricAttributes(builtInMetricsAttributes, false);
+    }
+
+    private static Map<String, String> createBuiltInMetricAttributes(
+        Map<String, String> builtInMetricsAttributes, boolean isDirectPathUsed) {
+      Map<String, String> attributes = new HashMap<>(builtInMetricsAttributes);
+      attributes.put(
+          BuiltInMetricsConstant.DIRECT_PATH_USED_KEY.getKey(), Boolean.toString(isDirectPathUsed));
+      return Collections.unmodifiableMap(attributes);
+    }
+  }
+
   HeaderInterceptor(
       SpannerRpcMetrics spannerRpcMetrics, Supplier<Boolean> directPathEnabledSupplier) {
     this.spannerRpcMetrics = spannerRpcMetrics;
@@ -113,22 +142,16 @@ class HeaderInterceptor implements ClientInterceptor {
       public void start(Listener<RespT> responseListener, Metadata headers) {
         try {
           Span span = Span.current();
-          DatabaseName databaseName = extractDatabaseName(headers);
-          String key = databaseName + method.getFullMethodName();
-          TagContext tagContext = getTagContext(key, method.getFullMethodName(), databaseName);
-          Attributes attributes =
-              getMetricAttributes(key, method.getFullMethodName(), databaseName);
-          Map<String, String> builtInMetricsAttributes =
-              getBuiltInMetricAttributes(key, databaseName);
+          CallAttributes callAttributes = getCallAttributes(method.getFullMethodName(), headers);
           super.start(
               new SimpleForwardingClientCallListener<RespT>(responseListener) {
                 @Override
                 public void onHeaders(Metadata metadata) {
                   Boolean isDirectPathUsed =
                       isDirectPathUsed(getAttributes().get(Grpc.TRANSPORT_ATTR_REMOTE_ADDR));
-                  addBuiltInMetricAttributes(
-                      compositeTracer, builtInMetricsAttributes, isDirectPathUsed);
-                  processHeader(metadata, tagContext, attributes, span);
+                  addBuiltInMetricAttributes(compositeTracer, callAttributes, isDirectPathUsed);
+                  processHeader(
+                      metadata, callAttributes.tagContext, callAttributes.attributes, span);
                   super.onHeaders(metadata);
                 }
               },
@@ -167,8 +190,28 @@ class HeaderInterceptor implements ClientInterceptor {
     }
   }
 
-  private DatabaseName extractDatabaseName(Metadata headers) throws ExecutionException {
+  private CallAttributes getCallAttributes(String method, Metadata headers)
+      throws ExecutionException {
     String googleResourcePrefix = headers.get(GOOGLE_CLOUD_RESOURCE_PREFIX_KEY);
+    Cache<String, CallAttributes> cache =
+        callAttributesCache.computeIfAbsent(
+            method, ignore -> CacheBuilder.newBuilder().maximumSize(100).build());
+    String key = googleResourcePrefix == null ? "" : googleResourcePrefix;
+    CallAttributes callAttributes = cache.getIfPresent(key);
+    if (callAttributes == null) {
+      DatabaseName databaseName = extractDatabaseName(googleResourcePrefix);
+      callAttributes =
+          new CallAttributes(
+              createTagContext(method, databaseName),
+              createMetricAttributes(method, databaseName),
+              createBuiltInMetricAttributes(databaseName));
+      cache.put(key, callAttributes);
+    }
+    return callAttributes;
+  }
+
+  private DatabaseName extractDatabaseName(@Nullable String googleResourcePrefix)
+      throws ExecutionException {
     if (googleResourcePrefix != null) {
       return databaseNameCache.get(
           googleResourcePrefix,
@@ -195,62 +238,44 @@ class HeaderInterceptor implements ClientInterceptor {
     return UNDEFINED_DATABASE_NAME;
   }
 
-  private TagContext getTagContext(String key, String method, DatabaseName databaseName)
-      throws ExecutionException {
-    return tagsCache.get(
-        key,
-        () ->
-            TAGGER
-                .currentBuilder()
-                .putLocal(PROJECT_ID, TagValue.create(databaseName.getProject()))
-                .putLocal(INSTANCE_ID, TagValue.create(databaseName.getInstance()))
-                .putLocal(DATABASE_ID, TagValue.create(databaseName.getDatabase()))
-                .putLocal(METHOD, TagValue.create(method))
-                .build());
+  private static TagContext createTagContext(String method, DatabaseName databaseName) {
+    return TAGGER
+        .currentBuilder()
+        .putLocal(PROJECT_ID, TagValue.create(databaseName.getProject()))
+        .putLocal(INSTANCE_ID, TagValue.create(databaseName.getInstance()))
+        .putLocal(DATABASE_ID, TagValue.create(databaseName.getDatabase()))
+        .putLocal(METHOD, TagValue.create(method))
+        .build();
   }
 
-  private Attributes getMetricAttributes(String key, String method, DatabaseName databaseName)
-      throws ExecutionException {
-    return attributesCache.get(
-        key,
-        () -> {
-          AttributesBuilder attributesBuilder = Attributes.builder();
-          attributesBuilder.put("database", databaseName.getDatabase());
-          attributesBuilder.put("instance_id", databaseName.getInstance());
-          attributesBuilder.put("project_id", databaseName.getProject());
-          attributesBuilder.put("method", method);
+  private static Attributes createMetricAttributes(String method, DatabaseName databaseName) {
+    AttributesBuilder attributesBuilder = Attributes.builder();
+    attributesBuilder.put("database", databaseName.getDatabase());
+    attributesBuilder.put("instance_id", databaseName.getInstance());
+    attributesBuilder.put("project_id", databaseName.getProject());
+    attributesBuilder.put("method", method);
 
-          return attributesBuilder.build();
-        });
+    return attributesBuilder.build();
   }
 
-  private Map<String, String> getBuiltInMetricAttributes(String key, DatabaseName databaseName)
-      throws ExecutionException {
-    return builtInAttributesCache.get(
-        key,
-        () -> {
-          Map<String, String> attributes = new HashMap<>();
-          attributes.put(BuiltInMetricsConstant.DATABASE_KEY.getKey(), databaseName.getDatabase());
-          attributes.put(
-              BuiltInMetricsConstant.INSTANCE_ID_KEY.getKey(), databaseName.getInstance());
-          attributes.put(
-              BuiltInMetricsConstant.DIRECT_PATH_ENABLED_KEY.getKey(),
-              String.valueOf(this.directPathEnabledSupplier.get()));
-          return attributes;
-        });
+  private Map<String, String> createBuiltInMetricAttributes(DatabaseName databaseName) {
+    Map<String, String> attributes = new HashMap<>();
+    attributes.put(BuiltInMetricsConstant.DATABASE_KEY.getKey(), databaseName.getDatabase());
+    attributes.put(BuiltInMetricsConstant.INSTANCE_ID_KEY.getKey(), databaseName.getInstance());
+    attributes.put(
+        BuiltInMetricsConstant.DIRECT_PATH_ENABLED_KEY.getKey(),
+        String.valueOf(this.directPathEnabledSupplier.get()));
+    return attributes;
   }
 
   private void addBuiltInMetricAttributes(
-      CompositeTracer compositeTracer,
-      Map<String, String> builtInMetricsAttributes,
-      Boolean isDirectPathUsed) {
+      CompositeTracer compositeTracer, CallAttributes callAttributes, boolean isDirectPathUsed) {
     if (compositeTracer != null) {
       // Direct Path used attribute
-      Map<String, String> attributes = new HashMap<>(builtInMetricsAttributes);
-      attributes.put(
-          BuiltInMetricsConstant.DIRECT_PATH_USED_KEY.getKey(), Boolean.toString(isDirectPathUsed));
-
-      compositeTracer.addAttributes(attributes);
+      compositeTracer.addAttributes(
+          isDirectPathUsed
+              ? callAttributes.builtInMetricsAttributesWithDirectPath
+              : callAttributes.builtInMetricsAttributesWithoutDirectPath);
     }
   }
 
@@ -0,0 +1,559 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.testing;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.spanner.testing.SpannerTrafficRecording.Exchange;
+import com.google.cloud.spanner.testing.SpannerTrafficRecording.Response;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.rpc.RetryInfo;
+import com.google.spanner.v1.PartialResultSet;
+import com.google.spanner.v1.SpannerGrpc;
+import com.google.spanner.v1.TransactionSelector;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.Marshaller;
+import io.grpc.MethodDescriptor.PrototypeMarshaller;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerMethodDefinition;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local server that implements the Spanner data API by replaying a {@link
+ * SpannerTrafficRecording}. The server can be used to run a recorded workload against a client
+ * without a connection to Cloud Spanner, for example to load test changes to the client or to an
+ * application at production-like scale.
+ *
+ * <p>Each incoming request is matched with the recorded requests for the same method. The session
+ * name, transaction id, sequence number, resume token and precommit token are ignored when matching
+ * requests, as these can differ between runs. If multiple recorded requests match, then the
+ * recorded responses are returned in round-robin order. Requests that do not match any recorded
+ * request fail with {@link Status.Code#UNIMPLEMENTED}.
+ *
+ * <p>The recorded timings can be replayed as-is or scaled, and the server can be configured to
+ * return query results in smaller chunks, to randomly abort transactions and to limit the number of
+ * requests per second.
+ *
+ * <p>The server can also be started from the command line:
+ *
+ * <pre>{@code
+ * java com.google.cloud.spanner.testing.SpannerReplayServer <recording-file> [port]
+ * }</pre>
+ */
+@BetaApi
+public final class SpannerReplayServer implements AutoCloseable {
+  /** Fields that are ignored when a request is matched with the recorded requests. */
+  private static final ImmutableList<String> IGNORED_FIELDS =
+      ImmutableList.of("session", "transaction_id", "seqno", "resume_token", "precommit_token");
+
+  private static final Marshaller<ByteString> BYTE_STRING_MARSHALLER =
+      new Marshaller<ByteString>() {
+        @Override
+        public InputStream stream(ByteString value) {
+          return value.newInput();
+        }
+
+        @Override
+        public ByteString parse(InputStream stream) {
+          try {
+            return ByteString.readFrom(stream);
+          } catch (IOException e) {
+            throw Status.INTERNAL.withCause(e).asRuntimeException();
+          }
+        }
+      };
+
+  /** Builder for a {@link SpannerReplayServer}. */
+  public static final class Builder {
+    private final SpannerTrafficRecording recording;
+    private int port;
+    private boolean replayTimings = true;
+    private double latencyMultiplier = 1.0d;
+    private Duration additionalLatency = Duration.ZERO;
+    private int maxValuesPerPartialResultSet;
+    private double abortProbability;
+    private double maxRequestsPerSecond;
+    private long randomSeed = System.nanoTime();
+    private int numThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private Builder(SpannerTrafficRecording recording) {
+      this.recording = Preconditions.checkNotNull(recording);
+    }
+
+    /** Sets the port that the server listens on. The default (0) selects a free port. */
+    public Builder setPort(int port) {
+      Preconditions.checkArgument(port >= 0, "port must be >= 0");
+      this.port = port;
+      return this;
+    }
+
+    /**
+     * Sets whether the server should wait the recorded time between the request and each response.
+     * If false, all responses are returned as fast as possible. The default is true.
+     */
+    public Builder setReplayTimings(boolean replayTimings) {
+      this.replayTimings = replayTimings;
+      return this;
+    }
+
+    /** Sets the factor that the recorded timings are multiplied with. The default is 1.0. */
+    public Builder setLatencyMultiplier(double latencyMultiplier) {
+      Preconditions.checkArgument(latencyMultiplier >= 0d, "latencyMultiplier must be >= 0");
+      this.latencyMultiplier = latencyMultiplier;
+      return this;
+    }
+
+    /** Sets a fixed latency that is added before the first response of each request. */
+    public Builder setAdditionalLatency(Duration additionalLatency) {
+      Preconditions.checkArgument(
+          !Preconditions.checkNotNull(additionalLatency).isNegative(),
+          "additionalLatency must not be negative");
+      this.additionalLatency = additionalLatency;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of values in each {@link PartialResultSet} that is returned for a
+     * query or read. Recorded results with more values are split into multiple responses. The
+     * default (0) returns the results as they were recorded.
+     */
+    public Builder setMaxValuesPerPartialResultSet(int maxValuesPerPartialResultSet) {
+      Preconditions.checkArgument(
+          maxValuesPerPartialResultSet >= 0, "maxValuesPerPartialResultSet must be >= 0");
+      this.maxValuesPerPartialResultSet = maxValuesPerPartialResultSet;
+      return this;
+    }
+
+    /**
+     * Sets the probability that a Commit request is aborted instead of replayed. This can be used
+     * to test the retry behavior of read/write transactions. The default is 0.
+     */
+    public Builder setAbortProbability(double abortProbability) {
+      Preconditions.checkArgument(
+          abortProbability >= 0d && abortProbability <= 1d,
+          "abortProbability must be between 0 and 1");
+      this.abortProbability = abortProbability;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of requests per second that the server handles. Requests that exceed
+     * this rate are delayed. The default (0) does not limit the number of requests.
+     */
+    public Builder setMaxRequestsPerSecond(double maxRequestsPerSecond) {
+      Preconditions.checkArgument(maxRequestsPerSecond >= 0d, "maxRequestsPerSecond must be >= 0");
+      this.maxRequestsPerSecond = maxRequestsPerSecond;
+      return this;
+    }
+
+    /** Sets the seed for the random aborts, so the aborted requests are the same in each run. */
+    public Builder setRandomSeed(long randomSeed) {
+      this.randomSeed = randomSeed;
+      return this;
+    }
+
+    /** Sets the number of threads that are used to send delayed responses. */
+    public Builder setNumThreads(int numThreads) {
+      Preconditions.checkArgument(numThreads > 0, "numThreads must be > 0");
+      this.numThreads = numThreads;
+      return this;
+    }
+
+    public SpannerReplayServer build() {
+      return new SpannerReplayServer(this);
+    }
+  }
+
+  /** The recorded exchanges for one request. */
+  private static final class RecordedExchanges {
+    private final List<Exchange> exchanges = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    Exchange next() {
+      return exchanges.get(Math.floorMod(next.getAndIncrement(), exchanges.size()));
+    }
+  }
+
+  public static Builder newBuilder(SpannerTrafficRecording recording) {
+    return new Builder(recording);
+  }
+
+  private final ImmutableMap<String, Map<Message, RecordedExchanges>> exchanges;
+  private final ImmutableMap<String, Message> requestPrototypes;
+  private final int port;
+  private final boolean replayTimings;
+  private final double latencyMultiplier;
+  private final long additionalLatencyNanos;
+  private final int maxValuesPerPartialResultSet;
+  private final double abortProbability;
+  private final long requestIntervalNanos;
+  private final Random random;
+  private final ScheduledExecutorService executor;
+  private final AtomicLong nextRequestNanos = new AtomicLong();
+  private final AtomicLong numUnmatchedRequests = new AtomicLong();
+  private Server server;
+
+  private SpannerReplayServer(Builder builder) {
+    this.port = builder.port;
+    this.replayTimings = builder.replayTimings;
+    this.latencyMultiplier = builder.latencyMultiplier;
+    this.additionalLatencyNanos = builder.additionalLatency.toNanos();
+    this.maxValuesPerPartialResultSet = builder.maxValuesPerPartialResultSet;
+    this.abortProbability = builder.abortProbability;
+    this.requestIntervalNanos =
+        builder.maxRequestsPerSecond == 0d
+            ? 0L
+            : (long) (TimeUnit.SECONDS.toNanos(1L) / builder.maxRequestsPerSecond);
+    this.random = new Random(builder.randomSeed);
+    this.executor =
+        Executors.newScheduledThreadPool(
+            builder.numThreads,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("spanner-replay-server-%d")
+                .build());
+
+    ImmutableMap.Builder<String, Message> prototypes = ImmutableMap.builder();
+    for (MethodDescriptor<?, ?> method : getSpannerMethods()) {
+      prototypes.put(
+          method.getFullMethodName(),
+          (Message) ((PrototypeMarshaller<?>) method.getRequestMarshaller()).getMessagePrototype());
+    }
+    this.requestPrototypes = prototypes.build();
+
+    Map<String, Map<Message, RecordedExchanges>> exchanges = new HashMap<>();
+    for (Exchange exchange : builder.recording.getExchanges()) {
+      Message request = parseRequest(exchange.getFullMethodName(), exchange.getRequest());
+      if (request != null) {
+        exchanges
+            .computeIfAbsent(exchange.getFullMethodName(), ignore -> new HashMap<>())
+            .computeIfAbsent(normalize(request), ignore -> new RecordedExchanges())
+            .exchanges
+            .add(exchange);
+      }
+    }
+    this.exchanges = ImmutableMap.copyOf(exchanges);
+  }
+
+  private static List<MethodDescriptor<?, ?>> getSpannerMethods() {
+    List<MethodDescriptor<?, ?>> methods = new ArrayList<>();
+    for (MethodDescriptor<?, ?> method : SpannerGrpc.getServiceDescriptor().getMethods()) {
+      methods.add(method);
+    }
+    return methods;
+  }
+
+  /**
+   * Starts the server on the configured port. Use {@link #getServiceDefinition()} instead to add
+   * the replay service to a server that is created by the application, for example an in-process
+   * server.
+   */
+  public synchronized SpannerReplayServer start() throws IOException {
+    Preconditions.checkState(server == null, "The server has already been started");
+    server = ServerBuilder.forPort(port).addService(getServiceDefinition()).build().start();
+    return this;
+  }
+
+  /** Returns the port that the server is listening on. */
+  public synchronized int getPort() {
+    Preconditions.checkState(server != null, "The server has not been started");
+    return server.getPort();
+  }
+
+  /** Returns the number of requests that did not match any recorded request. */
+  public long getNumUnmatchedRequests() {
+    return numUnmatchedRequests.get();
+  }
+
+  /** Returns a service definition for the Spanner data API that replays the recording. */
+  public ServerServiceDefinition getServiceDefinition() {
+    ServerServiceDefinition.Builder builder =
+        ServerServiceDefinition.builder(SpannerGrpc.SERVICE_NAME);
+    for (MethodDescriptor<?, ?> method : getSpannerMethods()) {
+      MethodDescriptor<ByteString, ByteString> bytesMethod =
+          method.toBuilder(BYTE_STRING_MARSHALLER, BYTE_STRING_MARSHALLER).build();
+      ServerCalls.UnaryMethod<ByteString, ByteString> handler =
+          (request, responseObserver) -> replay(method, request, responseObserver);
+      builder.addMethod(
+          ServerMethodDefinition.create(
+              bytesMethod,
+              method.getType() == MethodDescriptor.MethodType.SERVER_STREAMING
+                  ? ServerCalls.asyncServerStreamingCall(handler::invoke)
+                  : ServerCalls.asyncUnaryCall(handler)));
+    }
+    return builder.build();
+  }
+
+  private void replay(
+      MethodDescriptor<?, ?> method, ByteString request, StreamObserver<ByteString> observer) {
+    Message parsed = parseRequest(method.getFullMethodName(), request);
+    RecordedExchanges recorded =
+        parsed == null
+            ? null
+            : exchanges
+                .getOrDefault(method.getFullMethodName(), ImmutableMap.of())
+                .get(normalize(parsed));
+    if (recorded == null) {
+      numUnmatchedRequests.incrementAndGet();
+      observer.onError(
+          Status.UNIMPLEMENTED
+              .withDescription("No recorded response for " + method.getFullMethodName())
+              .asRuntimeException());
+      return;
+    }
+    long delayNanos = reserveRequestSlot() + additionalLatencyNanos;
+    if (method.getFullMethodName().equals(SpannerGrpc.getCommitMethod().getFullMethodName())
+        && abortProbability > 0d
+        && nextRandomDouble() < abortProbability) {
+      schedule(() -> observer.onError(createAbortedException()), delayNanos);
+      return;
+    }
+    Exchange exchange = recorded.next();
+    List<Response> responses = exchange.getResponses();
+    if (maxValuesPerPartialResultSet > 0
+        && method.getResponseMarshaller() instanceof PrototypeMarshaller
+        && ((PrototypeMarshaller<?>) method.getResponseMarshaller()).getMessagePrototype()
+            instanceof PartialResultSet) {
+      responses = rechunk(responses, maxValuesPerPartialResultSet);
+    }
+    sendResponses(exchange, responses, 0, delayNanos, observer);
+  }
+
+  private void sendResponses(
+      Exchange exchange,
+      List<Response> responses,
+      int index,
+      long delayNanos,
+      StreamObserver<ByteString> observer) {
+    if (index == responses.size()) {
+      schedule(
+          () -> {
+            if (exchange.getStatusCode() == Status.Code.OK) {
+              observer.onCompleted();
+            } else if (exchange.getStatusCode() == Status.Code.ABORTED) {
+              observer.onError(createAbortedException());
+            } else {
+              observer.onError(
+                  Status.fromCode(exchange.getStatusCode())
+                      .withDescription(exchange.getStatusDescription())
+                      .asRuntimeException());
+            }
+          },
+          delayNanos + scaleDelay(exchange.getCloseDelayNanos()));
+      return;
+    }
+    Response response = responses.get(index);
+    schedule(
+        () -> {
+          try {
+            observer.onNext(response.getMessage());
+          } catch (RuntimeException e) {
+            // The call has been cancelled by the client.
+            return;
+          }
+          sendResponses(exchange, responses, index + 1, 0L, observer);
+        },
+        delayNanos + scaleDelay(response.getDelayNanos()));
+  }
+
+  private void schedule(Runnable runnable, long delayNanos) {
+    if (delayNanos <= 0L) {
+      executor.execute(runnable);
+    } else {
+      executor.schedule(runnable, delayNanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private long scaleDelay(long recordedDelayNanos) {
+    return replayTimings ? (long) (recordedDelayNanos * latencyMultiplier) : 0L;
+  }
+
+  /**
+   * Reserves a slot for a request and returns the time in nanoseconds that the request must wait
+   * for that slot.
+   */
+  private long reserveRequestSlot() {
+    if (requestIntervalNanos == 0L) {
+      return 0L;
+    }
+    long now = System.nanoTime();
+    long slot =
+        nextRequestNanos.getAndAccumulate(
+            now, (next, current) -> Math.max(next, current) + requestIntervalNanos);
+    return Math.max(0L, slot - now);
+  }
+
+  private double nextRandomDouble() {
+    synchronized (random) {
+      return random.nextDouble();
+    }
+  }
+
+  private Message parseRequest(String fullMethodName, ByteString request) {
+    Message prototype = requestPrototypes.get(fullMethodName);
+    if (prototype == null) {
+      return null;
+    }
+    try {
+      return prototype.getParserForType().parseFrom(request);
+    } catch (InvalidProtocolBufferException e) {
+      return null;
+    }
+  }
+
+  /** Removes all values from the request that are not the same in each run of a workload. */
+  @VisibleForTesting
+  static Message normalize(Message request) {
+    Message.Builder builder = request.toBuilder();
+    for (String name : IGNORED_FIELDS) {
+      FieldDescriptor field = builder.getDescriptorForType().findFieldByName(name);
+      if (field != null) {
+        builder.clearField(field);
+      }
+    }
+    // Keep the type of transaction selector, as a request that begins a transaction should return
+    // a response that includes a transaction.
+    FieldDescriptor transaction = builder.getDescriptorForType().findFieldByName("transaction");
+    if (transaction != null && builder.hasField(transaction)) {
+      Object selector = builder.getField(transaction);
+      if (selector instanceof TransactionSelector && ((TransactionSelector) selector).hasId()) {
+        builder.setField(
+            transaction, TransactionSelector.newBuilder().setId(ByteString.EMPTY).build());
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Splits all {@link PartialResultSet}s with more than the given number of values into multiple
+   * responses. The metadata is only included in the first response, and the resume token and the
+   * statistics only in the last.
+   */
+  @VisibleForTesting
+  static List<Response> rechunk(List<Response> responses, int maxValues) {
+    List<Response> result = new ArrayList<>(responses.size());
+    for (Response response : responses) {
+      PartialResultSet resultSet;
+      try {
+        resultSet = PartialResultSet.parseFrom(response.getMessage());
+      } catch (InvalidProtocolBufferException e) {
+        result.add(response);
+        continue;
+      }
+      if (resultSet.getValuesCount() <= maxValues) {
+        result.add(response);
+        continue;
+      }
+      long delayNanos = response.getDelayNanos();
+      int start = 0;
+      while (resultSet.getValuesCount() - start > maxValues) {
+        PartialResultSet.Builder builder = PartialResultSet.newBuilder();
+        if (start == 0 && resultSet.hasMetadata()) {
+          builder.setMetadata(resultSet.getMetadata());
+        }
+        builder.addAllValues(resultSet.getValuesList().subList(start, start + maxValues));
+        result.add(new Response(delayNanos, builder.build().toByteString()));
+        delayNanos = 0L;
+        start += maxValues;
+      }
+      result.add(
+          new Response(
+              0L,
+              resultSet
+                  .toBuilder()
+                  .clearMetadata()
+                  .clearValues()
+                  .addAllValues(
+                      resultSet.getValuesList().subList(start, resultSet.getValuesCount()))
+                  .build()
+                  .toByteString()));
+    }
+    return result;
+  }
+
+  private static StatusRuntimeException createAbortedException() {
+    RetryInfo retryInfo =
+        RetryInfo.newBuilder()
+            .setRetryDelay(com.google.protobuf.Duration.newBuilder().setNanos(1).build())
+            .build();
+    Metadata trailers = new Metadata();
+    trailers.put(ProtoUtils.keyForProto(RetryInfo.getDefaultInstance()), retryInfo);
+    return Status.ABORTED.withDescription("Transaction was aborted").asRuntimeException(trailers);
+  }
+
+  /** Stops the server and the threads that send the responses. */
+  @Override
+  public synchronized void close() throws InterruptedException {
+    if (server != null) {
+      server.shutdown();
+      server.awaitTermination(10L, TimeUnit.SECONDS);
+    }
+    executor.shutdownNow();
+  }
+
+  /**
+   * Starts a replay server for the recording in the file that is given as the first argument. The
+   * optional second argument is the port that the server listens on.
+   */
+  public static void main(String[] args) throws Exception {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: SpannerReplayServer <recording-file> [port]");
+      System.exit(1);
+    }
+    SpannerTrafficRecording recording;
+    try (InputStream input = Files.newInputStream(Paths.get(args[0]))) {
+      recording = SpannerTrafficRecording.readFrom(input);
+    }
+    SpannerReplayServer server =
+        newBuilder(recording)
+            .setPort(args.length == 2 ? Integer.parseInt(args[1]) : 0)
+            .build()
+            .start();
+    System.out.printf(
+        "Replaying %d requests on port %d%n", recording.getExchanges().size(), server.getPort());
+    server.server.awaitTermination();
+  }
+}
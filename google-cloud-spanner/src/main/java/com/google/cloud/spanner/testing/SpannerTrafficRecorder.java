@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.testing;
+
+import com.google.api.core.BetaApi;
+import com.google.cloud.spanner.testing.SpannerTrafficRecording.Exchange;
+import com.google.cloud.spanner.testing.SpannerTrafficRecording.Response;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
+import com.google.spanner.v1.SpannerGrpc;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * Client interceptor that records all RPCs on the Spanner data API in a {@link
+ * SpannerTrafficRecording}. The requests, the streamed responses and the time between the responses
+ * are recorded, so the workload can be replayed with realistic timings by a {@link
+ * SpannerReplayServer}. Calls to the admin APIs are not recorded.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * SpannerTrafficRecorder recorder = new SpannerTrafficRecorder();
+ * Spanner spanner =
+ *     SpannerOptions.newBuilder()
+ *         .setInterceptorProvider(SpannerInterceptorProvider.createDefault().with(recorder))
+ *         .build()
+ *         .getService();
+ * // Run the workload.
+ * try (OutputStream output = Files.newOutputStream(Paths.get("workload.bin"))) {
+ *   recorder.getRecording().writeTo(output);
+ * }
+ * }</pre>
+ */
+@BetaApi
+public final class SpannerTrafficRecorder implements ClientInterceptor {
+  private final SpannerTrafficRecording recording;
+
+  public SpannerTrafficRecorder() {
+    this(new SpannerTrafficRecording());
+  }
+
+  /** Creates a recorder that adds all recorded RPCs to the given recording. */
+  public SpannerTrafficRecorder(SpannerTrafficRecording recording) {
+    this.recording = recording;
+  }
+
+  /** Returns the recording that this recorder adds the RPCs to. */
+  public SpannerTrafficRecording getRecording() {
+    return recording;
+  }
+
+  @Override
+  public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(
+      MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+    if (!SpannerGrpc.SERVICE_NAME.equals(method.getServiceName())) {
+      return next.newCall(method, callOptions);
+    }
+    return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+      private final ImmutableList.Builder<Response> responses = ImmutableList.builder();
+      private ByteString request = ByteString.EMPTY;
+      private long lastEventNanos = System.nanoTime();
+
+      @Override
+      public void start(Listener<RespT> responseListener, Metadata headers) {
+        super.start(
+            new SimpleForwardingClientCallListener<RespT>(responseListener) {
+              @Override
+              public void onMessage(RespT message) {
+                synchronized (responses) {
+                  long now = System.nanoTime();
+                  responses.add(
+                      new Response(now - lastEventNanos, ((MessageLite) message).toByteString()));
+                  lastEventNanos = now;
+                }
+                super.onMessage(message);
+              }
+
+              @Override
+              public void onClose(Status status, Metadata trailers) {
+                synchronized (responses) {
+                  recording.add(
+                      new Exchange(
+                          method.getFullMethodName(),
+                          request,
+                          responses.build(),
+                          status.getCode(),
+                          status.getDescription(),
+                          System.nanoTime() - lastEventNanos));
+                }
+                super.onClose(status, trailers);
+              }
+            },
+            headers);
+      }
+
+      @Override
+      public void sendMessage(ReqT message) {
+        synchronized (responses) {
+          request = ((MessageLite) message).toByteString();
+          lastEventNanos = System.nanoTime();
+        }
+        super.sendMessage(message);
+      }
+    };
+  }
+}
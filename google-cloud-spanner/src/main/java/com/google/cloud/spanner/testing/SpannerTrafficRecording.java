@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.testing;
+
+import com.google.api.core.BetaApi;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import io.grpc.Status;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recording of the gRPC traffic between a Spanner client and Cloud Spanner. A recording is
+ * created by a {@link SpannerTrafficRecorder} and can be replayed by a {@link SpannerReplayServer}.
+ * Recordings can be written to and read from a stream, so a workload can be recorded once against a
+ * real database and replayed many times offline.
+ */
+@BetaApi
+public final class SpannerTrafficRecording {
+  private static final int MAGIC = 0x53505452;
+  private static final int VERSION = 1;
+  private static final int MAX_DESCRIPTION_LENGTH = 8192;
+
+  /** A response message that was received during an {@link Exchange}. */
+  public static final class Response {
+    private final long delayNanos;
+    private final ByteString message;
+
+    Response(long delayNanos, ByteString message) {
+      this.delayNanos = delayNanos;
+      this.message = Preconditions.checkNotNull(message);
+    }
+
+    /**
+     * Returns the time in nanoseconds between this response and the previous response, or between
+     * the request and this response if this is the first response.
+     */
+    public long getDelayNanos() {
+      return delayNanos;
+    }
+
+    /** Returns the serialized response message. */
+    public ByteString getMessage() {
+      return message;
+    }
+  }
+
+  /** A single RPC: one request, the responses that were returned and the final status. */
+  public static final class Exchange {
+    private final String fullMethodName;
+    private final ByteString request;
+    private final ImmutableList<Response> responses;
+    private final Status.Code statusCode;
+    private final String statusDescription;
+    private final long closeDelayNanos;
+
+    Exchange(
+        String fullMethodName,
+        ByteString request,
+        ImmutableList<Response> responses,
+        Status.Code statusCode,
+        String statusDescription,
+        long closeDelayNanos) {
+      this.fullMethodName = Preconditions.checkNotNull(fullMethodName);
+      this.request = Preconditions.checkNotNull(request);
+      this.responses = Preconditions.checkNotNull(responses);
+      this.statusCode = Preconditions.checkNotNull(statusCode);
+      this.statusDescription = statusDescription == null ? "" : statusDescription;
+      this.closeDelayNanos = closeDelayNanos;
+    }
+
+    /** Returns the full name of the gRPC method, e.g. {@code google.spanner.v1.Spanner/Commit}. */
+    public String getFullMethodName() {
+      return fullMethodName;
+    }
+
+    /** Returns the serialized request message. */
+    public ByteString getRequest() {
+      return request;
+    }
+
+    /** Returns the responses in the order that they were received. */
+    public ImmutableList<Response> getResponses() {
+      return responses;
+    }
+
+    /** Returns the status code that the RPC returned. */
+    public Status.Code getStatusCode() {
+      return statusCode;
+    }
+
+    /** Returns the description of the status that the RPC returned, or an empty string. */
+    public String getStatusDescription() {
+      return statusDescription;
+    }
+
+    /** Returns the time in nanoseconds between the last response and the end of the RPC. */
+    public long getCloseDelayNanos() {
+      return closeDelayNanos;
+    }
+  }
+
+  private final List<Exchange> exchanges = new ArrayList<>();
+
+  public SpannerTrafficRecording() {}
+
+  /** Reads a recording that was written with {@link #writeTo(OutputStream)}. */
+  public static SpannerTrafficRecording readFrom(InputStream inputStream) throws IOException {
+    DataInputStream input = new DataInputStream(inputStream);
+    if (input.readInt() != MAGIC) {
+      throw new IOException("The stream does not contain a Spanner traffic recording");
+    }
+    int version = input.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported recording version: " + version);
+    }
+    SpannerTrafficRecording recording = new SpannerTrafficRecording();
+    int numExchanges = input.readInt();
+    for (int i = 0; i < numExchanges; i++) {
+      String fullMethodName = input.readUTF();
+      ByteString request = readBytes(input);
+      int numResponses = input.readInt();
+      ImmutableList.Builder<Response> responses = ImmutableList.builder();
+      for (int j = 0; j < numResponses; j++) {
+        long delayNanos = input.readLong();
+        responses.add(new Response(delayNanos, readBytes(input)));
+      }
+      Status.Code statusCode = Status.fromCodeValue(input.readInt()).getCode();
+      String statusDescription = input.readUTF();
+      long closeDelayNanos = input.readLong();
+      recording.add(
+          new Exchange(
+              fullMethodName,
+              request,
+              responses.build(),
+              statusCode,
+              statusDescription,
+              closeDelayNanos));
+    }
+    return recording;
+  }
+
+  private static ByteString readBytes(DataInputStream input) throws IOException {
+    int length = input.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid message length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    input.readFully(bytes);
+    return ByteString.copyFrom(bytes);
+  }
+
+  /** Writes this recording to the given stream. The stream is not closed by this method. */
+  public void writeTo(OutputStream outputStream) throws IOException {
+    ImmutableList<Exchange> exchanges = getExchanges();
+    DataOutputStream output = new DataOutputStream(outputStream);
+    output.writeInt(MAGIC);
+    output.writeInt(VERSION);
+    output.writeInt(exchanges.size());
+    for (Exchange exchange : exchanges) {
+      output.writeUTF(exchange.fullMethodName);
+      writeBytes(output, exchange.request);
+      output.writeInt(exchange.responses.size());
+      for (Response response : exchange.responses) {
+        output.writeLong(response.delayNanos);
+        writeBytes(output, response.message);
+      }
+      output.writeInt(exchange.statusCode.value());
+      // DataOutput#writeUTF only supports strings of at most 64KB.
+      output.writeUTF(
+          exchange.statusDescription.length() > MAX_DESCRIPTION_LENGTH
+              ? exchange.statusDescription.substring(0, MAX_DESCRIPTION_LENGTH)
+              : exchange.statusDescription);
+      output.writeLong(exchange.closeDelayNanos);
+    }
+    output.flush();
+  }
+
+  private static void writeBytes(DataOutputStream output, ByteString bytes) throws IOException {
+    output.writeInt(bytes.size());
+    bytes.writeTo(output);
+  }
+
+  synchronized void add(Exchange exchange) {
+    exchanges.add(exchange);
+  }
+
+  /** Returns the exchanges in this recording in the order that they finished. */
+  public synchronized ImmutableList<Exchange> getExchanges() {
+    return ImmutableList.copyOf(exchanges);
+  }
+}
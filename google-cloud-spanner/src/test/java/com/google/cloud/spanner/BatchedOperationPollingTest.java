@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.gax.grpc.testing.LocalChannelProvider;
+import com.google.api.gax.longrunning.OperationFuture;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.Timestamp;
+import com.google.protobuf.AbstractMessage;
+import com.google.spanner.admin.database.v1.CreateBackupMetadata;
+import com.google.spanner.admin.database.v1.ListBackupOperationsRequest;
+import com.google.spanner.admin.database.v1.ListDatabaseOperationsRequest;
+import com.google.spanner.admin.database.v1.RestoreDatabaseMetadata;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessServerBuilder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BatchedOperationPollingTest {
+  private static final String INSTANCE_ID = "i";
+  private static final String DATABASE_ID = "d";
+
+  private static MockOperationsServiceImpl mockOperations;
+  private static MockDatabaseAdminServiceImpl mockDatabaseAdmin;
+  private static Server server;
+  private static Spanner spanner;
+  private static DatabaseAdminClient client;
+
+  @BeforeClass
+  public static void startServer() throws Exception {
+    mockOperations = new MockOperationsServiceImpl();
+    mockDatabaseAdmin = new MockDatabaseAdminServiceImpl(mockOperations);
+    String uniqueName = InProcessServerBuilder.generateName();
+    server =
+        InProcessServerBuilder.forName(uniqueName)
+            .addService(mockOperations)
+            .addService(mockDatabaseAdmin)
+            .build()
+            .start();
+    spanner =
+        SpannerOptions.newBuilder()
+            .setProjectId("p")
+            .setChannelProvider(LocalChannelProvider.create(uniqueName))
+            .setCredentials(NoCredentials.getInstance())
+            .setEnableBatchedAdminOperationPolling(true)
+            .build()
+            .getService();
+    client = spanner.getDatabaseAdminClient();
+  }
+
+  @AfterClass
+  public static void stopServer() throws Exception {
+    spanner.close();
+    server.shutdown();
+    server.awaitTermination();
+  }
+
+  @Test
+  public void testPollsOperationsInBatches() throws Exception {
+    client.createDatabase(INSTANCE_ID, DATABASE_ID, Arrays.asList()).get(30L, TimeUnit.SECONDS);
+    assertTrue(
+        mockDatabaseAdmin.getRequests().stream()
+            .anyMatch(request -> request instanceof ListDatabaseOperationsRequest));
+
+    Timestamp expireTime =
+        Timestamp.ofTimeMicroseconds(
+            TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis())
+                + TimeUnit.DAYS.toMicros(7L));
+    List<OperationFuture<Backup, CreateBackupMetadata>> operations = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      operations.add(client.createBackup(INSTANCE_ID, "backup" + i, DATABASE_ID, expireTime));
+    }
+    for (int i = 0; i < 3; i++) {
+      Backup backup = operations.get(i).get(30L, TimeUnit.SECONDS);
+      assertEquals("backup" + i, backup.getId().getBackup());
+      assertEquals(100, operations.get(i).getMetadata().get().getProgress().getProgressPercent());
+    }
+    List<String> filters = new ArrayList<>();
+    for (AbstractMessage request : mockDatabaseAdmin.getRequests()) {
+      if (request instanceof ListBackupOperationsRequest) {
+        filters.add(((ListBackupOperationsRequest) request).getFilter());
+      }
+    }
+    // All backup operations are polled with the same request.
+    assertTrue(
+        filters.toString(), filters.stream().anyMatch(filter -> filter.split(" OR ").length == 3));
+
+    OperationFuture<Database, RestoreDatabaseMetadata> restore =
+        client.restoreDatabase(INSTANCE_ID, "backup0", INSTANCE_ID, "restored");
+    assertEquals("restored", restore.get(30L, TimeUnit.SECONDS).getId().getDatabase());
+  }
+}
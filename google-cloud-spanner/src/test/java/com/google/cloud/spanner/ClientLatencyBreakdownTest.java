@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.MockSpannerServiceImpl.SimulatedExecutionTime;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.cloud.spanner.connection.RandomResultSetGenerator;
+import com.google.common.util.concurrent.Uninterruptibles;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.data.HistogramPointData;
+import io.opentelemetry.sdk.metrics.data.MetricData;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ClientLatencyBreakdownTest extends AbstractMockServerTest {
+  private static final Statement STATEMENT = Statement.of("SELECT * FROM random");
+  private static final int ROW_COUNT = 5;
+  private static final List<String> READ_COLUMNS = Collections.singletonList("COL1");
+
+  @BeforeClass
+  public static void setupResults() {
+    mockSpanner.putStatementResult(
+        StatementResult.query(STATEMENT, new RandomResultSetGenerator(ROW_COUNT).generate()));
+  }
+
+  private Spanner createSpanner(OpenTelemetry openTelemetry) {
+    return createSpanner(openTelemetry, /* useMultiplexedSession= */ false);
+  }
+
+  private Spanner createSpanner(OpenTelemetry openTelemetry, boolean useMultiplexedSession) {
+    return SpannerOptions.newBuilder()
+        .setProjectId("p")
+        .setChannelProvider(channelProvider)
+        .setCredentials(NoCredentials.getInstance())
+        .setSessionPoolOption(
+            SessionPoolOptions.newBuilder()
+                .setUseMultiplexedSession(useMultiplexedSession)
+                .setFailOnSessionLeak()
+                .build())
+        .setEnableClientLatencyBreakdown(true)
+        .setOpenTelemetry(openTelemetry)
+        .build()
+        .getService();
+  }
+
+  @Test
+  public void testNotSupportedByResultSet() {
+    Type type = Type.struct(Type.StructField.of("C", Type.int64()));
+    try (ResultSet resultSet =
+            ResultSets.forRows(
+                type, Collections.singletonList(Struct.newBuilder().set("C").to(1L).build()));
+        ResultSet forwardingResultSet =
+            new ForwardingResultSet(ResultSets.forRows(type, Collections.<Struct>emptyList()))) {
+      assertNull(resultSet.getClientLatencyBreakdown());
+      assertNull(forwardingResultSet.getClientLatencyBreakdown());
+    }
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    DatabaseClient client = spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+    try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+      while (resultSet.next()) {}
+      assertNull(resultSet.getClientLatencyBreakdown());
+    }
+  }
+
+  @Test
+  public void testQueryLatencyBreakdown() {
+    mockSpanner.setExecuteStreamingSqlExecutionTime(
+        SimulatedExecutionTime.ofMinimumAndRandomTime(20, 0));
+    try (Spanner spannerWithBreakdown = createSpanner(OpenTelemetry.noop())) {
+      DatabaseClient client = spannerWithBreakdown.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+        int rows = 0;
+        while (resultSet.next()) {
+          rows++;
+          Uninterruptibles.sleepUninterruptibly(2L, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(ROW_COUNT, rows);
+        ClientLatencyBreakdown breakdown = resultSet.getClientLatencyBreakdown();
+        assertNotNull(breakdown);
+        assertEquals(ROW_COUNT, breakdown.getRowCount());
+        assertThat(breakdown.getTimeToFirstResponse()).isAtLeast(Duration.ofMillis(20));
+        assertThat(breakdown.getStreamWaitLatency()).isAtLeast(breakdown.getTimeToFirstResponse());
+        assertThat(breakdown.getConsumerLatency()).isAtLeast(Duration.ofMillis(2L * ROW_COUNT));
+        assertThat(breakdown.getRequestEncodingLatency()).isGreaterThan(Duration.ZERO);
+        assertFalse(breakdown.getRowDecodingLatency().isNegative());
+        assertFalse(breakdown.getSessionAcquisitionLatency().isNegative());
+      }
+    }
+  }
+
+  @Test
+  public void testReadLatencyBreakdown() {
+    mockSpanner.putStatementResult(
+        StatementResult.read(
+            "random",
+            KeySet.all(),
+            READ_COLUMNS,
+            new RandomResultSetGenerator(ROW_COUNT).generate()));
+    try (Spanner spannerWithBreakdown = createSpanner(OpenTelemetry.noop())) {
+      DatabaseClient client = spannerWithBreakdown.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      try (ResultSet resultSet = client.singleUse().read("random", KeySet.all(), READ_COLUMNS)) {
+        assertTrue(resultSet.next());
+        ClientLatencyBreakdown breakdown = resultSet.getClientLatencyBreakdown();
+        assertNotNull(breakdown);
+        assertEquals(1L, breakdown.getRowCount());
+        assertThat(breakdown.getRequestEncodingLatency()).isGreaterThan(Duration.ZERO);
+      }
+    }
+  }
+
+  @Test
+  public void testOpenTelemetryHistogram() {
+    SpannerOptions.enableOpenTelemetryMetrics();
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    OpenTelemetry openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setMeterProvider(SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+            .build();
+    try (Spanner spannerWithBreakdown = createSpanner(openTelemetry)) {
+      DatabaseClient client = spannerWithBreakdown.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      for (int i = 0; i < 2; i++) {
+        try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+          while (resultSet.next()) {}
+        }
+      }
+    }
+
+    Map<String, Long> stages = getStageCounts(metricReader);
+    assertThat(stages.keySet())
+        .containsExactly(
+            "session_acquisition",
+            "request_encoding",
+            "time_to_first_response",
+            "stream_wait",
+            "chunk_merging",
+            "row_decoding",
+            "consumer");
+    for (long count : stages.values()) {
+      assertEquals(2L, count);
+    }
+  }
+
+  @Test
+  public void testSessionAcquisitionIsOnlyRecordedWhenSessionIsCheckedOut() {
+    SpannerOptions.enableOpenTelemetryMetrics();
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    OpenTelemetry openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setMeterProvider(SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+            .build();
+    try (Spanner spannerWithBreakdown = createSpanner(openTelemetry)) {
+      DatabaseClient client = spannerWithBreakdown.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      try (ReadOnlyTransaction transaction = client.readOnlyTransaction()) {
+        for (int i = 0; i < 2; i++) {
+          try (ResultSet resultSet = transaction.executeQuery(STATEMENT)) {
+            while (resultSet.next()) {}
+            if (i == 1) {
+              assertEquals(
+                  Duration.ZERO,
+                  resultSet.getClientLatencyBreakdown().getSessionAcquisitionLatency());
+            }
+          }
+        }
+      }
+    }
+
+    // Only the first query of the transaction checked out a session.
+    Map<String, Long> stages = getStageCounts(metricReader);
+    assertEquals(Long.valueOf(1L), stages.get("session_acquisition"));
+    assertEquals(Long.valueOf(2L), stages.get("request_encoding"));
+  }
+
+  @Test
+  public void testSessionAcquisitionIsNotRecordedForMultiplexedSessions() {
+    SpannerOptions.enableOpenTelemetryMetrics();
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    OpenTelemetry openTelemetry =
+        OpenTelemetrySdk.builder()
+            .setMeterProvider(SdkMeterProvider.builder().registerMetricReader(metricReader).build())
+            .build();
+    try (Spanner spannerWithBreakdown =
+        createSpanner(openTelemetry, /* useMultiplexedSession= */ true)) {
+      DatabaseClient client = spannerWithBreakdown.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      try (ResultSet resultSet = client.singleUse().executeQuery(STATEMENT)) {
+        while (resultSet.next()) {}
+      }
+    }
+
+    Map<String, Long> stages = getStageCounts(metricReader);
+    assertFalse(stages.containsKey("session_acquisition"));
+    assertEquals(Long.valueOf(1L), stages.get("request_encoding"));
+  }
+
+  /** Returns the number of recorded latencies per stage. */
+  private static Map<String, Long> getStageCounts(InMemoryMetricReader metricReader) {
+    MetricData metricData =
+        metricReader.collectAllMetrics().stream()
+            .filter(
+                data ->
+                    data.getName().equals(MetricRegistryConstants.SPANNER_CLIENT_STAGE_LATENCIES))
+            .findFirst()
+            .orElseThrow(AssertionError::new);
+    Map<String, Long> stages = new HashMap<>();
+    for (HistogramPointData point : metricData.getHistogramData().getPoints()) {
+      stages.put(
+          point.getAttributes().get(AttributeKey.stringKey(MetricRegistryConstants.STAGE)),
+          point.getCount());
+    }
+    return stages;
+  }
+}
@@ -1745,6 +1745,23 @@ public class DatabaseClientImplTest {
     assertEquals(OrderBy.ORDER_BY_NO_ORDER, request.getOrderBy());
   }
 
+  @Test
+  public void testReadRowSetsLimit() {
+    DatabaseClient client =
+        spanner.getDatabaseClient(DatabaseId.of(TEST_PROJECT, TEST_INSTANCE, TEST_DATABASE));
+    assertNotNull(client.singleUse().readRow(READ_TABLE_NAME, Key.of(1L), READ_COLUMN_NAMES));
+    assertNotNull(
+        client
+            .singleUse()
+            .readRowUsingIndex(READ_TABLE_NAME, "MyIndex", Key.of(1L), READ_COLUMN_NAMES));
+
+    List<ReadRequest> requests = mockSpanner.getRequestsOfType(ReadRequest.class);
+    assertEquals(2, requests.size());
+    assertEquals(1L, requests.get(0).getLimit());
+    // A read of a non-unique index can return more than one row for a single key.
+    assertEquals(2L, requests.get(1).getLimit());
+  }
+
   @Test
   public void testExecuteReadWithDirectedReadOptions() {
     DatabaseClient client =
@@ -19,6 +19,9 @@ package com.google.cloud.spanner;
 import static com.google.common.testing.SerializableTester.reserialize;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -217,6 +220,36 @@ public class GrpcResultSetTest {
     assertThat(consumeAllString()).containsExactly("a", "b", "c", "d", "e", "f").inOrder();
   }
 
+  @Test
+  public void stringDictionary() {
+    for (DecodeMode decodeMode : DecodeMode.values()) {
+      setUp();
+      resultSet =
+          new GrpcResultSet(
+              stream,
+              new NoOpListener(),
+              decodeMode,
+              /* resumeMetadata= */ null,
+              /* latencyTracker= */ null,
+              /* queryRecording= */ null,
+              /* stringDictionarySize= */ 1);
+      consumer.onPartialResultSet(
+          PartialResultSet.newBuilder()
+              .setMetadata(makeMetadata(Type.struct(Type.StructField.of("f", Type.string()))))
+              .addValues(Value.string(new String("a")).toProto())
+              .addValues(Value.string(new String("a")).toProto())
+              .addValues(Value.string(new String("b")).toProto())
+              .addValues(Value.string(new String("b")).toProto())
+              .build());
+      consumer.onCompleted();
+      List<String> results = consumeAllString();
+      assertThat(results).containsExactly("a", "a", "b", "b").inOrder();
+      assertSame(decodeMode.name(), results.get(0), results.get(1));
+      // The dictionary only has room for one value.
+      assertNotSame(decodeMode.name(), results.get(2), results.get(3));
+    }
+  }
+
   @Test
   public void multiResponseChunkingStreamClosed() {
     consumer.onPartialResultSet(
@@ -843,6 +876,42 @@ public class GrpcResultSetTest {
         });
   }
 
+  @Test
+  public void getProtoMessageIsCached() {
+    SingerInfo singerInfo = SingerInfo.newBuilder().setSingerId(111).setGenre(Genre.FOLK).build();
+    SingerInfo prototype = SingerInfo.newBuilder().setNationality("COUNTRY1").build();
+    String singerInfoFullName = SingerInfo.getDescriptor().getFullName();
+
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(
+                makeMetadata(
+                    Type.struct(
+                        Type.StructField.of("f", Type.proto(singerInfoFullName)),
+                        Type.StructField.of("g", Type.array(Type.proto(singerInfoFullName))))))
+            .addValues(Value.protoMessage(singerInfo).toProto())
+            .addValues(
+                Value.protoMessageArray(Arrays.asList(singerInfo, null), SingerInfo.getDescriptor())
+                    .toProto())
+            .build());
+    consumer.onCompleted();
+
+    assertTrue(resultSet.next());
+    SingerInfo first = resultSet.getProtoMessage(0, SingerInfo.getDefaultInstance());
+    assertEquals(singerInfo, first);
+    assertSame(first, resultSet.getProtoMessage(0, SingerInfo.getDefaultInstance()));
+    // The bytes are merged into the given message.
+    assertEquals(
+        singerInfo.toBuilder().setNationality("COUNTRY1").build(),
+        resultSet.getProtoMessage(0, prototype));
+    assertEquals(singerInfo, resultSet.getProtoMessage(0, SingerInfo.getDefaultInstance()));
+
+    List<SingerInfo> list = resultSet.getProtoMessageList(1, SingerInfo.getDefaultInstance());
+    assertEquals(Arrays.asList(singerInfo, null), list);
+    assertSame(
+        list.get(0), resultSet.getProtoMessageList(1, SingerInfo.getDefaultInstance()).get(0));
+  }
+
   @Test
   public void getProtoEnum() {
     String genreFullyQualifiedName = Genre.getDescriptor().getFullName();
@@ -1115,4 +1184,196 @@ public class GrpcResultSetTest {
           resultSet.getProtoEnum(0, Genre::forNumber);
         });
   }
+
+  @Test
+  public void checkpointAtRowBoundaries() {
+    Type type =
+        Type.struct(
+            Type.StructField.of("a", Type.string()), Type.StructField.of("b", Type.string()));
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(makeMetadata(type))
+            .addValues(Value.string("a1").toProto())
+            .addValues(Value.string("b1").toProto())
+            .setResumeToken(ByteString.copyFromUtf8("t1"))
+            .build());
+    // Row 2 ends in the middle of the next message.
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(Value.string("a2").toProto())
+            .addValues(Value.string("b").toProto())
+            .setChunkedValue(true)
+            .setResumeToken(ByteString.copyFromUtf8("t2"))
+            .build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(Value.string("2").toProto())
+            .addValues(Value.string("a3").toProto())
+            .setResumeToken(ByteString.copyFromUtf8("t3"))
+            .build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .addValues(Value.string("b3").toProto())
+            .setResumeToken(ByteString.copyFromUtf8("t4"))
+            .build());
+    consumer.onCompleted();
+
+    assertEquals(0L, resultSet.getRowsSinceCheckpoint());
+    assertTrue(resultSet.next());
+    assertEquals(ByteString.copyFromUtf8("t1"), resultSet.getCheckpointResumeToken());
+    assertEquals(0L, resultSet.getRowsSinceCheckpoint());
+    assertTrue(resultSet.next());
+    assertEquals("b2", resultSet.getString(1));
+    assertEquals(ByteString.copyFromUtf8("t1"), resultSet.getCheckpointResumeToken());
+    assertEquals(1L, resultSet.getRowsSinceCheckpoint());
+    assertTrue(resultSet.next());
+    assertEquals(ByteString.copyFromUtf8("t4"), resultSet.getCheckpointResumeToken());
+    assertEquals(0L, resultSet.getRowsSinceCheckpoint());
+    assertThat(resultSet.next()).isFalse();
+  }
+
+  @Test
+  public void resumeWithoutMetadata() {
+    Type type = Type.struct(Type.StructField.of("f", Type.int64()));
+    GrpcResultSet resumed =
+        new GrpcResultSet(stream, new NoOpListener(), DecodeMode.DIRECT, makeMetadata(type));
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder().addValues(Value.int64(2L).toProto()).build());
+    consumer.onCompleted();
+
+    assertTrue(resumed.next());
+    assertEquals(2L, resumed.getLong(0));
+    assertEquals(type, resumed.getType());
+    assertThat(resumed.next()).isFalse();
+  }
+
+  @Test
+  public void resumeAtEndOfStream() {
+    Type type = Type.struct(Type.StructField.of("f", Type.int64()));
+    GrpcResultSet resumed =
+        new GrpcResultSet(stream, new NoOpListener(), DecodeMode.DIRECT, makeMetadata(type));
+    consumer.onCompleted();
+
+    assertThat(resumed.next()).isFalse();
+    assertEquals(type, resumed.getType());
+  }
+
+  /** Records the calls of {@link AbstractReadContext#consumeSingleRow}. */
+  private static class RecordingListener extends NoOpListener {
+    Transaction transaction;
+    Boolean errorWithBeginTransaction;
+    int doneCount;
+
+    @Override
+    public void onTransactionMetadata(Transaction transaction, boolean shouldIncludeId) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public SpannerException onError(SpannerException e, boolean withBeginTransaction) {
+      errorWithBeginTransaction = withBeginTransaction;
+      return e;
+    }
+
+    @Override
+    public void onDone(boolean withBeginTransaction) {
+      doneCount++;
+    }
+  }
+
+  @Test
+  public void consumeSingleRow() {
+    Type type =
+        Type.struct(
+            Type.StructField.of("id", Type.int64()), Type.StructField.of("name", Type.string()));
+    ResultSetMetadata metadata =
+        makeMetadata(type)
+            .toBuilder()
+            .setTransaction(Transaction.newBuilder().setId(ByteString.copyFromUtf8("t1")))
+            .build();
+    // The value of the last column is chunked.
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(metadata)
+            .addValues(Value.int64(1L).toProto())
+            .addValues(Value.string("ab").toProto())
+            .setChunkedValue(true)
+            .build());
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder().addValues(Value.string("c").toProto()).build());
+    consumer.onCompleted();
+
+    RecordingListener listener = new RecordingListener();
+    Struct row = AbstractReadContext.consumeSingleRow(stream, listener, DecodeMode.DIRECT, null);
+    assertEquals(Struct.newBuilder().set("id").to(1L).set("name").to("abc").build(), row);
+    assertEquals(ByteString.copyFromUtf8("t1"), listener.transaction.getId());
+    assertEquals(1, listener.doneCount);
+    assertNull(listener.errorWithBeginTransaction);
+  }
+
+  @Test
+  public void consumeSingleRowEmpty() {
+    RecordingListener listener = new RecordingListener();
+    for (DecodeMode decodeMode : DecodeMode.values()) {
+      setUp();
+      consumer.onPartialResultSet(
+          PartialResultSet.newBuilder()
+              .setMetadata(makeMetadata(Type.struct(Type.StructField.of("id", Type.int64()))))
+              .build());
+      consumer.onCompleted();
+      assertNull(AbstractReadContext.consumeSingleRow(stream, listener, decodeMode, null));
+    }
+    assertEquals(DecodeMode.values().length, listener.doneCount);
+  }
+
+  @Test
+  public void consumeSingleRowLazy() {
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(makeMetadata(Type.struct(Type.StructField.of("id", Type.int64()))))
+            .addValues(Value.int64(1L).toProto())
+            .build());
+    consumer.onCompleted();
+
+    Struct row =
+        AbstractReadContext.consumeSingleRow(
+            stream, new NoOpListener(), DecodeMode.LAZY_PER_COL, null);
+    assertEquals(1L, row.getLong("id"));
+  }
+
+  @Test
+  public void consumeSingleRowMultipleRows() {
+    consumer.onPartialResultSet(
+        PartialResultSet.newBuilder()
+            .setMetadata(makeMetadata(Type.struct(Type.StructField.of("id", Type.int64()))))
+            .addValues(Value.int64(1L).toProto())
+            .addValues(Value.int64(2L).toProto())
+            .build());
+    consumer.onCompleted();
+
+    RecordingListener listener = new RecordingListener();
+    SpannerException exception =
+        assertThrows(
+            SpannerException.class,
+            () -> AbstractReadContext.consumeSingleRow(stream, listener, DecodeMode.DIRECT, null));
+    assertEquals(ErrorCode.INTERNAL, exception.getErrorCode());
+    assertThat(exception.getMessage()).contains("Multiple rows returned for single key");
+    // The stream itself did not fail.
+    assertNull(listener.errorWithBeginTransaction);
+    assertEquals(1, listener.doneCount);
+  }
+
+  @Test
+  public void consumeSingleRowError() {
+    consumer.onError(SpannerExceptionFactory.newSpannerException(ErrorCode.NOT_FOUND, "not found"));
+
+    RecordingListener listener = new RecordingListener();
+    SpannerException exception =
+        assertThrows(
+            SpannerException.class,
+            () -> AbstractReadContext.consumeSingleRow(stream, listener, DecodeMode.DIRECT, null));
+    assertEquals(ErrorCode.NOT_FOUND, exception.getErrorCode());
+    assertEquals(Boolean.FALSE, listener.errorWithBeginTransaction);
+    assertEquals(1, listener.doneCount);
+  }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import com.google.cloud.spanner.KeyRangeSplitCache.Recorder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class KeyRangeSplitCacheTest {
+
+  @Test
+  public void testNoSplitPoints() {
+    KeyRangeSplitCache cache = KeyRangeSplitCache.create(Duration.ofHours(1L));
+    assertEquals(
+        Collections.singletonList(KeyRange.closedClosed(Key.of(), Key.of())),
+        cache.getKeyRanges("FOO", null, 10));
+  }
+
+  @Test
+  public void testRecordAndGetKeyRanges() {
+    KeyRangeSplitCache cache = KeyRangeSplitCache.create(Duration.ofHours(1L));
+    Recorder recorder = cache.newRecorder("FOO", null, 2, 10L);
+    for (long i = 1; i <= 50; i++) {
+      recorder.recordRow(0, Key.of(i));
+    }
+    for (long i = 51; i <= 100; i++) {
+      recorder.recordRow(1, Key.of(i));
+    }
+    // The split points are only visible after the recorder has been committed.
+    assertThat(cache.getSplitPoints("FOO", null)).isEmpty();
+    recorder.commit();
+
+    List<Key> expectedSplitPoints =
+        Arrays.asList(
+            Key.of(10L),
+            Key.of(20L),
+            Key.of(30L),
+            Key.of(40L),
+            Key.of(50L),
+            Key.of(60L),
+            Key.of(70L),
+            Key.of(80L),
+            Key.of(90L),
+            Key.of(100L));
+    assertEquals(expectedSplitPoints, cache.getSplitPoints("FOO", null));
+    assertThat(cache.getSplitPoints("FOO", "IDX")).isEmpty();
+
+    assertEquals(
+        Arrays.asList(
+            KeyRange.closedOpen(Key.of(), Key.of(30L)),
+            KeyRange.closedOpen(Key.of(30L), Key.of(60L)),
+            KeyRange.closedOpen(Key.of(60L), Key.of(80L)),
+            KeyRange.closedClosed(Key.of(80L), Key.of())),
+        cache.getKeyRanges("FOO", null, 4));
+    assertEquals(11, cache.getKeyRanges("FOO", null, 100).size());
+
+    cache.invalidate("FOO", null);
+    assertThat(cache.getSplitPoints("FOO", null)).isEmpty();
+  }
+
+  @Test
+  public void testResetRange() {
+    KeyRangeSplitCache cache = KeyRangeSplitCache.create(Duration.ofHours(1L));
+    Recorder recorder = cache.newRecorder("FOO", "IDX", 1, 2L);
+    recorder.recordRow(0, Key.of("a"));
+    recorder.recordRow(0, Key.of("b"));
+    recorder.resetRange(0);
+    recorder.recordRow(0, Key.of("a"));
+    recorder.recordRow(0, Key.of("b"));
+    recorder.commit();
+    assertEquals(Collections.singletonList(Key.of("b")), cache.getSplitPoints("FOO", "IDX"));
+  }
+
+  @Test
+  public void testDuplicateSplitPoints() {
+    assertEquals(
+        Arrays.asList(
+            KeyRange.closedOpen(Key.of(), Key.of("a")),
+            KeyRange.closedClosed(Key.of("a"), Key.of())),
+        KeyRangeSplitCache.toKeyRanges(Arrays.asList(Key.of("a"), Key.of("a"))));
+  }
+
+  @Test
+  public void testExpiration() {
+    FakeClock clock = new FakeClock();
+    KeyRangeSplitCache cache = new KeyRangeSplitCache(Duration.ofMinutes(10L), clock);
+    Recorder recorder = cache.newRecorder("FOO", null, 1, 1L);
+    recorder.recordRow(0, Key.of(1L));
+    recorder.commit();
+
+    clock.currentTimeMillis.addAndGet(Duration.ofMinutes(9L).toMillis());
+    assertEquals(Collections.singletonList(Key.of(1L)), cache.getSplitPoints("FOO", null));
+    clock.currentTimeMillis.addAndGet(Duration.ofMinutes(1L).toMillis());
+    assertThat(cache.getSplitPoints("FOO", null)).isEmpty();
+  }
+}
@@ -611,6 +611,16 @@ public class MockDatabaseAdminServiceImpl extends DatabaseAdminImplBase implemen
         String name = (String) obj.getClass().getMethod("getName").invoke(obj);
         return matches.contains(name);
       }
+      if (obj instanceof Operation && filter.matches("\\(name:[^)]+\\)( OR \\(name:[^)]+\\))*")) {
+        // Filter that selects operations by name, e.g. '(name:op1) OR (name:op2)'.
+        String name = ((Operation) obj).getName();
+        for (String part : filter.split(" OR ")) {
+          if (name.contains(part.substring("(name:".length(), part.length() - 1))) {
+            return true;
+          }
+        }
+        return false;
+      }
       if (obj instanceof Operation) {
         Operation operation = (Operation) obj;
         Pattern pattern =
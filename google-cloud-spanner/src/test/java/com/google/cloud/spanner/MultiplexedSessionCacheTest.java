@@ -0,0 +1,316 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.auth.Credentials;
+import com.google.auth.ServiceAccountSigner;
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.cloud.spanner.connection.RandomResultSetGenerator;
+import com.google.spanner.v1.CreateSessionRequest;
+import com.google.spanner.v1.ExecuteSqlRequest;
+import com.google.spanner.v1.ReadRequest;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class MultiplexedSessionCacheTest extends AbstractMockServerTest {
+  private static final Statement STATEMENT = Statement.of("select * from random");
+  private static final DatabaseId DATABASE_ID = DatabaseId.of("p", "i", "d");
+  private static final List<String> READ_COLUMNS = Collections.singletonList("ID");
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @BeforeClass
+  public static void setupResults() {
+    mockSpanner.putStatementResults(
+        StatementResult.query(STATEMENT, new RandomResultSetGenerator(1).generate()));
+    mockSpanner.putStatementResult(
+        StatementResult.read(
+            "FOO",
+            KeySet.singleKey(Key.of()),
+            READ_COLUMNS,
+            new RandomResultSetGenerator(1).generate()));
+  }
+
+  /** Credentials with a service account that is not known from a key file. */
+  private static final class ServiceAccountSignerCredentials extends GoogleCredentials
+      implements ServiceAccountSigner {
+    private final String account;
+
+    private ServiceAccountSignerCredentials(String account) {
+      super(new AccessToken("token", null));
+      this.account = account;
+    }
+
+    @Override
+    public String getAccount() {
+      return account;
+    }
+
+    @Override
+    public byte[] sign(byte[] toSign) {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private Spanner createSpanner(String cacheDirectory) {
+    return createSpanner(cacheDirectory, NoCredentials.getInstance());
+  }
+
+  private Spanner createSpanner(String cacheDirectory, Credentials credentials) {
+    return SpannerOptions.newBuilder()
+        .setProjectId("p")
+        .setChannelProvider(channelProvider)
+        .setCredentials(credentials)
+        .setSessionPoolOption(
+            SessionPoolOptions.newBuilder()
+                .setUseMultiplexedSession(true)
+                .setMultiplexedSessionCacheDirectory(cacheDirectory)
+                .setMinSessions(0)
+                .setFailOnSessionLeak()
+                .build())
+        .build()
+        .getService();
+  }
+
+  private static void executeQuery(Spanner spanner) {
+    try (ResultSet resultSet =
+        spanner.getDatabaseClient(DATABASE_ID).singleUse().executeQuery(STATEMENT)) {
+      //noinspection StatementWithEmptyBody
+      while (resultSet.next()) {
+        // ignore
+      }
+    }
+  }
+
+  private static long countMultiplexedSessionsCreated() {
+    return mockSpanner.getRequestsOfType(CreateSessionRequest.class).stream()
+        .filter(request -> request.getSession().getMultiplexed())
+        .count();
+  }
+
+  @Test
+  public void testReusesCachedSession() throws IOException {
+    String directory = temporaryFolder.newFolder().getPath();
+    try (Spanner spanner = createSpanner(directory)) {
+      executeQuery(spanner);
+    }
+    assertEquals(1L, countMultiplexedSessionsCreated());
+
+    mockSpanner.clearRequests();
+    try (Spanner spanner = createSpanner(directory)) {
+      executeQuery(spanner);
+    }
+    assertEquals(0L, countMultiplexedSessionsCreated());
+  }
+
+  @Test
+  public void testDoesNotCacheSessionForUnknownPrincipal() throws IOException {
+    String directory = temporaryFolder.newFolder().getPath();
+    Credentials credentials = GoogleCredentials.create(new AccessToken("token", null));
+    try (Spanner spanner = createSpanner(directory, credentials)) {
+      executeQuery(spanner);
+    }
+    assertEquals(1L, countMultiplexedSessionsCreated());
+    assertEquals(0, new File(directory).list().length);
+
+    mockSpanner.clearRequests();
+    try (Spanner spanner = createSpanner(directory, credentials)) {
+      executeQuery(spanner);
+    }
+    assertEquals(1L, countMultiplexedSessionsCreated());
+  }
+
+  @Test
+  public void testReplacesCachedSessionThatWasNotFound() throws IOException {
+    String directory = temporaryFolder.newFolder().getPath();
+    try (Spanner spanner = createSpanner(directory)) {
+      executeQuery(spanner);
+    }
+    // Remove the cached session from the mock server.
+    String cachedSession =
+        mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).get(0).getSession();
+    mockSpanner.removeSession(cachedSession);
+    mockSpanner.clearRequests();
+
+    try (Spanner spanner = createSpanner(directory)) {
+      // The query is retried once on the new session.
+      executeQuery(spanner);
+      // The client replaces the session and remains valid.
+      executeQuery(spanner);
+      assertTrue(((DatabaseClientImpl) spanner.getDatabaseClient(DATABASE_ID)).isValid());
+    }
+    assertEquals(1L, countMultiplexedSessionsCreated());
+    List<ExecuteSqlRequest> requests = mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+    assertEquals(3, requests.size());
+    assertEquals(cachedSession, requests.get(0).getSession());
+    assertNotEquals(cachedSession, requests.get(1).getSession());
+    assertEquals(requests.get(1).getSession(), requests.get(2).getSession());
+
+    // The new session is cached for the next client.
+    mockSpanner.clearRequests();
+    try (Spanner spanner = createSpanner(directory)) {
+      executeQuery(spanner);
+    }
+    assertEquals(0L, countMultiplexedSessionsCreated());
+  }
+
+  @Test
+  public void testRetriesReadRowOnCachedSessionThatWasNotFound() throws IOException {
+    String directory = temporaryFolder.newFolder().getPath();
+    try (Spanner spanner = createSpanner(directory)) {
+      executeQuery(spanner);
+    }
+    String cachedSession =
+        mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).get(0).getSession();
+    mockSpanner.removeSession(cachedSession);
+    mockSpanner.clearRequests();
+
+    try (Spanner spanner = createSpanner(directory)) {
+      assertNotNull(
+          spanner
+              .getDatabaseClient(DATABASE_ID)
+              .singleUse()
+              .readRow("FOO", Key.of(), READ_COLUMNS));
+    }
+    List<ReadRequest> requests = mockSpanner.getRequestsOfType(ReadRequest.class);
+    assertEquals(2, requests.size());
+    assertEquals(cachedSession, requests.get(0).getSession());
+    assertNotEquals(cachedSession, requests.get(1).getSession());
+  }
+
+  @Test
+  public void testDoesNotRetryTransactionOnCachedSessionThatWasNotFound() throws IOException {
+    String directory = temporaryFolder.newFolder().getPath();
+    try (Spanner spanner = createSpanner(directory)) {
+      executeQuery(spanner);
+    }
+    String cachedSession =
+        mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).get(0).getSession();
+    mockSpanner.removeSession(cachedSession);
+
+    try (Spanner spanner = createSpanner(directory)) {
+      DatabaseClient client = spanner.getDatabaseClient(DATABASE_ID);
+      try (ReadOnlyTransaction transaction = client.readOnlyTransaction()) {
+        assertThrows(
+            SessionNotFoundException.class,
+            () -> {
+              try (ResultSet resultSet = transaction.executeQuery(STATEMENT)) {
+                //noinspection StatementWithEmptyBody
+                while (resultSet.next()) {
+                  // ignore
+                }
+              }
+            });
+      }
+      // Single-use reads are retried on the new session.
+      executeQuery(spanner);
+    }
+  }
+
+  @Test
+  public void testLoadAndStore() throws IOException {
+    Path file = temporaryFolder.newFolder().toPath().resolve("session");
+    MultiplexedSessionCache cache = new MultiplexedSessionCache(file, DATABASE_ID);
+    assertNull(cache.load(Instant.EPOCH));
+
+    String name = DATABASE_ID.getName() + "/sessions/s1";
+    com.google.protobuf.Timestamp createTime =
+        com.google.protobuf.Timestamp.newBuilder().setSeconds(1000L).setNanos(1).build();
+    cache.store(new SessionReference(name, createTime, true, null));
+    SessionReference session = cache.load(Instant.EPOCH);
+    assertNotNull(session);
+    assertEquals(name, session.getName());
+    assertTrue(session.getIsMultiplexed());
+    assertEquals(Instant.ofEpochSecond(1000L, 1), session.getCreateTime());
+    // Sessions that were created before the minimum creation time are ignored.
+    assertNull(cache.load(Instant.ofEpochSecond(1001L)));
+
+    // A cached session for a different database is ignored.
+    assertNull(
+        new MultiplexedSessionCache(file, DatabaseId.of("p", "i", "other")).load(Instant.EPOCH));
+
+    // Removing a different session does not change the cache.
+    cache.remove(DATABASE_ID.getName() + "/sessions/s2");
+    assertNotNull(cache.load(Instant.EPOCH));
+    cache.remove(name);
+    assertNull(cache.load(Instant.EPOCH));
+
+    // Invalid files are ignored.
+    Files.write(file, "name=invalid".getBytes());
+    assertNull(cache.load(Instant.EPOCH));
+  }
+
+  @Test
+  public void testCredentialsIdentity() {
+    assertEquals("none", MultiplexedSessionCache.getCredentialsIdentity(null));
+    assertEquals(
+        "none", MultiplexedSessionCache.getCredentialsIdentity(NoCredentials.getInstance()));
+    assertEquals(
+        "service_account:sa@p.iam.gserviceaccount.com",
+        MultiplexedSessionCache.getCredentialsIdentity(
+            new ServiceAccountSignerCredentials("sa@p.iam.gserviceaccount.com")));
+    assertNull(
+        MultiplexedSessionCache.getCredentialsIdentity(
+            GoogleCredentials.create(new AccessToken("token", null))));
+  }
+
+  @Test
+  public void testCachesSessionForServiceAccountSigner() throws IOException {
+    String directory = temporaryFolder.newFolder().getPath();
+    try (Spanner spanner =
+        createSpanner(directory, new ServiceAccountSignerCredentials("sa1@p.iam.com"))) {
+      executeQuery(spanner);
+    }
+    assertEquals(1L, countMultiplexedSessionsCreated());
+
+    mockSpanner.clearRequests();
+    try (Spanner spanner =
+        createSpanner(directory, new ServiceAccountSignerCredentials("sa1@p.iam.com"))) {
+      executeQuery(spanner);
+    }
+    assertEquals(0L, countMultiplexedSessionsCreated());
+
+    // A different service account does not use the cached session.
+    try (Spanner spanner =
+        createSpanner(directory, new ServiceAccountSignerCredentials("sa2@p.iam.com"))) {
+      executeQuery(spanner);
+    }
+    assertEquals(1L, countMultiplexedSessionsCreated());
+  }
+}
@@ -723,6 +723,20 @@ public class OptionsTest {
     assertThrows(NullPointerException.class, () -> Options.directedRead(null));
   }
 
+  @Test
+  public void stringDictionaryEquality() {
+    Options option1 = Options.fromQueryOptions(Options.stringDictionary(100));
+    Options option2 = Options.fromQueryOptions(Options.stringDictionary(100));
+    Options option3 = Options.fromQueryOptions(Options.stringDictionary(10));
+
+    assertEquals(option1, option2);
+    assertEquals(option1.hashCode(), option2.hashCode());
+    assertNotEquals(option1, option3);
+    assertEquals(Integer.valueOf(100), option1.stringDictionarySize());
+    assertNull(Options.fromQueryOptions().stringDictionarySize());
+    assertThrows(IllegalArgumentException.class, () -> Options.stringDictionary(0));
+  }
+
   @Test
   public void transactionOptionsExcludeTxnFromChangeStreams() {
     Options option1 = Options.fromTransactionOptions(Options.excludeTxnFromChangeStreams());
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.testing.SerializableTester.reserialize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.spanner.MockSpannerServiceImpl.SimulatedExecutionTime;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.cloud.spanner.connection.RandomResultSetGenerator;
+import com.google.protobuf.ByteString;
+import com.google.spanner.v1.ExecuteSqlRequest;
+import io.grpc.Status;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PartitionCheckpointTest extends AbstractMockServerTest {
+  private static final Statement STATEMENT = Statement.of("SELECT * FROM random");
+  private static final int ROW_COUNT = 10;
+
+  @BeforeClass
+  public static void setupResults() {
+    mockSpanner.putStatementResult(
+        StatementResult.query(STATEMENT, new RandomResultSetGenerator(ROW_COUNT).generate()));
+  }
+
+  private BatchClient createBatchClient() {
+    return spanner.getBatchClient(DatabaseId.of("p", "i", "d"));
+  }
+
+  @Test
+  public void testCheckpoint() {
+    BatchReadOnlyTransaction transaction =
+        createBatchClient().batchReadOnlyTransaction(TimestampBound.strong());
+    Partition partition =
+        transaction.partitionQuery(PartitionOptions.getDefaultInstance(), STATEMENT).get(0);
+    try (PartitionResultSet resultSet = transaction.executeResumable(partition)) {
+      PartitionCheckpoint start = resultSet.getCheckpoint();
+      assertEquals(0L, start.getRowCount());
+      assertFalse(start.isDone());
+      assertEquals(partition, start.getPartition());
+      assertEquals(transaction.getBatchTransactionId(), start.getBatchTransactionId());
+
+      assertTrue(resultSet.next());
+      assertTrue(resultSet.next());
+      PartitionCheckpoint checkpoint = resultSet.getCheckpoint();
+      assertEquals(2L, checkpoint.getRowCount());
+      assertFalse(checkpoint.isDone());
+      // The mock server returns one row per PartialResultSet with a resume token.
+      assertEquals(ByteString.copyFromUtf8("000000002"), checkpoint.getResumeToken());
+      assertEquals(0L, checkpoint.getSkipRows());
+      assertEquals(checkpoint, reserialize(checkpoint));
+
+      while (resultSet.next()) {}
+      assertTrue(resultSet.getCheckpoint().isDone());
+      assertEquals(ROW_COUNT, resultSet.getCheckpoint().getRowCount());
+    } finally {
+      transaction.close();
+    }
+  }
+
+  @Test
+  public void testResumeInNewTransaction() {
+    BatchReadOnlyTransaction transaction =
+        createBatchClient().batchReadOnlyTransaction(TimestampBound.strong());
+    Partition partition =
+        transaction.partitionQuery(PartitionOptions.getDefaultInstance(), STATEMENT).get(0);
+    PartitionCheckpoint checkpoint;
+    try (PartitionResultSet resultSet = transaction.executeResumable(partition)) {
+      for (int i = 0; i < 3; i++) {
+        assertTrue(resultSet.next());
+      }
+      checkpoint = reserialize(resultSet.getCheckpoint());
+    }
+    mockSpanner.clearRequests();
+
+    BatchReadOnlyTransaction resumedTransaction =
+        createBatchClient().batchReadOnlyTransaction(checkpoint.getBatchTransactionId());
+    try (PartitionResultSet resultSet = resumedTransaction.resume(checkpoint)) {
+      assertTrue(resultSet.next());
+      assertEquals(4L, resultSet.getCheckpoint().getRowCount());
+    }
+    List<ExecuteSqlRequest> requests = mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+    assertEquals(1, requests.size());
+    assertEquals(ByteString.copyFromUtf8("000000003"), requests.get(0).getResumeToken());
+    assertEquals(partition.getPartitionToken(), requests.get(0).getPartitionToken());
+    assertTrue(requests.get(0).getTransaction().hasId());
+  }
+
+  @Test
+  public void testCheckpointAfterError() {
+    mockSpanner.setExecuteStreamingSqlExecutionTime(
+        SimulatedExecutionTime.ofStreamException(
+            Status.INVALID_ARGUMENT.withDescription("test").asRuntimeException(), 5L));
+    BatchReadOnlyTransaction transaction =
+        createBatchClient().batchReadOnlyTransaction(TimestampBound.strong());
+    Partition partition =
+        transaction.partitionQuery(PartitionOptions.getDefaultInstance(), STATEMENT).get(0);
+    try (PartitionResultSet resultSet = transaction.executeResumable(partition)) {
+      SpannerException exception =
+          assertThrows(
+              SpannerException.class,
+              () -> {
+                while (resultSet.next()) {}
+              });
+      assertEquals(ErrorCode.INVALID_ARGUMENT, exception.getErrorCode());
+      PartitionCheckpoint checkpoint = resultSet.getCheckpoint();
+      assertEquals(5L, checkpoint.getRowCount());
+      assertEquals(ByteString.copyFromUtf8("000000005"), checkpoint.getResumeToken());
+      assertFalse(checkpoint.isDone());
+    } finally {
+      transaction.close();
+    }
+  }
+
+  @Test
+  public void testResumeCheckpointOfOtherTransaction() {
+    BatchReadOnlyTransaction transaction =
+        createBatchClient().batchReadOnlyTransaction(TimestampBound.strong());
+    Partition partition =
+        transaction.partitionQuery(PartitionOptions.getDefaultInstance(), STATEMENT).get(0);
+    PartitionCheckpoint checkpoint =
+        PartitionCheckpoint.start(transaction.getBatchTransactionId(), partition);
+    BatchReadOnlyTransaction otherTransaction =
+        createBatchClient().batchReadOnlyTransaction(TimestampBound.strong());
+    assertThrows(IllegalArgumentException.class, () -> otherTransaction.resume(checkpoint));
+    transaction.close();
+    otherTransaction.close();
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.spanner.MockSpannerServiceImpl.SimulatedExecutionTime;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.NullValue;
+import com.google.protobuf.Value;
+import com.google.spanner.v1.ExecuteSqlRequest;
+import com.google.spanner.v1.PartitionQueryRequest;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.StructType;
+import com.google.spanner.v1.StructType.Field;
+import com.google.spanner.v1.TypeCode;
+import io.grpc.Status;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PartitionedQueryExporterTest extends AbstractMockServerTest {
+  private static final Statement STATEMENT = Statement.of("SELECT * FROM Singers");
+  private static final int NUM_PARTITIONS = 4;
+  private static final int ROWS_PER_PARTITION = 4;
+
+  private static long originalRetryDelay;
+
+  @BeforeClass
+  public static void setupResults() {
+    originalRetryDelay = PartitionedQueryExporter.initialRetryDelayMillis;
+    PartitionedQueryExporter.initialRetryDelayMillis = 1L;
+    mockSpanner.putStatementResult(
+        StatementResult.query(
+            STATEMENT,
+            com.google.spanner.v1.ResultSet.newBuilder()
+                .setMetadata(
+                    ResultSetMetadata.newBuilder()
+                        .setRowType(
+                            StructType.newBuilder()
+                                .addFields(
+                                    Field.newBuilder()
+                                        .setName("Id")
+                                        .setType(
+                                            com.google.spanner.v1.Type.newBuilder()
+                                                .setCode(TypeCode.INT64)
+                                                .build())
+                                        .build())
+                                .addFields(
+                                    Field.newBuilder()
+                                        .setName("Name")
+                                        .setType(
+                                            com.google.spanner.v1.Type.newBuilder()
+                                                .setCode(TypeCode.STRING)
+                                                .build())
+                                        .build())
+                                .build())
+                        .build())
+                .addRows(row("1", Value.newBuilder().setStringValue("Alice").build()))
+                .addRows(row("2", Value.newBuilder().setStringValue("Bob, \"Jr\"").build()))
+                .addRows(row("3", Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build()))
+                .addRows(row("4", Value.newBuilder().setStringValue("").build()))
+                .build()));
+  }
+
+  @AfterClass
+  public static void resetRetryDelay() {
+    PartitionedQueryExporter.initialRetryDelayMillis = originalRetryDelay;
+  }
+
+  private static ListValue row(String id, Value name) {
+    return ListValue.newBuilder()
+        .addValues(Value.newBuilder().setStringValue(id).build())
+        .addValues(name)
+        .build();
+  }
+
+  private BatchClient createBatchClient() {
+    return spanner.getBatchClient(DatabaseId.of("p", "i", "d"));
+  }
+
+  private static ExportOptions.Builder createOptions() {
+    return ExportOptions.newBuilder()
+        .setParallelism(2)
+        .setPartitionOptions(
+            PartitionOptions.newBuilder().setMaxPartitions(NUM_PARTITIONS).build());
+  }
+
+  @Test
+  public void testExportToConsumer() {
+    ConcurrentLinkedQueue<Struct> rows = new ConcurrentLinkedQueue<>();
+    List<ExportProgress> progress = new ArrayList<>();
+    ExportProgress result =
+        createBatchClient()
+            .exportQuery(
+                TimestampBound.strong(),
+                STATEMENT,
+                createOptions()
+                    .setDataBoostEnabled(true)
+                    .setProgressListener(progress::add)
+                    .build(),
+                ExportSink.forEachRow(rows::add));
+
+    // The mock server returns all rows for each partition.
+    assertEquals(ROWS_PER_PARTITION * NUM_PARTITIONS, rows.size());
+    assertEquals(NUM_PARTITIONS, result.getTotalPartitions());
+    assertEquals(NUM_PARTITIONS, result.getCompletedPartitions());
+    assertEquals(0, result.getRetriedPartitions());
+    assertEquals((long) ROWS_PER_PARTITION * NUM_PARTITIONS, result.getRowCount());
+    assertEquals(NUM_PARTITIONS, progress.size());
+    assertEquals(
+        Collections.singletonList(NUM_PARTITIONS),
+        progress.stream()
+            .map(ExportProgress::getTotalPartitions)
+            .distinct()
+            .collect(Collectors.toList()));
+
+    assertEquals(1, mockSpanner.countRequestsOfType(PartitionQueryRequest.class));
+    List<ExecuteSqlRequest> requests = mockSpanner.getRequestsOfType(ExecuteSqlRequest.class);
+    assertEquals(NUM_PARTITIONS, requests.size());
+    for (ExecuteSqlRequest request : requests) {
+      assertTrue(request.getDataBoostEnabled());
+      assertThat(request.getPartitionToken()).isNotEmpty();
+    }
+  }
+
+  @Test
+  public void testExportToCsvFiles() throws Exception {
+    Path directory = Files.createTempDirectory("export");
+    try {
+      createBatchClient()
+          .exportQuery(
+              TimestampBound.strong(),
+              STATEMENT,
+              createOptions().build(),
+              ExportSink.csvFiles(directory));
+
+      try (Stream<Path> files = Files.list(directory)) {
+        assertThat(files.map(path -> path.getFileName().toString()).collect(Collectors.toList()))
+            .containsExactly(
+                "partition-00000.csv",
+                "partition-00001.csv",
+                "partition-00002.csv",
+                "partition-00003.csv");
+      }
+      assertEquals(
+          "Id,Name\r\n1,Alice\r\n2,\"Bob, \"\"Jr\"\"\"\r\n3,\r\n4,\"\"\r\n",
+          new String(
+              Files.readAllBytes(directory.resolve("partition-00002.csv")),
+              StandardCharsets.UTF_8));
+    } finally {
+      for (File file : directory.toFile().listFiles()) {
+        file.delete();
+      }
+      Files.delete(directory);
+    }
+  }
+
+  @Test
+  public void testRetryPartition() {
+    mockSpanner.setExecuteStreamingSqlExecutionTime(
+        SimulatedExecutionTime.ofException(
+            Status.RESOURCE_EXHAUSTED.withDescription("test").asRuntimeException()));
+    ConcurrentLinkedQueue<Struct> rows = new ConcurrentLinkedQueue<>();
+    ExportProgress result =
+        createBatchClient()
+            .exportQuery(
+                TimestampBound.strong(),
+                STATEMENT,
+                createOptions().build(),
+                ExportSink.forEachRow(rows::add));
+
+    assertEquals(NUM_PARTITIONS, result.getCompletedPartitions());
+    assertEquals(1, result.getRetriedPartitions());
+    assertEquals((long) ROWS_PER_PARTITION * NUM_PARTITIONS, result.getRowCount());
+    assertEquals(NUM_PARTITIONS + 1, mockSpanner.countRequestsOfType(ExecuteSqlRequest.class));
+  }
+
+  @Test
+  public void testPermanentError() {
+    mockSpanner.setExecuteStreamingSqlExecutionTime(
+        SimulatedExecutionTime.ofStickyException(
+            Status.INVALID_ARGUMENT.withDescription("test").asRuntimeException()));
+    SpannerException exception =
+        assertThrows(
+            SpannerException.class,
+            () ->
+                createBatchClient()
+                    .exportQuery(
+                        TimestampBound.strong(),
+                        STATEMENT,
+                        createOptions().build(),
+                        ExportSink.forEachRow(row -> {})));
+    assertEquals(ErrorCode.INVALID_ARGUMENT, exception.getErrorCode());
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.spanner.MockSpannerServiceImpl.SimulatedExecutionTime;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.protobuf.ListValue;
+import com.google.spanner.v1.ReadRequest;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.StructType;
+import com.google.spanner.v1.StructType.Field;
+import com.google.spanner.v1.TypeCode;
+import io.grpc.Status;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PointReadBatcherTest extends AbstractMockServerTest {
+  private static final List<String> READ_COLUMNS = Arrays.asList("Name", "Id");
+
+  private DatabaseClient client;
+
+  @Before
+  public void setupResults() {
+    com.google.spanner.v1.ResultSet.Builder resultSet =
+        com.google.spanner.v1.ResultSet.newBuilder()
+            .setMetadata(
+                ResultSetMetadata.newBuilder()
+                    .setRowType(
+                        StructType.newBuilder()
+                            .addFields(field("Name", TypeCode.STRING))
+                            .addFields(field("Id", TypeCode.INT64))));
+    for (int i = 1; i <= 3; i++) {
+      resultSet.addRows(
+          ListValue.newBuilder()
+              .addValues(com.google.protobuf.Value.newBuilder().setStringValue("Name" + i))
+              .addValues(com.google.protobuf.Value.newBuilder().setStringValue(String.valueOf(i))));
+    }
+    mockSpanner.putStatementResult(
+        StatementResult.read("FOO", KeySet.singleKey(Key.of()), READ_COLUMNS, resultSet.build()));
+    client = spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+  }
+
+  private static Field field(String name, TypeCode code) {
+    return Field.newBuilder()
+        .setName(name)
+        .setType(com.google.spanner.v1.Type.newBuilder().setCode(code))
+        .build();
+  }
+
+  @Test
+  public void testBatchIsExecutedWhenFull() throws Exception {
+    try (PointReadBatcher batcher =
+        PointReadBatcher.newBuilder(client)
+            .addTable("FOO", "Id")
+            .setMaxBatchSize(3)
+            .setBatchWindow(Duration.ofHours(1L))
+            .build()) {
+      ApiFuture<Struct> row1 = batcher.readRow("FOO", Key.of(1L), READ_COLUMNS);
+      ApiFuture<Struct> row2 = batcher.readRow("FOO", Key.of(2L), READ_COLUMNS);
+      ApiFuture<Struct> duplicate = batcher.readRow("FOO", Key.of(2), READ_COLUMNS);
+      ApiFuture<Struct> missing = batcher.readRow("FOO", Key.of(4L), READ_COLUMNS);
+
+      assertEquals("Name1", row1.get().getString("Name"));
+      assertEquals(2L, row2.get().getLong("Id"));
+      assertEquals(row2.get(), duplicate.get());
+      assertNull(missing.get());
+    }
+    List<ReadRequest> requests = mockSpanner.getRequestsOfType(ReadRequest.class);
+    assertEquals(1, requests.size());
+    assertEquals(READ_COLUMNS, requests.get(0).getColumnsList());
+    assertEquals(3, requests.get(0).getKeySet().getKeysCount());
+  }
+
+  @Test
+  public void testBatchIsExecutedAfterWindow() throws Exception {
+    try (PointReadBatcher batcher =
+        PointReadBatcher.newBuilder(client)
+            .addTable("FOO", "Id")
+            .setBatchWindow(Duration.ofMillis(10L))
+            .build()) {
+      // The key column is added to the read and removed from the returned rows.
+      ApiFuture<Struct> row1 =
+          batcher.readRow("FOO", Key.of(1L), Collections.singletonList("Name"));
+      ApiFuture<Struct> row3 =
+          batcher.readRow("FOO", Key.of(3L), Collections.singletonList("Name"));
+
+      assertEquals(1, row1.get().getColumnCount());
+      assertEquals("Name1", row1.get().getString(0));
+      assertEquals("Name3", row3.get().getString(0));
+    }
+    List<ReadRequest> requests = mockSpanner.getRequestsOfType(ReadRequest.class);
+    assertEquals(1, requests.size());
+    assertEquals(READ_COLUMNS, requests.get(0).getColumnsList());
+  }
+
+  @Test
+  public void testCloseExecutesPendingBatches() throws Exception {
+    ApiFuture<Struct> row;
+    try (PointReadBatcher batcher =
+        PointReadBatcher.newBuilder(client)
+            .addTable("FOO", "Id")
+            .setBatchWindow(Duration.ofHours(1L))
+            .build()) {
+      row = batcher.readRow("FOO", Key.of(1L), READ_COLUMNS);
+    }
+    assertEquals("Name1", row.get().getString("Name"));
+  }
+
+  @Test
+  public void testNumericKeyWithDifferentScale() throws Exception {
+    List<String> columns = Arrays.asList("Price", "Name");
+    com.google.spanner.v1.ResultSet.Builder resultSet =
+        com.google.spanner.v1.ResultSet.newBuilder()
+            .setMetadata(
+                ResultSetMetadata.newBuilder()
+                    .setRowType(
+                        StructType.newBuilder()
+                            .addFields(field("Price", TypeCode.NUMERIC))
+                            .addFields(field("Name", TypeCode.STRING))));
+    for (String price : new String[] {"1.5", "100"}) {
+      resultSet.addRows(
+          ListValue.newBuilder()
+              .addValues(com.google.protobuf.Value.newBuilder().setStringValue(price))
+              .addValues(com.google.protobuf.Value.newBuilder().setStringValue("Name" + price)));
+    }
+    mockSpanner.putStatementResult(
+        StatementResult.read("PRICES", KeySet.singleKey(Key.of()), columns, resultSet.build()));
+
+    try (PointReadBatcher batcher =
+        PointReadBatcher.newBuilder(client)
+            .addTable("PRICES", "Price")
+            .setMaxBatchSize(2)
+            .setBatchWindow(Duration.ofHours(1L))
+            .build()) {
+      ApiFuture<Struct> row1 = batcher.readRow("PRICES", Key.of(new BigDecimal("1.50")), columns);
+      ApiFuture<Struct> row2 = batcher.readRow("PRICES", Key.of(new BigDecimal("1E+2")), columns);
+
+      assertEquals("Name1.5", row1.get().getString("Name"));
+      assertEquals("Name100", row2.get().getString("Name"));
+    }
+  }
+
+  @Test
+  public void testReadError() {
+    mockSpanner.setStreamingReadExecutionTime(
+        SimulatedExecutionTime.ofException(
+            Status.PERMISSION_DENIED.withDescription("not allowed").asRuntimeException()));
+    ApiFuture<Struct> row;
+    try (PointReadBatcher batcher =
+        PointReadBatcher.newBuilder(client).addTable("FOO", "Id").build()) {
+      row = batcher.readRow("FOO", Key.of(1L), READ_COLUMNS);
+    }
+    ExecutionException exception = assertThrows(ExecutionException.class, row::get);
+    assertTrue(exception.getCause() instanceof SpannerException);
+    assertEquals(
+        ErrorCode.PERMISSION_DENIED, ((SpannerException) exception.getCause()).getErrorCode());
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    try (PointReadBatcher batcher =
+        PointReadBatcher.newBuilder(client).addTable("FOO", "Id").build()) {
+      assertThrows(
+          IllegalArgumentException.class, () -> batcher.readRow("BAR", Key.of(1L), READ_COLUMNS));
+      assertThrows(
+          IllegalArgumentException.class,
+          () -> batcher.readRow("FOO", Key.of(1L, 2L), READ_COLUMNS));
+      batcher.close();
+      assertThrows(
+          IllegalStateException.class, () -> batcher.readRow("FOO", Key.of(1L), READ_COLUMNS));
+    }
+  }
+}
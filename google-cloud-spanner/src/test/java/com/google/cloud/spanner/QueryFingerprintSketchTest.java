@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.cloud.spanner.connection.RandomResultSetGenerator;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class QueryFingerprintSketchTest extends AbstractMockServerTest {
+  private static final Statement QUERY1 = Statement.of("SELECT * FROM random WHERE id=1");
+  private static final Statement QUERY2 = Statement.of("SELECT *\nFROM random WHERE id=2");
+  private static final Statement OTHER_QUERY = Statement.of("SELECT * FROM other");
+  private static final int ROW_COUNT = 5;
+
+  @BeforeClass
+  public static void setupResults() {
+    mockSpanner.putStatementResult(
+        StatementResult.query(QUERY1, new RandomResultSetGenerator(ROW_COUNT).generate()));
+    mockSpanner.putStatementResult(
+        StatementResult.query(QUERY2, new RandomResultSetGenerator(ROW_COUNT).generate()));
+    mockSpanner.putStatementResult(
+        StatementResult.query(OTHER_QUERY, new RandomResultSetGenerator(1).generate()));
+  }
+
+  private Spanner createSpanner(int capacity) {
+    return SpannerOptions.newBuilder()
+        .setProjectId("p")
+        .setChannelProvider(channelProvider)
+        .setCredentials(NoCredentials.getInstance())
+        .setSessionPoolOption(SessionPoolOptions.newBuilder().setFailOnSessionLeak().build())
+        .setQueryFingerprintSketchCapacity(capacity)
+        .build()
+        .getService();
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    DatabaseClient client = spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+    try (ResultSet resultSet = client.singleUse().executeQuery(QUERY1)) {
+      while (resultSet.next()) {}
+    }
+    assertTrue(spanner.getTopQueryFingerprints().isEmpty());
+  }
+
+  @Test
+  public void testTopQueryFingerprints() {
+    try (Spanner spannerWithSketch = createSpanner(10)) {
+      DatabaseClient client = spannerWithSketch.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+      for (Statement statement : new Statement[] {QUERY1, QUERY2, OTHER_QUERY}) {
+        try (ResultSet resultSet = client.singleUse().executeQuery(statement)) {
+          while (resultSet.next()) {}
+        }
+      }
+      // Closing a result set before all rows have been consumed also records the query.
+      try (ResultSet resultSet = client.singleUse().executeQuery(QUERY1)) {
+        assertTrue(resultSet.next());
+      }
+
+      List<QueryFingerprintStats> stats = spannerWithSketch.getTopQueryFingerprints();
+      assertEquals(2, stats.size());
+      QueryFingerprintStats top = stats.get(0);
+      assertEquals("SELECT * FROM random WHERE id=?", top.getFingerprint());
+      assertEquals(3L, top.getCallCount());
+      assertEquals(0L, top.getMaxCallCountError());
+      assertEquals(2L * ROW_COUNT + 1L, top.getRowCount());
+      assertThat(top.getBytesReceived()).isGreaterThan(0L);
+      assertThat(top.getTotalLatency()).isGreaterThan(Duration.ZERO);
+      assertThat(top.getP99Latency()).isGreaterThan(Duration.ZERO);
+
+      assertEquals("SELECT * FROM other", stats.get(1).getFingerprint());
+      assertEquals(1L, stats.get(1).getCallCount());
+      assertEquals(1L, stats.get(1).getRowCount());
+    }
+  }
+
+  @Test
+  public void testEvictsLeastFrequentFingerprint() {
+    QueryFingerprintSketch sketch = new QueryFingerprintSketch(2, 1d);
+    for (int i = 0; i < 3; i++) {
+      sketch.record("SELECT 1", 0L, 1L, 0L);
+    }
+    sketch.record("SELECT * FROM foo", 0L, 1L, 0L);
+    sketch.record("SELECT * FROM bar", 0L, 1L, 0L);
+
+    List<QueryFingerprintStats> stats = sketch.getTopFingerprints();
+    assertEquals(2, stats.size());
+    assertEquals("SELECT ?", stats.get(0).getFingerprint());
+    assertEquals(3L, stats.get(0).getCallCount());
+    // 'bar' replaced 'foo' and inherited its count.
+    assertEquals("SELECT * FROM bar", stats.get(1).getFingerprint());
+    assertEquals(2L, stats.get(1).getCallCount());
+    assertEquals(1L, stats.get(1).getMaxCallCountError());
+    assertEquals(1L, stats.get(1).getRowCount());
+  }
+
+  @Test
+  public void testSpaceSavingGuarantees() {
+    int capacity = 10;
+    QueryFingerprintSketch sketch = new QueryFingerprintSketch(capacity, 1d);
+    Map<String, Long> actualCounts = new HashMap<>();
+    Random random = new Random(1L);
+    int total = 10000;
+    for (int i = 0; i < total; i++) {
+      // Half of the executions are for three frequent queries, the rest for many rare queries.
+      String sql =
+          random.nextBoolean()
+              ? "SELECT * FROM frequent" + random.nextInt(3)
+              : "SELECT * FROM rare" + random.nextInt(1000);
+      sketch.record(sql, 0L, 1L, 0L);
+      actualCounts.merge(sql, 1L, Long::sum);
+    }
+
+    List<QueryFingerprintStats> stats = sketch.getTopFingerprints();
+    assertEquals(capacity, stats.size());
+    assertEquals(total, stats.stream().mapToLong(QueryFingerprintStats::getCallCount).sum());
+    for (int i = 0; i < stats.size(); i++) {
+      QueryFingerprintStats stat = stats.get(i);
+      long actual = actualCounts.get(stat.getFingerprint());
+      assertThat(stat.getCallCount()).isAtLeast(actual);
+      assertThat(stat.getCallCount() - stat.getMaxCallCountError()).isAtMost(actual);
+      if (i < 3) {
+        assertThat(stat.getFingerprint()).startsWith("SELECT * FROM frequent");
+      }
+      if (i > 0) {
+        assertThat(stat.getCallCount()).isAtMost(stats.get(i - 1).getCallCount());
+      }
+    }
+  }
+
+  @Test
+  public void testP99Latency() {
+    QueryFingerprintSketch sketch = new QueryFingerprintSketch(1, 1d);
+    for (int i = 0; i < 99; i++) {
+      sketch.record("SELECT 1", TimeUnit.MILLISECONDS.toNanos(1L), 1L, 0L);
+    }
+    sketch.record("SELECT 1", TimeUnit.SECONDS.toNanos(1L), 1L, 0L);
+    sketch.record("SELECT 1", TimeUnit.SECONDS.toNanos(1L), 1L, 0L);
+
+    Duration p99 = sketch.getTopFingerprints().get(0).getP99Latency();
+    assertThat(p99).isAtLeast(Duration.ofSeconds(1L));
+    assertThat(p99).isAtMost(Duration.ofMillis(1250L));
+  }
+
+  @Test
+  public void testLatencyBuckets() {
+    assertEquals(0, QueryFingerprintSketch.getLatencyBucket(0L));
+    assertEquals(
+        QueryFingerprintSketch.NUM_LATENCY_BUCKETS - 1,
+        QueryFingerprintSketch.getLatencyBucket(Long.MAX_VALUE));
+    for (long latency = 1000L; latency < TimeUnit.MINUTES.toNanos(10L); latency *= 3L) {
+      long upperBound =
+          QueryFingerprintSketch.getLatencyBucketUpperBoundNanos(
+              QueryFingerprintSketch.getLatencyBucket(latency));
+      assertThat(upperBound).isAtLeast(latency);
+      assertThat(upperBound).isAtMost((long) (latency * 1.25d) + 1000L);
+    }
+  }
+}
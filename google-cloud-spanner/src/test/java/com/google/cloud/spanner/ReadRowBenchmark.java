@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.AbstractResultSet.CloseableIterator;
+import com.google.spanner.v1.MultiplexedSessionPrecommitToken;
+import com.google.spanner.v1.PartialResultSet;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.Transaction;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the client-side cost of consuming the single row of a point read through a {@link
+ * GrpcResultSet} with the fast path that is used by {@link ReadContext#readRow}. Both benchmarks
+ * consume the same {@link PartialResultSet}, so the results only include the work that is done by
+ * the client after the response has been received. The benchmarks are bound to the Maven profile
+ * `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ReadRowBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+public class ReadRowBenchmark {
+
+  private static final class NoOpListener implements AbstractResultSet.Listener {
+    @Override
+    public void onTransactionMetadata(Transaction transaction, boolean shouldIncludeId) {}
+
+    @Override
+    public SpannerException onError(SpannerException e, boolean withBeginTransaction) {
+      return e;
+    }
+
+    @Override
+    public void onDone(boolean withBeginTransaction) {}
+
+    @Override
+    public void onPrecommitToken(MultiplexedSessionPrecommitToken token) {}
+  }
+
+  /** A stream that returns one {@link PartialResultSet}. */
+  private static final class SingleMessageStream implements CloseableIterator<PartialResultSet> {
+    private PartialResultSet message;
+
+    private SingleMessageStream(PartialResultSet message) {
+      this.message = message;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return message != null;
+    }
+
+    @Override
+    public PartialResultSet next() {
+      PartialResultSet result = message;
+      message = null;
+      return result;
+    }
+
+    @Override
+    public void close(@Nullable String message) {}
+
+    @Override
+    public boolean isWithBeginTransaction() {
+      return false;
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    PartialResultSet message;
+    AbstractResultSet.Listener listener;
+
+    @Setup
+    public void setup() {
+      Struct row =
+          Struct.newBuilder()
+              .set("SingerId")
+              .to(1L)
+              .set("FirstName")
+              .to("First")
+              .set("LastName")
+              .to("Last")
+              .set("Score")
+              .to(1.5d)
+              .set("Active")
+              .to(true)
+              .set("LastUpdate")
+              .to(Timestamp.ofTimeSecondsAndNanos(1000L, 0))
+              .build();
+      PartialResultSet.Builder builder =
+          PartialResultSet.newBuilder()
+              .setMetadata(
+                  ResultSetMetadata.newBuilder()
+                      .setRowType(row.getType().toProto().getStructType()));
+      for (int i = 0; i < row.getColumnCount(); i++) {
+        builder.addValues(row.getValue(i).toProto());
+      }
+      message = builder.build();
+      listener = new NoOpListener();
+    }
+  }
+
+  @Benchmark
+  public Struct resultSet(BenchmarkState state) {
+    try (ResultSet resultSet =
+        new GrpcResultSet(
+            new SingleMessageStream(state.message), state.listener, DecodeMode.DIRECT)) {
+      if (!resultSet.next()) {
+        return null;
+      }
+      Struct row = resultSet.getCurrentRowAsStruct();
+      if (resultSet.next()) {
+        throw new IllegalStateException("Multiple rows returned for single key");
+      }
+      return row;
+    }
+  }
+
+  @Benchmark
+  public Struct pointRead(BenchmarkState state) {
+    return AbstractReadContext.consumeSingleRow(
+        new SingleMessageStream(state.message), state.listener, DecodeMode.DIRECT, null);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.core.ApiFuture;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.MockSpannerServiceImpl.SimulatedExecutionTime;
+import com.google.spanner.v1.BatchCreateSessionsRequest;
+import io.grpc.Status;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SessionPoolWarmUpMockServerTest extends AbstractMockServerTest {
+  private static final int MAX_SESSIONS = 200;
+
+  @Before
+  public void createSpannerInstance() {
+    spanner = createSpanner();
+  }
+
+  private static Spanner createSpanner() {
+    return SpannerOptions.newBuilder()
+        .setProjectId("p")
+        .setChannelProvider(channelProvider)
+        .setCredentials(NoCredentials.getInstance())
+        .setSessionPoolOption(
+            SessionPoolOptions.newBuilder()
+                .setMinSessions(0)
+                .setMaxSessions(MAX_SESSIONS)
+                .setFailOnSessionLeak()
+                .build())
+        .build()
+        .getService();
+  }
+
+  @Test
+  public void testPrepareSessions() throws Exception {
+    DatabaseClientImpl client =
+        (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+    assertEquals(0, client.pool.totalSessions());
+
+    client.prepareSessionsAsync(150).get(10L, TimeUnit.SECONDS);
+    assertEquals(150, client.pool.totalSessions());
+    // The sessions are created in batches of at most MAX_SESSIONS_PER_BATCH_CREATE sessions.
+    for (BatchCreateSessionsRequest request :
+        mockSpanner.getRequestsOfType(BatchCreateSessionsRequest.class)) {
+      assertTrue(request.getSessionCount() <= SessionClient.MAX_SESSIONS_PER_BATCH_CREATE);
+    }
+
+    // Preparing fewer sessions than the pool already contains is a no-op.
+    mockSpanner.clearRequests();
+    ApiFuture<Void> future = client.prepareSessionsAsync(100);
+    assertTrue(future.isDone());
+    future.get();
+    assertEquals(0, mockSpanner.countRequestsOfType(BatchCreateSessionsRequest.class));
+  }
+
+  @Test
+  public void testPrepareSessionsIsCappedAtMaxSessions() throws Exception {
+    DatabaseClientImpl client =
+        (DatabaseClientImpl) spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+
+    client.prepareSessionsAsync(MAX_SESSIONS + 100).get(10L, TimeUnit.SECONDS);
+    assertEquals(MAX_SESSIONS, client.pool.totalSessions());
+  }
+
+  @Test
+  public void testPrepareSessionsFails() {
+    mockSpanner.setBatchCreateSessionsExecutionTime(
+        SimulatedExecutionTime.ofStickyException(
+            Status.PERMISSION_DENIED.withDescription("test").asRuntimeException()));
+    DatabaseClient client = spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+
+    ExecutionException exception =
+        assertThrows(
+            ExecutionException.class,
+            () -> client.prepareSessionsAsync(50).get(10L, TimeUnit.SECONDS));
+    assertEquals(
+        ErrorCode.PERMISSION_DENIED,
+        SpannerExceptionFactory.asSpannerException(exception.getCause()).getErrorCode());
+  }
+
+  @Test
+  public void testPrepareSessionsFailsIfOneBatchFails() {
+    // Only one of the BatchCreateSessions calls fails. The other batches succeed, but the missing
+    // sessions are not requested again, so the future must fail instead of waiting forever.
+    mockSpanner.setBatchCreateSessionsExecutionTime(
+        SimulatedExecutionTime.ofException(
+            Status.PERMISSION_DENIED.withDescription("test").asRuntimeException()));
+    DatabaseClient client = spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+
+    ExecutionException exception =
+        assertThrows(
+            ExecutionException.class,
+            () -> client.prepareSessionsAsync(150).get(10L, TimeUnit.SECONDS));
+    assertEquals(
+        ErrorCode.PERMISSION_DENIED,
+        SpannerExceptionFactory.asSpannerException(exception.getCause()).getErrorCode());
+    assertTrue(mockSpanner.countRequestsOfType(BatchCreateSessionsRequest.class) > 1);
+  }
+
+  @Test
+  public void testPrepareSessionsFailsWhenClosed() {
+    mockSpanner.setBatchCreateSessionsExecutionTime(
+        SimulatedExecutionTime.ofMinimumAndRandomTime(200, 0));
+    Spanner otherSpanner = createSpanner();
+    DatabaseClient client = otherSpanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+    ApiFuture<Void> future = client.prepareSessionsAsync(10);
+    otherSpanner.close();
+
+    ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> future.get(10L, TimeUnit.SECONDS));
+    assertEquals(
+        ErrorCode.INTERNAL,
+        SpannerExceptionFactory.asSpannerException(exception.getCause()).getErrorCode());
+  }
+}
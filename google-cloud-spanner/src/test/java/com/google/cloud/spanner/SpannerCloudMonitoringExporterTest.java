@@ -42,6 +42,7 @@ import com.google.cloud.monitoring.v3.MetricServiceClient;
 import com.google.cloud.monitoring.v3.stub.MetricServiceStub;
 import com.google.common.collect.ImmutableList;
 import com.google.monitoring.v3.CreateTimeSeriesRequest;
+import com.google.monitoring.v3.Point;
 import com.google.monitoring.v3.TimeSeries;
 import com.google.protobuf.Empty;
 import io.opentelemetry.api.common.Attributes;
@@ -62,6 +63,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -334,6 +338,152 @@ public class SpannerCloudMonitoringExporterTest {
     }
   }
 
+  @Test
+  public void testSkipsUnchangedCumulativeTimeSeries() {
+    ArgumentCaptor<CreateTimeSeriesRequest> argumentCaptor =
+        ArgumentCaptor.forClass(CreateTimeSeriesRequest.class);
+
+    UnaryCallable<CreateTimeSeriesRequest, Empty> mockCallable = mock(UnaryCallable.class);
+    when(mockMetricServiceStub.createServiceTimeSeriesCallable()).thenReturn(mockCallable);
+    ApiFuture<Empty> future = ApiFutures.immediateFuture(Empty.getDefaultInstance());
+    when(mockCallable.futureCall(argumentCaptor.capture())).thenReturn(future);
+
+    Attributes otherDatabase = attributes.toBuilder().put(DATABASE_KEY, "other-database").build();
+    assertThat(
+            exporter
+                .export(
+                    Arrays.asList(
+                        createLongSum(10, 15, attributes, 1L),
+                        createLongSum(10, 15, otherDatabase, 1L)))
+                .isSuccess())
+        .isTrue();
+    assertThat(argumentCaptor.getAllValues()).hasSize(1);
+    assertThat(argumentCaptor.getValue().getTimeSeriesList()).hasSize(2);
+
+    // Only the time series with a changed value is exported.
+    assertThat(
+            exporter
+                .export(
+                    Arrays.asList(
+                        createLongSum(10, 20, attributes, 1L),
+                        createLongSum(10, 20, otherDatabase, 2L)))
+                .isSuccess())
+        .isTrue();
+    assertThat(argumentCaptor.getAllValues()).hasSize(2);
+    assertThat(argumentCaptor.getValue().getTimeSeriesList()).hasSize(1);
+    TimeSeries timeSeries = argumentCaptor.getValue().getTimeSeries(0);
+    assertThat(timeSeries.getMetric().getLabelsMap())
+        .containsEntry(DATABASE_KEY.getKey(), "other-database");
+    assertThat(timeSeries.getPoints(0).getValue().getInt64Value()).isEqualTo(2L);
+
+    // Nothing is exported if no time series has changed.
+    assertThat(
+            exporter
+                .export(
+                    Arrays.asList(
+                        createLongSum(10, 25, attributes, 1L),
+                        createLongSum(10, 25, otherDatabase, 2L)))
+                .isSuccess())
+        .isTrue();
+    assertThat(argumentCaptor.getAllValues()).hasSize(2);
+
+    // Unchanged time series are exported again after a while.
+    long tenMinutes = TimeUnit.MINUTES.toNanos(10L);
+    exporter.export(Collections.singletonList(createLongSum(10, 15 + tenMinutes, attributes, 1L)));
+    assertThat(argumentCaptor.getAllValues()).hasSize(3);
+    assertThat(argumentCaptor.getValue().getTimeSeriesList()).hasSize(1);
+  }
+
+  @Test
+  public void testExportsTimeSeriesAgainAfterFailure() {
+    ArgumentCaptor<CreateTimeSeriesRequest> argumentCaptor =
+        ArgumentCaptor.forClass(CreateTimeSeriesRequest.class);
+
+    UnaryCallable<CreateTimeSeriesRequest, Empty> mockCallable = mock(UnaryCallable.class);
+    when(mockMetricServiceStub.createServiceTimeSeriesCallable()).thenReturn(mockCallable);
+    when(mockCallable.futureCall(argumentCaptor.capture()))
+        .thenReturn(ApiFutures.immediateFailedFuture(new RuntimeException("test")))
+        .thenReturn(ApiFutures.immediateFuture(Empty.getDefaultInstance()));
+
+    assertThat(
+            exporter
+                .export(Collections.singletonList(createLongSum(10, 15, attributes, 1L)))
+                .isSuccess())
+        .isFalse();
+    assertThat(
+            exporter
+                .export(Collections.singletonList(createLongSum(10, 20, attributes, 1L)))
+                .isSuccess())
+        .isTrue();
+    assertThat(argumentCaptor.getAllValues()).hasSize(2);
+    assertThat(argumentCaptor.getValue().getTimeSeriesList()).hasSize(1);
+  }
+
+  @Test
+  public void testMergesPointsOfSameTimeSeries() {
+    ArgumentCaptor<CreateTimeSeriesRequest> argumentCaptor =
+        ArgumentCaptor.forClass(CreateTimeSeriesRequest.class);
+
+    UnaryCallable<CreateTimeSeriesRequest, Empty> mockCallable = mock(UnaryCallable.class);
+    when(mockMetricServiceStub.createServiceTimeSeriesCallable()).thenReturn(mockCallable);
+    ApiFuture<Empty> future = ApiFutures.immediateFuture(Empty.getDefaultInstance());
+    when(mockCallable.futureCall(argumentCaptor.capture())).thenReturn(future);
+
+    exporter.export(
+        Arrays.asList(
+            createHistogram(10, 15, 3d, Arrays.asList(1L, 2L)),
+            createHistogram(5, 20, 9d, Arrays.asList(0L, 3L))));
+
+    CreateTimeSeriesRequest request = argumentCaptor.getValue();
+    assertThat(request.getTimeSeriesList()).hasSize(1);
+    Point point = request.getTimeSeries(0).getPoints(0);
+    Distribution distribution = point.getValue().getDistributionValue();
+    assertThat(distribution.getCount()).isEqualTo(6L);
+    assertThat(distribution.getMean()).isEqualTo(2d);
+    assertThat(distribution.getBucketCountsList()).containsExactly(1L, 5L).inOrder();
+    assertThat(point.getInterval().getStartTime().getNanos()).isEqualTo(5);
+    assertThat(point.getInterval().getEndTime().getNanos()).isEqualTo(20);
+  }
+
+  private MetricData createLongSum(
+      long startEpoch, long endEpoch, Attributes pointAttributes, long value) {
+    return ImmutableMetricData.createLongSum(
+        resource,
+        scope,
+        "spanner.googleapis.com/internal/client/" + OPERATION_COUNT_NAME,
+        "description",
+        "1",
+        ImmutableSumData.create(
+            true,
+            AggregationTemporality.CUMULATIVE,
+            ImmutableList.of(
+                ImmutableLongPointData.create(startEpoch, endEpoch, pointAttributes, value))));
+  }
+
+  private MetricData createHistogram(
+      long startEpoch, long endEpoch, double sum, List<Long> counts) {
+    return ImmutableMetricData.createDoubleHistogram(
+        resource,
+        scope,
+        "spanner.googleapis.com/internal/client/" + OPERATION_LATENCIES_NAME,
+        "description",
+        "ms",
+        ImmutableHistogramData.create(
+            AggregationTemporality.CUMULATIVE,
+            ImmutableList.of(
+                ImmutableHistogramPointData.create(
+                    startEpoch,
+                    endEpoch,
+                    attributes,
+                    sum,
+                    false,
+                    0d,
+                    false,
+                    0d,
+                    Collections.singletonList(1.0),
+                    counts))));
+  }
+
   @Test
   public void getAggregationTemporality() throws IOException {
     SpannerCloudMonitoringExporter actualExporter =
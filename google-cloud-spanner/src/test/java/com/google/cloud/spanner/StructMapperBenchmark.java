@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares mapping the rows of a {@link ResultSet} with a {@link StructMapper} with hand-written
+ * mappers that get the values by column index and by column name. The benchmarks are bound to the
+ * Maven profile `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=StructMapperBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+public class StructMapperBenchmark {
+
+  public static class Singer {
+    long singerId;
+    String firstName;
+    String lastName;
+    double score;
+    boolean active;
+    Timestamp lastUpdate;
+  }
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    Type type;
+    List<Struct> rows;
+    StructMapper<Singer> mapper;
+
+    @Setup
+    public void setup() {
+      rows = new ArrayList<>(1000);
+      for (int i = 0; i < 1000; i++) {
+        rows.add(
+            Struct.newBuilder()
+                .set("SingerId")
+                .to(i)
+                .set("FirstName")
+                .to("First" + i)
+                .set("LastName")
+                .to("Last" + i)
+                .set("Score")
+                .to(i * 1.5d)
+                .set("Active")
+                .to(i % 2 == 0)
+                .set("LastUpdate")
+                .to(Timestamp.ofTimeSecondsAndNanos(i, 0))
+                .build());
+      }
+      type = rows.get(0).getType();
+      mapper = StructMapper.of(Singer.class);
+    }
+  }
+
+  @Benchmark
+  public List<Singer> byIndex(BenchmarkState state) {
+    List<Singer> result = new ArrayList<>(state.rows.size());
+    ResultSet row = ResultSets.forRows(state.type, state.rows);
+    while (row.next()) {
+      Singer singer = new Singer();
+      singer.singerId = row.getLong(0);
+      singer.firstName = row.getString(1);
+      singer.lastName = row.getString(2);
+      singer.score = row.getDouble(3);
+      singer.active = row.getBoolean(4);
+      singer.lastUpdate = row.getTimestamp(5);
+      result.add(singer);
+    }
+    return result;
+  }
+
+  @Benchmark
+  public List<Singer> byName(BenchmarkState state) {
+    List<Singer> result = new ArrayList<>(state.rows.size());
+    ResultSet row = ResultSets.forRows(state.type, state.rows);
+    while (row.next()) {
+      Singer singer = new Singer();
+      singer.singerId = row.getLong("SingerId");
+      singer.firstName = row.getString("FirstName");
+      singer.lastName = row.getString("LastName");
+      singer.score = row.getDouble("Score");
+      singer.active = row.getBoolean("Active");
+      singer.lastUpdate = row.getTimestamp("LastUpdate");
+      result.add(singer);
+    }
+    return result;
+  }
+
+  @Benchmark
+  public List<Singer> structMapper(BenchmarkState state) {
+    List<Singer> result = new ArrayList<>(state.rows.size());
+    ResultSet row = ResultSets.forRows(state.type, state.rows);
+    while (row.next()) {
+      result.add(state.mapper.map(row));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.Timestamp;
+import com.google.cloud.spanner.Type.StructField;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class StructMapperTest {
+  private static final Type ALBUM_TYPE =
+      Type.struct(StructField.of("AlbumId", Type.int64()), StructField.of("Title", Type.string()));
+
+  static class Album {
+    long albumId;
+    String title;
+  }
+
+  static class Singer {
+    long singerId;
+    Integer rank;
+    String firstName;
+    boolean active;
+    double score;
+    Timestamp lastUpdate;
+    long[] tags;
+    List<String> aliases;
+    Album firstAlbum;
+    List<Album> albums;
+    transient String ignored;
+  }
+
+  static final class ImmutableAlbum {
+    final long albumId;
+    final String title;
+
+    ImmutableAlbum(long albumId, String title) {
+      this.albumId = albumId;
+      this.title = title;
+    }
+  }
+
+  private static Struct album(long id, String title) {
+    return Struct.newBuilder().set("AlbumId").to(id).set("Title").to(title).build();
+  }
+
+  private static Struct singer(long id, String firstName) {
+    return Struct.newBuilder()
+        .set("SINGER_ID")
+        .to(id)
+        .set("Rank")
+        .to(3L)
+        .set("FirstName")
+        .to(firstName)
+        .set("Active")
+        .to(true)
+        .set("Score")
+        .to(1.5d)
+        .set("LastUpdate")
+        .to(Timestamp.ofTimeSecondsAndNanos(100L, 0))
+        .set("Tags")
+        .toInt64Array(new long[] {1L, 2L})
+        .set("Aliases")
+        .toStringArray(Arrays.asList("a", "b"))
+        .set("FirstAlbum")
+        .to(ALBUM_TYPE, album(1L, "First"))
+        .set("Albums")
+        .toStructArray(ALBUM_TYPE, Arrays.asList(album(1L, "First"), album(2L, "Second")))
+        .set("Ignored")
+        .to("ignored")
+        .set("Unknown")
+        .to("unknown")
+        .build();
+  }
+
+  @Test
+  public void testMapFields() {
+    StructMapper<Singer> mapper = StructMapper.of(Singer.class);
+    Singer singer = mapper.map(singer(1L, "Alice"));
+
+    assertEquals(1L, singer.singerId);
+    assertEquals(Integer.valueOf(3), singer.rank);
+    assertEquals("Alice", singer.firstName);
+    assertTrue(singer.active);
+    assertEquals(1.5d, singer.score, 0.0d);
+    assertEquals(Timestamp.ofTimeSecondsAndNanos(100L, 0), singer.lastUpdate);
+    assertArrayEquals(new long[] {1L, 2L}, singer.tags);
+    assertEquals(Arrays.asList("a", "b"), singer.aliases);
+    assertEquals(1L, singer.firstAlbum.albumId);
+    assertEquals("First", singer.firstAlbum.title);
+    assertEquals(2, singer.albums.size());
+    assertEquals("Second", singer.albums.get(1).title);
+    assertNull(singer.ignored);
+  }
+
+  @Test
+  public void testMapNullValues() {
+    Struct row =
+        Struct.newBuilder()
+            .set("SingerId")
+            .to((Long) null)
+            .set("FirstName")
+            .to((String) null)
+            .set("Active")
+            .to((Boolean) null)
+            .build();
+    Singer singer = StructMapper.of(Singer.class).map(row);
+
+    assertEquals(0L, singer.singerId);
+    assertNull(singer.firstName);
+    assertFalse(singer.active);
+  }
+
+  @Test
+  public void testMapResultSet() {
+    Type type =
+        Type.struct(
+            StructField.of("SingerId", Type.int64()),
+            StructField.of("FirstName", Type.string()),
+            StructField.of("Albums", Type.array(ALBUM_TYPE)));
+    Struct alice =
+        Struct.newBuilder()
+            .set("SingerId")
+            .to(1L)
+            .set("FirstName")
+            .to("Alice")
+            .set("Albums")
+            .toStructArray(ALBUM_TYPE, Arrays.asList(album(1L, "First")))
+            .build();
+    Struct bob =
+        Struct.newBuilder()
+            .set("SingerId")
+            .to(2L)
+            .set("FirstName")
+            .to("Bob")
+            .set("Albums")
+            .toStructArray(ALBUM_TYPE, Arrays.asList())
+            .build();
+    StructMapper<Singer> mapper = StructMapper.of(Singer.class);
+    try (ResultSet resultSet = ResultSets.forRows(type, Arrays.asList(alice, bob))) {
+      List<Singer> singers = mapper.toList(resultSet);
+      assertEquals(2, singers.size());
+      assertEquals("Alice", singers.get(0).firstName);
+      assertEquals("First", singers.get(0).albums.get(0).title);
+      assertEquals(2L, singers.get(1).singerId);
+      assertTrue(singers.get(1).albums.isEmpty());
+    }
+    // The same mapper can be used for rows with a different row type.
+    Singer singer = mapper.map(Struct.newBuilder().set("FirstName").to("Carol").build());
+    assertEquals("Carol", singer.firstName);
+  }
+
+  @Test
+  public void testMapConstructor() {
+    StructMapper<ImmutableAlbum> mapper =
+        StructMapper.newBuilder(ImmutableAlbum.class).useConstructor("AlbumId", "Title").build();
+    ImmutableAlbum album = mapper.map(album(1L, "First"));
+    assertEquals(1L, album.albumId);
+    assertEquals("First", album.title);
+
+    ImmutableAlbum nullAlbum =
+        mapper.map(
+            Struct.newBuilder()
+                .set("title")
+                .to((String) null)
+                .set("album_id")
+                .to((Long) null)
+                .build());
+    assertEquals(0L, nullAlbum.albumId);
+    assertNull(nullAlbum.title);
+  }
+
+  @Test
+  public void testNestedMapper() {
+    StructMapper<ImmutableAlbum> albumMapper =
+        StructMapper.newBuilder(ImmutableAlbum.class).useConstructor("AlbumId", "Title").build();
+    StructMapper<ImmutableSingerAlbums> mapper =
+        StructMapper.newBuilder(ImmutableSingerAlbums.class)
+            .useConstructor("Albums")
+            .addNestedMapper(albumMapper)
+            .build();
+    ImmutableSingerAlbums singer = mapper.map(singer(1L, "Alice"));
+    assertEquals(2, singer.albums.size());
+    assertEquals("Second", singer.albums.get(1).title);
+  }
+
+  static final class ImmutableSingerAlbums {
+    final List<ImmutableAlbum> albums;
+
+    ImmutableSingerAlbums(List<ImmutableAlbum> albums) {
+      this.albums = albums;
+    }
+  }
+
+  @Test
+  public void testInvalidMappings() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            StructMapper.of(Singer.class).map(Struct.newBuilder().set("FirstName").to(1L).build()));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            StructMapper.newBuilder(ImmutableAlbum.class)
+                .useConstructor("AlbumId", "Name")
+                .build()
+                .map(album(1L, "First")));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> StructMapper.newBuilder(ImmutableAlbum.class).useConstructor("AlbumId").build());
+    assertThrows(IllegalArgumentException.class, () -> StructMapper.of(ImmutableAlbum.class));
+  }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.StructType;
+import com.google.spanner.v1.StructType.Field;
+import com.google.spanner.v1.TypeCode;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end throughput benchmarks for the client against a local mock server. The mock server does
+ * not add any simulated execution time, which means that the results show the overhead and the
+ * scaling limits of the client itself. Each benchmark run sweeps the number of threads, the number
+ * of gRPC channels and the session mode for a number of workload shapes, and prints the throughput,
+ * the P50/P99/P99.9 latencies and the number of bytes that were allocated per operation by the
+ * threads that execute the workload.
+ *
+ * <p>The benchmarks are bound to the Maven profile `benchmark` and can be executed like this:
+ * <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ThroughputBenchmark
+ * </code>
+ *
+ * <p>Add {@code -prof gc} to the JMH arguments to also get the process-wide allocation rate,
+ * including the allocations of the gRPC threads.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(batchSize = 1, iterations = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(batchSize = 1, iterations = 1)
+public class ThroughputBenchmark {
+  private static final DatabaseId DATABASE_ID = DatabaseId.of("p", "i", "d");
+  private static final String READ_TABLE = "FOO";
+  private static final List<String> READ_COLUMNS = ImmutableList.of("ID", "VALUE");
+  // The mock server only supports reads of all keys or of the empty key.
+  private static final Key READ_KEY = Key.of();
+  private static final Statement SCAN_STATEMENT = Statement.of("SELECT * FROM LARGE_TABLE");
+  private static final Statement UPDATE_STATEMENT =
+      Statement.of("UPDATE FOO SET VALUE='bar' WHERE ID=1");
+  private static final Statement PARTITIONED_STATEMENT = Statement.of("SELECT * FROM FOO");
+  private static final int SCAN_ROWS = 1024;
+  private static final int SCAN_VALUE_LENGTH = 1024;
+
+  /** The session mode that is used by the client. */
+  public enum SessionMode {
+    POOL,
+    MULTIPLEXED,
+  }
+
+  /** The shape of each operation of the workload. */
+  public enum Workload {
+    /** Reads a single row with a single-use read-only transaction. */
+    POINT_READ,
+    /** Executes a query that returns 1MB of data. */
+    SCAN,
+    /** Executes a read/write transaction with a number of DML statements. */
+    READ_WRITE,
+    /** Executes a read/write transaction with a single batch of DML statements. */
+    BATCH_DML,
+    /** Writes a number of mutations. */
+    MUTATIONS,
+    /** Partitions a query and executes all partitions. */
+    PARTITIONED_QUERY,
+  }
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    private Server server;
+    private Spanner spanner;
+    private DatabaseClient client;
+    private BatchClient batchClient;
+
+    @Param({"1", "8", "32"})
+    int numThreads;
+
+    @Param({"1", "4"})
+    int numChannels;
+
+    @Param({"POOL", "MULTIPLEXED"})
+    SessionMode sessionMode;
+
+    @Param({"POINT_READ", "SCAN", "READ_WRITE", "BATCH_DML", "MUTATIONS", "PARTITIONED_QUERY"})
+    Workload workload;
+
+    /** The number of statements or mutations in each transaction. */
+    @Param({"5"})
+    int statementsPerTransaction;
+
+    @Param({"1000"})
+    int operationsPerThread;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      MockSpannerServiceImpl mockSpanner = new MockSpannerServiceImpl();
+      mockSpanner.setAbortProbability(0.0D);
+      mockSpanner.putStatementResult(
+          StatementResult.read(
+              READ_TABLE,
+              KeySet.singleKey(READ_KEY),
+              READ_COLUMNS,
+              createResultSet(
+                  ImmutableList.of(Value.newBuilder().setStringValue("1").build()),
+                  ImmutableList.of(Value.newBuilder().setStringValue("one").build()))));
+      mockSpanner.putStatementResult(StatementResult.query(SCAN_STATEMENT, createScanResultSet()));
+      mockSpanner.putStatementResult(StatementResult.update(UPDATE_STATEMENT, 1L));
+      mockSpanner.putStatementResult(
+          StatementResult.query(
+              PARTITIONED_STATEMENT,
+              createResultSet(
+                  ImmutableList.of(Value.newBuilder().setStringValue("1").build()),
+                  ImmutableList.of(Value.newBuilder().setStringValue("one").build()))));
+
+      // Use a server on a local port, as the in-process channel provider only supports one
+      // channel.
+      server = ServerBuilder.forPort(0).addService(mockSpanner).build().start();
+      SessionPoolOptions.Builder sessionPoolOptions =
+          SessionPoolOptions.newBuilder().setMaxSessions(Math.max(100, numThreads));
+      if (sessionMode == SessionMode.MULTIPLEXED) {
+        sessionPoolOptions
+            .setUseMultiplexedSession(true)
+            .setUseMultiplexedSessionBlindWrite(true)
+            .setUseMultiplexedSessionForRW(true);
+      }
+      spanner =
+          SpannerOptions.newBuilder()
+              .setProjectId(DATABASE_ID.getInstanceId().getProject())
+              .setHost(String.format("http://localhost:%d", server.getPort()))
+              .setChannelConfigurator(ManagedChannelBuilder::usePlaintext)
+              .setCredentials(NoCredentials.getInstance())
+              .setNumChannels(numChannels)
+              .setSessionPoolOption(sessionPoolOptions.build())
+              .build()
+              .getService();
+      client = spanner.getDatabaseClient(DATABASE_ID);
+      batchClient = spanner.getBatchClient(DATABASE_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+      spanner.close();
+      server.shutdown();
+      server.awaitTermination();
+    }
+  }
+
+  private static com.google.spanner.v1.ResultSet createResultSet(
+      List<Value> ids, List<Value> values) {
+    com.google.spanner.v1.ResultSet.Builder builder =
+        com.google.spanner.v1.ResultSet.newBuilder()
+            .setMetadata(
+                createMetadata(
+                    ImmutableList.of("ID", "VALUE"),
+                    ImmutableList.of(TypeCode.INT64, TypeCode.STRING)));
+    for (int i = 0; i < ids.size(); i++) {
+      builder.addRows(ListValue.newBuilder().addValues(ids.get(i)).addValues(values.get(i)));
+    }
+    return builder.build();
+  }
+
+  private static com.google.spanner.v1.ResultSet createScanResultSet() {
+    com.google.spanner.v1.ResultSet.Builder builder =
+        com.google.spanner.v1.ResultSet.newBuilder()
+            .setMetadata(
+                createMetadata(ImmutableList.of("VALUE"), ImmutableList.of(TypeCode.STRING)));
+    Value value = Value.newBuilder().setStringValue(Strings.repeat("x", SCAN_VALUE_LENGTH)).build();
+    for (int i = 0; i < SCAN_ROWS; i++) {
+      builder.addRows(ListValue.newBuilder().addValues(value));
+    }
+    return builder.build();
+  }
+
+  private static ResultSetMetadata createMetadata(List<String> names, List<TypeCode> types) {
+    StructType.Builder rowType = StructType.newBuilder();
+    for (int i = 0; i < names.size(); i++) {
+      rowType.addFields(
+          Field.newBuilder()
+              .setName(names.get(i))
+              .setType(com.google.spanner.v1.Type.newBuilder().setCode(types.get(i))));
+    }
+    return ResultSetMetadata.newBuilder().setRowType(rowType).build();
+  }
+
+  /** The latencies and the allocated bytes of the operations that were executed by one thread. */
+  private static final class ThreadResult {
+    private final long[] latencies;
+    private final long allocatedBytes;
+
+    private ThreadResult(long[] latencies, long allocatedBytes) {
+      this.latencies = latencies;
+      this.allocatedBytes = allocatedBytes;
+    }
+  }
+
+  @Benchmark
+  public void run(BenchmarkState state) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(state.numThreads);
+    try {
+      List<Future<ThreadResult>> futures = new ArrayList<>(state.numThreads);
+      long startTime = System.nanoTime();
+      for (int i = 0; i < state.numThreads; i++) {
+        futures.add(executor.submit(() -> runOperations(state)));
+      }
+      long[] latencies = new long[state.numThreads * state.operationsPerThread];
+      long allocatedBytes = 0L;
+      int index = 0;
+      for (Future<ThreadResult> future : futures) {
+        ThreadResult result = future.get();
+        System.arraycopy(result.latencies, 0, latencies, index, result.latencies.length);
+        index += result.latencies.length;
+        allocatedBytes += result.allocatedBytes;
+      }
+      long elapsedNanos = System.nanoTime() - startTime;
+      printResults(state, latencies, allocatedBytes, elapsedNanos);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static ThreadResult runOperations(BenchmarkState state) {
+    long[] latencies = new long[state.operationsPerThread];
+    long startAllocatedBytes = getCurrentThreadAllocatedBytes();
+    for (int i = 0; i < state.operationsPerThread; i++) {
+      long start = System.nanoTime();
+      runOperation(state);
+      latencies[i] = System.nanoTime() - start;
+    }
+    return new ThreadResult(latencies, getCurrentThreadAllocatedBytes() - startAllocatedBytes);
+  }
+
+  private static void runOperation(BenchmarkState state) {
+    switch (state.workload) {
+      case POINT_READ:
+        Struct row = state.client.singleUse().readRow(READ_TABLE, READ_KEY, READ_COLUMNS);
+        if (row == null) {
+          throw new IllegalStateException("Row not found");
+        }
+        break;
+      case SCAN:
+        try (ResultSet resultSet = state.client.singleUse().executeQuery(SCAN_STATEMENT)) {
+          while (resultSet.next()) {
+            resultSet.getString(0);
+          }
+        }
+        break;
+      case READ_WRITE:
+        state
+            .client
+            .readWriteTransaction()
+            .run(
+                transaction -> {
+                  for (int i = 0; i < state.statementsPerTransaction; i++) {
+                    transaction.executeUpdate(UPDATE_STATEMENT);
+                  }
+                  return null;
+                });
+        break;
+      case BATCH_DML:
+        List<Statement> statements = new ArrayList<>(state.statementsPerTransaction);
+        for (int i = 0; i < state.statementsPerTransaction; i++) {
+          statements.add(UPDATE_STATEMENT);
+        }
+        state.client.readWriteTransaction().run(transaction -> transaction.batchUpdate(statements));
+        break;
+      case MUTATIONS:
+        List<Mutation> mutations = new ArrayList<>(state.statementsPerTransaction);
+        for (int i = 0; i < state.statementsPerTransaction; i++) {
+          mutations.add(
+              Mutation.newInsertOrUpdateBuilder(READ_TABLE)
+                  .set("ID")
+                  .to(i)
+                  .set("VALUE")
+                  .to("value" + i)
+                  .build());
+        }
+        state.client.write(mutations);
+        break;
+      case PARTITIONED_QUERY:
+        try (BatchReadOnlyTransaction transaction =
+            state.batchClient.batchReadOnlyTransaction(TimestampBound.strong())) {
+          for (Partition partition :
+              transaction.partitionQuery(
+                  PartitionOptions.newBuilder().setMaxPartitions(4L).build(),
+                  PARTITIONED_STATEMENT)) {
+            try (ResultSet resultSet = transaction.execute(partition)) {
+              while (resultSet.next()) {
+                resultSet.getLong(0);
+              }
+            }
+          }
+        }
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown workload: " + state.workload);
+    }
+  }
+
+  /**
+   * Returns the number of bytes that have been allocated by the current thread, or 0 if the JVM
+   * does not support measuring thread allocations.
+   */
+  private static long getCurrentThreadAllocatedBytes() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return 0L;
+  }
+
+  private static void printResults(
+      BenchmarkState state, long[] latencies, long allocatedBytes, long elapsedNanos) {
+    Arrays.sort(latencies);
+    System.out.println();
+    System.out.printf(
+        "Workload: %s, session mode: %s, threads: %d, channels: %d\n",
+        state.workload, state.sessionMode, state.numThreads, state.numChannels);
+    System.out.printf("Total number of operations: %d\n", latencies.length);
+    System.out.printf(
+        "Throughput: %.1f ops/s\n", latencies.length / (elapsedNanos / 1_000_000_000.0d));
+    System.out.printf("P50: %fms\n", percentile(latencies, 50.0d));
+    System.out.printf("P99: %fms\n", percentile(latencies, 99.0d));
+    System.out.printf("P99.9: %fms\n", percentile(latencies, 99.9d));
+    System.out.printf("Allocated per operation: %d bytes\n", allocatedBytes / latencies.length);
+  }
+
+  private static double percentile(long[] orderedLatencies, double percentile) {
+    int index =
+        Math.min(
+            orderedLatencies.length - 1, (int) (percentile * orderedLatencies.length / 100.0d));
+    return orderedLatencies[index] / 1_000_000.0d;
+  }
+}
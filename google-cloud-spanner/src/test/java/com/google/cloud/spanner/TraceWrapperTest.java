@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.opencensus.trace.Tracing;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.EventData;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TraceWrapperTest {
+  private static final AttributeKey<String> DB_STATEMENT_KEY =
+      AttributeKey.stringKey("db.statement");
+  private static final AttributeKey<List<String>> DB_STATEMENT_ARRAY_KEY =
+      AttributeKey.stringArrayKey("db.statement");
+  private static final AttributeKey<String> THREAD_NAME_KEY = AttributeKey.stringKey("thread.name");
+  private static final AttributeKey<String> STATEMENT_TAG_KEY =
+      AttributeKey.stringKey("statement.tag");
+
+  private static final Statement SELECT1 = Statement.of("SELECT 1");
+  private static final Statement UPDATE = Statement.of("UPDATE FOO SET BAR=1 WHERE TRUE");
+
+  private InMemorySpanExporter spanExporter;
+  private Tracer sampledTracer;
+
+  @BeforeClass
+  public static void enableOpenTelemetry() {
+    SpannerOptions.resetActiveTracingFramework();
+    SpannerOptions.enableOpenTelemetryTraces();
+  }
+
+  @AfterClass
+  public static void resetTracingFramework() {
+    SpannerOptions.resetActiveTracingFramework();
+  }
+
+  @Before
+  public void setUp() {
+    spanExporter = InMemorySpanExporter.create();
+    sampledTracer =
+        SdkTracerProvider.builder()
+            .setSampler(Sampler.alwaysOn())
+            .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+            .build()
+            .get("test");
+  }
+
+  private static TraceWrapper createTraceWrapper(Tracer tracer, boolean enableExtendedTracing) {
+    return new TraceWrapper(Tracing.getTracer(), tracer, enableExtendedTracing);
+  }
+
+  /**
+   * Lets the given mock tracer create a span that is not recording, like a span that is not
+   * sampled, and returns that span.
+   */
+  private static Span createNonRecordingSpan(Tracer tracer) {
+    SpanBuilder spanBuilder = mock(SpanBuilder.class, RETURNS_SELF);
+    Span span = mock(Span.class);
+    when(tracer.spanBuilder(anyString())).thenReturn(spanBuilder);
+    when(spanBuilder.startSpan()).thenReturn(span);
+    when(span.isRecording()).thenReturn(false);
+    return span;
+  }
+
+  private SpanData getOnlySpan() {
+    List<SpanData> spans = spanExporter.getFinishedSpanItems();
+    assertEquals(1, spans.size());
+    return spans.get(0);
+  }
+
+  @Test
+  public void testStatementAttributesOnSampledSpan() {
+    TraceWrapper traceWrapper =
+        createTraceWrapper(sampledTracer, /* enableExtendedTracing= */ true);
+
+    traceWrapper
+        .spanBuilderWithExplicitParent(
+            "query", null, SELECT1, Options.fromQueryOptions(Options.tag("my-tag")))
+        .end();
+
+    Attributes attributes = getOnlySpan().getAttributes();
+    assertEquals(SELECT1.getSql(), attributes.get(DB_STATEMENT_KEY));
+    assertEquals(Thread.currentThread().getName(), attributes.get(THREAD_NAME_KEY));
+    assertEquals("my-tag", attributes.get(STATEMENT_TAG_KEY));
+  }
+
+  @Test
+  public void testStatementAttributesWithoutExtendedTracing() {
+    TraceWrapper traceWrapper =
+        createTraceWrapper(sampledTracer, /* enableExtendedTracing= */ false);
+
+    traceWrapper
+        .spanBuilderWithExplicitParent(
+            "query", null, SELECT1, Options.fromQueryOptions(Options.tag("my-tag")))
+        .end();
+
+    Attributes attributes = getOnlySpan().getAttributes();
+    assertNull(attributes.get(DB_STATEMENT_KEY));
+    assertNull(attributes.get(THREAD_NAME_KEY));
+    assertEquals("my-tag", attributes.get(STATEMENT_TAG_KEY));
+  }
+
+  @Test
+  public void testStatementAttributesOnUnsampledSpan() {
+    Tracer tracer = mock(Tracer.class);
+    Span span = createNonRecordingSpan(tracer);
+    TraceWrapper traceWrapper = createTraceWrapper(tracer, /* enableExtendedTracing= */ true);
+
+    traceWrapper.spanBuilderWithExplicitParent("query", null, SELECT1, null).end();
+    traceWrapper
+        .spanBuilderWithExplicitParent("batch", null, ImmutableList.of(SELECT1, UPDATE), null)
+        .end();
+
+    verify(span, never()).setAttribute(any(AttributeKey.class), any());
+  }
+
+  @Test
+  public void testBatchStatementAttributesOnSampledSpan() {
+    TraceWrapper traceWrapper =
+        createTraceWrapper(sampledTracer, /* enableExtendedTracing= */ true);
+
+    traceWrapper
+        .spanBuilderWithExplicitParent(
+            "batch",
+            null,
+            ImmutableList.of(SELECT1, UPDATE),
+            Options.fromUpdateOptions(Options.tag("my-tag")))
+        .end();
+
+    Attributes attributes = getOnlySpan().getAttributes();
+    assertEquals(
+        ImmutableList.of(SELECT1.getSql(), UPDATE.getSql()),
+        attributes.get(DB_STATEMENT_ARRAY_KEY));
+    assertEquals(Thread.currentThread().getName(), attributes.get(THREAD_NAME_KEY));
+    assertEquals("my-tag", attributes.get(STATEMENT_TAG_KEY));
+  }
+
+  @Test
+  public void testEventsOnSampledSpan() {
+    ISpan span = createTraceWrapper(sampledTracer, false).spanBuilder("span");
+    span.addAnnotation("map", ImmutableMap.of("string", "value", "long", 1L));
+    span.addAnnotation("string", "key", "value");
+    span.addAnnotation("long", "key", 1L);
+    span.addAnnotation("error", new IllegalStateException("test"));
+    span.end();
+
+    List<EventData> events = getOnlySpan().getEvents();
+    assertEquals(
+        ImmutableList.of("map", "string", "long", "error"),
+        events.stream().map(EventData::getName).collect(Collectors.toList()));
+    assertEquals("value", events.get(0).getAttributes().get(AttributeKey.stringKey("string")));
+    assertEquals(Long.valueOf(1L), events.get(0).getAttributes().get(AttributeKey.longKey("long")));
+    assertEquals("value", events.get(1).getAttributes().get(AttributeKey.stringKey("key")));
+    assertEquals(Long.valueOf(1L), events.get(2).getAttributes().get(AttributeKey.longKey("key")));
+  }
+
+  @Test
+  public void testEventsAreDroppedOnNonRecordingSpan() {
+    Span openTelemetrySpan = mock(Span.class);
+    when(openTelemetrySpan.isRecording()).thenReturn(false);
+    ISpan span = new OpenTelemetrySpan(openTelemetrySpan);
+
+    span.addAnnotation("map", ImmutableMap.of("string", "value"));
+    span.addAnnotation("string", "key", "value");
+    span.addAnnotation("long", "key", 1L);
+    span.addAnnotation("error", new IllegalStateException("test"));
+
+    verify(openTelemetrySpan, never()).addEvent(anyString(), any(Attributes.class));
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.api.gax.grpc.testing.LocalChannelProvider;
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the overhead of tracing on the client. The benchmarks execute queries and DML
+ * statements against an in-memory mock server without any simulated latency, so that the throughput
+ * is bound by the client. The benchmarks compare tracing disabled, tracing with a sampler that
+ * drops 99% of all traces, and tracing with all traces sampled. Run the benchmarks with the `-prof
+ * gc` option to compare the allocation rates. The benchmarks are bound to the Maven profile
+ * `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=TracingBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, warmups = 0)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TracingBenchmark {
+  private static final Statement SELECT1 = Statement.of("SELECT 1 AS COL1");
+  private static final Statement UPDATE_STATEMENT =
+      Statement.of("UPDATE FOO SET BAR=1 WHERE BAZ=2");
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+    private Server server;
+    private Spanner spanner;
+    private DatabaseClient client;
+
+    @Param({"disabled", "sampled", "enabled"})
+    String tracing;
+
+    @Param({"false", "true"})
+    boolean extendedTracing;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      MockSpannerServiceImpl mockSpanner = new MockSpannerServiceImpl();
+      mockSpanner.setAbortProbability(0.0D);
+      mockSpanner.putStatementResult(
+          StatementResult.query(SELECT1, MockSpannerTestUtil.SELECT1_RESULTSET));
+      mockSpanner.putStatementResult(StatementResult.update(UPDATE_STATEMENT, 1L));
+      String uniqueName = InProcessServerBuilder.generateName();
+      server = InProcessServerBuilder.forName(uniqueName).addService(mockSpanner).build().start();
+
+      SpannerOptions.enableOpenTelemetryTraces();
+      SpannerOptions.Builder builder =
+          SpannerOptions.newBuilder()
+              .setProjectId("p")
+              .setChannelProvider(LocalChannelProvider.create(uniqueName))
+              .setCredentials(NoCredentials.getInstance())
+              .setEnableExtendedTracing(extendedTracing)
+              .setOpenTelemetry(createOpenTelemetry(tracing));
+      spanner = builder.build().getService();
+      client = spanner.getDatabaseClient(DatabaseId.of("p", "i", "d"));
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws Exception {
+      spanner.close();
+      server.shutdown();
+      server.awaitTermination();
+    }
+
+    private static OpenTelemetry createOpenTelemetry(String tracing) {
+      Sampler sampler;
+      switch (tracing) {
+        case "disabled":
+          return OpenTelemetry.noop();
+        case "sampled":
+          sampler = Sampler.traceIdRatioBased(0.01d);
+          break;
+        case "enabled":
+          sampler = Sampler.alwaysOn();
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown tracing mode: " + tracing);
+      }
+      return OpenTelemetrySdk.builder()
+          .setTracerProvider(
+              SdkTracerProvider.builder()
+                  .setSampler(sampler)
+                  .addSpanProcessor(SimpleSpanProcessor.create(SpanExporter.composite()))
+                  .build())
+          .build();
+    }
+  }
+
+  /** Measures the throughput of single-use queries. */
+  @Benchmark
+  public void singleUseQuery(BenchmarkState state, Blackhole blackhole) {
+    try (ResultSet resultSet = state.client.singleUse().executeQuery(SELECT1)) {
+      while (resultSet.next()) {
+        blackhole.consume(resultSet.getLong(0));
+      }
+    }
+  }
+
+  /** Measures the throughput of read/write transactions with one DML statement. */
+  @Benchmark
+  public void readWriteTransaction(BenchmarkState state, Blackhole blackhole) {
+    blackhole.consume(
+        state
+            .client
+            .readWriteTransaction()
+            .run(transaction -> transaction.executeUpdate(UPDATE_STATEMENT)));
+  }
+}
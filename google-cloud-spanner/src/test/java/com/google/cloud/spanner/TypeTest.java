@@ -517,6 +517,30 @@ public class TypeTest {
     assertThat(e.getMessage().contains("Ambiguous field name: f1"));
   }
 
+  @Test
+  public void toProtoIsCached() {
+    Type t = Type.array(Type.struct(StructField.of("f1", Type.int64())));
+    assertThat(t.toProto()).isSameInstanceAs(t.toProto());
+    assertThat(t.toProto())
+        .isEqualTo(Type.array(Type.struct(StructField.of("f1", Type.int64()))).toProto());
+  }
+
+  @Test
+  public void fromRowTypeProtoIsCached() {
+    Type t = Type.struct(StructField.of("f1", Type.int64()), StructField.of("f1", Type.string()));
+    com.google.spanner.v1.StructType rowType = t.toProto().getStructType();
+
+    Type fromRowType = Type.fromRowTypeProto(rowType);
+    assertEquals(t, fromRowType);
+    assertThat(Type.fromRowTypeProto(rowType.toBuilder().build())).isSameInstanceAs(fromRowType);
+    assertThrows(IllegalArgumentException.class, () -> fromRowType.getFieldIndex("f1"));
+
+    com.google.spanner.v1.StructType otherRowType =
+        Type.struct(StructField.of("f1", Type.int64())).toProto().getStructType();
+    assertThat(Type.fromRowTypeProto(otherRowType)).isNotSameInstanceAs(fromRowType);
+    assertEquals(0, Type.fromRowTypeProto(otherRowType).getFieldIndex("f1"));
+  }
+
   @Test
   public void parseErrorMissingTypeCode() {
     com.google.spanner.v1.Type proto = com.google.spanner.v1.Type.newBuilder().build();
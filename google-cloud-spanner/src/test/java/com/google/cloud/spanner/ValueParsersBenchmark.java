@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the parsers in {@link ValueParsers} with the generic parsers. The benchmarks are bound
+ * to the Maven profile `benchmark` and can be executed like this: <code>
+ * mvn clean test -DskipTests -Pbenchmark -Dbenchmark.name=ValueParsersBenchmark
+ * </code>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, warmups = 0)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+public class ValueParsersBenchmark {
+
+  @State(Scope.Thread)
+  public static class BenchmarkState {
+    String timestamp = "2024-01-31T10:15:30.123456789Z";
+    String date = "2024-01-31";
+    String numeric = "123456.789";
+  }
+
+  @Benchmark
+  public Timestamp genericTimestamp(BenchmarkState state) {
+    return Timestamp.parseTimestamp(state.timestamp);
+  }
+
+  @Benchmark
+  public Timestamp fastTimestamp(BenchmarkState state) {
+    return ValueParsers.parseTimestamp(state.timestamp);
+  }
+
+  @Benchmark
+  public Date genericDate(BenchmarkState state) {
+    return Date.parseDate(state.date);
+  }
+
+  @Benchmark
+  public Date fastDate(BenchmarkState state) {
+    return ValueParsers.parseDate(state.date);
+  }
+
+  @Benchmark
+  public BigDecimal genericNumeric(BenchmarkState state) {
+    return new BigDecimal(state.numeric);
+  }
+
+  @Benchmark
+  public BigDecimal fastNumeric(BenchmarkState state) {
+    return ValueParsers.parseNumeric(state.numeric);
+  }
+}
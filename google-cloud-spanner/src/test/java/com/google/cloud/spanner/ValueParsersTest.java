@@ -0,0 +1,123 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import com.google.cloud.Date;
+import com.google.cloud.Timestamp;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ValueParsersTest {
+
+  @Test
+  public void testParseTimestamp() {
+    String[] values = {
+      "0001-01-01T00:00:00Z",
+      "9999-12-31T23:59:59.999999999Z",
+      "1970-01-01T00:00:00Z",
+      "1969-12-31T23:59:59.9Z",
+      "2000-02-29T12:00:00.000001Z",
+      "2024-01-31T10:15:30.123456789Z",
+      "2024-12-31T10:15:30.12Z",
+      "1900-03-01T01:02:03.123Z",
+      // These are handled by the generic parser.
+      "2024-01-31T10:15:30+01:00",
+      "2024-01-31t10:15:30z",
+      "2024-02-30T10:15:30Z",
+      "2024-01-31T10:15:30.Z",
+    };
+    for (String value : values) {
+      assertEquals(value, Timestamp.parseTimestamp(value), ValueParsers.parseTimestamp(value));
+    }
+  }
+
+  @Test
+  public void testParseRandomTimestamps() {
+    Random random = new Random(1L);
+    for (int i = 0; i < 10000; i++) {
+      Timestamp timestamp =
+          Timestamp.ofTimeSecondsAndNanos(
+              Timestamp.MIN_VALUE.getSeconds()
+                  + (long)
+                      (random.nextDouble()
+                          * (Timestamp.MAX_VALUE.getSeconds() - Timestamp.MIN_VALUE.getSeconds())),
+              random.nextBoolean() ? 0 : random.nextInt(1_000_000_000));
+      assertEquals(timestamp, ValueParsers.parseTimestamp(timestamp.toString()));
+    }
+  }
+
+  @Test
+  public void testParseInvalidTimestamp() {
+    for (String value :
+        new String[] {
+          "",
+          "2024-01-31T24:15:30Z",
+          "2024-01-3a",
+          "2024-01-31T1a:15:30Z",
+          "2024-01-31T10:1a:30Z",
+          "2024-01-31T10:15:3aZ",
+          "2024-01-31T10:15:30.12a4Z"
+        }) {
+      assertThrows(value, RuntimeException.class, () -> ValueParsers.parseTimestamp(value));
+    }
+  }
+
+  @Test
+  public void testParseDate() {
+    for (String value : new String[] {"0001-01-01", "9999-12-31", "2024-02-29", "1970-01-01"}) {
+      assertEquals(value, Date.parseDate(value), ValueParsers.parseDate(value));
+    }
+    assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseDate("2024-1-01"));
+    assertThrows(IllegalArgumentException.class, () -> ValueParsers.parseDate("2024-01-0a"));
+  }
+
+  @Test
+  public void testParseNumeric() {
+    String[] values = {
+      "0",
+      "-0",
+      "1",
+      "-1",
+      "1.50",
+      ".5",
+      "5.",
+      "-0.000000001",
+      "123456789012345678",
+      "1234567890123456789",
+      "99999999999999999999999999999.999999999",
+      "-99999999999999999999999999999.999999999",
+      "1E+5",
+      "+1.5",
+    };
+    for (String value : values) {
+      BigDecimal expected = new BigDecimal(value);
+      BigDecimal actual = ValueParsers.parseNumeric(value);
+      assertEquals(value, expected, actual);
+      assertEquals(value, expected.scale(), actual.scale());
+    }
+    assertThrows(NumberFormatException.class, () -> ValueParsers.parseNumeric(""));
+    assertThrows(NumberFormatException.class, () -> ValueParsers.parseNumeric("-"));
+    assertThrows(NumberFormatException.class, () -> ValueParsers.parseNumeric("1.2.3"));
+  }
+}
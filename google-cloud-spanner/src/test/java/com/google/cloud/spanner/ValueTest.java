@@ -866,6 +866,19 @@ public class ValueTest {
     assertEquals("[1,2]", v.getAsString());
   }
 
+  @Test
+  public void int64ArrayToProtoIsCached() {
+    Value v = Value.int64Array(Arrays.asList(1L, null, 3L));
+    com.google.protobuf.Value proto = v.toProto();
+    assertThat(proto.getListValue().getValuesList())
+        .containsExactly(
+            com.google.protobuf.Value.newBuilder().setStringValue("1").build(),
+            com.google.protobuf.Value.newBuilder().setNullValue(NullValue.NULL_VALUE).build(),
+            com.google.protobuf.Value.newBuilder().setStringValue("3").build())
+        .inOrder();
+    assertSame(proto, v.toProto());
+  }
+
   @Test
   public void int64ArrayRange() {
     Value v = Value.int64Array(new long[] {1, 2, 3, 4, 5}, 1, 3);
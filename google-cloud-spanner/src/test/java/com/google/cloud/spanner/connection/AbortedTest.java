@@ -450,6 +450,84 @@ public class AbortedTest extends AbstractMockServerTest {
     assertEquals(2L, commitRequestCount);
   }
 
+  @Test
+  public void testParallelRetryReplayKeepsDmlOrder() {
+    mockSpanner.putStatementResult(
+        StatementResult.query(SELECT_COUNT_STATEMENT, SELECT_COUNT_RESULTSET_BEFORE_INSERT));
+    mockSpanner.putStatementResult(StatementResult.update(INSERT_STATEMENT, UPDATE_COUNT));
+    try (ITConnection connection = createConnection(";retry_replay_parallelism=4")) {
+      assertEquals(4, connection.getRetryReplayParallelism());
+      for (Statement query :
+          ImmutableList.of(SELECT1_STATEMENT, SELECT_COUNT_STATEMENT, SELECT_RANDOM_STATEMENT)) {
+        try (ResultSet resultSet = connection.executeQuery(query)) {
+          while (resultSet.next()) {
+            // consume all rows so they are included in the checksum.
+          }
+        }
+      }
+      assertEquals(UPDATE_COUNT, connection.executeUpdate(INSERT_STATEMENT));
+      try (ResultSet resultSet = connection.executeQuery(SELECT_COUNT_STATEMENT)) {
+        assertThat(resultSet.next()).isTrue();
+      }
+      mockSpanner.clearRequests();
+
+      mockSpanner.abortNextStatement();
+      connection.commit();
+    }
+    List<String> retriedSql =
+        mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).stream()
+            .map(ExecuteSqlRequest::getSql)
+            .collect(Collectors.toList());
+    assertEquals(5, retriedSql.size());
+    assertThat(retriedSql.subList(0, 3))
+        .containsExactly(
+            SELECT1_STATEMENT.getSql(),
+            SELECT_COUNT_STATEMENT.getSql(),
+            SELECT_RANDOM_STATEMENT.getSql());
+    assertEquals(INSERT_STATEMENT.getSql(), retriedSql.get(3));
+    assertEquals(SELECT_COUNT_STATEMENT.getSql(), retriedSql.get(4));
+    assertThat(mockSpanner.countRequestsOfType(CommitRequest.class)).isEqualTo(2);
+  }
+
+  @Test
+  public void testParallelRetryReplayKeepsUpdateReturningOrder() {
+    Statement updateReturning =
+        Statement.of("UPDATE TEST SET NAME='test aborted' WHERE ID=1 THEN RETURN *");
+    mockSpanner.putStatementResult(
+        StatementResult.query(SELECT_COUNT_STATEMENT, SELECT_COUNT_RESULTSET_BEFORE_INSERT));
+    mockSpanner.putStatementResult(
+        StatementResult.updateReturning(INSERT_RETURNING_STATEMENT, UPDATE_RETURNING_RESULTSET));
+    mockSpanner.putStatementResult(
+        StatementResult.updateReturning(updateReturning, UPDATE_RETURNING_RESULTSET));
+    try (ITConnection connection = createConnection(";retry_replay_parallelism=4")) {
+      for (Statement statement :
+          ImmutableList.of(INSERT_RETURNING_STATEMENT, updateReturning, SELECT_COUNT_STATEMENT)) {
+        try (ResultSet resultSet = connection.executeQuery(statement)) {
+          while (resultSet.next()) {
+            // consume all rows so they are included in the checksum.
+          }
+        }
+      }
+      mockSpanner.clearRequests();
+
+      mockSpanner.abortNextStatement();
+      connection.commit();
+    }
+    // The DML statements with a THEN RETURN clause are not queries, and must therefore be retried
+    // one at a time and before the query that reads their effect.
+    List<String> retriedSql =
+        mockSpanner.getRequestsOfType(ExecuteSqlRequest.class).stream()
+            .map(ExecuteSqlRequest::getSql)
+            .collect(Collectors.toList());
+    assertEquals(
+        ImmutableList.of(
+            INSERT_RETURNING_STATEMENT.getSql(),
+            updateReturning.getSql(),
+            SELECT_COUNT_STATEMENT.getSql()),
+        retriedSql);
+    assertThat(mockSpanner.countRequestsOfType(CommitRequest.class)).isEqualTo(2);
+  }
+
   @Test
   public void testRetryUsesTagsWithUpdateReturning() {
     mockSpanner.putStatementResult(
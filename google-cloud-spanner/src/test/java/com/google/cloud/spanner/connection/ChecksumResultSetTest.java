@@ -16,6 +16,7 @@
 
 package com.google.cloud.spanner.connection;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -408,4 +409,44 @@ public class ChecksumResultSetTest {
           () -> resultSet.retry(abortedException));
     }
   }
+
+  @Test
+  public void testRetryAfterClose() {
+    Type type =
+        Type.struct(StructField.of("id", Type.int64()), StructField.of("name", Type.string()));
+    Struct row1 = Struct.newBuilder().set("id").to(1L).set("name").to("one").build();
+    Struct row2 = Struct.newBuilder().set("id").to(2L).set("name").to("two").build();
+
+    ParsedStatement parsedStatement = mock(ParsedStatement.class);
+    Statement statement = Statement.of("select * from foo");
+    when(parsedStatement.getStatement()).thenReturn(statement);
+    AbortedException abortedException = mock(AbortedException.class);
+    ReadWriteTransaction transaction = mock(ReadWriteTransaction.class);
+    when(transaction.runWithRetry(any(Callable.class)))
+        .thenAnswer(invocationOnMock -> ((Callable<?>) invocationOnMock.getArgument(0)).call());
+    when(transaction.getStatementExecutor()).thenReturn(mock(StatementExecutor.class));
+
+    ChecksumResultSet resultSet =
+        new ChecksumResultSet(
+            transaction,
+            DirectExecuteResultSet.ofResultSet(
+                ResultSets.forRows(type, ImmutableList.of(row1, row2))),
+            parsedStatement,
+            AnalyzeMode.NONE);
+    assertTrue(resultSet.next());
+    assertTrue(resultSet.next());
+    byte[] checksum = resultSet.getChecksum();
+    resultSet.close();
+    // Closing the result set should keep the checksum of the consumed rows.
+    assertArrayEquals(checksum, resultSet.getChecksum());
+
+    when(transaction.internalExecuteQuery(parsedStatement, AnalyzeMode.NONE))
+        .thenReturn(ResultSets.forRows(type, ImmutableList.of(row1, row2)));
+    resultSet.retry(abortedException);
+
+    when(transaction.internalExecuteQuery(parsedStatement, AnalyzeMode.NONE))
+        .thenReturn(ResultSets.forRows(type, ImmutableList.of(row2, row1)));
+    assertThrows(
+        AbortedDueToConcurrentModificationException.class, () -> resultSet.retry(abortedException));
+  }
 }
@@ -29,6 +29,7 @@ import com.google.cloud.spanner.ErrorCode;
 import com.google.cloud.spanner.SpannerException;
 import com.google.cloud.spanner.connection.ConnectionProperty.Context;
 import com.google.cloud.spanner.connection.ConnectionState.Type;
+import java.util.Map;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
@@ -264,4 +265,32 @@ public class ConnectionStateTest {
     state.resetValue(RETRY_ABORTS_INTERNALLY, Context.USER, /* inTransaction = */ false);
     assertEquals(false, state.getValue(RETRY_ABORTS_INTERNALLY).getValue());
   }
+
+  @Test
+  public void testStatesCreatedFromSameSnapshotAreIndependent() {
+    ConnectionState initialState = getConnectionState();
+    Map<String, ConnectionPropertyValue<?>> snapshot = initialState.getAllValues();
+    ConnectionState state1 = new ConnectionState(snapshot);
+    ConnectionState state2 = new ConnectionState(snapshot);
+
+    state1.setValue(READONLY, true, Context.USER, /* inTransaction = */ false);
+    assertEquals(true, state1.getValue(READONLY).getValue());
+    assertEquals(false, state2.getValue(READONLY).getValue());
+    assertEquals(false, initialState.getValue(READONLY).getValue());
+    assertEquals(false, snapshot.get(READONLY.getKey()).getValue());
+
+    initialState.setValue(
+        AUTOCOMMIT_DML_MODE, AutocommitDmlMode.PARTITIONED_NON_ATOMIC, Context.USER, false);
+    assertEquals(AutocommitDmlMode.TRANSACTIONAL, state1.getValue(AUTOCOMMIT_DML_MODE).getValue());
+    assertEquals(AutocommitDmlMode.TRANSACTIONAL, state2.getValue(AUTOCOMMIT_DML_MODE).getValue());
+    assertEquals(
+        AutocommitDmlMode.TRANSACTIONAL, snapshot.get(AUTOCOMMIT_DML_MODE.getKey()).getValue());
+
+    // Committing a transaction only changes the state that executed the transaction.
+    state2.setValue(READONLY, true, Context.USER, /* inTransaction = */ true);
+    state2.commit();
+    assertEquals(true, state2.getValue(READONLY).getValue());
+    assertEquals(false, snapshot.get(READONLY.getKey()).getValue());
+    assertEquals(ConnectionProperties.CONNECTION_PROPERTIES.size(), snapshot.size());
+  }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.spanner.connection.DdlBatchPlanner.Stage;
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DdlBatchPlannerTest {
+
+  private static String plan(int maxParallelOperations, String... statements) {
+    List<Stage> stages = DdlBatchPlanner.plan(Arrays.asList(statements), maxParallelOperations);
+    return stages.stream().map(Stage::toString).collect(Collectors.joining(", "));
+  }
+
+  @Test
+  public void testTokenize() {
+    assertEquals(
+        ImmutableList.of(
+            "CREATE", "INDEX", "IDX", "ON", "MY_TABLE", "COL1", "DESC", "STORING", "COL2"),
+        DdlBatchPlanner.tokenize("create index `Idx` on my_table (col1 desc) storing (col2)"));
+    assertEquals(
+        ImmutableList.of("ALTER", "TABLE", "SCH.FOO", "ADD", "COLUMN", "BAR", "STRING", "DEFAULT"),
+        DdlBatchPlanner.tokenize("alter table sch.foo add column \"bar\" string default ('x y')"));
+  }
+
+  @Test
+  public void testAnalyze() {
+    assertTrue(DdlBatchPlanner.analyze("CREATE INDEX Idx ON Foo (Bar)").isLongRunning());
+    assertTrue(
+        DdlBatchPlanner.analyze("CREATE UNIQUE NULL_FILTERED INDEX Idx ON Foo (Bar)")
+            .isLongRunning());
+    assertTrue(
+        DdlBatchPlanner.analyze(
+                "ALTER TABLE Foo ADD CONSTRAINT Fk FOREIGN KEY (Bar) REFERENCES Baz (Id)")
+            .isLongRunning());
+    assertFalse(
+        DdlBatchPlanner.analyze("CREATE TABLE Foo (Id INT64) PRIMARY KEY (Id)").isLongRunning());
+    assertFalse(
+        DdlBatchPlanner.analyze("ALTER TABLE Foo ADD COLUMN Bar STRING(MAX)").isLongRunning());
+
+    assertTrue(DdlBatchPlanner.analyze("DROP TABLE Foo").isBarrier());
+    assertTrue(
+        DdlBatchPlanner.analyze("CREATE VIEW V SQL SECURITY INVOKER AS SELECT 1").isBarrier());
+    assertFalse(DdlBatchPlanner.analyze("CREATE INDEX Idx ON Foo (Bar)").isBarrier());
+  }
+
+  @Test
+  public void testIndependentIndexesAreExecutedInParallel() {
+    assertEquals(
+        "[[0, 1]], [[2], [3]], [[4]]",
+        plan(
+            2,
+            "CREATE TABLE A (Id INT64) PRIMARY KEY (Id)",
+            "CREATE TABLE B (Id INT64, AId INT64) PRIMARY KEY (Id)",
+            "CREATE INDEX IdxA ON A (Id)",
+            "CREATE INDEX IdxB ON B (AId)",
+            "ALTER TABLE B ADD CONSTRAINT Fk FOREIGN KEY (AId) REFERENCES A (Id)"));
+  }
+
+  @Test
+  public void testIndexesAreDividedOverMaxParallelOperations() {
+    assertEquals(
+        "[[0, 2, 3], [1]]",
+        plan(
+            2,
+            "CREATE INDEX Idx1 ON A (Col1)",
+            "CREATE INDEX Idx2 ON A (Col2)",
+            "CREATE INDEX Idx3 ON B (Col1)",
+            "CREATE TABLE C (Id INT64) PRIMARY KEY (Id)"));
+    assertEquals(
+        "[[0], [1], [2]]",
+        plan(
+            5,
+            "CREATE INDEX Idx1 ON A (Col1)",
+            "CREATE INDEX Idx2 ON A (Col2)",
+            "CREATE INDEX Idx3 ON B (Col1)"));
+  }
+
+  @Test
+  public void testStagesWithOneOperationAreMerged() {
+    // The statements depend on each other and are divided over three stages with one operation
+    // each. These stages are merged into one operation.
+    assertEquals(
+        "[[0, 1, 2, 3]]",
+        plan(
+            4,
+            "CREATE TABLE A (Id INT64) PRIMARY KEY (Id)",
+            "ALTER TABLE A ADD COLUMN Value STRING(MAX)",
+            "CREATE INDEX Idx ON A (Value)",
+            "CREATE TABLE B (Id INT64) PRIMARY KEY (Id), INTERLEAVE IN PARENT A"));
+  }
+
+  @Test
+  public void testUnknownStatementsAreBarriers() {
+    assertEquals(
+        "[[0], [1]], [[2]], [[3, 4], [5]]",
+        plan(
+            4,
+            "CREATE INDEX Idx1 ON A (Col1)",
+            "CREATE INDEX Idx2 ON B (Col1)",
+            "DROP INDEX Idx0",
+            "CREATE TABLE C (Id INT64) PRIMARY KEY (Id)",
+            "CREATE INDEX Idx3 ON A (Col1)",
+            "CREATE INDEX Idx4 ON B (Col1)"));
+  }
+}
@@ -20,6 +20,7 @@ import static com.google.cloud.spanner.SpannerApiFutures.get;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -540,6 +541,86 @@ public class DdlBatchTest {
     }
   }
 
+  @Test
+  public void testRunPlannedBatch() {
+    DdlClient client = createDefaultMockDdlClient();
+    DdlBatch batch =
+        DdlBatch.newBuilder()
+            .withStatementExecutor(new StatementExecutor())
+            .setDdlClient(client)
+            .setDatabaseClient(mock(DatabaseClient.class))
+            .setSpan(Span.getInvalid())
+            .setMaxParallelDdlOperations(2)
+            .build();
+    List<String> statements =
+        Arrays.asList(
+            "CREATE TABLE A (Id INT64) PRIMARY KEY (Id)",
+            "CREATE TABLE B (Id INT64) PRIMARY KEY (Id)",
+            "CREATE INDEX IdxA ON A (Id)",
+            "CREATE INDEX IdxB ON B (Id)");
+    for (String statement : statements) {
+      batch.executeDdlAsync(
+          CallType.SYNC,
+          AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL)
+              .parse(Statement.of(statement)));
+    }
+    long[] updateCounts = get(batch.runBatchAsync(CallType.SYNC));
+    assertArrayEquals(new long[] {1L, 1L, 1L, 1L}, updateCounts);
+    assertEquals(UnitOfWorkState.RAN, batch.getState());
+    verify(client).executeDdl(statements.subList(0, 2), null);
+    verify(client).executeDdl(statements.subList(2, 3), null);
+    verify(client).executeDdl(statements.subList(3, 4), null);
+  }
+
+  @Test
+  public void testRunPlannedBatchFailure() {
+    DdlClient client = mock(DdlClient.class);
+    @SuppressWarnings("unchecked")
+    OperationFuture<Void, UpdateDatabaseDdlMetadata> successful = mock(OperationFuture.class);
+    when(successful.getMetadata())
+        .thenReturn(ApiFutures.immediateFuture(UpdateDatabaseDdlMetadata.getDefaultInstance()));
+    @SuppressWarnings("unchecked")
+    OperationFuture<Void, UpdateDatabaseDdlMetadata> failed = mock(OperationFuture.class);
+    try {
+      when(failed.get())
+          .thenThrow(
+              new ExecutionException(
+                  "ddl statement failed", Status.INVALID_ARGUMENT.asRuntimeException()));
+    } catch (Exception e) {
+      throw new RuntimeException(e);
+    }
+    when(failed.getMetadata())
+        .thenReturn(
+            ApiFutures.immediateFuture(
+                UpdateDatabaseDdlMetadata.newBuilder().addStatements("CREATE INDEX IdxA").build()));
+    List<String> statements =
+        Arrays.asList("CREATE INDEX IdxA ON A (Id)", "CREATE INDEX IdxB ON B (Id)", "DROP TABLE C");
+    when(client.executeDdl(statements.subList(0, 1), null)).thenReturn(failed);
+    when(client.executeDdl(statements.subList(1, 2), null)).thenReturn(successful);
+    DdlBatch batch =
+        DdlBatch.newBuilder()
+            .withStatementExecutor(new StatementExecutor())
+            .setDdlClient(client)
+            .setDatabaseClient(mock(DatabaseClient.class))
+            .setSpan(Span.getInvalid())
+            .setMaxParallelDdlOperations(2)
+            .build();
+    for (String statement : statements) {
+      batch.executeDdlAsync(
+          CallType.SYNC,
+          AbstractStatementParser.getInstance(Dialect.GOOGLE_STANDARD_SQL)
+              .parse(Statement.of(statement)));
+    }
+    SpannerBatchUpdateException exception =
+        assertThrows(
+            SpannerBatchUpdateException.class, () -> get(batch.runBatchAsync(CallType.SYNC)));
+    assertEquals(ErrorCode.INVALID_ARGUMENT, exception.getErrorCode());
+    // The second index was created, and the DROP TABLE statement was not executed.
+    assertArrayEquals(new long[] {0L, 1L, 0L}, exception.getUpdateCounts());
+    assertEquals(UnitOfWorkState.RUN_FAILED, batch.getState());
+    verify(client, never()).executeDdl(statements.subList(2, 3), null);
+  }
+
   @Test
   public void testAbort() {
     DdlClient client = createDefaultMockDdlClient();
@@ -180,6 +180,39 @@ public class StatementParserTest {
     }
   }
 
+  @Test
+  public void testFingerprint() {
+    assertEquals("", parser.fingerprint(""));
+    assertEquals("SELECT * FROM FOO", parser.fingerprint("SELECT * FROM FOO"));
+    assertEquals(
+        "SELECT * FROM FOO WHERE id=? AND name=?",
+        parser.fingerprint(
+            "-- comment\nSELECT *\n  FROM FOO  WHERE id=1 /* comment */ AND name='test'  "));
+    assertEquals(
+        parser.fingerprint("SELECT * FROM FOO WHERE id=1 AND value=1.5e-3"),
+        parser.fingerprint("SELECT  * FROM FOO WHERE id=200 AND value=.25"));
+    assertEquals(
+        "SELECT col1, ? FROM FOO WHERE id=-?",
+        parser.fingerprint("SELECT col1, 0x1F FROM FOO WHERE id=-2"));
+    assertEquals(
+        "SELECT * FROM t1 WHERE col2=" + parser.getQueryParameterPrefix() + "1",
+        parser.fingerprint(
+            "SELECT * FROM t1 WHERE col2=" + parser.getQueryParameterPrefix() + "1"));
+
+    if (dialect == Dialect.POSTGRESQL) {
+      assertEquals(
+          "SELECT \"Col 1\" FROM \"Foo\" WHERE name=? AND description=?",
+          parser.fingerprint(
+              "SELECT \"Col 1\" FROM \"Foo\" WHERE name=e'test' AND description=$tag$test$tag$"));
+    } else {
+      assertEquals(
+          "SELECT `Col 1` FROM `Foo` WHERE name=? AND data=? AND description=?",
+          parser.fingerprint(
+              "SELECT `Col 1` FROM `Foo` WHERE name=\"test\" AND data=b'test' AND"
+                  + " description=r'''test'''"));
+    }
+  }
+
   @Test
   public void testGoogleStandardSQLRemoveCommentsGsql() {
     assumeTrue(dialect == Dialect.GOOGLE_STANDARD_SQL);
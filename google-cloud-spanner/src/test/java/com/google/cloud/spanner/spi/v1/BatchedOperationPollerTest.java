@@ -0,0 +1,353 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.spi.v1;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.spanner.ErrorCode;
+import com.google.cloud.spanner.SpannerException;
+import com.google.cloud.spanner.SpannerExceptionFactory;
+import com.google.cloud.spanner.spi.v1.BatchedOperationPoller.OperationType;
+import com.google.cloud.spanner.spi.v1.BatchedOperationPoller.OperationsClient;
+import com.google.cloud.spanner.spi.v1.BatchedOperationPoller.TrackedOperation;
+import com.google.cloud.spanner.spi.v1.SpannerRpc.Paginated;
+import com.google.longrunning.Operation;
+import com.google.protobuf.Timestamp;
+import com.google.spanner.admin.database.v1.OperationProgress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class BatchedOperationPollerTest {
+  private static final String INSTANCE = "projects/p/instances/i";
+
+  /** Returns all operations in {@link #operations} that are selected by the filter. */
+  private final class FakeOperationsClient implements OperationsClient {
+    final List<String> filters = Collections.synchronizedList(new ArrayList<>());
+    final AtomicInteger getOperationCount = new AtomicInteger();
+    final List<String> getOperationNames = Collections.synchronizedList(new ArrayList<>());
+    /** Operations that are not returned by the list request. */
+    final Set<String> unlisted = ConcurrentHashMap.newKeySet();
+
+    volatile boolean supportsFilter = true;
+    volatile SpannerException listException;
+    /** Returns the exception for the n-th GetOperation call, or null if the call succeeds. */
+    volatile IntFunction<SpannerException> getFailure = call -> null;
+
+    @Override
+    public Paginated<Operation> listOperations(
+        OperationType type, String instanceName, String filter, String pageToken) {
+      filters.add(filter);
+      if (listException != null) {
+        throw listException;
+      }
+      List<Operation> result = new ArrayList<>();
+      if (supportsFilter) {
+        for (Operation operation : operations.values()) {
+          if (filter.contains("(name:" + operation.getName() + ")")
+              && !unlisted.contains(operation.getName())) {
+            result.add(operation);
+          }
+        }
+      }
+      return new Paginated<>(result, null);
+    }
+
+    @Override
+    public Operation getOperation(String name) {
+      getOperationNames.add(name);
+      SpannerException failure = getFailure.apply(getOperationCount.incrementAndGet());
+      if (failure != null) {
+        throw failure;
+      }
+      Operation operation = operations.get(name);
+      if (operation == null) {
+        throw SpannerExceptionFactory.newSpannerException(ErrorCode.NOT_FOUND, "not found");
+      }
+      return operation;
+    }
+  }
+
+  private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+  private ScheduledExecutorService executor;
+  private FakeOperationsClient client;
+  private BatchedOperationPoller poller;
+
+  @Before
+  public void setUp() {
+    executor = Executors.newSingleThreadScheduledExecutor();
+    client = new FakeOperationsClient();
+    poller =
+        new BatchedOperationPoller(client, executor, Duration.ofMillis(1L), Duration.ofMillis(20L));
+  }
+
+  @After
+  public void tearDown() {
+    poller.shutdown();
+    executor.shutdown();
+  }
+
+  private TrackedOperation track(String name) {
+    Operation operation = Operation.newBuilder().setName(name).build();
+    operations.put(name, operation);
+    return poller.track(
+        OperationType.BACKUP, INSTANCE, ApiFutures.immediateFuture(operation), op -> null);
+  }
+
+  private void finish(String name) {
+    operations.put(name, Operation.newBuilder().setName(name).setDone(true).build());
+  }
+
+  @Test
+  public void testPollsOperationsOfSameInstanceInOneRequest() throws Exception {
+    List<TrackedOperation> tracked = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      tracked.add(track(INSTANCE + "/backups/b" + i + "/operations/" + i));
+    }
+    assertEquals(3, poller.getNumTrackedOperations());
+    for (int i = 0; i < 3; i++) {
+      finish(INSTANCE + "/backups/b" + i + "/operations/" + i);
+    }
+    for (TrackedOperation operation : tracked) {
+      assertTrue(operation.get(10L, TimeUnit.SECONDS).isDone());
+    }
+    assertEquals(0, poller.getNumTrackedOperations());
+    assertEquals(0, client.getOperationCount.get());
+    assertTrue(
+        client.filters.stream()
+            .anyMatch(
+                filter ->
+                    filter.equals(
+                        String.format(
+                            "(name:%1$s/backups/b0/operations/0) OR "
+                                + "(name:%1$s/backups/b1/operations/1) OR "
+                                + "(name:%1$s/backups/b2/operations/2)",
+                            INSTANCE))));
+  }
+
+  @Test
+  public void testFallsBackToGetOperation() throws Exception {
+    client.supportsFilter = false;
+    String name = INSTANCE + "/backups/b/operations/1";
+    TrackedOperation operation = track(name);
+    finish(name);
+    assertTrue(operation.get(10L, TimeUnit.SECONDS).isDone());
+    assertTrue(client.getOperationCount.get() > 0);
+  }
+
+  @Test
+  public void testGetOperationOnlyForOperationsNotInList() throws Exception {
+    String listed = INSTANCE + "/backups/b1/operations/1";
+    String unlisted = INSTANCE + "/backups/b2/operations/2";
+    client.unlisted.add(unlisted);
+    TrackedOperation listedOperation = track(listed);
+    TrackedOperation unlistedOperation = track(unlisted);
+    finish(listed);
+    finish(unlisted);
+    assertTrue(listedOperation.get(10L, TimeUnit.SECONDS).isDone());
+    assertTrue(unlistedOperation.get(10L, TimeUnit.SECONDS).isDone());
+    assertFalse(client.getOperationNames.isEmpty());
+    synchronized (client.getOperationNames) {
+      for (String name : client.getOperationNames) {
+        assertEquals(unlisted, name);
+      }
+    }
+  }
+
+  @Test
+  public void testFailsOperationThatIsNotFound() {
+    client.supportsFilter = false;
+    String name = INSTANCE + "/backups/b/operations/1";
+    TrackedOperation operation = track(name);
+    operations.remove(name);
+    ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> operation.get(10L, TimeUnit.SECONDS));
+    assertEquals(ErrorCode.NOT_FOUND, ((SpannerException) exception.getCause()).getErrorCode());
+  }
+
+  @Test
+  public void testFailsOperationsInBatchWhenListReturnsNotFound() {
+    client.listException =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.NOT_FOUND, "instance not found");
+    TrackedOperation operation1 = track(INSTANCE + "/backups/b1/operations/1");
+    TrackedOperation operation2 = track(INSTANCE + "/backups/b2/operations/2");
+    for (TrackedOperation operation : new TrackedOperation[] {operation1, operation2}) {
+      ExecutionException exception =
+          assertThrows(ExecutionException.class, () -> operation.get(10L, TimeUnit.SECONDS));
+      assertEquals(ErrorCode.NOT_FOUND, ((SpannerException) exception.getCause()).getErrorCode());
+    }
+    assertEquals(0, poller.getNumTrackedOperations());
+    assertEquals(0, client.getOperationCount.get());
+  }
+
+  @Test
+  public void testFailsOperationAfterConsecutiveFailures() {
+    client.listException =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.RESOURCE_EXHAUSTED, "quota");
+    TrackedOperation operation = track(INSTANCE + "/backups/b/operations/1");
+    ExecutionException exception =
+        assertThrows(ExecutionException.class, () -> operation.get(10L, TimeUnit.SECONDS));
+    assertEquals(
+        ErrorCode.RESOURCE_EXHAUSTED, ((SpannerException) exception.getCause()).getErrorCode());
+    assertEquals(BatchedOperationPoller.MAX_CONSECUTIVE_FAILURES, client.filters.size());
+  }
+
+  @Test
+  public void testSuccessfulPollResetsConsecutiveFailures() throws Exception {
+    int maxFailures = BatchedOperationPoller.MAX_CONSECUTIVE_FAILURES;
+    SpannerException unavailable =
+        SpannerExceptionFactory.newSpannerException(ErrorCode.UNAVAILABLE, "unavailable");
+    client.supportsFilter = false;
+    String name = INSTANCE + "/backups/b/operations/1";
+    // Fail all GetOperation calls except one in the middle, which means that the operation is
+    // polled unsuccessfully more than MAX_CONSECUTIVE_FAILURES times, but never consecutively.
+    client.getFailure =
+        call -> {
+          if (call == 2 * maxFailures - 1) {
+            finish(name);
+          }
+          return call == maxFailures || call >= 2 * maxFailures ? null : unavailable;
+        };
+    TrackedOperation operation = track(name);
+    assertTrue(operation.get(10L, TimeUnit.SECONDS).isDone());
+    assertEquals(2 * maxFailures, client.getOperationCount.get());
+  }
+
+  @Test
+  public void testSetAttemptFutureIsIgnored() throws Exception {
+    String name = INSTANCE + "/backups/b/operations/1";
+    TrackedOperation operation = track(name);
+    operation.setAttemptFuture(
+        ApiFutures.immediateFailedFuture(new IllegalStateException("ignored")));
+    assertEquals(name, operation.peekAttemptResult().get().getName());
+    finish(name);
+    assertTrue(operation.get(10L, TimeUnit.SECONDS).isDone());
+  }
+
+  @Test
+  public void testOperationThatIsDoneIsNotTracked() throws Exception {
+    String name = INSTANCE + "/backups/b/operations/1";
+    TrackedOperation operation =
+        poller.track(
+            OperationType.BACKUP,
+            INSTANCE,
+            ApiFutures.immediateFuture(Operation.newBuilder().setName(name).setDone(true).build()),
+            op -> null);
+    assertTrue(operation.isDone());
+    assertTrue(operation.get().isDone());
+    assertEquals(name, operation.getInitialFuture().get().getName());
+    assertEquals(0, poller.getNumTrackedOperations());
+  }
+
+  @Test
+  public void testFailedInitialCall() {
+    SettableApiFuture<Operation> initialOperation = SettableApiFuture.create();
+    TrackedOperation operation =
+        poller.track(OperationType.BACKUP, INSTANCE, initialOperation, op -> null);
+    initialOperation.setException(
+        SpannerExceptionFactory.newSpannerException(ErrorCode.ALREADY_EXISTS, "exists"));
+    assertTrue(operation.isDone());
+    assertThrows(ExecutionException.class, () -> operation.getInitialFuture().get());
+    assertEquals(0, poller.getNumTrackedOperations());
+  }
+
+  @Test
+  public void testCancelStopsTracking() {
+    TrackedOperation operation = track(INSTANCE + "/backups/b/operations/1");
+    assertEquals(1, poller.getNumTrackedOperations());
+    assertTrue(operation.cancel(false));
+    assertEquals(0, poller.getNumTrackedOperations());
+    assertTrue(operation.isCancelled());
+  }
+
+  @Test
+  public void testCalculatePollDelay() {
+    BatchedOperationPoller poller =
+        new BatchedOperationPoller(
+            client, executor, Duration.ofSeconds(1L), Duration.ofSeconds(45L));
+    long now = TimeUnit.SECONDS.toMillis(1000L);
+    Timestamp startTime = Timestamp.newBuilder().setSeconds(1000L - 20L).build();
+
+    // 20 seconds for 50% means 20 seconds remaining, so the next poll is after 10 seconds.
+    assertEquals(
+        Duration.ofSeconds(10L),
+        poller.calculatePollDelay(
+            OperationProgress.newBuilder().setStartTime(startTime).setProgressPercent(50).build(),
+            Duration.ofSeconds(1L),
+            now));
+    // Operations that are almost done are polled with the minimum delay.
+    assertEquals(
+        Duration.ofSeconds(1L),
+        poller.calculatePollDelay(
+            OperationProgress.newBuilder().setStartTime(startTime).setProgressPercent(99).build(),
+            Duration.ofSeconds(30L),
+            now));
+    // Operations that have just started are polled with the maximum delay.
+    assertEquals(
+        Duration.ofSeconds(45L),
+        poller.calculatePollDelay(
+            OperationProgress.newBuilder().setStartTime(startTime).setProgressPercent(1).build(),
+            Duration.ofSeconds(1L),
+            now));
+    // Operations without progress use an exponential backoff.
+    assertEquals(
+        Duration.ofSeconds(3L), poller.calculatePollDelay(null, Duration.ofSeconds(2L), now));
+    assertEquals(
+        Duration.ofSeconds(45L), poller.calculatePollDelay(null, Duration.ofSeconds(40L), now));
+    // Progress without a start time, or with 0% or 100% progress, cannot be used for an estimate.
+    for (OperationProgress progress :
+        new OperationProgress[] {
+          OperationProgress.newBuilder().setProgressPercent(50).build(),
+          OperationProgress.newBuilder().setStartTime(startTime).setProgressPercent(0).build(),
+          OperationProgress.newBuilder().setStartTime(startTime).setProgressPercent(100).build()
+        }) {
+      assertEquals(
+          Duration.ofSeconds(3L), poller.calculatePollDelay(progress, Duration.ofSeconds(2L), now));
+    }
+    // A start time in the future is handled as if the operation just started.
+    assertEquals(
+        Duration.ofSeconds(1L),
+        poller.calculatePollDelay(
+            OperationProgress.newBuilder()
+                .setStartTime(Timestamp.newBuilder().setSeconds(2000L))
+                .setProgressPercent(50)
+                .build(),
+            Duration.ofSeconds(10L),
+            now));
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.spi.v1;
+
+import static com.google.api.gax.grpc.GrpcCallContext.TRACER_KEY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.cloud.spanner.BuiltInMetricsConstant;
+import com.google.cloud.spanner.CompositeTracer;
+import com.google.cloud.spanner.SpannerRpcMetrics;
+import com.google.spanner.v1.SpannerGrpc;
+import io.grpc.Attributes;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.Grpc;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.opentelemetry.api.OpenTelemetry;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(JUnit4.class)
+public class HeaderInterceptorTest {
+  private static final Metadata.Key<String> RESOURCE_PREFIX_KEY =
+      Metadata.Key.of("google-cloud-resource-prefix", Metadata.ASCII_STRING_MARSHALLER);
+  private static final String DATABASE1 = "projects/p/instances/i/databases/d1";
+  private static final String DATABASE2 = "projects/p/instances/i/databases/d2";
+  private static final SocketAddress DIRECT_PATH_ADDRESS =
+      new InetSocketAddress(BuiltInMetricsConstant.DP_IPV4_PREFIX + ".0.1", 443);
+  private static final SocketAddress CLOUD_PATH_ADDRESS = new InetSocketAddress("10.0.0.1", 443);
+
+  /** A channel that only records the listener of the last call that was started. */
+  private static final class FakeChannel extends Channel {
+    private final SocketAddress remoteAddress;
+    private ClientCall.Listener<?> listener;
+
+    private FakeChannel(SocketAddress remoteAddress) {
+      this.remoteAddress = remoteAddress;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(
+        MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+      return new ClientCall<ReqT, RespT>() {
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+          listener = responseListener;
+        }
+
+        @Override
+        public void request(int numMessages) {}
+
+        @Override
+        public void cancel(@Nullable String message, @Nullable Throwable cause) {}
+
+        @Override
+        public void halfClose() {}
+
+        @Override
+        public void sendMessage(ReqT message) {}
+
+        @Override
+        public Attributes getAttributes() {
+          return Attributes.newBuilder()
+              .set(Grpc.TRANSPORT_ATTR_REMOTE_ADDR, remoteAddress)
+              .build();
+        }
+      };
+    }
+
+    @Override
+    public String authority() {
+      return "localhost";
+    }
+  }
+
+  private HeaderInterceptor interceptor;
+
+  @Before
+  public void setUp() {
+    interceptor = new HeaderInterceptor(new SpannerRpcMetrics(OpenTelemetry.noop()), () -> true);
+  }
+
+  /**
+   * Executes a call that receives headers from the given address, and returns the built-in metric
+   * attributes that the interceptor added to the tracer of the call.
+   */
+  @SuppressWarnings("unchecked")
+  private Map<String, String> executeCall(
+      MethodDescriptor<?, ?> method, @Nullable String database, SocketAddress remoteAddress) {
+    CompositeTracer tracer = mock(CompositeTracer.class);
+    FakeChannel channel = new FakeChannel(remoteAddress);
+    ClientCall<?, ?> call =
+        interceptor.interceptCall(
+            method, CallOptions.DEFAULT.withOption(TRACER_KEY, tracer), channel);
+    Metadata headers = new Metadata();
+    if (database != null) {
+      headers.put(RESOURCE_PREFIX_KEY, database);
+    }
+    call.start(new ClientCall.Listener() {}, headers);
+    channel.listener.onHeaders(new Metadata());
+
+    ArgumentCaptor<Map> attributes = ArgumentCaptor.forClass(Map.class);
+    verify(tracer).addAttributes(attributes.capture());
+    return (Map<String, String>) attributes.getValue();
+  }
+
+  @Test
+  public void testDirectPathUsed() {
+    Map<String, String> directPath =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, DIRECT_PATH_ADDRESS);
+    Map<String, String> cloudPath =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, CLOUD_PATH_ADDRESS);
+
+    assertEquals("true", directPath.get(BuiltInMetricsConstant.DIRECT_PATH_USED_KEY.getKey()));
+    assertEquals("false", cloudPath.get(BuiltInMetricsConstant.DIRECT_PATH_USED_KEY.getKey()));
+    for (Map<String, String> attributes : new Map[] {directPath, cloudPath}) {
+      assertEquals("d1", attributes.get(BuiltInMetricsConstant.DATABASE_KEY.getKey()));
+      assertEquals("i", attributes.get(BuiltInMetricsConstant.INSTANCE_ID_KEY.getKey()));
+      assertEquals("true", attributes.get(BuiltInMetricsConstant.DIRECT_PATH_ENABLED_KEY.getKey()));
+    }
+
+    // Both variants are cached and reused for the next call with the same method and database.
+    assertSame(
+        directPath, executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, DIRECT_PATH_ADDRESS));
+    assertSame(
+        cloudPath, executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, CLOUD_PATH_ADDRESS));
+  }
+
+  @Test
+  public void testDistinctDatabasesDoNotShareAttributes() {
+    Map<String, String> database1 =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, CLOUD_PATH_ADDRESS);
+    Map<String, String> database2 =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE2, CLOUD_PATH_ADDRESS);
+
+    assertNotSame(database1, database2);
+    assertEquals("d1", database1.get(BuiltInMetricsConstant.DATABASE_KEY.getKey()));
+    assertEquals("d2", database2.get(BuiltInMetricsConstant.DATABASE_KEY.getKey()));
+  }
+
+  @Test
+  public void testDistinctMethodsDoNotShareAttributes() {
+    Map<String, String> executeSql =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, CLOUD_PATH_ADDRESS);
+    Map<String, String> read =
+        executeCall(SpannerGrpc.getReadMethod(), DATABASE1, CLOUD_PATH_ADDRESS);
+
+    assertNotSame(executeSql, read);
+    assertEquals(executeSql, read);
+  }
+
+  @Test
+  public void testCallWithoutDatabase() {
+    Map<String, String> withoutDatabase =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), null, CLOUD_PATH_ADDRESS);
+    Map<String, String> withDatabase =
+        executeCall(SpannerGrpc.getExecuteSqlMethod(), DATABASE1, CLOUD_PATH_ADDRESS);
+
+    assertNotSame(withoutDatabase, withDatabase);
+    assertEquals(
+        "undefined-database", withoutDatabase.get(BuiltInMetricsConstant.DATABASE_KEY.getKey()));
+    assertEquals("d1", withDatabase.get(BuiltInMetricsConstant.DATABASE_KEY.getKey()));
+  }
+}
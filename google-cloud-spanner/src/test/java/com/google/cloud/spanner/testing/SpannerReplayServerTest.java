@@ -0,0 +1,237 @@
+/*
+ * Copyright 2024 Google LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.cloud.spanner.testing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.cloud.NoCredentials;
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.DatabaseId;
+import com.google.cloud.spanner.MockSpannerServiceImpl;
+import com.google.cloud.spanner.MockSpannerServiceImpl.StatementResult;
+import com.google.cloud.spanner.ResultSet;
+import com.google.cloud.spanner.Spanner;
+import com.google.cloud.spanner.SpannerOptions;
+import com.google.cloud.spanner.Statement;
+import com.google.cloud.spanner.connection.RandomResultSetGenerator;
+import com.google.cloud.spanner.spi.v1.SpannerInterceptorProvider;
+import com.google.cloud.spanner.testing.SpannerTrafficRecording.Response;
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Value;
+import com.google.spanner.v1.ExecuteSqlRequest;
+import com.google.spanner.v1.PartialResultSet;
+import com.google.spanner.v1.ResultSetMetadata;
+import com.google.spanner.v1.ResultSetStats;
+import com.google.spanner.v1.TransactionOptions;
+import com.google.spanner.v1.TransactionSelector;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SpannerReplayServerTest {
+  private static final Statement QUERY = Statement.of("SELECT * FROM random");
+  private static final Statement UPDATE = Statement.of("UPDATE foo SET bar=1 WHERE baz=2");
+  private static final DatabaseId DATABASE_ID = DatabaseId.of("p", "i", "d");
+
+  private static SpannerTrafficRecording recording;
+  private static List<String> recordedRows;
+
+  @BeforeClass
+  public static void recordWorkload() throws Exception {
+    MockSpannerServiceImpl mockSpanner = new MockSpannerServiceImpl();
+    mockSpanner.setAbortProbability(0.0D);
+    mockSpanner.putStatementResult(
+        StatementResult.query(QUERY, new RandomResultSetGenerator(20).generate()));
+    mockSpanner.putStatementResult(StatementResult.update(UPDATE, 1L));
+    SpannerTrafficRecorder recorder = new SpannerTrafficRecorder();
+    Server server = ServerBuilder.forPort(0).addService(mockSpanner).build().start();
+    try {
+      recordedRows = runWorkload(createSpanner(server.getPort(), recorder));
+    } finally {
+      server.shutdownNow().awaitTermination();
+    }
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    recorder.getRecording().writeTo(output);
+    recording = SpannerTrafficRecording.readFrom(new ByteArrayInputStream(output.toByteArray()));
+  }
+
+  @AfterClass
+  public static void clearRecording() {
+    recording = null;
+    recordedRows = null;
+  }
+
+  private static Spanner createSpanner(int port, SpannerTrafficRecorder recorder) {
+    SpannerOptions.Builder builder =
+        SpannerOptions.newBuilder()
+            .setProjectId(DATABASE_ID.getInstanceId().getProject())
+            .setHost(String.format("http://localhost:%d", port))
+            .setChannelConfigurator(ManagedChannelBuilder::usePlaintext)
+            .setCredentials(NoCredentials.getInstance());
+    if (recorder != null) {
+      builder.setInterceptorProvider(SpannerInterceptorProvider.createDefault().with(recorder));
+    }
+    return builder.build().getService();
+  }
+
+  /** Runs a query and a read/write transaction and returns the rows that the query returned. */
+  private static List<String> runWorkload(Spanner spanner) {
+    try {
+      DatabaseClient client = spanner.getDatabaseClient(DATABASE_ID);
+      List<String> rows = new ArrayList<>();
+      try (ResultSet resultSet = client.singleUse().executeQuery(QUERY)) {
+        while (resultSet.next()) {
+          rows.add(resultSet.getCurrentRowAsStruct().toString());
+        }
+      }
+      Long updateCount =
+          client.readWriteTransaction().run(transaction -> transaction.executeUpdate(UPDATE));
+      assertEquals(Long.valueOf(1L), updateCount);
+      return rows;
+    } finally {
+      spanner.close();
+    }
+  }
+
+  private void replay(SpannerReplayServer replayServer) throws Exception {
+    try {
+      replayServer.start();
+      assertEquals(recordedRows, runWorkload(createSpanner(replayServer.getPort(), null)));
+      assertEquals(0L, replayServer.getNumUnmatchedRequests());
+    } finally {
+      replayServer.close();
+    }
+  }
+
+  @Test
+  public void testReplay() throws Exception {
+    assertFalse(recording.getExchanges().isEmpty());
+    assertEquals(20, recordedRows.size());
+    replay(SpannerReplayServer.newBuilder(recording).build());
+  }
+
+  @Test
+  public void testReplayWithSmallChunks() throws Exception {
+    replay(
+        SpannerReplayServer.newBuilder(recording)
+            .setReplayTimings(false)
+            .setMaxValuesPerPartialResultSet(3)
+            .build());
+  }
+
+  @Test
+  public void testReplayWithAborts() throws Exception {
+    replay(
+        SpannerReplayServer.newBuilder(recording)
+            .setReplayTimings(false)
+            .setAbortProbability(0.5d)
+            .setRandomSeed(1L)
+            .build());
+  }
+
+  @Test
+  public void testReplayWithMaxRequestsPerSecond() throws Exception {
+    replay(
+        SpannerReplayServer.newBuilder(recording)
+            .setReplayTimings(false)
+            .setMaxRequestsPerSecond(1000d)
+            .build());
+  }
+
+  @Test
+  public void testNormalize() {
+    ExecuteSqlRequest request =
+        ExecuteSqlRequest.newBuilder()
+            .setSession("projects/p/instances/i/databases/d/sessions/s1")
+            .setSql("SELECT 1")
+            .setSeqno(5L)
+            .setTransaction(
+                TransactionSelector.newBuilder()
+                    .setId(com.google.protobuf.ByteString.copyFromUtf8("tx1")))
+            .build();
+    ExecuteSqlRequest other =
+        request
+            .toBuilder()
+            .setSession("projects/p/instances/i/databases/d/sessions/s2")
+            .setSeqno(6L)
+            .setTransaction(
+                TransactionSelector.newBuilder()
+                    .setId(com.google.protobuf.ByteString.copyFromUtf8("tx2")))
+            .build();
+    ExecuteSqlRequest begin =
+        request
+            .toBuilder()
+            .setTransaction(
+                TransactionSelector.newBuilder()
+                    .setBegin(
+                        TransactionOptions.newBuilder()
+                            .setReadWrite(TransactionOptions.ReadWrite.getDefaultInstance())))
+            .build();
+
+    assertEquals(SpannerReplayServer.normalize(request), SpannerReplayServer.normalize(other));
+    assertFalse(
+        SpannerReplayServer.normalize(request).equals(SpannerReplayServer.normalize(begin)));
+    assertEquals("SELECT 1", ((ExecuteSqlRequest) SpannerReplayServer.normalize(request)).getSql());
+  }
+
+  @Test
+  public void testRechunk() throws Exception {
+    PartialResultSet.Builder builder =
+        PartialResultSet.newBuilder()
+            .setMetadata(ResultSetMetadata.getDefaultInstance())
+            .setResumeToken(com.google.protobuf.ByteString.copyFromUtf8("token"))
+            .setStats(ResultSetStats.newBuilder().setRowCountExact(5L))
+            .setChunkedValue(true);
+    for (int i = 0; i < 5; i++) {
+      builder.addValues(Value.newBuilder().setStringValue(String.valueOf(i)));
+    }
+    List<Response> responses =
+        SpannerReplayServer.rechunk(
+            ImmutableList.of(new Response(100L, builder.build().toByteString())), 2);
+
+    assertEquals(3, responses.size());
+    assertEquals(100L, responses.get(0).getDelayNanos());
+    List<PartialResultSet> resultSets = new ArrayList<>();
+    ListValue.Builder values = ListValue.newBuilder();
+    for (Response response : responses) {
+      PartialResultSet resultSet = PartialResultSet.parseFrom(response.getMessage());
+      resultSets.add(resultSet);
+      values.addAllValues(resultSet.getValuesList());
+    }
+    assertEquals(builder.getValuesList(), values.getValuesList());
+    assertTrue(resultSets.get(0).hasMetadata());
+    assertFalse(resultSets.get(0).getChunkedValue());
+    assertFalse(resultSets.get(1).hasMetadata());
+    assertTrue(resultSets.get(1).getResumeToken().isEmpty());
+    assertEquals("token", resultSets.get(2).getResumeToken().toStringUtf8());
+    assertTrue(resultSets.get(2).hasStats());
+    assertTrue(resultSets.get(2).getChunkedValue());
+  }
+}